@@ -77,6 +77,7 @@ public class CLabel extends Canvas {
 	private int[] gradientPercents;
 	private boolean gradientVertical;
 	private Color background;
+	private TextTruncator truncator;
 
 	private static int DRAW_FLAGS = SWT.DRAW_MNEMONIC | SWT.DRAW_TAB | SWT.DRAW_TRANSPARENT | SWT.DRAW_DELIMITER;
 
@@ -396,6 +397,7 @@ void onDispose(Event event) {
 	text = null;
 	image = null;
 	appToolTipText = null;
+	truncator = null;
 }
 void onMnemonic(TraverseEvent event) {
 	char mnemonic = _findMnemonic(text);
@@ -974,39 +976,8 @@ public void setTopMargin(int topMargin) {
  */
 protected String shortenText(GC gc, String t, int width) {
 	if (t == null) return null;
-	int w = gc.textExtent(ELLIPSIS, DRAW_FLAGS).x;
-	if (width<=w) return t;
-	int l = t.length();
-	int max = l/2;
-	int min = 0;
-	int mid = (max+min)/2 - 1;
-	if (mid <= 0) return t;
-	TextLayout layout = new TextLayout (getDisplay());
-	layout.setText(t);
-	mid = validateOffset(layout, mid);
-	while (min < mid && mid < max) {
-		String s1 = t.substring(0, mid);
-		String s2 = t.substring(validateOffset(layout, l-mid), l);
-		int l1 = gc.textExtent(s1, DRAW_FLAGS).x;
-		int l2 = gc.textExtent(s2, DRAW_FLAGS).x;
-		if (l1+w+l2 > width) {
-			max = mid;
-			mid = validateOffset(layout, (max+min)/2);
-		} else if (l1+w+l2 < width) {
-			min = mid;
-			mid = validateOffset(layout, (max+min)/2);
-		} else {
-			min = max;
-		}
-	}
-	String result = mid == 0 ? t : t.substring(0, mid) + ELLIPSIS + t.substring(validateOffset(layout, l-mid), l);
-	layout.dispose();
-	return result;
-}
-int validateOffset(TextLayout layout, int offset) {
-	int nextOffset = layout.getNextOffset(offset, SWT.MOVEMENT_CLUSTER);
-	if (nextOffset != offset) return layout.getPreviousOffset(nextOffset, SWT.MOVEMENT_CLUSTER);
-	return offset;
+	if (truncator == null) truncator = new TextTruncator();
+	return truncator.shortenMiddle(gc, t, width, ELLIPSIS, DRAW_FLAGS);
 }
 private String[] splitString(String text) {
 	String[] lines = new String[1];
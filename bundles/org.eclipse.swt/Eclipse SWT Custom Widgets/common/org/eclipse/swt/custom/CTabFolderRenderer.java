@@ -38,6 +38,7 @@ public class CTabFolderRenderer {
 	int lastTabHeight = -1;
 
 	Color fillColor;
+	TextTruncator truncator;
 	/* Selected item appearance */
 	Color selectionHighlightGradientBegin = null;  //null == no highlight
 	//Although we are given new colours all the time to show different states (active, etc),
@@ -570,6 +571,7 @@ public class CTabFolderRenderer {
 		disposeSelectionHighlightGradientColors();
 
 		fillColor = null;
+		truncator = null;
 
 		if (chevronFont != null) {
 			chevronFont.dispose();
@@ -1773,22 +1775,8 @@ public class CTabFolderRenderer {
 	}
 
 	String shortenText(GC gc, String text, int width, String ellipses) {
-		if (gc.textExtent(text, FLAGS).x <= width) return text;
-		int ellipseWidth = gc.textExtent(ellipses, FLAGS).x;
-		int length = text.length();
-		TextLayout layout = new TextLayout(parent.getDisplay());
-		layout.setText(text);
-		int end = layout.getPreviousOffset(length, SWT.MOVEMENT_CLUSTER);
-		while (end > 0) {
-			text = text.substring(0, end);
-			int l = gc.textExtent(text, FLAGS).x;
-			if (l + ellipseWidth <= width) {
-				break;
-			}
-			end = layout.getPreviousOffset(end, SWT.MOVEMENT_CLUSTER);
-		}
-		layout.dispose();
-		return end == 0 ? text.substring(0, 1) : text + ellipses;
+		if (truncator == null) truncator = new TextTruncator();
+		return truncator.shortenEnd(gc, text, width, ellipses, FLAGS);
 	}
 
 	void updateCurves () {
@@ -0,0 +1,1041 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.events.*;
+import org.eclipse.swt.graphics.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * A CTable is a lightweight, owner-drawn table for very large numbers
+ * of rows. It has no items: rows and columns are identified by their
+ * index, the contents of the cells are painted by the application, and
+ * the table only keeps the number of rows, the widths of the columns
+ * and the selection.
+ * <p>
+ * Cells are painted with the <code>SWT.MeasureItem</code>,
+ * <code>SWT.EraseItem</code> and <code>SWT.PaintItem</code> events that
+ * owner-drawn tables use, except that <code>item</code> is
+ * <code>null</code>: the index of the row is in the <code>start</code>
+ * field of the event and the index of the column in <code>index</code>.
+ * Only the cells that are visible are measured and painted, all with
+ * the graphics context of the paint event, so the cost of painting does
+ * not depend on the number of rows or columns. All rows have the same
+ * height, which grows when a <code>SWT.MeasureItem</code> listener asks
+ * for more.
+ * </p><p>
+ * The index of the row is also in the <code>start</code> field of the
+ * selection events.
+ * </p>
+ * <dl>
+ * <dt><b>Styles:</b></dt>
+ * <dd>SINGLE, MULTI, BORDER</dd>
+ * <dt><b>Events:</b></dt>
+ * <dd>Selection, DefaultSelection, MeasureItem, EraseItem, PaintItem</dd>
+ * </dl>
+ * <p>
+ * Note: Only one of the styles SINGLE, and MULTI may be specified.
+ * </p>
+ *
+ * @see Table
+ * @see <a href="http://www.eclipse.org/swt/">Sample code and further information</a>
+ * @since 3.126
+ */
+public class CTable extends Canvas {
+	int itemCount, itemHeight, topIndex, horizontalOffset;
+	int focusIndex = -1, anchorIndex = -1;
+	boolean customItemHeight;
+	int[] columnWidths = new int[0];
+	BitSet selection = new BitSet();
+	Listener listener;
+
+	static final int MARGIN = 2;
+	static final int DEFAULT_WIDTH = 64;
+	static final int DEFAULT_HEIGHT = 64;
+
+/**
+ * Constructs a new instance of this class given its parent
+ * and a style value describing its behavior and appearance.
+ * <p>
+ * The style value is either one of the style constants defined in
+ * class <code>SWT</code> which is applicable to instances of this
+ * class, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>SWT</code> style constants. The class description
+ * lists the style constants that are applicable to the class.
+ * Style bits are also inherited from superclasses.
+ * </p>
+ *
+ * @param parent a composite control which will be the parent of the new instance (cannot be null)
+ * @param style the style of control to construct
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the parent is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ *    <li>ERROR_INVALID_SUBCLASS - if this class is not an allowed subclass</li>
+ * </ul>
+ *
+ * @see SWT#SINGLE
+ * @see SWT#MULTI
+ * @see SWT#BORDER
+ * @see Widget#checkSubclass()
+ * @see Widget#getStyle()
+ */
+public CTable(Composite parent, int style) {
+	super(parent, checkStyle(style));
+	Display display = getDisplay();
+	super.setBackground(display.getSystemColor(SWT.COLOR_LIST_BACKGROUND));
+	super.setForeground(display.getSystemColor(SWT.COLOR_LIST_FOREGROUND));
+	itemHeight = defaultItemHeight();
+
+	listener = event -> {
+		switch (event.type) {
+			case SWT.Paint :
+				onPaint(event);
+				break;
+			case SWT.Resize :
+				updateScrollBars();
+				break;
+			case SWT.MouseDown :
+				onMouseDown(event);
+				break;
+			case SWT.MouseDoubleClick :
+				onMouseDoubleClick(event);
+				break;
+			case SWT.KeyDown :
+				onKeyDown(event);
+				break;
+			case SWT.FocusIn :
+			case SWT.FocusOut :
+				if (focusIndex != -1) redrawRow(focusIndex);
+				break;
+			case SWT.Traverse : {
+				switch (event.detail) {
+					case SWT.TRAVERSE_ARROW_NEXT :
+					case SWT.TRAVERSE_ARROW_PREVIOUS :
+					case SWT.TRAVERSE_RETURN :
+						event.doit = false;
+						break;
+					default :
+						event.doit = true;
+				}
+				break;
+			}
+		}
+	};
+	int[] events = new int[] {SWT.Paint, SWT.Resize, SWT.MouseDown, SWT.MouseDoubleClick, SWT.KeyDown, SWT.FocusIn, SWT.FocusOut, SWT.Traverse};
+	for (int event : events) {
+		addListener(event, listener);
+	}
+	ScrollBar verticalBar = getVerticalBar();
+	if (verticalBar != null) {
+		verticalBar.addListener(SWT.Selection, event -> scrollVertical(verticalBar.getSelection()));
+	}
+	ScrollBar horizontalBar = getHorizontalBar();
+	if (horizontalBar != null) {
+		horizontalBar.addListener(SWT.Selection, event -> scrollHorizontal(horizontalBar.getSelection()));
+	}
+	updateScrollBars();
+}
+
+static int checkStyle(int style) {
+	if ((style & SWT.MULTI) == 0) style |= SWT.SINGLE;
+	if ((style & SWT.MULTI) != 0) style &= ~SWT.SINGLE;
+	int mask = SWT.SINGLE | SWT.MULTI | SWT.BORDER | SWT.LEFT_TO_RIGHT | SWT.RIGHT_TO_LEFT | SWT.FLIP_TEXT_DIRECTION;
+	return (style & mask) | SWT.H_SCROLL | SWT.V_SCROLL | SWT.DOUBLE_BUFFERED | SWT.NO_BACKGROUND;
+}
+
+/**
+ * Adds the listener to the collection of listeners who will
+ * be notified when the user changes the receiver's selection, by sending
+ * it one of the messages defined in the <code>SelectionListener</code>
+ * interface.
+ * <p>
+ * <code>widgetSelected</code> is called when the selection changes.
+ * <code>widgetDefaultSelected</code> is typically called when a row is double-clicked
+ * or the user presses the return key. The <code>start</code> field of the event
+ * is the index of the row.
+ * </p>
+ *
+ * @param listener the listener which should be notified when the user changes the receiver's selection
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the listener is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see SelectionListener
+ * @see #removeSelectionListener(SelectionListener)
+ * @see SelectionEvent
+ */
+public void addSelectionListener(SelectionListener listener) {
+	checkWidget();
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	TypedListener typedListener = new TypedListener(listener);
+	addListener(SWT.Selection, typedListener);
+	addListener(SWT.DefaultSelection, typedListener);
+}
+
+/**
+ * Clears the row at the given zero-relative index in the receiver,
+ * so that it is measured and painted again.
+ *
+ * @param index the index of the row to clear
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of rows in the receiver minus 1 (inclusive)</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #clearAll()
+ */
+public void clear(int index) {
+	checkWidget();
+	if (!(0 <= index && index < itemCount)) SWT.error(SWT.ERROR_INVALID_RANGE);
+	redrawRow(index);
+}
+
+/**
+ * Clears all the rows in the receiver, so that the visible rows
+ * are measured and painted again.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #clear(int)
+ */
+public void clearAll() {
+	checkWidget();
+	redraw();
+}
+
+@Override
+public Point computeSize(int wHint, int hHint, boolean changed) {
+	checkWidget();
+	int width = 0;
+	for (int columnWidth : columnWidths) {
+		width += columnWidth;
+	}
+	int height = itemCount * itemHeight;
+	if (width == 0) width = DEFAULT_WIDTH;
+	if (height == 0) height = DEFAULT_HEIGHT;
+	if (wHint != SWT.DEFAULT) width = wHint;
+	if (hHint != SWT.DEFAULT) height = hHint;
+	Rectangle trim = computeTrim(0, 0, width, height);
+	return new Point(trim.width, trim.height);
+}
+
+int defaultItemHeight() {
+	GC gc = new GC(this);
+	int height = gc.getFontMetrics().getHeight();
+	gc.dispose();
+	return height + MARGIN * 2;
+}
+
+/**
+ * Deselects the row at the given zero-relative index in the receiver.
+ * If the row at the index was already deselected, it remains
+ * deselected. Indices that are out of range are ignored.
+ *
+ * @param index the index of the row to deselect
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void deselect(int index) {
+	checkWidget();
+	if (!(0 <= index && index < itemCount) || !selection.get(index)) return;
+	selection.clear(index);
+	redrawRow(index);
+}
+
+/**
+ * Deselects all selected rows in the receiver.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void deselectAll() {
+	checkWidget();
+	if (selection.isEmpty()) return;
+	selection.clear();
+	redraw();
+}
+
+int fullyVisibleRows() {
+	return Math.max(1, getClientArea().height / itemHeight);
+}
+
+/**
+ * Returns the number of columns contained in the receiver.
+ * If no columns were set, this value is zero, and the
+ * receiver has a single column as wide as its client area.
+ *
+ * @return the number of columns
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getColumnCount() {
+	checkWidget();
+	return columnWidths.length;
+}
+
+/**
+ * Returns the width of the column at the given zero-relative index.
+ *
+ * @param index the index of the column
+ * @return the width of the column
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of columns in the receiver minus 1 (inclusive)</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getColumnWidth(int index) {
+	checkWidget();
+	if (!(0 <= index && index < columnWidths.length)) SWT.error(SWT.ERROR_INVALID_RANGE);
+	return columnWidths[index];
+}
+
+/**
+ * Returns the number of rows contained in the receiver.
+ *
+ * @return the number of rows
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getItemCount() {
+	checkWidget();
+	return itemCount;
+}
+
+/**
+ * Returns the height of the area which would be used to
+ * display each row in the receiver.
+ *
+ * @return the height of one row
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getItemHeight() {
+	checkWidget();
+	return itemHeight;
+}
+
+/**
+ * Returns the zero-relative index of the row at the given point in
+ * the receiver or -1 if no such row exists. The point is in the
+ * coordinate system of the receiver.
+ *
+ * @param point the point used to locate the row
+ * @return the index of the row at the given point, or -1
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getItemIndex(Point point) {
+	checkWidget();
+	if (point == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	return rowAt(point.y);
+}
+
+/**
+ * Returns the number of selected rows contained in the receiver.
+ *
+ * @return the number of selected rows
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getSelectionCount() {
+	checkWidget();
+	return selection.cardinality();
+}
+
+/**
+ * Returns the zero-relative index of the row which is currently
+ * selected in the receiver, or -1 if no row is selected. When
+ * several rows are selected, this is the row with the focus if it
+ * is selected, and the first selected row otherwise.
+ *
+ * @return the index of the selected row
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getSelectionIndex() {
+	checkWidget();
+	if (focusIndex != -1 && selection.get(focusIndex)) return focusIndex;
+	return selection.nextSetBit(0);
+}
+
+/**
+ * Returns the zero-relative indices of the rows which are currently
+ * selected in the receiver, in ascending order. The result may be
+ * empty.
+ *
+ * @return the array of indices of the selected rows
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int[] getSelectionIndices() {
+	checkWidget();
+	return selection.stream().toArray();
+}
+
+/**
+ * Returns the zero-relative index of the row which is currently
+ * at the top of the receiver. This index can change when rows are
+ * scrolled or new rows are added or removed.
+ *
+ * @return the index of the top row
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public int getTopIndex() {
+	checkWidget();
+	return topIndex;
+}
+
+/**
+ * Returns <code>true</code> if the row is selected,
+ * and <code>false</code> otherwise. Indices out of
+ * range are never selected.
+ *
+ * @param index the index of the row
+ * @return the selection state of the row at the index
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public boolean isSelected(int index) {
+	checkWidget();
+	return 0 <= index && index < itemCount && selection.get(index);
+}
+
+int[] layoutColumns(int clientWidth) {
+	if (columnWidths.length == 0) return new int[] {Math.max(clientWidth + horizontalOffset, 0)};
+	return columnWidths;
+}
+
+/*
+* Sends a MeasureItem event for every visible cell, in the rows from first
+* to last and the columns from firstColumn up to but not including
+* lastColumn. Answers false when a listener asked for higher rows, which
+* invalidates the whole client area.
+*/
+boolean measure(GC gc, int first, int last, int firstColumn, int lastColumn, int[] widths) {
+	if (!isListening(SWT.MeasureItem)) return true;
+	int height = itemHeight;
+	for (int row = first; row <= last; row++) {
+		for (int column = firstColumn; column < lastColumn; column++) {
+			Event event = new Event();
+			event.gc = gc;
+			event.start = row;
+			event.index = column;
+			event.width = widths[column];
+			event.height = itemHeight;
+			notifyListeners(SWT.MeasureItem, event);
+			if (isDisposed()) return false;
+			height = Math.max(height, event.height);
+		}
+	}
+	if (height == itemHeight) return true;
+	itemHeight = height;
+	updateScrollBars();
+	redraw();
+	return false;
+}
+
+void notifySelection(int type, int row) {
+	Event event = new Event();
+	event.start = row;
+	notifyListeners(type, event);
+}
+
+void onKeyDown(Event event) {
+	if (itemCount == 0) return;
+	if (event.character == SWT.CR) {
+		if (focusIndex != -1) notifySelection(SWT.DefaultSelection, focusIndex);
+		return;
+	}
+	int page = Math.max(1, fullyVisibleRows() - 1);
+	int index = focusIndex == -1 ? topIndex : focusIndex;
+	switch (event.keyCode) {
+		case SWT.ARROW_UP : index--; break;
+		case SWT.ARROW_DOWN : index++; break;
+		case SWT.PAGE_UP : index -= page; break;
+		case SWT.PAGE_DOWN : index += page; break;
+		case SWT.HOME : index = 0; break;
+		case SWT.END : index = itemCount - 1; break;
+		default :
+			if (event.character == ' ' && focusIndex != -1) {
+				selectRow(focusIndex, event.stateMask | SWT.MOD1);
+			}
+			return;
+	}
+	selectRow(Math.max(0, Math.min(itemCount - 1, index)), event.stateMask);
+}
+
+void onMouseDoubleClick(Event event) {
+	if (event.button != 1) return;
+	int row = rowAt(event.y);
+	if (row != -1) notifySelection(SWT.DefaultSelection, row);
+}
+
+void onMouseDown(Event event) {
+	if (event.button != 1) return;
+	int row = rowAt(event.y);
+	if (row == -1) return;
+	setFocus();
+	selectRow(row, event.stateMask);
+}
+
+void onPaint(Event event) {
+	GC gc = event.gc;
+	Rectangle area = getClientArea();
+	Color background = getBackground(), foreground = getForeground();
+	gc.setBackground(background);
+	gc.fillRectangle(event.x, event.y, event.width, event.height);
+	if (itemCount == 0) return;
+	int first = topIndex + Math.max(0, event.y) / itemHeight;
+	int last = Math.min(itemCount - 1, topIndex + (event.y + event.height - 1) / itemHeight);
+	if (first > last) return;
+	int[] widths = layoutColumns(area.width);
+	int firstColumn = 0, x = -horizontalOffset;
+	while (firstColumn < widths.length && x + widths[firstColumn] <= event.x) {
+		x += widths[firstColumn++];
+	}
+	int lastColumn = firstColumn, right = x;
+	while (lastColumn < widths.length && right < event.x + event.width) {
+		right += widths[lastColumn++];
+	}
+	if (!measure(gc, first, last, firstColumn, lastColumn, widths)) return;
+	Display display = getDisplay();
+	Color selectionBackground = display.getSystemColor(SWT.COLOR_LIST_SELECTION);
+	Color selectionForeground = display.getSystemColor(SWT.COLOR_LIST_SELECTION_TEXT);
+	boolean focused = isFocusControl();
+	Font font = getFont();
+	for (int row = first; row <= last; row++) {
+		boolean selected = selection.get(row);
+		int y = (row - topIndex) * itemHeight;
+		int cellX = x;
+		for (int column = firstColumn; column < lastColumn; column++) {
+			int width = widths[column];
+			if (width > 0) {
+				gc.setClipping(cellX, y, width, itemHeight);
+				gc.setFont(font);
+				gc.setBackground(selected ? selectionBackground : background);
+				gc.setForeground(selected ? selectionForeground : foreground);
+				Event cell = new Event();
+				cell.gc = gc;
+				cell.start = row;
+				cell.index = column;
+				cell.x = cellX;
+				cell.y = y;
+				cell.width = width;
+				cell.height = itemHeight;
+				cell.detail = SWT.BACKGROUND | SWT.FOREGROUND;
+				if (selected) cell.detail |= SWT.SELECTED;
+				if (focused && row == focusIndex) cell.detail |= SWT.FOCUSED;
+				cell.doit = true;
+				boolean erased = isListening(SWT.EraseItem);
+				if (erased) {
+					notifyListeners(SWT.EraseItem, cell);
+					if (isDisposed()) return;
+				}
+				if (cell.doit) {
+					/* The damaged area is already filled with the background */
+					if ((cell.detail & SWT.SELECTED) != 0) {
+						gc.setBackground(selectionBackground);
+						gc.fillRectangle(cellX, y, width, itemHeight);
+					} else if (erased && (cell.detail & SWT.BACKGROUND) != 0) {
+						gc.setBackground(background);
+						gc.fillRectangle(cellX, y, width, itemHeight);
+					}
+					gc.setForeground((cell.detail & SWT.SELECTED) != 0 ? selectionForeground : foreground);
+					gc.setBackground((cell.detail & SWT.SELECTED) != 0 ? selectionBackground : background);
+					cell.x = cellX;
+					cell.y = y;
+					cell.width = width;
+					cell.height = itemHeight;
+					cell.doit = true;
+					notifyListeners(SWT.PaintItem, cell);
+					if (isDisposed()) return;
+				}
+			}
+			cellX += width;
+		}
+		if (focused && row == focusIndex) {
+			gc.setClipping((Rectangle) null);
+			gc.setForeground(foreground);
+			gc.setBackground(background);
+			gc.drawFocus(0, y, area.width, itemHeight);
+		}
+	}
+	gc.setClipping((Rectangle) null);
+}
+
+void redrawRow(int row) {
+	int y = (row - topIndex) * itemHeight;
+	Rectangle area = getClientArea();
+	if (y + itemHeight <= 0 || y >= area.height) return;
+	redraw(0, y, area.width, itemHeight, false);
+}
+
+/**
+ * Removes the listener from the collection of listeners who will
+ * be notified when the user changes the receiver's selection.
+ *
+ * @param listener the listener which should no longer be notified
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the listener is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see SelectionListener
+ * @see #addSelectionListener(SelectionListener)
+ */
+public void removeSelectionListener(SelectionListener listener) {
+	checkWidget();
+	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	removeListener(SWT.Selection, listener);
+	removeListener(SWT.DefaultSelection, listener);
+}
+
+int rowAt(int y) {
+	if (y < 0) return -1;
+	int row = topIndex + y / itemHeight;
+	return row < itemCount ? row : -1;
+}
+
+void scrollHorizontal(int offset) {
+	if (offset == horizontalOffset) return;
+	int delta = horizontalOffset - offset;
+	horizontalOffset = offset;
+	Rectangle area = getClientArea();
+	if (columnWidths.length != 0 && Math.abs(delta) < area.width) {
+		scroll(delta, 0, 0, 0, area.width, area.height, false);
+	} else {
+		redraw();
+	}
+}
+
+void scrollVertical(int index) {
+	if (index == topIndex) return;
+	int delta = (topIndex - index) * itemHeight;
+	topIndex = index;
+	Rectangle area = getClientArea();
+	if (Math.abs(delta) < area.height) {
+		scroll(0, delta, 0, 0, area.width, area.height, false);
+	} else {
+		redraw();
+	}
+}
+
+/**
+ * Selects the row at the given zero-relative index in the receiver.
+ * If the row at the index was already selected, it remains
+ * selected. In a single selection table, the other rows are
+ * deselected. Indices that are out of range are ignored.
+ *
+ * @param index the index of the row to select
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void select(int index) {
+	checkWidget();
+	if (!(0 <= index && index < itemCount) || selection.get(index)) return;
+	if ((getStyle() & SWT.SINGLE) != 0) {
+		int old = selection.nextSetBit(0);
+		selection.clear();
+		if (old != -1) redrawRow(old);
+	}
+	selection.set(index);
+	redrawRow(index);
+}
+
+/**
+ * Selects all of the rows in the receiver.
+ * <p>
+ * If the receiver is single-select, do nothing.
+ * </p>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void selectAll() {
+	checkWidget();
+	if ((getStyle() & SWT.SINGLE) != 0) return;
+	selection.set(0, itemCount);
+	redraw();
+}
+
+/*
+* Changes the selection as a click or key press with the state mask would
+* and sends a selection event: MOD1 toggles the row in a multi selection
+* table, SHIFT selects the range from the anchor and otherwise the row
+* becomes the only selected row.
+*/
+void selectRow(int row, int stateMask) {
+	boolean multi = (getStyle() & SWT.MULTI) != 0;
+	int oldFocus = focusIndex;
+	focusIndex = row;
+	if (multi && (stateMask & SWT.SHIFT) != 0 && anchorIndex != -1) {
+		if ((stateMask & SWT.MOD1) == 0) selection.clear();
+		selection.set(Math.min(anchorIndex, row), Math.max(anchorIndex, row) + 1);
+		redraw();
+	} else if (multi && (stateMask & SWT.MOD1) != 0) {
+		selection.flip(row);
+		anchorIndex = row;
+		if (oldFocus != -1) redrawRow(oldFocus);
+		redrawRow(row);
+	} else {
+		int old = selection.cardinality() == 1 ? selection.nextSetBit(0) : -2;
+		selection.clear();
+		selection.set(row);
+		anchorIndex = row;
+		if (old == -2) {
+			redraw();
+		} else {
+			if (old != -1) redrawRow(old);
+			if (oldFocus != -1) redrawRow(oldFocus);
+			redrawRow(row);
+		}
+	}
+	showRow(row);
+	notifySelection(SWT.Selection, row);
+}
+
+@Override
+public void setBackground(Color color) {
+	super.setBackground(color != null ? color : getDisplay().getSystemColor(SWT.COLOR_LIST_BACKGROUND));
+	redraw();
+}
+
+/**
+ * Sets the number of columns of the receiver. Columns that are
+ * added have a width of zero. If the count is zero, the receiver
+ * has a single column as wide as its client area.
+ *
+ * @param count the new number of columns
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the count is negative</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setColumnCount(int count) {
+	checkWidget();
+	if (count < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (count == columnWidths.length) return;
+	columnWidths = Arrays.copyOf(columnWidths, count);
+	updateScrollBars();
+	redraw();
+}
+
+/**
+ * Sets the width of the column at the given zero-relative index.
+ *
+ * @param index the index of the column
+ * @param width the new width of the column
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of columns in the receiver minus 1 (inclusive)</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the width is negative</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setColumnWidth(int index, int width) {
+	checkWidget();
+	if (!(0 <= index && index < columnWidths.length)) SWT.error(SWT.ERROR_INVALID_RANGE);
+	if (width < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (columnWidths[index] == width) return;
+	columnWidths[index] = width;
+	updateScrollBars();
+	redraw();
+}
+
+@Override
+public void setFont(Font font) {
+	super.setFont(font);
+	if (!customItemHeight) {
+		itemHeight = defaultItemHeight();
+		updateScrollBars();
+	}
+	redraw();
+}
+
+@Override
+public void setForeground(Color color) {
+	super.setForeground(color != null ? color : getDisplay().getSystemColor(SWT.COLOR_LIST_FOREGROUND));
+	redraw();
+}
+
+/**
+ * Sets the number of rows contained in the receiver. Rows that
+ * are removed are deselected.
+ *
+ * @param count the number of rows
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setItemCount(int count) {
+	checkWidget();
+	count = Math.max(0, count);
+	if (count == itemCount) return;
+	int oldCount = itemCount;
+	itemCount = count;
+	if (count < oldCount) {
+		selection.clear(count, oldCount);
+		if (focusIndex >= count) focusIndex = -1;
+		if (anchorIndex >= count) anchorIndex = -1;
+	}
+	updateScrollBars();
+	redraw();
+}
+
+/**
+ * Sets the height of the area which would be used to display each
+ * row in the receiver. <code>SWT.MeasureItem</code> listeners can
+ * still make the rows higher. The default height fits the font of
+ * the receiver.
+ *
+ * @param height the new height of one row
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the height is less than one</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setItemHeight(int height) {
+	checkWidget();
+	if (height < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	customItemHeight = true;
+	if (height == itemHeight) return;
+	itemHeight = height;
+	updateScrollBars();
+	redraw();
+}
+
+/**
+ * Selects the row at the given zero-relative index in the receiver.
+ * The current selection is first cleared, then the new row is selected,
+ * and if necessary the receiver is scrolled to make the new selection
+ * visible. Indices that are out of range are ignored.
+ *
+ * @param index the index of the row to select
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setSelection(int index) {
+	checkWidget();
+	setSelection(new int[] {index});
+}
+
+/**
+ * Selects the rows at the given zero-relative indices in the receiver.
+ * The current selection is cleared before the new rows are selected,
+ * and if necessary the receiver is scrolled to make the new selection
+ * visible. Indices that are out of range are ignored. If the receiver
+ * is single-select and multiple indices are specified, then all rows
+ * are deselected.
+ *
+ * @param indices the indices of the rows to select
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the array of indices is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setSelection(int[] indices) {
+	checkWidget();
+	if (indices == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	selection.clear();
+	if (indices.length == 1 || (getStyle() & SWT.MULTI) != 0) {
+		for (int index : indices) {
+			if (0 <= index && index < itemCount) selection.set(index);
+		}
+	}
+	int first = selection.nextSetBit(0);
+	if (first != -1) {
+		focusIndex = anchorIndex = first;
+		showRow(first);
+	}
+	redraw();
+}
+
+/**
+ * Sets the zero-relative index of the row which is currently
+ * at the top of the receiver. This index can change when rows
+ * are scrolled or new rows are added and removed.
+ *
+ * @param index the index of the top row
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setTopIndex(int index) {
+	checkWidget();
+	index = Math.max(0, Math.min(index, itemCount - fullyVisibleRows()));
+	ScrollBar verticalBar = getVerticalBar();
+	if (verticalBar != null) verticalBar.setSelection(index);
+	scrollVertical(index);
+}
+
+/**
+ * Shows the row at the given zero-relative index. If the row is already
+ * showing, this method simply returns. Otherwise, the rows are scrolled
+ * until the row is visible.
+ *
+ * @param index the index of the row to be shown
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_RANGE - if the index is not between 0 and the number of rows in the receiver minus 1 (inclusive)</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void showItem(int index) {
+	checkWidget();
+	if (!(0 <= index && index < itemCount)) SWT.error(SWT.ERROR_INVALID_RANGE);
+	showRow(index);
+}
+
+void showRow(int row) {
+	int visible = fullyVisibleRows();
+	if (row < topIndex) {
+		setTopIndex(row);
+	} else if (row >= topIndex + visible) {
+		setTopIndex(row - visible + 1);
+	}
+}
+
+/**
+ * Shows the selection. If the selection is already showing in the receiver,
+ * this method simply returns. Otherwise, the rows are scrolled until
+ * the selection is visible.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void showSelection() {
+	checkWidget();
+	int index = getSelectionIndex();
+	if (index != -1) showRow(index);
+}
+
+void updateScrollBars() {
+	Rectangle area = getClientArea();
+	int visible = fullyVisibleRows();
+	int maxTop = Math.max(0, itemCount - visible);
+	ScrollBar verticalBar = getVerticalBar();
+	if (verticalBar != null) {
+		verticalBar.setValues(Math.min(topIndex, maxTop), 0, Math.max(itemCount, 1), Math.min(visible, Math.max(itemCount, 1)), 1, visible);
+		verticalBar.setEnabled(itemCount > visible);
+	}
+	if (topIndex > maxTop) scrollVertical(maxTop);
+	int width = 0;
+	for (int columnWidth : columnWidths) {
+		width += columnWidth;
+	}
+	int maxOffset = Math.max(0, width - area.width);
+	ScrollBar horizontalBar = getHorizontalBar();
+	if (horizontalBar != null) {
+		int thumb = Math.max(1, Math.min(area.width, width));
+		horizontalBar.setValues(Math.min(horizontalOffset, maxOffset), 0, Math.max(width, 1), thumb, Math.max(1, area.width / 10), thumb);
+		horizontalBar.setEnabled(width > area.width);
+	}
+	if (horizontalOffset > maxOffset) scrollHorizontal(maxOffset);
+}
+}
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -33,12 +35,41 @@ class HTMLWriter extends StyledTextWriterBase {
 
 	public HTMLWriter(StyledText styledText, int start, int length, StyledTextContent content) {
 		super(styledText, start, length);
-		String text = content.getTextRange(start, length);
-		multiline = text.contains("\n");
+		init(start, length, content);
+	}
+
+	/**
+	 * Creates a writer that streams the HTML to {@code writer}.
+	 */
+	public HTMLWriter(StyledText styledText, int start, int length, StyledTextContent content, Writer writer) {
+		super(styledText, start, length, writer);
+		init(start, length, content);
+	}
+
+	private void init(int start, int length, StyledTextContent content) {
+		multiline = containsLineFeed(content, start, length);
 		tag = multiline ? "div" : "span";
 		writeHeader();
 	}
 
+	/**
+	 * Returns whether the range contains a line feed, without copying the
+	 * text of the range. Only the last character of the line delimiters in
+	 * the range needs to be checked, "\r\n" and "\n" end with a line feed.
+	 */
+	private static boolean containsLineFeed(StyledTextContent content, int start, int length) {
+		int firstLine = content.getLineAtOffset(start);
+		int lastLine = content.getLineAtOffset(start + length);
+		for (int line = firstLine; line < lastLine; line++) {
+			int delimiterEnd = content.getOffsetAtLine(line + 1);
+			if (delimiterEnd - 1 >= start && content.getTextRange(delimiterEnd - 1, 1).charAt(0) == '\n') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
 	@Override
 	public void close() {
 		if (!isClosed()) {
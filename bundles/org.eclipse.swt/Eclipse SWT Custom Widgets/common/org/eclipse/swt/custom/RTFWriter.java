@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
 import java.util.*;
 
 import org.eclipse.swt.*;
@@ -39,6 +40,20 @@ class RTFWriter extends StyledTextWriterBase {
 
 	public RTFWriter(StyledText styledText, int start, int length) {
 		super(styledText, start, length);
+		initTables();
+	}
+
+	/**
+	 * Creates a writer that streams the rich text to {@code writer}. The
+	 * content is fed twice, the first pass collects the font and color tables
+	 * that have to be written in the header, before the content.
+	 */
+	public RTFWriter(StyledText styledText, int start, int length, Writer writer) {
+		super(styledText, start, length, writer);
+		initTables();
+	}
+
+	void initTables() {
 		colorTable = new ArrayList<>();
 		fontTable = new ArrayList<>();
 		colorTable.add(this.styledText.getForeground());
@@ -46,11 +61,26 @@ class RTFWriter extends StyledTextWriterBase {
 		fontTable.add(this.styledText.getFont());
 	}
 
+	@Override
+	boolean needsFirstPass() {
+		return isStreaming();
+	}
+
+	@Override
+	void endFirstPass() {
+		super.endFirstPass();
+		writeHeader();
+	}
+
 	@Override
 	public void close() {
 		if (!isClosed()) {
-			writeHeader();
-			write("\n}}\0");
+			if (isStreaming()) {
+				write("\n}}");
+			} else {
+				writeHeader();
+				write("\n}}\0");
+			}
 			super.close();
 		}
 	}
@@ -98,7 +128,11 @@ class RTFWriter extends StyledTextWriterBase {
 		// font size is specified in half points
 		header.append(fontData.getHeight() * 2);
 		header.append(" ");
-		write(header.toString(), 0);
+		if (isStreaming()) {
+			write(header.toString());
+		} else {
+			writeAtStart(header.toString());
+		}
 	}
 
 	@Override
@@ -18,6 +18,7 @@
 package org.eclipse.swt.custom;
 
 
+import java.io.*;
 import java.util.*;
 import java.util.stream.*;
 
@@ -97,6 +98,7 @@ public class StyledText extends Canvas {
 	static final int H_SCROLL_RATE = 10;
 	static final int PREVIOUS_OFFSET_TRAILING = 0;
 	static final int OFFSET_LEADING = 1;
+	static final int MAX_CLIPBOARD_RENDER_LENGTH = 1024 * 1024;	// longest copied range that is offered in RTF and HTML
 
 	static final String STYLEDTEXT_KEY = "org.eclipse.swt.internal.cocoa.styledtext"; //$NON-NLS-1$
 	private static int getX(Point p) { return p.x; } // workaround p -> p.x lose typing and cannot be chained in comparing...
@@ -151,6 +153,7 @@ public class StyledText extends Canvas {
 	/** True iff the widget is in the midst of being enabled or disabled */
 	boolean insideSetEnableCall;
 	Clipboard clipboard;
+	ClipboardText[] clipboardText;		// rich text flavors of the last copy that have not been rendered yet
 	int clickCount;
 	int autoScrollDirection = SWT.NULL;	// the direction of autoscrolling (up, down, right, left)
 	int autoScrollDistance = 0;
@@ -682,6 +685,61 @@ public class StyledText extends Canvas {
 	}
 	}
 
+	/**
+	 * A rich text flavor of copied text that is only rendered when a clipboard
+	 * target asks for it. Rendering is forced before the copied range or its
+	 * styles, the font, the colors or the style listeners of the widget change,
+	 * since the text and styles are read from the widget.
+	 * The clipboard releases it when it no longer holds the copy, after which
+	 * it is never rendered.
+	 */
+	class ClipboardText implements ClipboardSupplier {
+		final int start, length;
+		final boolean html;
+		String text;
+		boolean rendered;
+
+	ClipboardText(int start, int length, boolean html) {
+		this.start = start;
+		this.length = length;
+		this.html = html;
+	}
+
+	@Override
+	public Object getData() {
+		if (!rendered) render();
+		return text;
+	}
+
+	void render() {
+		rendered = true;
+		try {
+			TextWriter writer = html ? new HTMLWriter(StyledText.this, start, length, content) : new RTFWriter(StyledText.this, start, length);
+			text = getPlatformDelimitedText(writer);
+		} catch (OutOfMemoryError oome) {
+			// Adding RTF and HTML text may increase size by factor > 15
+			// fall back: only the plain text is available
+			text = null;
+			int lineCount = content.getLineAtOffset(start + length) - content.getLineAtOffset(start) + 1;
+			OutOfMemoryError customOome = new OutOfMemoryError(
+					"Out of Memory: Copied only plain text (" + lineCount + " lines).");
+			customOome.initCause(oome);
+			// Still throw as it is likely that other threads silently failed too, but at least copied text is not lost
+			throw customOome;
+		}
+	}
+
+	void discard() {
+		rendered = true;
+		text = null;
+	}
+
+	@Override
+	public void release() {
+		if (!rendered) discard();
+	}
+	}
+
 /**
  * Constructs a new instance of this class given its parent
  * and a style value describing its behavior and appearance.
@@ -844,6 +902,7 @@ public void addCaretListener(CaretListener listener) {
 public void addLineBackgroundListener(LineBackgroundListener listener) {
 	checkWidget();
 	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	settleClipboardText(0);
 	if (!isListening(ST.LineGetBackground)) {
 		renderer.clearLineBackground(0, content.getLineCount());
 	}
@@ -865,6 +924,7 @@ public void addLineBackgroundListener(LineBackgroundListener listener) {
 public void addLineStyleListener(LineStyleListener listener) {
 	checkWidget();
 	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	settleClipboardText(0);
 	if (!isListening(ST.LineGetStyle)) {
 		setStyleRanges(0, 0, null, null, true);
 		renderer.clearLineStyle(0, content.getLineCount());
@@ -3069,6 +3129,61 @@ void doWordPrevious() {
 void endAutoScroll() {
 	autoScrollDirection = SWT.NULL;
 }
+/**
+ * Writes the widget content in the specified range to a character stream
+ * in the format of the given transfer. Lines are separated by the platform
+ * line delimiter.
+ * <p>
+ * The output is written line by line while the content is formatted, it is
+ * never held in memory as a whole, so that large styled documents can be
+ * exported. Lines are formatted with the styles queried from the
+ * <code>LineStyleListener</code>, if set, or those set directly in the widget,
+ * like they are when the text is copied to the clipboard. The writer is
+ * flushed but not closed.
+ * </p><p>
+ * The supported transfers are <code>TextTransfer</code> for plain text,
+ * <code>RTFTransfer</code> for rich text and <code>HTMLTransfer</code> for HTML.
+ * Rich text is formatted twice since its header depends on the styles in the range.
+ * </p>
+ *
+ * @param writer the writer to write the content to
+ * @param start offset of the first character to write
+ * @param length number of characters to write
+ * @param transfer the transfer that defines the format of the output
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the writer or the transfer is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the transfer is not one of the supported transfers</li>
+ *    <li>ERROR_INVALID_RANGE - if start and/or length are outside the widget content</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_IO - if an IO error occurs while writing</li>
+ * </ul>
+ *
+ * @see #copy()
+ * @since 3.126
+ */
+public void exportText(Writer writer, int start, int length, Transfer transfer) {
+	checkWidget();
+	if (writer == null || transfer == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	int end = start + length;
+	if (start > end || start < 0 || end > getCharCount()) {
+		SWT.error(SWT.ERROR_INVALID_RANGE);
+	}
+	TextWriter textWriter = null;
+	if (transfer == TextTransfer.getInstance()) {
+		textWriter = new TextWriter(start, length, writer);
+	} else if (transfer == RTFTransfer.getInstance()) {
+		textWriter = new RTFWriter(this, start, length, writer);
+	} else if (transfer == HTMLTransfer.getInstance()) {
+		textWriter = new HTMLWriter(this, start, length, content, writer);
+	} else {
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	writePlatformDelimitedText(textWriter);
+}
 @Override
 public Color getBackground() {
 	checkWidget();
@@ -4259,6 +4374,26 @@ int getPartialTopIndex() {
  * 	delimiter to separate lines as written by the specified TextWriter.
  */
 String getPlatformDelimitedText(TextWriter writer) {
+	writePlatformDelimitedText(writer);
+	return writer.toString();
+}
+/**
+ * Writes the content in the range of the writer using the platform line
+ * delimiter to separate lines, and closes the writer. Writers that need a
+ * first pass over the content are fed the content twice.
+ *
+ * @param writer the TextWriter to write line text into
+ */
+void writePlatformDelimitedText(TextWriter writer) {
+	if (writer.needsFirstPass()) {
+		writer.beginFirstPass();
+		writeLines(writer);
+		writer.endFirstPass();
+	}
+	writeLines(writer);
+	writer.close();
+}
+void writeLines(TextWriter writer) {
 	int end = writer.getStart() + writer.getCharCount();
 	int startLine = content.getLineAtOffset(writer.getStart());
 	int endLine = content.getLineAtOffset(end);
@@ -4274,8 +4409,6 @@ String getPlatformDelimitedText(TextWriter writer) {
 	if (end > endLineOffset + endLineText.length()) {
 		writer.writeLineDelimiter(PlatformLineDelimiter);
 	}
-	writer.close();
-	return writer.toString();
 }
 /**
  * Returns all the ranges of text that have an associated StyleRange.
@@ -5615,6 +5748,7 @@ void handleDispose(Event event) {
 	notifyListeners(SWT.Dispose, event);
 	event.type = SWT.None;
 
+	settleClipboardText(0);
 	clipboard.dispose();
 	if (renderer != null) {
 		renderer.dispose();
@@ -6105,6 +6239,7 @@ void handleTextChanging(TextChangingEvent event) {
 		event.start += event.replaceCharCount;
 		event.replaceCharCount *= -1;
 	}
+	settleClipboardText(event.start);
 	lastTextChangeStart = event.start;
 	lastTextChangeNewLineCount = event.newLineCount;
 	lastTextChangeNewCharCount = event.newCharCount;
@@ -6148,6 +6283,13 @@ void handleTextChanging(TextChangingEvent event) {
  * @param event text change event.
  */
 void handleTextSet(TextChangedEvent event) {
+	// The copied text is gone, rich text flavors can no longer be rendered
+	if (clipboardText != null) {
+		for (ClipboardText text : clipboardText) {
+			if (!text.rendered) text.discard();
+		}
+		clipboardText = null;
+	}
 	reset();
 	int newCharCount = getCharCount();
 	sendAccessibleTextChanged(0, newCharCount, lastCharCount);
@@ -7545,6 +7687,7 @@ public void removeExtendedModifyListener(ExtendedModifyListener extendedModifyLi
 public void removeLineBackgroundListener(LineBackgroundListener listener) {
 	checkWidget();
 	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	settleClipboardText(0);
 	removeListener(ST.LineGetBackground, listener);
 }
 /**
@@ -7563,6 +7706,7 @@ public void removeLineBackgroundListener(LineBackgroundListener listener) {
 public void removeLineStyleListener(LineStyleListener listener) {
 	checkWidget();
 	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	settleClipboardText(0);
 	removeListener(ST.LineGetStyle, listener);
 	setCaretLocations();
 }
@@ -8226,6 +8370,7 @@ public void setBackground(Color color) {
 			}
 		}
 	}
+	settleClipboardText(0);
 	customBackground = color != null && !this.insideSetEnableCall && !backgroundDisabled;
 	background = color;
 	super.setBackground(color);
@@ -8604,6 +8749,12 @@ void setCaretOffsets(int[] newOffsets, int alignment) {
 /**
  * Copies the specified text range to the clipboard.  The text will be placed
  * in the clipboard in plain text, HTML, and RTF formats.
+ * <p>
+ * The HTML and RTF formats are only rendered when they are requested from
+ * the clipboard, see {@link #settleClipboardText(int)}. Ranges longer than
+ * MAX_CLIPBOARD_RENDER_LENGTH are only placed in plain text format, since
+ * their rich text would have to be rendered whenever the widget changes.
+ * </p>
  *
  * @param start start index of the text
  * @param length length of text to place in clipboard
@@ -8618,36 +8769,68 @@ void setClipboardContent(int start, int length, int clipboardType) throws SWTErr
 	String plainText = getPlatformDelimitedText(plainTextWriter);
 	Object[] data;
 	Transfer[] types;
-	if (clipboardType == DND.SELECTION_CLIPBOARD) {
+	if (clipboardType == DND.SELECTION_CLIPBOARD || length > MAX_CLIPBOARD_RENDER_LENGTH) {
 		data = new Object[]{plainText};
 		types = new Transfer[]{plainTextTransfer};
 	} else {
-		try {
-			RTFTransfer rtfTransfer = RTFTransfer.getInstance();
-			RTFWriter rtfWriter = new RTFWriter(this, start, length);
-			String rtfText = getPlatformDelimitedText(rtfWriter);
-
-			HTMLTransfer htmlTransfer = HTMLTransfer.getInstance();
-			HTMLWriter htmlWriter = new HTMLWriter(this, start, length, content);
-			String htmlText = getPlatformDelimitedText(htmlWriter);
-			htmlText = "" +htmlText; //cause extra memory pressure to fail fast instead of failing in HTMLTransfer.javaToNative()
-			data = new Object[]{rtfText, htmlText, plainText};
-			types = new Transfer[]{rtfTransfer, htmlTransfer, plainTextTransfer};
-		} catch (OutOfMemoryError oome) {
-			// Adding RTF and HTML text may increase size by factor > 15
-			// fall back: copy plain text
-			data = new Object[] { plainText };
-			types = new Transfer[] { plainTextTransfer };
-			clipboard.setContents(data, types, clipboardType);
-			OutOfMemoryError customOome = new OutOfMemoryError(
-					"Out of Memory: Copied only plain text (" + plainText.lines().count() + " lines).");
-			customOome.initCause(oome);
-			// Still throw as it is likely that other threads silently failed too, but at least copied text is not lost
-			throw customOome;
-		}
+		ClipboardText rtfText = new ClipboardText(start, length, false);
+		ClipboardText htmlText = new ClipboardText(start, length, true);
+		data = new Object[]{rtfText, htmlText, plainText};
+		types = new Transfer[]{RTFTransfer.getInstance(), HTMLTransfer.getInstance(), plainTextTransfer};
+		clipboardText = new ClipboardText[]{rtfText, htmlText};
 	}
 	clipboard.setContents(data, types, clipboardType);
 }
+/**
+ * Renders the rich text flavors of the last copy that have not been requested
+ * yet before text at the given offset is modified. Changes after the copied
+ * range do not affect it. If rendering runs out of memory, the flavors that
+ * are not rendered are dropped before the error is thrown.
+ *
+ * @param changeStart offset of the first character that will change
+ */
+void settleClipboardText(int changeStart) {
+	if (clipboardText == null) return;
+	ClipboardText[] pending = clipboardText;
+	if (changeStart >= pending[0].start + pending[0].length) return;
+	clipboardText = null;
+	try {
+		for (ClipboardText text : pending) {
+			if (!text.rendered) text.render();
+		}
+	} finally {
+		for (ClipboardText text : pending) {
+			if (!text.rendered) text.discard();
+		}
+	}
+}
+/**
+ * Renders the rich text flavors of the last copy that have not been requested
+ * yet before the styles of the given range are modified. Style changes outside
+ * of the copied range do not affect it.
+ *
+ * @param start offset of the first character whose style will change
+ * @param end offset after the last character whose style will change
+ */
+void settleClipboardStyles(int start, int end) {
+	if (clipboardText == null) return;
+	ClipboardText text = clipboardText[0];
+	if (end <= text.start || start >= text.start + text.length) return;
+	settleClipboardText(text.start);
+}
+/**
+ * Renders the rich text flavors of the last copy that have not been requested
+ * yet before the attributes of the given lines are modified.
+ *
+ * @param startLine first line whose attributes will change
+ * @param lineCount number of lines whose attributes will change
+ */
+void settleClipboardLines(int startLine, int lineCount) {
+	if (clipboardText == null || lineCount <= 0) return;
+	int endLine = startLine + lineCount;
+	int end = endLine < content.getLineCount() ? content.getOffsetAtLine(endLine) : content.getCharCount();
+	settleClipboardStyles(content.getOffsetAtLine(startLine), end);
+}
 /**
  * Sets the content implementation to use for text storage.
  *
@@ -8665,6 +8848,7 @@ public void setContent(StyledTextContent newContent) {
 	if (newContent == null) {
 		SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	}
+	settleClipboardText(0);
 	if (content != null) {
 		content.removeTextChangeListener(textChangeListener);
 	}
@@ -8787,6 +8971,7 @@ public void setFixedLineMetrics(FontMetrics metrics) {
 @Override
 public void setFont(Font font) {
 	checkWidget();
+	settleClipboardText(0);
 	int oldLineHeight = renderer.getLineHeight();
 	super.setFont(font);
 	renderer.setFont(getFont(), tabLength);
@@ -8821,6 +9006,7 @@ public void setForeground(Color color) {
 			}
 		}
 	}
+	settleClipboardText(0);
 	customForeground = color != null && !this.insideSetEnableCall && !foregroundDisabled;
 	foreground = color;
 	super.setForeground(color);
@@ -9067,6 +9253,7 @@ public void setLineAlignment(int startLine, int lineCount, int alignment) {
 		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 
+	settleClipboardLines(startLine, lineCount);
 	renderer.setLineAlignment(startLine, lineCount, alignment);
 	resetCache(startLine, lineCount);
 	redrawLines(startLine, lineCount, false);
@@ -9116,6 +9303,7 @@ public void setLineBackground(int startLine, int lineCount, Color background) {
 	if (startLine < 0 || startLine + lineCount > content.getLineCount()) {
 		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
+	settleClipboardLines(startLine, lineCount);
 	if (background != null) {
 		renderer.setLineBackground(startLine, lineCount, background);
 	} else {
@@ -9217,6 +9405,7 @@ public void setLineIndent(int startLine, int lineCount, int indent) {
 	if (startLine < 0 || startLine + lineCount > content.getLineCount()) {
 		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
+	settleClipboardLines(startLine, lineCount);
 	int oldBottom = getLinePixel(startLine + lineCount);
 	renderer.setLineIndent(startLine, lineCount, indent);
 	resetCache(startLine, lineCount);
@@ -9351,6 +9540,7 @@ public void setLineJustify(int startLine, int lineCount, boolean justify) {
 		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 
+	settleClipboardLines(startLine, lineCount);
 	renderer.setLineJustify(startLine, lineCount, justify);
 	resetCache(startLine, lineCount);
 	redrawLines(startLine, lineCount, false);
@@ -10195,6 +10385,7 @@ void setStyleRanges(int start, int length, int[] ranges, StyleRange[] styles, bo
 			rangeEnd = styles[styles.length - 1].start + styles[styles.length - 1].length;
 		}
 	}
+	settleClipboardStyles(Math.min(start, rangeStart), Math.max(end, rangeEnd));
 
 	// This needs to happen before new styles are applied
 	int expectedBottom = 0;
@@ -10488,6 +10679,7 @@ public void setText(String text) {
 			styledTextEvent.end = event.start + event.text.length();
 			styledTextEvent.text = content.getTextRange(event.start, event.end - event.start);
 		}
+		settleClipboardText(0);
 		content.setText(event.text);
 		notifyListeners(SWT.Modify, event);
 		if (styledTextEvent != null) {
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 
@@ -47,6 +49,20 @@ abstract class StyledTextWriterBase extends TextWriter {
 		this.styledText = styledText;
 	}
 
+	/**
+	 * Creates a writer that streams content starting at offset "start"
+	 * in the document to {@code writer}.
+	 *
+	 * @param start start offset of content to write, 0 based from beginning of document
+	 * @param length length of content to write
+	 * @param styledText the widget to produce the output from
+	 * @param writer the writer to write the output to
+	 */
+	public StyledTextWriterBase(StyledText styledText, int start, int length, Writer writer) {
+		super(start, length, writer);
+		this.styledText = styledText;
+	}
+
 	/**
 	 * Appends the specified segment of "string" to the output data.
 	 * Copy from {@code start} up to, but excluding, {@code end}.
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Shortens strings so that they fit into a given width, used by
+ * <code>CTabFolderRenderer</code> and <code>CLabel</code>.
+ * <p>
+ * The cut is only placed on cluster boundaries, which are computed once per
+ * string, and is found with a binary search over those boundaries. Shortening
+ * a string of <i>n</i> clusters therefore measures O(log <i>n</i>) strings
+ * instead of one string per removed cluster. Strings are measured with
+ * <code>GC.textExtent(String, int)</code> so the result matches what is drawn
+ * with the same flags.
+ * </p><p>
+ * Results are cached per text, font, width, ellipsis and flags, so laying
+ * out many tabs with the same titles again does not measure anything.
+ * </p>
+ */
+class TextTruncator {
+
+	static final int CACHE_SIZE = 512;
+
+	record Key(String text, Font font, int width, String ellipsis, int flags, boolean middle) {}
+
+	final Map<Key, String> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/* Statistics */
+	int hits, misses, measurements;
+
+/**
+ * Returns <code>text</code> cut at its end and followed by <code>ellipsis</code>
+ * so that it fits into <code>width</code>. If not even the first cluster fits,
+ * the first character of the text is returned.
+ */
+String shortenEnd(GC gc, String text, int width, String ellipsis, int flags) {
+	Key key = new Key(text, gc.getFont(), width, ellipsis, flags, false);
+	String result = cache.get(key);
+	if (result != null) {
+		hits++;
+		return result;
+	}
+	misses++;
+	result = computeEnd(gc, text, width, ellipsis, flags);
+	cache.put(key, result);
+	return result;
+}
+
+/**
+ * Returns <code>text</code> with its middle replaced by <code>ellipsis</code>
+ * so that it fits into <code>width</code>, keeping the same number of characters
+ * on both sides. Short strings and strings where not even one character on
+ * each side fits are returned unchanged.
+ */
+String shortenMiddle(GC gc, String text, int width, String ellipsis, int flags) {
+	Key key = new Key(text, gc.getFont(), width, ellipsis, flags, true);
+	String result = cache.get(key);
+	if (result != null) {
+		hits++;
+		return result;
+	}
+	misses++;
+	result = computeMiddle(gc, text, width, ellipsis, flags);
+	cache.put(key, result);
+	return result;
+}
+
+void clear() {
+	cache.clear();
+}
+
+int measure(GC gc, String string, int flags) {
+	measurements++;
+	return gc.textExtent(string, flags).x;
+}
+
+String computeEnd(GC gc, String text, int width, String ellipsis, int flags) {
+	if (text.isEmpty() || measure(gc, text, flags) <= width) return text;
+	int ellipsisWidth = measure(gc, ellipsis, flags);
+	int[] offsets = getClusterOffsets(gc.getDevice(), text);
+	/*
+	 * Find the longest prefix that fits, not counting the whole text. Index 0
+	 * is the empty prefix, which is treated as fitting.
+	 */
+	int low = 0, high = offsets.length - 2;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (measure(gc, text.substring(0, offsets[mid]), flags) + ellipsisWidth <= width) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	return low == 0 ? text.substring(0, 1) : text.substring(0, offsets[low]) + ellipsis;
+}
+
+String computeMiddle(GC gc, String text, int width, String ellipsis, int flags) {
+	int ellipsisWidth = measure(gc, ellipsis, flags);
+	if (width <= ellipsisWidth) return text;
+	int length = text.length();
+	int max = length / 2;
+	if (max / 2 - 1 <= 0) return text;
+	int[] offsets = getClusterOffsets(gc.getDevice(), text);
+	/*
+	 * Find the largest number of characters to keep on each side, aligned
+	 * down to cluster boundaries. 0 means that nothing fits.
+	 */
+	int low = 0, high = max - 1;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		String start = text.substring(0, floor(offsets, mid));
+		String end = text.substring(floor(offsets, length - mid), length);
+		if (measure(gc, start, flags) + ellipsisWidth + measure(gc, end, flags) <= width) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	if (low == 0) return text;
+	return text.substring(0, floor(offsets, low)) + ellipsis + text.substring(floor(offsets, length - low), length);
+}
+
+/**
+ * Returns the largest cluster offset that is not greater than <code>offset</code>.
+ */
+static int floor(int[] offsets, int offset) {
+	int low = 0, high = offsets.length - 1;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (offsets[mid] <= offset) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	return offsets[low];
+}
+
+/**
+ * Returns the offsets of all cluster boundaries of <code>text</code>, starting
+ * with 0 and ending with the length of the text.
+ */
+static int[] getClusterOffsets(Device device, String text) {
+	int length = text.length();
+	if (isSimple(text)) {
+		int[] offsets = new int[length + 1];
+		for (int i = 0; i <= length; i++) offsets[i] = i;
+		return offsets;
+	}
+	TextLayout layout = new TextLayout(device);
+	try {
+		layout.setText(text);
+		int[] offsets = new int[length + 1];
+		int count = 0, offset = 0;
+		offsets[count++] = 0;
+		while (offset < length) {
+			int next = layout.getNextOffset(offset, SWT.MOVEMENT_CLUSTER);
+			if (next <= offset) break;
+			offsets[count++] = offset = Math.min(next, length);
+		}
+		if (offsets[count - 1] != length) offsets[count++] = length;
+		return Arrays.copyOf(offsets, count);
+	} finally {
+		layout.dispose();
+	}
+}
+
+/**
+ * Returns whether every character of <code>text</code> is a cluster of its
+ * own, so that no <code>TextLayout</code> is needed to find the clusters.
+ * This holds for printable characters below the combining diacritical marks.
+ */
+static boolean isSimple(String text) {
+	for (int i = 0, length = text.length(); i < length; i++) {
+		char c = text.charAt(i);
+		if (c < ' ' || c >= '\u0300') return false;
+	}
+	return true;
+}
+
+@Override
+public String toString() {
+	return "TextTruncator {size=" + cache.size() + ", hits=" + hits + ", misses=" + misses + ", measurements=" + measurements + "}"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,20 +13,24 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.io.*;
+
 import org.eclipse.swt.*;
 
 /**
  * The <code>TextWriter</code> class is used to write widget content to
- * a string.  Whole and partial lines and line breaks can be written. To write
- * partial lines, specify the start and length of the desired segment
- * during object creation.
+ * a string or a <code>Writer</code>.  Whole and partial lines and line breaks
+ * can be written. To write partial lines, specify the start and length of the
+ * desired segment during object creation.
  * <p>
- * <b>NOTE:</b> <code>toString()</code> is guaranteed to return a valid string only after close()
- * has been called.
+ * <b>NOTE:</b> <code>toString()</code> is guaranteed to return a valid string only after
+ * close() has been called, and only if the writer was created without a <code>Writer</code>.
  * </p>
  */
 class TextWriter {
-	private StringBuilder buffer;
+	private StringBuilder buffer;	// output if no Writer was specified
+	private Writer writer;			// output if streaming, content is written as it is produced
+	private boolean discard;		// output is dropped, used by writers that need a first pass over the content
 	private int startOffset;	// offset of first character that will be written
 	private int endOffset;		// offset of last character that will be written.
 								// 0 based from the beginning of the widget text.
@@ -44,6 +48,20 @@ class TextWriter {
 		startOffset = start;
 		endOffset = start + length;
 	}
+	/**
+	 * Creates a writer that streams content starting at offset "start"
+	 * in the document to <code>writer</code>.  Nothing is accumulated in memory,
+	 * <code>toString()</code> returns an empty string.
+	 *
+	 * @param start start offset of content to write, 0 based from beginning of document
+	 * @param length length of content to write
+	 * @param writer the writer to write the content to
+	 */
+	public TextWriter(int start, int length, Writer writer) {
+		this.writer = writer;
+		startOffset = start;
+		endOffset = start + length;
+	}
 	/**
 	 * Closes the writer. Once closed no more content can be written.
 	 * <b>NOTE:</b>  <code>toString()</code> is not guaranteed to return a valid string unless
@@ -52,6 +70,13 @@ class TextWriter {
 	public void close() {
 		if (!isClosed) {
 			isClosed = true;
+			if (writer != null) {
+				try {
+					writer.flush();
+				} catch (IOException e) {
+					SWT.error(SWT.ERROR_IO, e);
+				}
+			}
 		}
 	}
 	/**
@@ -76,6 +101,31 @@ class TextWriter {
 	public boolean isClosed() {
 		return isClosed;
 	}
+	/**
+	 * Returns whether the writer streams its content to a <code>Writer</code>.
+	 * @return a boolean specifying whether the content is streamed
+	 */
+	boolean isStreaming() {
+		return writer != null;
+	}
+	/**
+	 * Returns whether the writer needs to see the content once before it
+	 * is written, for example to write a header that depends on the content.
+	 * Such writers are fed the content twice, the first pass is enclosed by
+	 * <code>beginFirstPass()</code> and <code>endFirstPass()</code> and its
+	 * output is dropped.
+	 *
+	 * @return a boolean specifying whether a first pass is needed
+	 */
+	boolean needsFirstPass() {
+		return false;
+	}
+	void beginFirstPass() {
+		discard = true;
+	}
+	void endFirstPass() {
+		discard = false;
+	}
 	/**
 	 * Returns the string.  <code>close()</code> must be called before <code>toString()</code>
 	 * is guaranteed to return a valid string.
@@ -84,40 +134,52 @@ class TextWriter {
 	 */
 	@Override
 	public String toString() {
-		return buffer.toString();
+		return buffer != null ? buffer.toString() : "";
 	}
 	/**
 	 * Appends the given string to the data.
 	 */
 	void write(String string) {
-		buffer.append(string);
+		if (discard) return;
+		if (buffer != null) {
+			buffer.append(string);
+			return;
+		}
+		try {
+			writer.write(string);
+		} catch (IOException e) {
+			SWT.error(SWT.ERROR_IO, e);
+		}
 	}
 	/**
-	 * Inserts the given string to the data at the specified offset.
-	 * <p>
-	 * Do nothing if "offset" is &lt; 0 or &gt; getCharCount()
-	 * </p>
+	 * Inserts the given string at the start of the data. Only supported
+	 * when the content is not streamed.
 	 *
 	 * @param string text to insert
-	 * @param offset offset in the existing data to insert "string" at.
 	 */
-	void write(String string, int offset) {
-		if (offset < 0 || offset > buffer.length()) {
-			return;
-		}
-		buffer.insert(offset, string);
+	void writeAtStart(String string) {
+		if (discard || buffer == null) return;
+		buffer.insert(0, string);
 	}
 	/**
 	 * Appends the given int to the data.
 	 */
 	void write(int i) {
-		buffer.append(i);
+		if (buffer != null) {
+			if (!discard) buffer.append(i);
+			return;
+		}
+		write(Integer.toString(i));
 	}
 	/**
 	 * Appends the given character to the data.
 	 */
 	void write(char i) {
-		buffer.append(i);
+		if (buffer != null) {
+			if (!discard) buffer.append(i);
+			return;
+		}
+		write(String.valueOf(i));
 	}
 	/**
 	 * Appends the specified line text to the data.
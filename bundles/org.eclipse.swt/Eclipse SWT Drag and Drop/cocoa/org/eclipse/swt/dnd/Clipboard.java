@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.swt.dnd;
 
 
+import java.util.concurrent.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.cocoa.*;
 import org.eclipse.swt.widgets.*;
@@ -308,6 +310,45 @@ public Object getContents(Transfer transfer, int clipboards) {
 	return null;
 }
 
+/**
+ * Retrieve the data of the specified type currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * The returned future is completed with the same value <code>getContents()</code>
+ * would have returned, or with <code>null</code> if no data of this type is
+ * available. On this platform the clipboard is read synchronously and the
+ * future is already completed when it is returned.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param clipboards on which to look for data
+ *
+ * @return a future that is completed with the data obtained from the clipboard
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer, int)
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<Object> getContentsAsync(Transfer transfer, int clipboards) {
+	return CompletableFuture.completedFuture(getContents(transfer, clipboards));
+}
+
 /**
  * Returns <code>true</code> if the clipboard has been disposed,
  * and <code>false</code> otherwise.
@@ -388,6 +429,16 @@ public void setContents(Object[] data, Transfer[] dataTypes) {
  * modification may or may not be available when the data is subsequently
  * requested.</p>
  *
+ * <p>An entry in the data array may also be a <code>ClipboardSupplier</code>
+ * of the data. The supplier is only asked for its data when the data is requested
+ * in the format of the corresponding transfer agent, which avoids creating
+ * expensive formats that are never pasted. Where the platform copies the data
+ * immediately, the supplier is asked by this method. If the supplier returns
+ * <code>null</code> or data that is not valid for the transfer agent, the format
+ * is not provided. The supplier is released when the clipboard no longer holds
+ * its data, for example because other contents were set or another application
+ * took ownership of the clipboard.</p>
+ *
  * <p>The clipboards value is either one of the clipboard constants defined in
  * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
  * (that is, using the <code>int</code> "|" operator) two or more
@@ -441,7 +492,7 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 		DND.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 	for (int i = 0; i < data.length; i++) {
-		if (data[i] == null || dataTypes[i] == null || !dataTypes[i].validate(data[i])) {
+		if (data[i] == null || dataTypes[i] == null || !(data[i] instanceof ClipboardSupplier || dataTypes[i].validate(data[i]))) {
 			DND.error(SWT.ERROR_INVALID_ARGUMENT);
 		}
 	}
@@ -452,11 +503,13 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 	}
 	pasteboard.declareTypes(NSMutableArray.arrayWithCapacity(0), null);
 	for (int i=0; i<dataTypes.length; i++) {
+		Object object = getData(dataTypes[i], data[i]);
+		if (object == null) continue;
 		String[] typeNames = dataTypes[i].getTypeNames();
 		for (int j=0; j<typeNames.length; j++) {
 			TransferData transferData = new TransferData();
 			transferData.type = Transfer.registerType(typeNames[j]);
-			dataTypes[i].javaToNative(data[i], transferData);
+			dataTypes[i].javaToNative(object, transferData);
 			NSObject tdata = transferData.data;
 			NSString dataType = NSString.stringWith(typeNames[j]);
 			pasteboard.addTypes(NSArray.arrayWithObject(dataType), null);
@@ -474,6 +527,43 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 			}
 		}
 	}
+	/* The pasteboard holds a copy, the suppliers are no longer needed */
+	closeData(data, null);
+}
+
+/*
+ * Returns the data to convert for an entry of the data array passed to
+ * setContents(), obtaining it from the supplier if the entry is a ClipboardSupplier.
+ * Returns null if the supplied data is not valid for the transfer.
+ */
+static Object getData(Transfer transfer, Object data) {
+	if (data instanceof ClipboardSupplier) {
+		data = ((ClipboardSupplier) data).getData();
+		if (data == null || !transfer.validate(data)) return null;
+	}
+	return data;
+}
+
+/*
+ * Releases the suppliers of the data array passed to setContents(), except
+ * those that are still held in the given array.
+ */
+static void closeData(Object[] data, Object[] keep) {
+	if (data == null) return;
+	for (Object object : data) {
+		if (!(object instanceof ClipboardSupplier)) continue;
+		boolean held = false;
+		if (keep != null) {
+			for (Object other : keep) {
+				if (other == object) {
+					held = true;
+					break;
+				}
+			}
+		}
+		if (held) continue;
+		((ClipboardSupplier) object).release();
+	}
 }
 
 /**
@@ -534,6 +624,41 @@ public TransferData[] getAvailableTypes(int clipboards) {
 	return result;
 }
 
+/**
+ * Returns a future for the data types currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * The returned future is completed with the same value
+ * <code>getAvailableTypes()</code> would have returned. On this platform the
+ * clipboard is read synchronously and the future is already completed when
+ * it is returned.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param clipboards from which to get the data types
+ * @return a future that is completed with the data types currently available
+ * on the specified clipboard
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getAvailableTypes(int)
+ * @see Transfer#isSupportedType
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<TransferData[]> getAvailableTypesAsync(int clipboards) {
+	return CompletableFuture.completedFuture(getAvailableTypes(clipboards));
+}
+
 /**
  * Returns a platform specific list of the data types currently available on the
  * system clipboard.
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.dnd;
+
+/**
+ * Instances of this interface supply the data of one format placed on a
+ * <code>Clipboard</code> when that format is requested, instead of when the
+ * contents are set.
+ * <p>
+ * A supplier is passed in place of the data in
+ * <code>Clipboard.setContents()</code>, together with the transfer agent of
+ * its format. This avoids creating expensive formats that are never pasted.
+ * Where the platform copies the data immediately, the supplier is asked for
+ * its data by <code>setContents()</code>.
+ * </p>
+ *
+ * @see Clipboard#setContents(Object[], Transfer[], int)
+ * @since 3.126
+ */
+public interface ClipboardSupplier {
+
+/**
+ * Returns the data of the format, in the form expected by the transfer agent
+ * it was set with. It is called in the user-interface thread, at most once
+ * for each request of the format.
+ *
+ * @return the data, or <code>null</code> if the format cannot be provided
+ */
+Object getData ();
+
+/**
+ * Notifies the receiver that the clipboard no longer holds its data, for
+ * example because other contents were set or another application took
+ * ownership of the clipboard. <code>getData()</code> is not called any
+ * more afterwards.
+ * <p>
+ * The default implementation does nothing.
+ * </p>
+ */
+default void release () {
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.swt.dnd;
 
 
+import java.util.concurrent.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.internal.*;
@@ -310,14 +312,105 @@ public Object getContents(Transfer transfer, int clipboards) {
 		}
 	}
 	if (selection_data == 0) return null;
+	Object result = transfer.nativeToJava(getTransferData(selection_data));
+	GTK3.gtk_selection_data_free(selection_data);
+	return result;
+}
+
+/**
+ * Retrieve the data of the specified type currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * <code>getContents()</code> waits in a nested event loop until the owner of the
+ * clipboard answers. This method returns immediately instead; the returned future
+ * is completed from the event loop of the display once the data has arrived, with
+ * the same value <code>getContents()</code> would have returned, or with
+ * <code>null</code> if no data of this type is available. Dependent actions that
+ * are not run asynchronously are therefore executed in the user-interface thread.
+ * If the display is disposed before the owner has answered, the future is
+ * completed exceptionally with an <code>SWTException</code> whose code is
+ * <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param clipboards on which to look for data
+ *
+ * @return a future that is completed with the data obtained from the clipboard
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer, int)
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<Object> getContentsAsync(Transfer transfer, int clipboards) {
+	checkWidget();
+	if (transfer == null) DND.error(SWT.ERROR_NULL_ARGUMENT);
+	CompletableFuture<Object> future = new CompletableFuture<>();
+	if (GTK.GTK4) {
+		future.complete(getContents_gtk4(transfer, clipboards));
+		return future;
+	}
+	requestContents(transfer, transfer.getTypeIds(), clipboards, 0, future);
+	return future;
+}
+
+/*
+ * Requests the type ids of the transfer one at a time, in the same order as
+ * getContents(), moving on to the next one when the owner has no data.
+ * Even steps query CLIPBOARD and odd steps PRIMARY.
+ */
+void requestContents(Transfer transfer, int[] typeIds, int clipboards, int step, CompletableFuture<Object> future) {
+	while (step < typeIds.length * 2) {
+		int mask = (step & 1) == 0 ? DND.CLIPBOARD : DND.SELECTION_CLIPBOARD;
+		if ((clipboards & mask) != 0) break;
+		step++;
+	}
+	if (step >= typeIds.length * 2) {
+		future.complete(null);
+		return;
+	}
+	long clipboard = (step & 1) == 0 ? GTKCLIPBOARD : GTKPRIMARYCLIPBOARD;
+	int next = step + 1;
+	ClipboardProxy._getInstance(display).requestContents(clipboard, typeIds[step >> 1], future, selection_data -> {
+		if (future.isDone()) return;
+		if (isDisposed()) {
+			future.completeExceptionally(new SWTException(SWT.ERROR_WIDGET_DISPOSED));
+			return;
+		}
+		if (selection_data == 0) {
+			requestContents(transfer, typeIds, clipboards, next, future);
+			return;
+		}
+		try {
+			future.complete(transfer.nativeToJava(getTransferData(selection_data)));
+		} catch (RuntimeException | Error e) {
+			future.completeExceptionally(e);
+		}
+	});
+}
+
+static TransferData getTransferData(long selection_data) {
 	TransferData tdata = new TransferData();
 	tdata.type = GTK3.gtk_selection_data_get_data_type(selection_data);
 	tdata.pValue = GTK3.gtk_selection_data_get_data(selection_data);
 	tdata.length = GTK3.gtk_selection_data_get_length(selection_data);
 	tdata.format = GTK3.gtk_selection_data_get_format(selection_data);
-	Object result = transfer.nativeToJava(tdata);
-	GTK3.gtk_selection_data_free(selection_data);
-	return result;
+	return tdata;
 }
 
 private Object getContents_gtk4(Transfer transfer, int clipboards) {
@@ -462,6 +555,16 @@ public void setContents(Object[] data, Transfer[] dataTypes) {
  * modification may or may not be available when the data is subsequently
  * requested.</p>
  *
+ * <p>An entry in the data array may also be a <code>ClipboardSupplier</code>
+ * of the data. The supplier is only asked for its data when the data is requested
+ * in the format of the corresponding transfer agent, which avoids creating
+ * expensive formats that are never pasted. Where the platform copies the data
+ * immediately, the supplier is asked by this method. If the supplier returns
+ * <code>null</code> or data that is not valid for the transfer agent, the format
+ * is not provided. The supplier is released when the clipboard no longer holds
+ * its data, for example because other contents were set or another application
+ * took ownership of the clipboard.</p>
+ *
  * <p>The clipboards value is either one of the clipboard constants defined in
  * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
  * (that is, using the <code>int</code> "|" operator) two or more
@@ -515,7 +618,7 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 		DND.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 	for (int i = 0; i < data.length; i++) {
-		if (data[i] == null || dataTypes[i] == null || !dataTypes[i].validate(data[i])) {
+		if (data[i] == null || dataTypes[i] == null || !(data[i] instanceof ClipboardSupplier || dataTypes[i].validate(data[i]))) {
 			DND.error(SWT.ERROR_INVALID_ARGUMENT);
 		}
 	}
@@ -525,6 +628,41 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 	}
 }
 
+/*
+ * Returns the data to convert for an entry of the data array passed to
+ * setContents(), obtaining it from the supplier if the entry is a ClipboardSupplier.
+ * Returns null if the supplied data is not valid for the transfer.
+ */
+static Object getData(Transfer transfer, Object data) {
+	if (data instanceof ClipboardSupplier) {
+		data = ((ClipboardSupplier) data).getData();
+		if (data == null || !transfer.validate(data)) return null;
+	}
+	return data;
+}
+
+/*
+ * Releases the suppliers of the data array passed to setContents(), except
+ * those that are still held in the given array.
+ */
+static void closeData(Object[] data, Object[] keep) {
+	if (data == null) return;
+	for (Object object : data) {
+		if (!(object instanceof ClipboardSupplier)) continue;
+		boolean held = false;
+		if (keep != null) {
+			for (Object other : keep) {
+				if (other == object) {
+					held = true;
+					break;
+				}
+			}
+		}
+		if (held) continue;
+		((ClipboardSupplier) object).release();
+	}
+}
+
 /**
  * Returns an array of the data types currently available on the system
  * clipboard. Use with Transfer.isSupportedType.
@@ -571,32 +709,78 @@ public TransferData[] getAvailableTypes(int clipboards) {
 	checkWidget();
 
 	//TODO: [GTK4] This currently will not work in GTK4
-	TransferData[] result = null;
-	if ((clipboards & DND.CLIPBOARD) != 0) {
-		int[] types = getAvailableClipboardTypes();
-		result = new TransferData[types.length];
-		for (int i = 0; i < types.length; i++) {
-			result[i] = new TransferData();
-			result[i].type = types[i];
-		}
+	int[] clipboardTypes = (clipboards & DND.CLIPBOARD) != 0 ? getAvailableClipboardTypes() : new int[0];
+	int[] primaryTypes = (clipboards & DND.SELECTION_CLIPBOARD) != 0 ? getAvailablePrimaryTypes() : new int[0];
+	return getTransferData(clipboardTypes, primaryTypes);
+}
+
+/**
+ * Returns a future for the data types currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * The returned future is completed from the event loop of the display once the
+ * owners of the clipboards have answered, with the same value
+ * <code>getAvailableTypes()</code> would have returned. If the display is
+ * disposed before the owners have answered, the future is completed
+ * exceptionally with an <code>SWTException</code> whose code is
+ * <code>ERROR_DEVICE_DISPOSED</code>.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param clipboards from which to get the data types
+ * @return a future that is completed with the data types currently available
+ * on the specified clipboard
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getAvailableTypes(int)
+ * @see Transfer#isSupportedType
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<TransferData[]> getAvailableTypesAsync(int clipboards) {
+	checkWidget();
+	if (GTK.GTK4) {
+		return CompletableFuture.completedFuture(getAvailableTypes(clipboards));
 	}
-	if ((clipboards & DND.SELECTION_CLIPBOARD) != 0) {
-		int[] types = getAvailablePrimaryTypes();
-		int offset = 0;
-		if (result != null) {
-			TransferData[] newResult = new TransferData[result.length + types.length];
-			System.arraycopy(result,0, newResult, 0, result.length);
-			offset = result.length;
-			result = newResult;
-		} else {
-			result = new TransferData[types.length];
-		}
-		for (int i = 0; i < types.length; i++) {
-			result[offset+i] = new TransferData();
-			result[offset+i].type = types[i];
-		}
+	CompletableFuture<int[]> clipboardTypes = requestTargets(GTKCLIPBOARD, (clipboards & DND.CLIPBOARD) != 0);
+	CompletableFuture<int[]> primaryTypes = requestTargets(GTKPRIMARYCLIPBOARD, (clipboards & DND.SELECTION_CLIPBOARD) != 0);
+	return clipboardTypes.thenCombine(primaryTypes, Clipboard::getTransferData);
+}
+
+CompletableFuture<int[]> requestTargets(long clipboard, boolean request) {
+	CompletableFuture<int[]> future = new CompletableFuture<>();
+	if (!request) {
+		future.complete(new int[0]);
+		return future;
+	}
+	ClipboardProxy._getInstance(display).requestContents(clipboard, TARGET, future, selection_data -> {
+		future.complete(selection_data != 0 ? getTargets(selection_data) : new int[0]);
+	});
+	return future;
+}
+
+static TransferData[] getTransferData(int[] clipboardTypes, int[] primaryTypes) {
+	TransferData[] result = new TransferData[clipboardTypes.length + primaryTypes.length];
+	for (int i = 0; i < clipboardTypes.length; i++) {
+		result[i] = new TransferData();
+		result[i].type = clipboardTypes[i];
+	}
+	int offset = clipboardTypes.length;
+	for (int i = 0; i < primaryTypes.length; i++) {
+		result[offset+i] = new TransferData();
+		result[offset+i].type = primaryTypes[i];
 	}
-	return result == null ? new TransferData[0] : result;
+	return result;
 }
 
 /**
@@ -660,13 +844,7 @@ private  int[] getAvailablePrimaryTypes() {
 	long selection_data = gtk_clipboard_wait_for_contents(GTKPRIMARYCLIPBOARD, TARGET);
 	if (selection_data != 0) {
 		try {
-			int length = GTK3.gtk_selection_data_get_length(selection_data);
-			int format = GTK3.gtk_selection_data_get_format(selection_data);
-			long data = GTK3.gtk_selection_data_get_data(selection_data);
-			if (length != 0) {
-				types = new int[length * 8 / format];
-				C.memmove(types, data, length);
-			}
+			types = getTargets(selection_data);
 		} finally {
 			GTK3.gtk_selection_data_free(selection_data);
 		}
@@ -679,13 +857,7 @@ private int[] getAvailableClipboardTypes () {
 	long selection_data  = gtk_clipboard_wait_for_contents(GTKCLIPBOARD, TARGET);
 	if (selection_data != 0) {
 		try {
-			int length = GTK3.gtk_selection_data_get_length(selection_data);
-			int format = GTK3.gtk_selection_data_get_format(selection_data);
-			long data = GTK3.gtk_selection_data_get_data(selection_data);
-			if (length != 0) {
-				types = new int[length * 8 / format];
-				C.memmove(types, data, length);
-			}
+			types = getTargets(selection_data);
 		} finally {
 			GTK3.gtk_selection_data_free(selection_data);
 		}
@@ -693,6 +865,16 @@ private int[] getAvailableClipboardTypes () {
 	return types;
 }
 
+static int[] getTargets(long selection_data) {
+	int length = GTK3.gtk_selection_data_get_length(selection_data);
+	int format = GTK3.gtk_selection_data_get_format(selection_data);
+	long data = GTK3.gtk_selection_data_get_data(selection_data);
+	if (length <= 0 || format == 0) return new int[0];
+	int[] types = new int[length * 8 / format];
+	C.memmove(types, data, length);
+	return types;
+}
+
 long gtk_clipboard_wait_for_contents(long clipboard, long target) {
 	long startTime = System.currentTimeMillis();
 	String key = "org.eclipse.swt.internal.gtk.dispatchEvent";
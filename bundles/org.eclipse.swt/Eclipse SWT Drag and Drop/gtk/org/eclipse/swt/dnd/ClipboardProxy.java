@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,10 @@
 package org.eclipse.swt.dnd;
 
 
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.internal.*;
@@ -38,6 +42,17 @@ class ClipboardProxy {
 	Clipboard activePrimaryClipboard = null;
 	Callback getFunc;
 	Callback clearFunc;
+	Callback receivedFunc;
+
+	/*
+	* Pending gtk_clipboard_request_contents() calls and their futures, keyed by
+	* the user data passed to GTK. The requests stay until GTK has answered them,
+	* also after the proxy is disposed, so that receivedFunc is kept alive for them.
+	*/
+	Map<Integer, LongConsumer> requests = new HashMap<>();
+	Map<Integer, CompletableFuture<?>> futures = new HashMap<>();
+	int nextRequestId;
+	boolean disposed;
 
 	static String ID = "CLIPBOARD PROXY OBJECT"; //$NON-NLS-1$
 
@@ -49,8 +64,13 @@ static ClipboardProxy _getInstance(final Display display) {
 	display.disposeExec(() -> {
 		ClipboardProxy clipbordProxy = (ClipboardProxy)display.getData(ID);
 		if (clipbordProxy == null) return;
-		display.setData(ID, null);
+		/*
+		* Dispose before unregistering, so that code run when the pending
+		* futures complete finds the disposed proxy instead of creating a
+		* new one on the display being disposed.
+		*/
 		clipbordProxy.dispose();
+		display.setData(ID, null);
 	});
 	return proxy;
 }
@@ -59,6 +79,7 @@ ClipboardProxy(Display display) {
 	this.display = display;
 	getFunc = new Callback( this, "getFunc", 4); //$NON-NLS-1$
 	clearFunc = new Callback( this, "clearFunc", 2); //$NON-NLS-1$
+	receivedFunc = new Callback( this, "receivedFunc", 3); //$NON-NLS-1$
 }
 
 void clear (Clipboard owner, int clipboards) {
@@ -80,11 +101,13 @@ void gtk_gdk_clipboard_clear(long clipboard) {
 
 long clearFunc(long clipboard,long user_data_or_owner){
 	if (clipboard == Clipboard.GTKCLIPBOARD) {
+		Clipboard.closeData(clipboardData, primaryClipboardData);
 		activeClipboard = null;
 		clipboardData = null;
 		clipboardDataTypes = null;
 	}
 	if (clipboard == Clipboard.GTKPRIMARYCLIPBOARD) {
+		Clipboard.closeData(primaryClipboardData, clipboardData);
 		activePrimaryClipboard = null;
 		primaryClipboardData = null;
 		primaryClipboardDataTypes = null;
@@ -94,6 +117,7 @@ long clearFunc(long clipboard,long user_data_or_owner){
 
 void dispose () {
 	if (display == null) return;
+	disposed = true;
 	if (activeClipboard != null) {
 		if(!GTK.GTK4) GTK3.gtk_clipboard_store(Clipboard.GTKCLIPBOARD);
 	}
@@ -105,6 +129,19 @@ void dispose () {
 	getFunc = null;
 	if (clearFunc != null) clearFunc.dispose();
 	clearFunc = null;
+	/*
+	* Pending requests can no longer be answered. Fail their futures, and keep
+	* receivedFunc until GTK has called it for every request it still holds.
+	*/
+	CompletableFuture<?>[] pending = futures.values().toArray(new CompletableFuture<?>[futures.size()]);
+	futures.clear();
+	for (CompletableFuture<?> future : pending) {
+		future.completeExceptionally(new SWTException(SWT.ERROR_DEVICE_DISPOSED));
+	}
+	if (requests.isEmpty()) releaseReceivedFunc();
+	/* gtk_clipboard_store() has copied the data that the clipboard manager wanted */
+	Clipboard.closeData(clipboardData, null);
+	Clipboard.closeData(primaryClipboardData, clipboardData);
 	clipboardData = null;
 	clipboardDataTypes = null;
 	primaryClipboardData = null;
@@ -138,7 +175,9 @@ long getFunc(long clipboard, long selection_data, long info, long user_data_or_o
 	}
 	if (index == -1) return 0;
 	Object[] data = (clipboard == Clipboard.GTKCLIPBOARD) ? clipboardData : primaryClipboardData;
-	types[index].javaToNative(data[index], tdata);
+	Object object = Clipboard.getData(types[index], data[index]);
+	if (object == null) return 0;
+	types[index].javaToNative(object, tdata);
 	if (tdata.format < 8 || tdata.format % 8 != 0) {
 		return 0;
 	}
@@ -147,6 +186,49 @@ long getFunc(long clipboard, long selection_data, long info, long user_data_or_o
 	return 1;
 }
 
+/**
+ * Asks the owner of the clipboard for its contents in the given target
+ * without waiting for the answer. The callback is invoked from the event
+ * loop once the data has arrived, with the <code>GtkSelectionData</code>
+ * or <code>0</code> if the clipboard could not be read. The selection data
+ * is owned by GTK and only valid for the duration of the callback.
+ * <p>
+ * When the proxy is disposed, the future is completed exceptionally with
+ * <code>ERROR_DEVICE_DISPOSED</code> instead and the callback is not invoked.
+ * </p>
+ */
+void requestContents(long clipboard, long target, CompletableFuture<?> future, LongConsumer callback) {
+	if (disposed) {
+		future.completeExceptionally(new SWTException(SWT.ERROR_DEVICE_DISPOSED));
+		return;
+	}
+	int id = ++nextRequestId;
+	if (id == 0) id = ++nextRequestId;
+	requests.put(id, callback);
+	futures.put(id, future);
+	GTK3.gtk_clipboard_request_contents(clipboard, target, receivedFunc.getAddress(), id);
+}
+
+long receivedFunc(long clipboard, long selection_data, long user_data) {
+	futures.remove((int)user_data);
+	LongConsumer callback = requests.remove((int)user_data);
+	if (disposed) {
+		if (requests.isEmpty()) releaseReceivedFunc();
+		return 0;
+	}
+	if (callback == null) return 0;
+	if (selection_data != 0 && GTK3.gtk_selection_data_get_length(selection_data) < 0) {
+		selection_data = 0;
+	}
+	callback.accept(selection_data);
+	return 0;
+}
+
+void releaseReceivedFunc() {
+	if (receivedFunc != null) receivedFunc.dispose();
+	receivedFunc = null;
+}
+
 boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipboards) {
 
 	if(GTK.GTK4) return setData_gtk4(owner, data, dataTypes, clipboards);
@@ -179,6 +261,8 @@ boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipbo
 			offset += GtkTargetEntry.sizeof;
 		}
 		if ((clipboards & DND.CLIPBOARD) != 0) {
+			/* GTK does not call clearFunc when the owner sets new contents */
+			Clipboard.closeData(clipboardData, primaryClipboardData);
 			clipboardData = data;
 			clipboardDataTypes = dataTypes;
 			long getFuncProc = getFunc.getAddress();
@@ -200,6 +284,7 @@ boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipbo
 			activeClipboard = owner;
 		}
 		if ((clipboards & DND.SELECTION_CLIPBOARD) != 0) {
+			Clipboard.closeData(primaryClipboardData, clipboardData);
 			primaryClipboardData = data;
 			primaryClipboardDataTypes = dataTypes;
 			long getFuncProc = getFunc.getAddress();
@@ -226,8 +311,10 @@ private boolean setData_gtk4(Clipboard owner, Object[] data, Transfer[] dataType
 	for (int i = 0; i < dataTypes.length; i++) {
 		Transfer transfer = dataTypes[i];
 		String[] typeNames = transfer.getTypeNames();
+		Object object = Clipboard.getData(transfer, data[i]);
+		if (object == null) continue;
 		//Build the GdkContentProvider for each and store in array
-		long provider = setProviderFromType(typeNames[0], data[i]);
+		long provider = setProviderFromType(typeNames[0], object);
 		if(provider != 0) {
 			long[] tmp = new long [providers.length + 1];
 			System.arraycopy(providers, 0, tmp, 0, providers.length);
@@ -245,6 +332,8 @@ private boolean setData_gtk4(Clipboard owner, Object[] data, Transfer[] dataType
 		result = GTK4.gdk_clipboard_set_content(Clipboard.GTKCLIPBOARD, union);
 		activeClipboard = owner;
 	}
+	/* The content providers hold a copy, the suppliers are no longer needed */
+	Clipboard.closeData(data, null);
 	return result;
 }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
 package org.eclipse.swt.dnd;
 
 
+import java.util.concurrent.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
 import org.eclipse.swt.internal.ole.win32.*;
@@ -40,6 +42,7 @@ public class Clipboard {
 	// ole interfaces
 	private COMObject iDataObject;
 	private int refCount;
+	private boolean settingContents;
 	private Transfer[] transferAgents = new Transfer[0];
 	private Object[] data = new Object[0];
 	private int CFSTR_PREFERREDDROPEFFECT;
@@ -367,6 +370,45 @@ public Object getContents(Transfer transfer, int clipboards) {
 	}
 	return null; // No data available for this transfer
 }
+
+/**
+ * Retrieve the data of the specified type currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * The returned future is completed with the same value <code>getContents()</code>
+ * would have returned, or with <code>null</code> if no data of this type is
+ * available. On this platform the clipboard is read synchronously and the
+ * future is already completed when it is returned.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param clipboards on which to look for data
+ *
+ * @return a future that is completed with the data obtained from the clipboard
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer, int)
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<Object> getContentsAsync(Transfer transfer, int clipboards) {
+	return CompletableFuture.completedFuture(getContents(transfer, clipboards));
+}
 /**
  * Returns <code>true</code> if the clipboard has been disposed,
  * and <code>false</code> otherwise.
@@ -447,6 +489,16 @@ public void setContents(Object[] data, Transfer[] dataTypes) {
  * modification may or may not be available when the data is subsequently
  * requested.</p>
  *
+ * <p>An entry in the data array may also be a <code>ClipboardSupplier</code>
+ * of the data. The supplier is only asked for its data when the data is requested
+ * in the format of the corresponding transfer agent, which avoids creating
+ * expensive formats that are never pasted. Where the platform copies the data
+ * immediately, the supplier is asked by this method. If the supplier returns
+ * <code>null</code> or data that is not valid for the transfer agent, the format
+ * is not provided. The supplier is released when the clipboard no longer holds
+ * its data, for example because other contents were set or another application
+ * took ownership of the clipboard.</p>
+ *
  * <p>The clipboards value is either one of the clipboard constants defined in
  * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
  * (that is, using the <code>int</code> "|" operator) two or more
@@ -500,40 +552,82 @@ public void setContents(Object[] data, Transfer[] dataTypes, int clipboards) {
 		DND.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 	for (int i = 0; i < data.length; i++) {
-		if (data[i] == null || dataTypes[i] == null || !dataTypes[i].validate(data[i])) {
+		if (data[i] == null || dataTypes[i] == null || !(data[i] instanceof ClipboardSupplier || dataTypes[i].validate(data[i]))) {
 			DND.error(SWT.ERROR_INVALID_ARGUMENT);
 		}
 	}
 	if ((clipboards & DND.CLIPBOARD) == 0) return;
+	closeData(this.data, data);
 	this.data = data;
 	this.transferAgents = dataTypes;
 	/* OleSetClipboard([in] pDataObject)
 	 * The argument pDataObject is owned by the caller so the reference count does not
 	 * need to be incremented.
 	 */
-	int result = COM.OleSetClipboard(iDataObject.getAddress());
-
-	/*
-	* Bug in Windows. When a new application takes control
-	* of the clipboard, other applications may open the
-	* clipboard to determine if they want to record the
-	* clipboard updates.  When this happens, the clipboard
-	* can not be flushed until the other application is
-	* finished.  To allow other applications to get the
-	* data, use PeekMessage() to enable cross thread
-	* message sends.
-	*/
-	int retryCount = 0;
-	while (result != COM.S_OK && retryCount++ < RETRY_LIMIT) {
-		try {Thread.sleep(50);} catch (Throwable t) {}
-		MSG msg = new MSG();
-		OS.PeekMessage(msg, 0, 0, 0, OS.PM_NOREMOVE | OS.PM_NOYIELD);
+	settingContents = true;
+	int result;
+	try {
 		result = COM.OleSetClipboard(iDataObject.getAddress());
+
+		/*
+		* Bug in Windows. When a new application takes control
+		* of the clipboard, other applications may open the
+		* clipboard to determine if they want to record the
+		* clipboard updates.  When this happens, the clipboard
+		* can not be flushed until the other application is
+		* finished.  To allow other applications to get the
+		* data, use PeekMessage() to enable cross thread
+		* message sends.
+		*/
+		int retryCount = 0;
+		while (result != COM.S_OK && retryCount++ < RETRY_LIMIT) {
+			try {Thread.sleep(50);} catch (Throwable t) {}
+			MSG msg = new MSG();
+			OS.PeekMessage(msg, 0, 0, 0, OS.PM_NOREMOVE | OS.PM_NOYIELD);
+			result = COM.OleSetClipboard(iDataObject.getAddress());
+		}
+	} finally {
+		settingContents = false;
 	}
 	if (result != COM.S_OK) {
 		DND.error(DND.ERROR_CANNOT_SET_CLIPBOARD);
 	}
 }
+
+/*
+ * Returns the data to convert for an entry of the data array passed to
+ * setContents(), obtaining it from the supplier if the entry is a ClipboardSupplier.
+ * Returns null if the supplied data is not valid for the transfer.
+ */
+static Object getData(Transfer transfer, Object data) {
+	if (data instanceof ClipboardSupplier) {
+		data = ((ClipboardSupplier) data).getData();
+		if (data == null || !transfer.validate(data)) return null;
+	}
+	return data;
+}
+
+/*
+ * Releases the suppliers of the data array passed to setContents(), except
+ * those that are still held in the given array.
+ */
+static void closeData(Object[] data, Object[] keep) {
+	if (data == null) return;
+	for (Object object : data) {
+		if (!(object instanceof ClipboardSupplier)) continue;
+		boolean held = false;
+		if (keep != null) {
+			for (Object other : keep) {
+				if (other == object) {
+					held = true;
+					break;
+				}
+			}
+		}
+		if (held) continue;
+		((ClipboardSupplier) object).release();
+	}
+}
 private int AddRef() {
 	refCount++;
 	return refCount;
@@ -637,7 +731,9 @@ private int GetData(long pFormatetc, long pmedium) {
 		}
 	}
 	if (transferIndex == -1) return COM.DV_E_FORMATETC;
-	transferAgents[transferIndex].javaToNative(data[transferIndex], transferData);
+	Object object = getData(transferAgents[transferIndex], data[transferIndex]);
+	if (object == null) return COM.DV_E_FORMATETC;
+	transferAgents[transferIndex].javaToNative(object, transferData);
 	COM.MoveMemory(pmedium, transferData.stgmedium, STGMEDIUM.sizeof);
 	return transferData.result;
 }
@@ -675,7 +771,16 @@ private int QueryInterface(long riid, long ppvObject) {
 }
 private int Release() {
 	refCount--;
+	/*
+	* When only the reference of the receiver is left, the OLE clipboard no
+	* longer holds the data object. Unless new contents are being set, another
+	* application has taken ownership of the clipboard.
+	*/
+	if (refCount == 1 && !settingContents && COM.OleIsCurrentClipboard(iDataObject.getAddress()) != COM.S_OK) {
+		closeData(data, null);
+	}
 	if (refCount == 0) {
+		closeData(data, null);
 		this.data = new Object[0];
 		this.transferAgents = new Transfer[0];
 		disposeCOMInterfaces();
@@ -741,6 +846,41 @@ public TransferData[] getAvailableTypes(int clipboards) {
 	return data;
 }
 
+/**
+ * Returns a future for the data types currently available on the specified
+ * clipboard without blocking the caller.
+ * <p>
+ * The returned future is completed with the same value
+ * <code>getAvailableTypes()</code> would have returned. On this platform the
+ * clipboard is read synchronously and the future is already completed when
+ * it is returned.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param clipboards from which to get the data types
+ * @return a future that is completed with the data types currently available
+ * on the specified clipboard
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #getAvailableTypes(int)
+ * @see Transfer#isSupportedType
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.126
+ */
+public CompletableFuture<TransferData[]> getAvailableTypesAsync(int clipboards) {
+	return CompletableFuture.completedFuture(getAvailableTypes(clipboards));
+}
+
 /**
  * Returns a platform specific list of the data types currently available on the
  * system clipboard.
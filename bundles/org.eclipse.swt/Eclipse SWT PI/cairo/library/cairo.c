@@ -15,7 +15,7 @@
  *
  * IBM
  * -  Binding to permit interfacing between Cairo and SWT
- * -  Copyright (C) 2005, 2022 IBM Corp.  All Rights Reserved.
+ * -  Copyright (C) 2005, 2024 IBM Corp.  All Rights Reserved.
  *
  * ***** END LICENSE BLOCK ***** */
 
@@ -87,6 +87,29 @@ JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1clip)
 }
 #endif
 
+#ifndef NO_cairo_1clip_1extents
+JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1clip_1extents)
+	(JNIEnv *env, jclass that, jlong arg0, jdoubleArray arg1, jdoubleArray arg2, jdoubleArray arg3, jdoubleArray arg4)
+{
+	jdouble *lparg1=NULL;
+	jdouble *lparg2=NULL;
+	jdouble *lparg3=NULL;
+	jdouble *lparg4=NULL;
+	Cairo_NATIVE_ENTER(env, that, cairo_1clip_1extents_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetDoubleArrayElements(env, arg1, NULL)) == NULL) goto fail;
+	if (arg2) if ((lparg2 = (*env)->GetDoubleArrayElements(env, arg2, NULL)) == NULL) goto fail;
+	if (arg3) if ((lparg3 = (*env)->GetDoubleArrayElements(env, arg3, NULL)) == NULL) goto fail;
+	if (arg4) if ((lparg4 = (*env)->GetDoubleArrayElements(env, arg4, NULL)) == NULL) goto fail;
+	cairo_clip_extents((cairo_t *)arg0, (double *)lparg1, (double *)lparg2, (double *)lparg3, (double *)lparg4);
+fail:
+	if (arg4 && lparg4) (*env)->ReleaseDoubleArrayElements(env, arg4, lparg4, 0);
+	if (arg3 && lparg3) (*env)->ReleaseDoubleArrayElements(env, arg3, lparg3, 0);
+	if (arg2 && lparg2) (*env)->ReleaseDoubleArrayElements(env, arg2, lparg2, 0);
+	if (arg1 && lparg1) (*env)->ReleaseDoubleArrayElements(env, arg1, lparg1, 0);
+	Cairo_NATIVE_EXIT(env, that, cairo_1clip_1extents_FUNC);
+}
+#endif
+
 #ifndef NO_cairo_1close_1path
 JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1close_1path)
 	(JNIEnv *env, jclass that, jlong arg0)
@@ -332,6 +355,18 @@ JNIEXPORT jlong JNICALL Cairo_NATIVE(cairo_1image_1surface_1create)
 }
 #endif
 
+#ifndef NO_cairo_1image_1surface_1create_1for_1data
+JNIEXPORT jlong JNICALL Cairo_NATIVE(cairo_1image_1surface_1create_1for_1data)
+	(JNIEnv *env, jclass that, jlong arg0, jint arg1, jint arg2, jint arg3, jint arg4)
+{
+	jlong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, cairo_1image_1surface_1create_1for_1data_FUNC);
+	rc = (jlong)cairo_image_surface_create_for_data((unsigned char *)arg0, arg1, arg2, arg3, arg4);
+	Cairo_NATIVE_EXIT(env, that, cairo_1image_1surface_1create_1for_1data_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_cairo_1image_1surface_1get_1data
 JNIEXPORT jlong JNICALL Cairo_NATIVE(cairo_1image_1surface_1get_1data)
 	(JNIEnv *env, jclass that, jlong arg0)
@@ -760,6 +795,22 @@ JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1push_1group)
 }
 #endif
 
+#ifndef NO_cairo_1recording_1surface_1create
+JNIEXPORT jlong JNICALL Cairo_NATIVE(cairo_1recording_1surface_1create)
+	(JNIEnv *env, jclass that, jint arg0, jdoubleArray arg1)
+{
+	jdouble *lparg1=NULL;
+	jlong rc = 0;
+	Cairo_NATIVE_ENTER(env, that, cairo_1recording_1surface_1create_FUNC);
+	if (arg1) if ((lparg1 = (*env)->GetDoubleArrayElements(env, arg1, NULL)) == NULL) goto fail;
+	rc = (jlong)cairo_recording_surface_create((cairo_content_t)arg0, (cairo_rectangle_t *)lparg1);
+fail:
+	if (arg1 && lparg1) (*env)->ReleaseDoubleArrayElements(env, arg1, lparg1, JNI_ABORT);
+	Cairo_NATIVE_EXIT(env, that, cairo_1recording_1surface_1create_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_cairo_1rectangle
 JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1rectangle)
 	(JNIEnv *env, jclass that, jlong arg0, jdouble arg1, jdouble arg2, jdouble arg3, jdouble arg4)
@@ -1294,6 +1345,16 @@ JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1surface_1mark_1dirty)
 }
 #endif
 
+#ifndef NO_cairo_1surface_1mark_1dirty_1rectangle
+JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1surface_1mark_1dirty_1rectangle)
+	(JNIEnv *env, jclass that, jlong arg0, jint arg1, jint arg2, jint arg3, jint arg4)
+{
+	Cairo_NATIVE_ENTER(env, that, cairo_1surface_1mark_1dirty_1rectangle_FUNC);
+	cairo_surface_mark_dirty_rectangle((cairo_surface_t *)arg0, arg1, arg2, arg3, arg4);
+	Cairo_NATIVE_EXIT(env, that, cairo_1surface_1mark_1dirty_1rectangle_FUNC);
+}
+#endif
+
 #ifndef NO_cairo_1surface_1reference
 JNIEXPORT void JNICALL Cairo_NATIVE(cairo_1surface_1reference)
 	(JNIEnv *env, jclass that, jlong arg0)
@@ -35,6 +35,7 @@ typedef enum {
 	cairo_1arc_FUNC,
 	cairo_1arc_1negative_FUNC,
 	cairo_1clip_FUNC,
+	cairo_1clip_1extents_FUNC,
 	cairo_1close_1path_FUNC,
 	cairo_1copy_1path_FUNC,
 	cairo_1copy_1path_1flat_FUNC,
@@ -56,6 +57,7 @@ typedef enum {
 	cairo_1get_1tolerance_FUNC,
 	cairo_1identity_1matrix_FUNC,
 	cairo_1image_1surface_1create_FUNC,
+	cairo_1image_1surface_1create_1for_1data_FUNC,
 	cairo_1image_1surface_1get_1data_FUNC,
 	cairo_1image_1surface_1get_1format_FUNC,
 	cairo_1image_1surface_1get_1height_FUNC,
@@ -90,6 +92,7 @@ typedef enum {
 	cairo_1pop_1group_1to_1source_FUNC,
 	cairo_1ps_1surface_1set_1size_FUNC,
 	cairo_1push_1group_FUNC,
+	cairo_1recording_1surface_1create_FUNC,
 	cairo_1rectangle_FUNC,
 	cairo_1rectangle_1int_1t_1sizeof_FUNC,
 	cairo_1reference_FUNC,
@@ -137,6 +140,7 @@ typedef enum {
 	cairo_1surface_1get_1device_1scale_FUNC,
 	cairo_1surface_1get_1type_FUNC,
 	cairo_1surface_1mark_1dirty_FUNC,
+	cairo_1surface_1mark_1dirty_1rectangle_FUNC,
 	cairo_1surface_1reference_FUNC,
 	cairo_1surface_1set_1device_1scale_FUNC,
 	cairo_1transform_FUNC,
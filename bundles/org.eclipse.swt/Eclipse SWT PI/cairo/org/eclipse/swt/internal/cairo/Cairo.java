@@ -15,7 +15,7 @@
  *
  * IBM
  * -  Binding to permit interfacing between Cairo and SWT
- * -  Copyright (C) 2005, 2018 IBM Corp.  All Rights Reserved.
+ * -  Copyright (C) 2005, 2024 IBM Corp.  All Rights Reserved.
  *
  * ***** END LICENSE BLOCK ***** */
 package org.eclipse.swt.internal.cairo;
@@ -94,6 +94,14 @@ public static final native void cairo_arc(long cr, double xc, double yc, double
 public static final native void cairo_arc_negative(long cr, double xc, double yc, double radius, double angle1, double angle2);
 /** @param cr cast=(cairo_t *) */
 public static final native void cairo_clip(long cr);
+/**
+ * @param cr cast=(cairo_t *)
+ * @param x1 cast=(double *)
+ * @param y1 cast=(double *)
+ * @param x2 cast=(double *)
+ * @param y2 cast=(double *)
+ */
+public static final native void cairo_clip_extents(long cr, double[] x1, double[] y1, double[] x2, double[] y2);
 /** @param cr cast=(cairo_t *) */
 public static final native void cairo_close_path(long cr);
 /** @param cr cast=(cairo_t *) */
@@ -137,6 +145,8 @@ public static final native double cairo_get_tolerance(long cr);
 /** @param cr cast=(cairo_t *) */
 public static final native void cairo_identity_matrix(long cr);
 public static final native long cairo_image_surface_create(int format, int width, int height);
+/** @param data cast=(unsigned char *) */
+public static final native long cairo_image_surface_create_for_data(long data, int format, int width, int height, int stride);
 /**
  * @param surface cast=(cairo_surface_t *)
  */
@@ -223,6 +233,11 @@ public static final native void cairo_pop_group_to_source(long cairo);
  * @param surface cast=(cairo_surface_t *)
  */
 public static final native void cairo_ps_surface_set_size(long surface, double width_in_points, double height_in_points);
+/**
+ * @param content cast=(cairo_content_t)
+ * @param extents cast=(cairo_rectangle_t *),flags=no_out
+ */
+public static final native long cairo_recording_surface_create(int content, double[] extents);
 /** @param cr cast=(cairo_t *) */
 public static final native void cairo_rectangle(long cr, double x, double y, double width, double height);
 /** @param cr cast=(cairo_t *) */
@@ -312,6 +327,8 @@ public static final native int cairo_surface_get_content(long surface);
 /** @param surface cast=(cairo_surface_t *) */
 public static final native void cairo_surface_mark_dirty(long surface);
 /** @param surface cast=(cairo_surface_t *) */
+public static final native void cairo_surface_mark_dirty_rectangle(long surface, int x, int y, int width, int height);
+/** @param surface cast=(cairo_surface_t *) */
 public static final native void cairo_surface_reference(long surface);
 /**
  * @param cr cast=(cairo_t *)
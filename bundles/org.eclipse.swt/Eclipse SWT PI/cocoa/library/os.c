@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -7151,6 +7151,29 @@ fail:
 }
 #endif
 
+#ifndef NO_objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2
+JNIEXPORT void JNICALL OS_NATIVE(objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2)
+	(JNIEnv *env, jclass that, jobject arg0, jlong arg1, jlong arg2, jobject arg3)
+{
+	NSRange _arg0, *lparg0=NULL;
+	NSRange _arg3, *lparg3=NULL;
+	OS_NATIVE_ENTER(env, that, objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2_FUNC);
+	if (arg0) if ((lparg0 = getNSRangeFields(env, arg0, &_arg0)) == NULL) goto fail;
+	if (arg3) if ((lparg3 = getNSRangeFields(env, arg3, &_arg3)) == NULL) goto fail;
+	if (STRUCT_SIZE_LIMIT == 0) {
+		((void (*)(NSRange *, jlong, jlong, NSRange))objc_msgSend_stret)(lparg0, arg1, arg2, *lparg3);
+	} else if (sizeof(_arg0) > STRUCT_SIZE_LIMIT) {
+		*lparg0 = (*(NSRange (*)(jlong, jlong, NSRange))objc_msgSend_stret)(arg1, arg2, *lparg3);
+	} else {
+		*lparg0 = (*(NSRange (*)(jlong, jlong, NSRange))objc_msgSend)(arg1, arg2, *lparg3);
+	}
+fail:
+	if (arg3 && lparg3) setNSRangeFields(env, arg3, lparg3);
+	if (arg0 && lparg0) setNSRangeFields(env, arg0, lparg0);
+	OS_NATIVE_EXIT(env, that, objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2_FUNC);
+}
+#endif
+
 #ifndef NO_objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2J
 JNIEXPORT void JNICALL OS_NATIVE(objc_1msgSend_1stret__Lorg_eclipse_swt_internal_cocoa_NSRange_2JJLorg_eclipse_swt_internal_cocoa_NSRange_2J)
 	(JNIEnv *env, jclass that, jobject arg0, jlong arg1, jlong arg2, jobject arg3, jlong arg4)
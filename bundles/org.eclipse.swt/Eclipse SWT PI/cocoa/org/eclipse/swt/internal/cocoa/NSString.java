@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -83,6 +83,12 @@ public long length() {
 	return OS.objc_msgSend(this.id, OS.sel_length);
 }
 
+public NSRange lineRangeForRange(NSRange range) {
+	NSRange result = new NSRange();
+	OS.objc_msgSend_stret(result, this.id, OS.sel_lineRangeForRange_, range);
+	return result;
+}
+
 public NSString lowercaseString() {
 	long result = OS.objc_msgSend(this.id, OS.sel_lowercaseString);
 	return result == this.id ? this : (result != 0 ? new NSString(result) : null);
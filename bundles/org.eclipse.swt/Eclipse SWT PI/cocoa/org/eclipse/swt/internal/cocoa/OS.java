@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2022 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1392,6 +1392,7 @@ public static final long sel_length = Selector.sel_length.value;
 public static final long sel_levelForItem_ = Selector.sel_levelForItem_.value;
 public static final long sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_ = Selector.sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_.value;
 public static final long sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_withoutAdditionalLayout_ = Selector.sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_withoutAdditionalLayout_.value;
+public static final long sel_lineRangeForRange_ = Selector.sel_lineRangeForRange_.value;
 public static final long sel_lineToPoint_ = Selector.sel_lineToPoint_.value;
 public static final long sel_linkTextAttributes = Selector.sel_linkTextAttributes.value;
 public static final long sel_loadHTMLString_baseURL_ = Selector.sel_loadHTMLString_baseURL_.value;
@@ -3678,6 +3679,11 @@ public static final native void objc_msgSend_stret(NSPoint result, long id, long
 public static final native void objc_msgSend_stret(NSPoint result, long id, long sel, long arg0);
 /** @method flags=cast */
 public static final native void objc_msgSend_stret(NSRange result, long id, long sel);
+/**
+ * @method flags=cast
+ * @param arg0 flags=struct
+ */
+public static final native void objc_msgSend_stret(NSRange result, long id, long sel, NSRange arg0);
 /**
  * @method flags=cast
  * @param arg0 flags=struct
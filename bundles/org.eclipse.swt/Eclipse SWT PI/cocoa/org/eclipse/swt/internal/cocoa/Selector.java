@@ -635,6 +635,7 @@ public enum Selector {
 	, sel_levelForItem_("levelForItem:")
 	, sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_("lineFragmentUsedRectForGlyphAtIndex:effectiveRange:")
 	, sel_lineFragmentUsedRectForGlyphAtIndex_effectiveRange_withoutAdditionalLayout_("lineFragmentUsedRectForGlyphAtIndex:effectiveRange:withoutAdditionalLayout:")
+	, sel_lineRangeForRange_("lineRangeForRange:")
 	, sel_lineToPoint_("lineToPoint:")
 	, sel_linkTextAttributes("linkTextAttributes")
 	, sel_loadHTMLString_baseURL_("loadHTMLString:baseURL:")
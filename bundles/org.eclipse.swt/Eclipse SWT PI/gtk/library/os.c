@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others. All rights reserved.
+ * Copyright (c) 2000, 2024 IBM Corporation and others. All rights reserved.
  * The contents of this file are made available under the terms
  * of the GNU Lesser General Public License (LGPL) Version 2.1 that
  * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
@@ -1556,6 +1556,18 @@ JNIEXPORT jlong JNICALL GDK_NATIVE(gdk_1pixbuf_1animation_1iter_1get_1pixbuf)
 }
 #endif
 
+#ifndef NO_gdk_1pixbuf_1animation_1iter_1on_1currently_1loading_1frame
+JNIEXPORT jboolean JNICALL GDK_NATIVE(gdk_1pixbuf_1animation_1iter_1on_1currently_1loading_1frame)
+	(JNIEnv *env, jclass that, jlong arg0)
+{
+	jboolean rc = 0;
+	GDK_NATIVE_ENTER(env, that, gdk_1pixbuf_1animation_1iter_1on_1currently_1loading_1frame_FUNC);
+	rc = (jboolean)gdk_pixbuf_animation_iter_on_currently_loading_frame((GdkPixbufAnimationIter *)arg0);
+	GDK_NATIVE_EXIT(env, that, gdk_1pixbuf_1animation_1iter_1on_1currently_1loading_1frame_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_gdk_1pixbuf_1copy
 JNIEXPORT jlong JNICALL GDK_NATIVE(gdk_1pixbuf_1copy)
 	(JNIEnv *env, jclass that, jlong arg0)
@@ -4196,6 +4208,16 @@ JNIEXPORT void JNICALL GTK_NATIVE(gtk_1combo_1box_1set_1active)
 }
 #endif
 
+#ifndef NO_gtk_1combo_1box_1set_1model
+JNIEXPORT void JNICALL GTK_NATIVE(gtk_1combo_1box_1set_1model)
+	(JNIEnv *env, jclass that, jlong arg0, jlong arg1)
+{
+	GTK_NATIVE_ENTER(env, that, gtk_1combo_1box_1set_1model_FUNC);
+	gtk_combo_box_set_model((GtkComboBox *)arg0, (GtkTreeModel *)arg1);
+	GTK_NATIVE_EXIT(env, that, gtk_1combo_1box_1set_1model_FUNC);
+}
+#endif
+
 #ifndef NO_gtk_1combo_1box_1text_1insert
 JNIEXPORT void JNICALL GTK_NATIVE(gtk_1combo_1box_1text_1insert)
 	(JNIEnv *env, jclass that, jlong arg0, jint arg1, jbyteArray arg2, jbyteArray arg3)
@@ -11568,6 +11590,18 @@ JNIEXPORT jint JNICALL OS_NATIVE(g_1idle_1add)
 }
 #endif
 
+#ifndef NO_g_1idle_1add_1full
+JNIEXPORT jint JNICALL OS_NATIVE(g_1idle_1add_1full)
+	(JNIEnv *env, jclass that, jint arg0, jlong arg1, jlong arg2, jlong arg3)
+{
+	jint rc = 0;
+	OS_NATIVE_ENTER(env, that, g_1idle_1add_1full_FUNC);
+	rc = (jint)g_idle_add_full((gint)arg0, (GSourceFunc)arg1, (gpointer)arg2, (GDestroyNotify)arg3);
+	OS_NATIVE_EXIT(env, that, g_1idle_1add_1full_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_g_1list_1append
 JNIEXPORT jlong JNICALL OS_NATIVE(g_1list_1append)
 	(JNIEnv *env, jclass that, jlong arg0, jlong arg1)
@@ -14010,6 +14044,18 @@ JNIEXPORT jlong JNICALL OS_NATIVE(pango_1cairo_1context_1get_1font_1options)
 }
 #endif
 
+#ifndef NO_pango_1cairo_1context_1get_1resolution
+JNIEXPORT jdouble JNICALL OS_NATIVE(pango_1cairo_1context_1get_1resolution)
+	(JNIEnv *env, jclass that, jlong arg0)
+{
+	jdouble rc = 0;
+	OS_NATIVE_ENTER(env, that, pango_1cairo_1context_1get_1resolution_FUNC);
+	rc = (jdouble)pango_cairo_context_get_resolution((PangoContext *)arg0);
+	OS_NATIVE_EXIT(env, that, pango_1cairo_1context_1get_1resolution_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_pango_1cairo_1context_1set_1font_1options
 JNIEXPORT void JNICALL OS_NATIVE(pango_1cairo_1context_1set_1font_1options)
 	(JNIEnv *env, jclass that, jlong arg0, jlong arg1)
@@ -14076,6 +14122,18 @@ JNIEXPORT jint JNICALL OS_NATIVE(pango_1context_1get_1base_1dir)
 }
 #endif
 
+#ifndef NO_pango_1context_1get_1font_1map
+JNIEXPORT jlong JNICALL OS_NATIVE(pango_1context_1get_1font_1map)
+	(JNIEnv *env, jclass that, jlong arg0)
+{
+	jlong rc = 0;
+	OS_NATIVE_ENTER(env, that, pango_1context_1get_1font_1map_FUNC);
+	rc = (jlong)pango_context_get_font_map((PangoContext *)arg0);
+	OS_NATIVE_EXIT(env, that, pango_1context_1get_1font_1map_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_pango_1context_1get_1language
 JNIEXPORT jlong JNICALL OS_NATIVE(pango_1context_1get_1language)
 	(JNIEnv *env, jclass that, jlong arg0)
@@ -15061,6 +15119,20 @@ JNIEXPORT void JNICALL OS_NATIVE(swt_1fixed_1restack)
 }
 #endif
 
+#ifndef NO_swt_1list_1store_1append_1strings
+JNIEXPORT void JNICALL OS_NATIVE(swt_1list_1store_1append_1strings)
+	(JNIEnv *env, jclass that, jlong arg0, jint arg1, jbyteArray arg2, jint arg3)
+{
+	jbyte *lparg2=NULL;
+	OS_NATIVE_ENTER(env, that, swt_1list_1store_1append_1strings_FUNC);
+	if (arg2) if ((lparg2 = (*env)->GetByteArrayElements(env, arg2, NULL)) == NULL) goto fail;
+	swt_list_store_append_strings((GtkListStore *)arg0, (gint)arg1, (const gchar *)lparg2, (gint)arg3);
+fail:
+	if (arg2 && lparg2) (*env)->ReleaseByteArrayElements(env, arg2, lparg2, JNI_ABORT);
+	OS_NATIVE_EXIT(env, that, swt_1list_1store_1append_1strings_FUNC);
+}
+#endif
+
 #ifndef NO_swt_1set_1lock_1functions
 JNIEXPORT void JNICALL OS_NATIVE(swt_1set_1lock_1functions)
 	(JNIEnv *env, jclass that)
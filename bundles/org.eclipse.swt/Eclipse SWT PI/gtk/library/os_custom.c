@@ -1,5 +1,5 @@
 /*******************************************************************************
-* Copyright (c) 2000, 2013 IBM Corporation and others. All rights reserved.
+* Copyright (c) 2000, 2024 IBM Corporation and others. All rights reserved.
 * The contents of this file are made available under the terms
 * of the GNU Lesser General Public License (LGPL) Version 2.1 that
 * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
@@ -51,6 +51,18 @@ JNIEXPORT jboolean JNICALL OS_NATIVE(GDK_1WINDOWING_1WAYLAND)
 }
 #endif
 
+#ifndef NO_GetDirectBufferAddress
+JNIEXPORT jlong JNICALL OS_NATIVE(GetDirectBufferAddress)
+	(JNIEnv *env, jclass that, jobject arg0)
+{
+	jlong rc = 0;
+	OS_NATIVE_ENTER(env, that, GetDirectBufferAddress_FUNC);
+	rc = (jlong)(*env)->GetDirectBufferAddress(env, arg0);
+	OS_NATIVE_EXIT(env, that, GetDirectBufferAddress_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO_imContextNewProc_1CALLBACK
 static jlong superIMContextNewProc;
 static GtkIMContext* lastIMContext;
@@ -155,6 +167,15 @@ JNIEXPORT jlong JNICALL OS_NATIVE(printerOptionWidgetNewProc_1CALLBACK)
 }
 #endif
 
+void swt_list_store_append_strings(GtkListStore *store, gint column, const gchar *strings, gint count) {
+	GtkTreeIter iter;
+	gint i;
+	for (i = 0; i < count; i++) {
+		gtk_list_store_insert_with_values(store, &iter, -1, column, strings, -1);
+		strings += strlen(strings) + 1;
+	}
+}
+
 glong g_utf16_strlen(const gchar *str, glong max) {
 	const gchar *s = str;
 	guchar ch;
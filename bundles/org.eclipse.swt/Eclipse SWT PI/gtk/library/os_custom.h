@@ -1,5 +1,5 @@
 /*******************************************************************************
-* Copyright (c) 2000, 2018 IBM Corporation and others. All rights reserved.
+* Copyright (c) 2000, 2024 IBM Corporation and others. All rights reserved.
 * The contents of this file are made available under the terms
 * of the GNU Lesser General Public License (LGPL) Version 2.1 that
 * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
@@ -183,6 +183,7 @@ void swt_fixed_accessible_register_accessible (AtkObject *obj, gboolean is_nativ
 #endif
 jlong call_accessible_object_function (const char *method_name, const char *method_signature,...);
 
+void swt_list_store_append_strings(GtkListStore *store, gint column, const gchar *strings, gint count);
 void swt_set_lock_functions();
 void swt_debug_on_fatal_warnings() ;
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others. All rights reserved.
+ * Copyright (c) 2000, 2024 IBM Corporation and others. All rights reserved.
  * The contents of this file are made available under the terms
  * of the GNU Lesser General Public License (LGPL) Version 2.1 that
  * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
@@ -122,6 +122,7 @@ typedef enum {
 	gdk_1pixbuf_1animation_1iter_1advance_FUNC,
 	gdk_1pixbuf_1animation_1iter_1get_1delay_1time_FUNC,
 	gdk_1pixbuf_1animation_1iter_1get_1pixbuf_FUNC,
+	gdk_1pixbuf_1animation_1iter_1on_1currently_1loading_1frame_FUNC,
 	gdk_1pixbuf_1copy_FUNC,
 	gdk_1pixbuf_1copy_1area_FUNC,
 	gdk_1pixbuf_1format_1get_1name_FUNC,
@@ -331,6 +332,7 @@ typedef enum {
 	gtk_1combo_1box_1popdown_FUNC,
 	gtk_1combo_1box_1popup_FUNC,
 	gtk_1combo_1box_1set_1active_FUNC,
+	gtk_1combo_1box_1set_1model_FUNC,
 	gtk_1combo_1box_1text_1insert_FUNC,
 	gtk_1combo_1box_1text_1new_FUNC,
 	gtk_1combo_1box_1text_1new_1with_1entry_FUNC,
@@ -840,6 +842,7 @@ typedef enum {
 	G_1TYPE_1LONG_FUNC,
 	G_1TYPE_1STRING_FUNC,
 	G_1VALUE_1TYPE_FUNC,
+	GetDirectBufferAddress_FUNC,
 	PANGO_1PIXELS_FUNC,
 	PANGO_1TYPE_1FONT_1DESCRIPTION_FUNC,
 	PANGO_1TYPE_1FONT_1FACE_FUNC,
@@ -930,6 +933,7 @@ typedef enum {
 	g_1icon_1new_1for_1string_FUNC,
 	g_1icon_1to_1string_FUNC,
 	g_1idle_1add_FUNC,
+	g_1idle_1add_1full_FUNC,
 	g_1list_1append_FUNC,
 	g_1list_1data_FUNC,
 	g_1list_1free_FUNC,
@@ -1123,12 +1127,14 @@ typedef enum {
 	pango_1attr_1weight_1new_FUNC,
 	pango_1attribute_1copy_FUNC,
 	pango_1cairo_1context_1get_1font_1options_FUNC,
+	pango_1cairo_1context_1get_1resolution_FUNC,
 	pango_1cairo_1context_1set_1font_1options_FUNC,
 	pango_1cairo_1create_1layout_FUNC,
 	pango_1cairo_1font_1map_1get_1default_FUNC,
 	pango_1cairo_1layout_1path_FUNC,
 	pango_1cairo_1show_1layout_FUNC,
 	pango_1context_1get_1base_1dir_FUNC,
+	pango_1context_1get_1font_1map_FUNC,
 	pango_1context_1get_1language_FUNC,
 	pango_1context_1get_1metrics_FUNC,
 	pango_1context_1list_1families_FUNC,
@@ -1212,6 +1218,7 @@ typedef enum {
 	swt_1fixed_1remove_FUNC,
 	swt_1fixed_1resize_FUNC,
 	swt_1fixed_1restack_FUNC,
+	swt_1list_1store_1append_1strings_FUNC,
 	swt_1set_1lock_1functions_FUNC,
 	ubuntu_1menu_1proxy_1get_FUNC,
 } OS_FUNCS;
@@ -535,6 +535,11 @@ public class GTK extends OS {
 	* @param index cast=(gint)
 	*/
 	public static final native void gtk_combo_box_set_active(long combo_box, int index);
+	/**
+	* @param combo_box cast=(GtkComboBox *)
+	* @param model cast=(GtkTreeModel *)
+	*/
+	public static final native void gtk_combo_box_set_model(long combo_box, long model);
 
 	/**
 	* @param combo_box cast=(GtkComboBox *)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others. All rights reserved.
+ * Copyright (c) 2000, 2024 IBM Corporation and others. All rights reserved.
  * The contents of this file are made available under the terms
  * of the GNU Lesser General Public License (LGPL) Version 2.1 that
  * accompanies this distribution (lgpl-v21.txt).  The LGPL is also
@@ -14,6 +14,7 @@
  *******************************************************************************/
 package org.eclipse.swt.internal.gtk;
 
+import java.nio.*;
 import java.util.*;
 
 import org.eclipse.swt.internal.*;
@@ -153,6 +154,7 @@ public class OS extends C {
 	public static final int G_LOG_FLAG_FATAL = 0x2;
 	public static final int G_LOG_FLAG_RECURSION = 0x1;
 	public static final int G_LOG_LEVEL_MASK = 0xfffffffc;
+	public static final int G_PRIORITY_HIGH_IDLE = 100;
 	public static final int G_APP_INFO_CREATE_NONE = 0;
 	public static final int G_APP_INFO_CREATE_SUPPORTS_URIS  = (1 << 1);
 	public static final int GTK_TYPE_TEXT_BUFFER = 21;
@@ -448,6 +450,11 @@ public class OS extends C {
 	 * @category custom
 	 */
 	public static final native boolean GDK_WINDOWING_WAYLAND();
+	/**
+	 * @method flags=no_gen
+	 * @category custom
+	 */
+	public static final native long GetDirectBufferAddress(ByteBuffer buffer);
 	/** Custom callbacks */
 	/** @method flags=no_gen
 	 * @category custom
@@ -526,6 +533,15 @@ public class OS extends C {
 	 * @category custom
 	 */
 	public static final native void swt_fixed_remove(long container, long widget);
+	/**
+	 * @param store cast=(GtkListStore *)
+	 * @param column cast=(gint)
+	 * @param strings cast=(const gchar *),flags=no_out
+	 * @param count cast=(gint)
+	 * @category custom
+	 */
+	/* Appends a row for each of the count consecutive null-terminated strings, setting it in the column */
+	public static final native void swt_list_store_append_strings(long store, int column, byte[] strings, int count);
 	public static final native void swt_set_lock_functions();
 	/** @param str cast=(const gchar *)
 	 * @category custom
@@ -1064,6 +1080,12 @@ public static final native void g_time_val_add(long result, long microseconds);
  * @param data cast=(gpointer)
  */
 public static final native int g_idle_add(long function, long data);
+/**
+ * @param function cast=(GSourceFunc)
+ * @param data cast=(gpointer)
+ * @param notify cast=(GDestroyNotify)
+ */
+public static final native int g_idle_add_full(int priority, long function, long data, long notify);
 /**
  * @param list cast=(GList *)
  * @param data cast=(gpointer)
@@ -1555,6 +1577,10 @@ public static final native long pango_cairo_font_map_get_default();
  * @param context cast=(PangoContext *)
  */
 public static final native long pango_cairo_context_get_font_options(long context);
+/**
+ * @param context cast=(PangoContext *)
+ */
+public static final native double pango_cairo_context_get_resolution(long context);
 /**
  * @param context cast=(PangoContext *)
  * @param options cast=( cairo_font_options_t *)
@@ -1573,6 +1599,8 @@ public static final native void pango_cairo_show_layout(long cairo, long layout)
 /** @param context cast=(PangoContext *) */
 public static final native int pango_context_get_base_dir(long context);
 /** @param context cast=(PangoContext *) */
+public static final native long pango_context_get_font_map(long context);
+/** @param context cast=(PangoContext *) */
 public static final native long pango_context_get_language(long context);
 /**
  * @param context cast=(PangoContext *)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -90,7 +90,7 @@ public class ImageLoader {
 	public int repeatCount;
 
 	/**
-	 * This is the compression used when saving jpeg and png files.
+	 * This is the compression used when saving jpeg, png and tiff files.
 	 * <p>
 	 * When saving jpeg files, the value is from 1 to 100,
 	 * where 1 is very high compression but low quality, and 100 is
@@ -99,6 +99,9 @@ public class ImageLoader {
 	 * When saving png files, the value is from 0 to 3, but they do not impact the quality
 	 * because PNG is lossless compression. 0 is uncompressed, 1 is low compression and fast,
 	 * 2 is default compression, and 3 is high compression but slow.
+	 * </p><p>
+	 * When saving tiff files, 0 is uncompressed, 1 is LZW compression and 2 is
+	 * Deflate compression. Other values save uncompressed files.
 	 * </p>
 	 *
 	 * @since 3.8
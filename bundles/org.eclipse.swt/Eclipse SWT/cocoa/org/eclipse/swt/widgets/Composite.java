@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1305,7 +1305,10 @@ void updateLayout (boolean all) {
 		boolean changed = (state & LAYOUT_CHANGED) != 0;
 		state &= ~(LAYOUT_NEEDED | LAYOUT_CHANGED);
 		display.runSkin ();
+		Instrumentation instrumentation = display.instrumentation;
+		long start = instrumentation != null ? System.nanoTime () : 0;
 		layout.layout (this, changed);
+		if (instrumentation != null) instrumentation.layout (this, -1, -1, System.nanoTime () - start);
 	}
 	if (all) {
 		state &= ~LAYOUT_CHILD;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -136,6 +136,7 @@ public class Display extends Device implements Executor {
 
 	/* Sync/Async Widget Communication */
 	Synchronizer synchronizer;
+	Instrumentation instrumentation;
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
 	Thread thread;
@@ -348,6 +349,7 @@ public class Display extends Device implements Executor {
 	/* Timer */
 	Runnable timerList [];
 	NSTimer nsTimers [];
+	long timerDeadlines [];
 	SWTWindowDelegate timerDelegate;
 	static SWTApplicationDelegate applicationDelegate;
 	static NSObject currAppDelegate;
@@ -1808,6 +1810,26 @@ NSPanel getModalPanel () {
 	return modalPanel;
 }
 
+/**
+ * Returns the instrumentation that is told how long the user-interface
+ * thread of the receiver spends on layouts, paints and runnables, or
+ * <code>null</code> if the receiver is not instrumented.
+ *
+ * @return the instrumentation of the receiver, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setInstrumentation(Instrumentation)
+ * @since 3.126
+ */
+public Instrumentation getInstrumentation () {
+	checkDevice ();
+	return instrumentation;
+}
+
 /**
  * Returns an array of monitors attached to the device.
  *
@@ -4133,6 +4155,7 @@ void releaseDisplay () {
 		}
 	}
 	nsTimers = null;
+	timerDeadlines = null;
 	if (timerDelegate != null) timerDelegate.release();
 	timerDelegate = null;
 
@@ -4592,10 +4615,15 @@ boolean runTimers () {
 	for (int i=0; i<timerList.length; i++) {
 		if (nsTimers [i] == null && timerList [i] != null) {
 			Runnable runnable = timerList [i];
+			long deadline = timerDeadlines [i];
 			timerList [i] = null;
+			timerDeadlines [i] = 0;
 			if (runnable != null) {
 				result = true;
+				Instrumentation instrumentation = deadline != 0 ? this.instrumentation : null;
+				long start = instrumentation != null ? System.nanoTime () : 0;
 				runnable.run ();
+				if (instrumentation != null) instrumentation.timerExec (runnable, start - deadline, System.nanoTime () - start);
 			}
 		}
 	}
@@ -4638,11 +4666,14 @@ void sendEvent (EventTable table, Event event) {
 		if (!filterEvent (event)) {
 			if (table != null) {
 				int type = event.type;
+				Widget widget = event.widget;
+				long start = type == SWT.Paint && instrumentation != null ? System.nanoTime () : 0;
 				sendPreEvent (type);
 				try {
 					table.sendEvent (event);
 				} finally {
 					sendPostEvent (type);
+					if (start != 0 && instrumentation != null) instrumentation.paint (widget, System.nanoTime () - start);
 				}
 			}
 		}
@@ -5095,6 +5126,33 @@ public void setData (Object data) {
 	this.data = data;
 }
 
+/**
+ * Sets the instrumentation that is told how long the user-interface
+ * thread of the receiver spends laying out composites, computing the
+ * sizes of controls, painting widgets and running the runnables passed
+ * to <code>asyncExec</code>, <code>syncExec</code> and <code>timerExec</code>.
+ * The argument may be <code>null</code>, in which case nothing is measured.
+ * <p>
+ * Runnables already queued or scheduled when the instrumentation is set
+ * are not reported.
+ * </p>
+ *
+ * @param instrumentation the new instrumentation, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see Instrumentation
+ * @see Instrumentation#flightRecorder()
+ * @since 3.126
+ */
+public void setInstrumentation (Instrumentation instrumentation) {
+	checkDevice ();
+	this.instrumentation = instrumentation;
+}
+
 /**
  * Sets the synchronizer used by the display to be
  * the argument, which can not be null.
@@ -5325,6 +5383,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
 	if (nsTimers == null) nsTimers = new NSTimer [4];
+	if (timerDeadlines == null) timerDeadlines = new long [4];
 	int index = 0;
 	while (index < timerList.length) {
 		if (timerList [index] == runnable) break;
@@ -5334,14 +5393,17 @@ public void timerExec (int milliseconds, Runnable runnable) {
 		NSTimer timer = nsTimers [index];
 		if (timer == null) {
 			timerList [index] = null;
+			timerDeadlines [index] = 0;
 		} else {
 			if (milliseconds < 0) {
 				timer.invalidate();
 				timer.release();
 				timerList [index] = null;
 				nsTimers [index] = null;
+				timerDeadlines [index] = 0;
 			} else {
 				timer.setFireDate(NSDate.dateWithTimeIntervalSinceNow (milliseconds / 1000.0));
+				timerDeadlines [index] = instrumentation != null ? System.nanoTime () + milliseconds * 1000000L : 0;
 			}
 			return;
 		}
@@ -5359,6 +5421,9 @@ public void timerExec (int milliseconds, Runnable runnable) {
 		NSTimer [] newTimerIds = new NSTimer [nsTimers.length + 4];
 		System.arraycopy (nsTimers, 0, newTimerIds, 0, nsTimers.length);
 		nsTimers = newTimerIds;
+		long [] newTimerDeadlines = new long [timerDeadlines.length + 4];
+		System.arraycopy (timerDeadlines, 0, newTimerDeadlines, 0, timerDeadlines.length);
+		timerDeadlines = newTimerDeadlines;
 	}
 	NSNumber userInfo = NSNumber.numberWithInt(index);
 	NSTimer timer = NSTimer.scheduledTimerWithTimeInterval(milliseconds / 1000.0, timerDelegate, OS.sel_timerProc_, userInfo, false);
@@ -5369,6 +5434,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (timer != null) {
 		nsTimers [index] = timer;
 		timerList [index] = runnable;
+		timerDeadlines [index] = instrumentation != null ? System.nanoTime () + milliseconds * 1000000L : 0;
 	}
 }
 
@@ -5381,9 +5447,13 @@ long timerProc (long id, long sel, long timerID) {
 		if (0 <= index && index < timerList.length) {
 			if (allowTimers) {
 				Runnable runnable = timerList [index];
+				long deadline = timerDeadlines [index];
 				timerList [index] = null;
 				nsTimers [index] = null;
+				timerDeadlines [index] = 0;
 				if (runnable != null) {
+					Instrumentation instrumentation = deadline != 0 ? this.instrumentation : null;
+					long start = instrumentation != null ? System.nanoTime () : 0;
 					try {
 						runnable.run ();
 					} catch (RuntimeException exception) {
@@ -5391,6 +5461,7 @@ long timerProc (long id, long sel, long timerID) {
 					} catch (Error exception) {
 						errorHandler.accept (exception);
 					}
+					if (instrumentation != null) instrumentation.timerExec (runnable, start - deadline, System.nanoTime () - start);
 				}
 			} else {
 				nsTimers [index] = null;
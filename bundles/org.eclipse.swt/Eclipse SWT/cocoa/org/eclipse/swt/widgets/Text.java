@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -61,6 +61,10 @@ import org.eclipse.swt.widgets.Display.*;
  */
 public class Text extends Scrollable {
 	int textLimit = LIMIT, tabs = 8;
+	int lineLimit;
+	TextAppendQueue appendQueue;
+	/* Guards the creation of the append queue, appendAsync() is called from any thread */
+	private final Object appendLock = new Object ();
 	char echoCharacter;
 	boolean doubleClick, receivingFocus;
 	char [] hiddenText;
@@ -339,6 +343,15 @@ public void append (String string) {
 		NSRange range = new NSRange();
 		range.location = storage.length();
 		storage.replaceCharactersInRange (range, str);
+		if (lineLimit > 0) {
+			long start = lastLinesOffset (storage.string (), lineLimit);
+			if (start > 0) {
+				range.location = 0;
+				range.length = start;
+				storage.replaceCharactersInRange (range, NSString.string ());
+				range.length = 0;
+			}
+		}
 		range.location = storage.length();
 		widget.scrollRangeToVisible (range);
 		widget.setSelectedRange(range);
@@ -346,6 +359,67 @@ public void append (String string) {
 	if (string.length () != 0) sendEvent (SWT.Modify);
 }
 
+/*
+* Returns the offset following the given number of line delimiters counted
+* from the end of the string, or 0 when the string has fewer delimiters.
+* Walks back one line at a time instead of copying the whole storage.
+*/
+long lastLinesOffset (NSString string, int lines) {
+	long offset = string.length ();
+	if (offset == 0) return 0;
+	int count = 0;
+	char c = string.characterAtIndex (offset - 1);
+	if (c == '\n' || c == '\r') {
+		if (++count == lines) return offset;
+	}
+	NSRange range = new NSRange ();
+	while (offset > 0) {
+		range.location = offset - 1;
+		offset = string.lineRangeForRange (range).location;
+		if (offset == 0) return 0;
+		if (++count == lines) return offset;
+	}
+	return 0;
+}
+
+/**
+ * Appends a string from any thread.
+ * <p>
+ * The string is appended to the text at the end of the widget
+ * later, on the user-interface thread. Strings appended this way
+ * are collected and appended together once per iteration of the
+ * event loop, so the widget is updated and scrolled only once no
+ * matter how many strings arrived in the meantime. This makes the
+ * method suitable for consoles and logs that receive many small
+ * pieces of text. Strings that have not been appended when the
+ * receiver is disposed are discarded.
+ * </p>
+ *
+ * @param chunk the string to be appended
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the string is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the display of the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #append(String)
+ * @see #setLineLimit(int)
+ * @since 3.126
+ */
+public void appendAsync (CharSequence chunk) {
+	if (chunk == null) error (SWT.ERROR_NULL_ARGUMENT);
+	if (isDisposed ()) error (SWT.ERROR_WIDGET_DISPOSED);
+	TextAppendQueue queue;
+	synchronized (appendLock) {
+		if (appendQueue == null) appendQueue = new TextAppendQueue (this);
+		queue = appendQueue;
+	}
+	queue.add (chunk);
+}
+
 @Override
 boolean becomeFirstResponder (long id, long sel) {
 	if ((style & SWT.SINGLE) != 0) {
@@ -1096,6 +1170,26 @@ public int getLineHeight () {
 	}
 }
 
+/**
+ * Returns the maximum number of lines that the receiver keeps
+ * when text is appended, or zero if the number of lines is not
+ * limited.
+ *
+ * @return the line limit
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #setLineLimit(int)
+ * @since 3.126
+ */
+public int getLineLimit () {
+	checkWidget ();
+	return lineLimit;
+}
+
 /**
  * Returns the orientation of the receiver, which will be one of the
  * constants <code>SWT.LEFT_TO_RIGHT</code> or <code>SWT.RIGHT_TO_LEFT</code>.
@@ -2043,6 +2137,36 @@ void setOrientation () {
 	}
 }
 
+/**
+ * Sets the maximum number of lines that the receiver keeps when
+ * text is appended to be the argument. Whenever <code>append</code>
+ * or <code>appendAsync</code> leave the receiver with more lines
+ * than the limit, the first lines are removed all at once. Zero,
+ * the default, means that the number of lines is not limited.
+ * <p>
+ * Setting, inserting and typing text does not remove lines, and
+ * the limit is ignored by single-line text widgets.
+ * </p>
+ *
+ * @param limit the new line limit, or zero
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the limit is negative</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #appendAsync(CharSequence)
+ * @since 3.126
+ */
+public void setLineLimit (int limit) {
+	checkWidget ();
+	if (limit < 0) error (SWT.ERROR_INVALID_ARGUMENT);
+	lineLimit = limit;
+}
+
 /**
  * Sets the widget message. The message text is displayed
  * as a hint for the user, indicating the purpose of the field.
@@ -4094,6 +4094,17 @@ public class SWT {
 	 */
 	public static final int IMAGE_GRAY = 2;
 
+	/**
+	 * The <code>Image</code> constructor style indicating that the
+	 * new image should keep the operations drawn on it by a GC and
+	 * replay them when it is drawn, instead of keeping pixels
+	 * (value is 1&lt;&lt;0).
+	 *
+	 * @see org.eclipse.swt.graphics.Image#Image(org.eclipse.swt.graphics.Device, int, int, int)
+	 * @since 3.126
+	 */
+	public static final int IMAGE_RECORDING = 1 << 0;
+
 	/**
 	 * Constant to indicate an error state (value is 1).
 	 * <p><b>Used By:</b></p>
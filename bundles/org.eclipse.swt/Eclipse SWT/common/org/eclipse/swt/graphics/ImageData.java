@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.nio.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
@@ -546,6 +547,43 @@ static byte[] checkData(byte [] data) {
 	return data;
 }
 
+/**
+ * Checks the arguments of <code>Image(Device, ByteBuffer, int, int, int)</code>.
+ */
+static void checkPixelBuffer(ByteBuffer pixels, int width, int height, int stride) {
+	if (pixels == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (!pixels.isDirect() || width <= 0 || height <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (stride % 4 != 0 || stride / 4 < width || (long) stride * height > pixels.capacity()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+}
+
+/**
+ * Returns the image data of the pixels of a buffer in the layout used by
+ * <code>Image(Device, ByteBuffer, int, int, int)</code>, for the platforms
+ * whose images cannot draw the buffer directly.
+ */
+static ImageData fromPixelBuffer(ByteBuffer pixels, int width, int height, int stride) {
+	ImageData data = new ImageData(width, height, 32, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+	data.alphaData = new byte[width * height];
+	ByteBuffer buffer = pixels.duplicate().order(ByteOrder.nativeOrder());
+	int[] row = new int[width];
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			int pixel = buffer.getInt(y * stride + x * 4);
+			int a = pixel >>> 24, r = (pixel >> 16) & 0xFF, g = (pixel >> 8) & 0xFF, b = pixel & 0xFF;
+			/* Undo the premultiplication by alpha */
+			if (a != 0 && a != 0xFF) {
+				r = Math.min(0xFF, (r * 0xFF + a / 2) / a);
+				g = Math.min(0xFF, (g * 0xFF + a / 2) / a);
+				b = Math.min(0xFF, (b * 0xFF + a / 2) / a);
+			}
+			row[x] = r << 16 | g << 8 | b;
+			data.alphaData[y * width + x] = (byte) a;
+		}
+		data.setPixels(0, y, width, row, 0);
+	}
+	return data;
+}
+
 /**
  * Returns a new instance of the same class as the receiver,
  * whose slots have been filled in with <em>copies</em> of
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -101,6 +101,128 @@ public final class PaletteData {
 	 */
 	public int blueShift;
 
+	/**
+	 * lazily built lookup structures for an indexed palette
+	 */
+	ColorLookup lookup;
+
+/**
+ * Maps colors of an indexed palette back to pixel values. The structure is
+ * immutable and built from the colors of one colors array, it is replaced
+ * when the array is replaced or when the nearest color cells are needed.
+ */
+static final class ColorLookup {
+	static final int CELL_BITS = 3;
+	static final int CELL_SIZE = 1 << (8 - CELL_BITS);
+
+	final RGB[] colors;
+	/* The colors as 24 bit values, -1 for null entries */
+	final int[] values;
+	/* Open addressing table from 24 bit value with bit 24 set to the first index */
+	final int[] keys, indices;
+	/* Nearest color candidates per cell of the RGB cube, null if not requested */
+	final int[][] cells;
+
+	ColorLookup(RGB[] colors, boolean nearest) {
+		this.colors = colors;
+		int length = colors.length;
+		values = new int[length];
+		keys = new int[Integer.highestOneBit(Math.max(length, 1)) * 4];
+		indices = new int[keys.length];
+		for (int i = 0; i < length; i++) {
+			RGB rgb = colors[i];
+			int value = rgb == null ? -1 : (rgb.red & 0xFF) << 16 | (rgb.green & 0xFF) << 8 | (rgb.blue & 0xFF);
+			values[i] = value;
+			if (value == -1) continue;
+			int slot = slot(value);
+			if (keys[slot] == 0) {
+				keys[slot] = value | 0x1000000;
+				indices[slot] = i;
+			}
+		}
+		if (nearest) {
+			cells = new int[1 << (CELL_BITS * 3)][];
+			int[] minDistances = new int[length];
+			for (int cell = 0; cell < cells.length; cell++) {
+				int red = (cell >> (CELL_BITS * 2)) << (8 - CELL_BITS);
+				int green = (cell >> CELL_BITS & ((1 << CELL_BITS) - 1)) << (8 - CELL_BITS);
+				int blue = (cell & ((1 << CELL_BITS) - 1)) << (8 - CELL_BITS);
+				cells[cell] = candidates(red, green, blue, minDistances);
+			}
+		} else {
+			cells = null;
+		}
+	}
+
+	int slot(int value) {
+		int mask = keys.length - 1;
+		int key = value | 0x1000000;
+		int slot = (value * 0x9E3779B1) >>> 16 & mask;
+		while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Returns the first index of the given color when the lookup was built,
+	 * or -1 if the color was not in the palette or its entry no longer has it.
+	 */
+	int indexOf(RGB rgb) {
+		int slot = slot((rgb.red & 0xFF) << 16 | (rgb.green & 0xFF) << 8 | (rgb.blue & 0xFF));
+		if (keys[slot] == 0) return -1;
+		int index = indices[slot];
+		return rgb.equals(colors[index]) ? index : -1;
+	}
+
+	int nearest(int red, int green, int blue) {
+		int cell = (red >> (8 - CELL_BITS)) << (CELL_BITS * 2) | (green >> (8 - CELL_BITS)) << CELL_BITS | (blue >> (8 - CELL_BITS));
+		int best = -1, bestDistance = Integer.MAX_VALUE;
+		for (int index : cells[cell]) {
+			int value = values[index];
+			int dr = (value >> 16 & 0xFF) - red, dg = (value >> 8 & 0xFF) - green, db = (value & 0xFF) - blue;
+			int distance = dr * dr + dg * dg + db * db;
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = index;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the colors that can be the nearest one to some point of the cell
+	 * starting at the given corner: every color whose smallest distance to the
+	 * cell is not larger than the smallest largest distance of any color.
+	 */
+	int[] candidates(int red, int green, int blue, int[] minDistances) {
+		int length = values.length;
+		int threshold = Integer.MAX_VALUE, count = 0;
+		for (int i = 0; i < length; i++) {
+			int value = values[i];
+			if (value == -1) {
+				minDistances[i] = Integer.MAX_VALUE;
+				continue;
+			}
+			int r = value >> 16 & 0xFF, g = value >> 8 & 0xFF, b = value & 0xFF;
+			int dr = r < red ? red - r : Math.max(r - red - CELL_SIZE + 1, 0);
+			int dg = g < green ? green - g : Math.max(g - green - CELL_SIZE + 1, 0);
+			int db = b < blue ? blue - b : Math.max(b - blue - CELL_SIZE + 1, 0);
+			minDistances[i] = dr * dr + dg * dg + db * db;
+			int fr = Math.max(r - red, red + CELL_SIZE - 1 - r);
+			int fg = Math.max(g - green, green + CELL_SIZE - 1 - g);
+			int fb = Math.max(b - blue, blue + CELL_SIZE - 1 - b);
+			threshold = Math.min(threshold, fr * fr + fg * fg + fb * fb);
+		}
+		for (int i = 0; i < length; i++) {
+			if (minDistances[i] <= threshold) count++;
+		}
+		int[] result = new int[count];
+		for (int i = 0, n = 0; i < length; i++) {
+			if (minDistances[i] <= threshold) result[n++] = i;
+		}
+		return result;
+	}
+}
+
 /**
  * Constructs a new indexed palette given an array of RGB values.
  *
@@ -135,6 +257,13 @@ public PaletteData(int redMask, int greenMask, int blueMask) {
 
 /**
  * Returns the pixel value corresponding to the given <code>RGB</code>.
+ * <p>
+ * For an indexed palette the receiver builds a lookup table on the first call
+ * and keeps it until the <code>colors</code> array is replaced. Entries that
+ * are replaced or modified in place inside the array are still found, but
+ * when such a change makes a color appear more than once, any of its pixel
+ * values may be returned.
+ * </p>
  *
  * @param rgb the RGB to get the pixel value for
  * @return the pixel value for the given RGB
@@ -153,6 +282,9 @@ public int getPixel(RGB rgb) {
 		pixel |= (blueShift < 0 ? rgb.blue << -blueShift : rgb.blue >>> blueShift) & blueMask;
 		return pixel;
 	} else {
+		int index = getLookup(false).indexOf(rgb);
+		if (index != -1) return index;
+		/* The entries may have been replaced or modified after the lookup was built */
 		for (int i = 0; i < colors.length; i++) {
 			if (colors[i].equals(rgb)) return i;
 		}
@@ -162,6 +294,50 @@ public int getPixel(RGB rgb) {
 	}
 }
 
+/**
+ * Returns the pixel value of the color of the receiver that is closest to
+ * the given <code>RGB</code>. For a direct palette this is the same as
+ * <code>getPixel(RGB)</code>. For an indexed palette the color with the
+ * smallest Euclidean distance in RGB space is chosen; when several colors
+ * are equally close, the smallest pixel value is returned.
+ * <p>
+ * The receiver builds its lookup structures on the first call and keeps them
+ * until the <code>colors</code> array is replaced, so that mapping many colors
+ * is fast. <code>RGB</code>s that are modified in place inside the array
+ * are not noticed by this method.
+ * </p>
+ *
+ * @param rgb the RGB to get the nearest pixel value for
+ * @return the pixel value of the closest color
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the argument is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the receiver is an indexed palette without colors</li>
+ * </ul>
+ *
+ * @see #getPixel(RGB)
+ * @since 3.126
+ */
+public int getNearestPixel(RGB rgb) {
+	if (rgb == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (isDirect) return getPixel(rgb);
+	ColorLookup lookup = getLookup(true);
+	int index = lookup.indexOf(rgb);
+	if (index != -1) return index;
+	index = lookup.nearest(rgb.red & 0xFF, rgb.green & 0xFF, rgb.blue & 0xFF);
+	if (index == -1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	return index;
+}
+
+ColorLookup getLookup(boolean nearest) {
+	RGB[] colors = this.colors;
+	ColorLookup lookup = this.lookup;
+	if (lookup == null || lookup.colors != colors || nearest && lookup.cells == null) {
+		this.lookup = lookup = new ColorLookup(colors, nearest);
+	}
+	return lookup;
+}
+
 /**
  * Returns an <code>RGB</code> corresponding to the given pixel value.
  *
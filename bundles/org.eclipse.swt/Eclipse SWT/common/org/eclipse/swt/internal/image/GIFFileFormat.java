@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -420,6 +420,19 @@ public final class GIFFileFormat extends FileFormat {
 		int logicalScreenWidth = multi ? loader.logicalScreenWidth : firstImage.width;
 		int logicalScreenHeight = multi ? loader.logicalScreenHeight : firstImage.height;
 		int backgroundPixel = loader.backgroundPixel;
+		if (multi && (logicalScreenWidth <= 0 || logicalScreenHeight <= 0)) {
+			for (ImageData image : data) {
+				logicalScreenWidth = Math.max(logicalScreenWidth, image.x + image.width);
+				logicalScreenHeight = Math.max(logicalScreenHeight, image.y + image.height);
+			}
+		}
+
+		/* Step 1a: Reduce true color images to a shared palette. */
+		if (GIFQuantizer.needsQuantization(data)) {
+			data = new GIFQuantizer(logicalScreenWidth, logicalScreenHeight).quantize(data);
+			firstImage = data[0];
+			backgroundPixel = 0;
+		}
 		int depth = firstImage.depth;
 		PaletteData palette = firstImage.palette;
 		RGB[] colors = palette.getRGBs();
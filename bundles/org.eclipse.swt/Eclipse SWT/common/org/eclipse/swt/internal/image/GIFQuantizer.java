@@ -0,0 +1,543 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+
+import java.util.*;
+import java.util.stream.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Converts images that cannot be written to a GIF file as they are (direct
+ * palettes or depths other than 1, 4 and 8) into indexed images that share a
+ * single palette of at most 256 colors.
+ * <p>
+ * Images with few enough distinct colors keep their exact colors. Otherwise
+ * the colors are reduced with a median cut over a 15 bit histogram and the
+ * pixels are mapped with optional Floyd-Steinberg dithering. Histograms and
+ * pixel mapping run in parallel over bands of rows for large images; error
+ * diffusion does not cross band boundaries.
+ * </p><p>
+ * For animations whose frames all cover the logical screen, each frame after
+ * the first is reduced to the rectangle that changed since the previous frame
+ * and unchanged pixels in that rectangle are made transparent, which keeps
+ * both the encoding time and the file size small.
+ * </p><p>
+ * Dithering can be disabled with the
+ * <code>org.eclipse.swt.internal.image.GIFFileFormat.dither</code> system
+ * property set to <code>false</code>.
+ * </p>
+ */
+final class GIFQuantizer {
+	static final int MAX_COLORS = 256;
+	static final int BAND_HEIGHT = 64;
+	static final int PARALLEL_THRESHOLD = 256 * 256;
+	static final int HISTOGRAM_BITS = 5;
+	static final int HISTOGRAM_SIZE = 1 << (HISTOGRAM_BITS * 3);
+	/* Pixel values that are not colors */
+	static final int TRANSPARENT = -1, UNCHANGED = -2;
+
+	final int screenWidth, screenHeight;
+	final boolean dither;
+	int colorCount, transparentIndex = -1;
+	int[] colors;
+	ColorSet exact;
+	int[] nearest;
+
+	/**
+	 * Open addressing set of 24 bit colors that assigns every color an index.
+	 */
+	static final class ColorSet {
+		final int limit;
+		final int[] keys, values;
+		int size;
+		boolean overflow;
+
+		ColorSet(int limit) {
+			this.limit = limit;
+			keys = new int[Integer.highestOneBit(limit) * 4];
+			values = new int[keys.length];
+		}
+
+		/* Keys are stored with bit 24 set so that black is not the empty slot */
+		int slot(int rgb) {
+			int mask = keys.length - 1;
+			int key = rgb | 0x1000000;
+			int i = (rgb * 0x9E3779B1) >>> 16 & mask;
+			while (keys[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+			return i;
+		}
+
+		void add(int rgb) {
+			int i = slot(rgb);
+			if (keys[i] != 0) return;
+			if (size == limit) {
+				overflow = true;
+				return;
+			}
+			keys[i] = rgb | 0x1000000;
+			values[i] = size++;
+		}
+
+		void addAll(ColorSet set) {
+			for (int key : set.keys) {
+				if (overflow) return;
+				if (key != 0) add(key & 0xFFFFFF);
+			}
+			overflow |= set.overflow;
+		}
+
+		int indexOf(int rgb) {
+			return values[slot(rgb)];
+		}
+	}
+
+static boolean needsQuantization(ImageData[] data) {
+	for (ImageData image : data) {
+		int depth = image.depth;
+		if (image.palette.isDirect || !(depth == 1 || depth == 4 || depth == 8)) return true;
+	}
+	return false;
+}
+
+GIFQuantizer(int screenWidth, int screenHeight) {
+	this.screenWidth = screenWidth;
+	this.screenHeight = screenHeight;
+	dither = !"false".equals(System.getProperty("org.eclipse.swt.internal.image.GIFFileFormat.dither")); //$NON-NLS-1$ //$NON-NLS-2$
+}
+
+/**
+ * Runs the task for every band of rows of an image, in parallel if the
+ * image is large enough.
+ */
+static void forEachBand(int width, int height, BandTask task) {
+	int bands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+	IntStream stream = IntStream.range(0, bands);
+	if (bands > 1 && (long) width * height >= PARALLEL_THRESHOLD) stream = stream.parallel();
+	stream.forEach(band -> task.run(band * BAND_HEIGHT, Math.min(height, (band + 1) * BAND_HEIGHT)));
+}
+
+interface BandTask {
+	void run(int startY, int endY);
+}
+
+/**
+ * Returns indexed copies of the given frames that share one palette.
+ */
+ImageData[] quantize(ImageData[] data) {
+	int frameCount = data.length;
+	int[][] pixels = new int[frameCount][];
+	boolean transparent = false;
+	for (int i = 0; i < frameCount; i++) {
+		pixels[i] = toRGB(data[i]);
+		transparent |= data[i].getTransparencyType() != SWT.TRANSPARENCY_NONE;
+	}
+	Rectangle[] bounds = new Rectangle[frameCount];
+	for (int i = 0; i < frameCount; i++) {
+		bounds[i] = new Rectangle(data[i].x, data[i].y, data[i].width, data[i].height);
+	}
+	if (!transparent && canUseDeltas(data)) {
+		for (int i = frameCount - 1; i > 0; i--) {
+			bounds[i] = delta(pixels[i - 1], pixels[i], data[i].width, data[i].height);
+			transparent = true;
+		}
+		for (int i = 1; i < frameCount; i++) {
+			pixels[i] = crop(pixels[i], data[i].width, bounds[i]);
+		}
+	}
+	int limit = transparent ? MAX_COLORS - 1 : MAX_COLORS;
+	exact = countColors(pixels, bounds, limit);
+	if (exact.overflow) {
+		exact = null;
+		colors = medianCut(pixels, bounds, limit);
+		colorCount = colors.length;
+		nearest = new int[HISTOGRAM_SIZE];
+		Arrays.fill(nearest, -1);
+	} else {
+		colorCount = exact.size;
+		colors = new int[colorCount];
+		for (int i = 0; i < exact.keys.length; i++) {
+			if (exact.keys[i] != 0) colors[exact.values[i]] = exact.keys[i] & 0xFFFFFF;
+		}
+	}
+	if (transparent) transparentIndex = colorCount;
+	int paletteSize = colorCount + (transparent ? 1 : 0);
+	/* Depth 1 is avoided since its minimum LZW code size would be below 2 */
+	int depth = paletteSize <= 16 ? 4 : 8;
+	RGB[] rgbs = new RGB[paletteSize];
+	for (int i = 0; i < colorCount; i++) {
+		int rgb = colors[i];
+		rgbs[i] = new RGB(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+	}
+	if (transparent) rgbs[transparentIndex] = new RGB(0, 0, 0);
+	PaletteData palette = new PaletteData(rgbs);
+
+	ImageData[] result = new ImageData[frameCount];
+	for (int i = 0; i < frameCount; i++) {
+		Rectangle rect = bounds[i];
+		byte[] indices = new byte[rect.width * rect.height];
+		boolean hasTransparency = map(pixels[i], indices, rect.width, rect.height);
+		ImageData image;
+		if (depth == 8) {
+			image = new ImageData(rect.width, rect.height, depth, palette, 1, indices);
+		} else {
+			image = new ImageData(rect.width, rect.height, depth, palette, 1, new byte[(rect.width * depth + 7) / 8 * rect.height]);
+			for (int y = 0; y < rect.height; y++) {
+				image.setPixels(0, y, rect.width, indices, y * rect.width);
+			}
+		}
+		image.x = rect.x;
+		image.y = rect.y;
+		image.delayTime = data[i].delayTime;
+		image.disposalMethod = rect.equals(new Rectangle(data[i].x, data[i].y, data[i].width, data[i].height)) ? data[i].disposalMethod : SWT.DM_FILL_NONE;
+		if (hasTransparency) image.transparentPixel = transparentIndex;
+		result[i] = image;
+	}
+	return result;
+}
+
+/**
+ * Deltas are only used when every frame covers the whole logical screen and
+ * is left in place for the next frame to be drawn over.
+ */
+boolean canUseDeltas(ImageData[] data) {
+	if (data.length < 2) return false;
+	for (ImageData image : data) {
+		if (image.x != 0 || image.y != 0 || image.width != screenWidth || image.height != screenHeight) return false;
+		if (image.disposalMethod != SWT.DM_UNSPECIFIED && image.disposalMethod != SWT.DM_FILL_NONE) return false;
+	}
+	return true;
+}
+
+/**
+ * Returns the pixels of the image as 24 bit RGB values, or
+ * <code>TRANSPARENT</code> for transparent pixels.
+ */
+static int[] toRGB(ImageData image) {
+	int width = image.width, height = image.height;
+	int[] rgb = new int[width * height];
+	PaletteData palette = image.palette;
+	int[] table = null;
+	if (!palette.isDirect) {
+		RGB[] rgbs = palette.getRGBs();
+		table = new int[1 << Math.min(image.depth, 8)];
+		for (int i = 0; i < rgbs.length && i < table.length; i++) {
+			table[i] = rgbs[i].red << 16 | rgbs[i].green << 8 | rgbs[i].blue;
+		}
+	}
+	int[] colorTable = table;
+	int transparencyType = image.getTransparencyType();
+	ImageData mask = transparencyType == SWT.TRANSPARENCY_MASK ? image.getTransparencyMask() : null;
+	forEachBand(width, height, (startY, endY) -> {
+		int[] line = new int[width];
+		byte[] alphas = transparencyType == SWT.TRANSPARENCY_ALPHA ? new byte[width] : null;
+		int[] maskLine = mask != null ? new int[width] : null;
+		for (int y = startY; y < endY; y++) {
+			image.getPixels(0, y, width, line, 0);
+			if (alphas != null) image.getAlphas(0, y, width, alphas, 0);
+			if (maskLine != null) mask.getPixels(0, y, width, maskLine, 0);
+			int offset = y * width;
+			for (int x = 0; x < width; x++) {
+				int pixel = line[x];
+				int value;
+				if (colorTable != null) {
+					value = colorTable[pixel & (colorTable.length - 1)];
+				} else {
+					int r = pixel & palette.redMask;
+					r = (palette.redShift < 0) ? r >>> -palette.redShift : r << palette.redShift;
+					int g = pixel & palette.greenMask;
+					g = (palette.greenShift < 0) ? g >>> -palette.greenShift : g << palette.greenShift;
+					int b = pixel & palette.blueMask;
+					b = (palette.blueShift < 0) ? b >>> -palette.blueShift : b << palette.blueShift;
+					value = (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+				}
+				if (transparencyType == SWT.TRANSPARENCY_PIXEL && pixel == image.transparentPixel) value = TRANSPARENT;
+				if (alphas != null && (alphas[x] & 0xFF) < 128) value = TRANSPARENT;
+				if (maskLine != null && maskLine[x] == 0) value = TRANSPARENT;
+				rgb[offset + x] = value;
+			}
+		}
+	});
+	return rgb;
+}
+
+/**
+ * Returns the bounds of the pixels that differ between two frames and marks
+ * the pixels of the current frame that did not change as <code>UNCHANGED</code>.
+ */
+static Rectangle delta(int[] previous, int[] current, int width, int height) {
+	int left = width, right = -1, top = height, bottom = -1;
+	for (int y = 0; y < height; y++) {
+		int offset = y * width;
+		for (int x = 0; x < width; x++) {
+			if (previous[offset + x] != current[offset + x]) {
+				if (x < left) left = x;
+				if (x > right) right = x;
+				if (y < top) top = y;
+				bottom = y;
+			}
+		}
+	}
+	if (right == -1) {
+		/* Nothing changed, write a single unchanged pixel to keep the frame */
+		current[0] = UNCHANGED;
+		return new Rectangle(0, 0, 1, 1);
+	}
+	for (int i = 0; i < current.length; i++) {
+		if (previous[i] == current[i]) current[i] = UNCHANGED;
+	}
+	return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+}
+
+static int[] crop(int[] pixels, int width, Rectangle rect) {
+	if (rect.x == 0 && rect.width == width && rect.y == 0 && rect.height * width == pixels.length) return pixels;
+	int[] result = new int[rect.width * rect.height];
+	for (int y = 0; y < rect.height; y++) {
+		System.arraycopy(pixels, (rect.y + y) * width + rect.x, result, y * rect.width, rect.width);
+	}
+	return result;
+}
+
+/**
+ * Collects the distinct colors of all frames, stopping once there are more
+ * than <code>limit</code> of them.
+ */
+static ColorSet countColors(int[][] pixels, Rectangle[] bounds, int limit) {
+	ColorSet result = new ColorSet(limit);
+	for (int i = 0; i < pixels.length && !result.overflow; i++) {
+		int[] frame = pixels[i];
+		int width = bounds[i].width;
+		List<ColorSet> sets = Collections.synchronizedList(new ArrayList<>());
+		forEachBand(width, bounds[i].height, (startY, endY) -> {
+			ColorSet set = new ColorSet(limit);
+			for (int j = startY * width, end = endY * width; j < end && !set.overflow; j++) {
+				if (frame[j] >= 0) set.add(frame[j]);
+			}
+			sets.add(set);
+		});
+		for (ColorSet set : sets) result.addAll(set);
+	}
+	return result;
+}
+
+static int histogramIndex(int r, int g, int b) {
+	int shift = 8 - HISTOGRAM_BITS;
+	return (r >> shift) << (HISTOGRAM_BITS * 2) | (g >> shift) << HISTOGRAM_BITS | (b >> shift);
+}
+
+/**
+ * Reduces the colors of all frames to at most <code>limit</code> colors by
+ * splitting the populated histogram cells into boxes along their widest
+ * channel and averaging the colors of each box.
+ */
+static int[] medianCut(int[][] pixels, Rectangle[] bounds, int limit) {
+	long[] counts = new long[HISTOGRAM_SIZE];
+	long[] sums = new long[HISTOGRAM_SIZE * 3];
+	for (int i = 0; i < pixels.length; i++) {
+		int[] frame = pixels[i];
+		int width = bounds[i].width;
+		forEachBand(width, bounds[i].height, (startY, endY) -> {
+			int[] bandCounts = new int[HISTOGRAM_SIZE];
+			long[] bandSums = new long[HISTOGRAM_SIZE * 3];
+			for (int j = startY * width, end = endY * width; j < end; j++) {
+				int rgb = frame[j];
+				if (rgb < 0) continue;
+				int r = rgb >> 16 & 0xFF, g = rgb >> 8 & 0xFF, b = rgb & 0xFF;
+				int index = histogramIndex(r, g, b);
+				bandCounts[index]++;
+				bandSums[index * 3] += r;
+				bandSums[index * 3 + 1] += g;
+				bandSums[index * 3 + 2] += b;
+			}
+			synchronized (counts) {
+				for (int k = 0; k < HISTOGRAM_SIZE; k++) {
+					if (bandCounts[k] == 0) continue;
+					counts[k] += bandCounts[k];
+					sums[k * 3] += bandSums[k * 3];
+					sums[k * 3 + 1] += bandSums[k * 3 + 1];
+					sums[k * 3 + 2] += bandSums[k * 3 + 2];
+				}
+			}
+		});
+	}
+	int cellCount = 0;
+	for (long count : counts) if (count != 0) cellCount++;
+	int[] cells = new int[cellCount];
+	for (int k = 0, n = 0; k < HISTOGRAM_SIZE; k++) {
+		if (counts[k] != 0) cells[n++] = k;
+	}
+	/* Boxes are ranges of the cells array, stored as start and end */
+	int[] starts = new int[limit], ends = new int[limit];
+	int boxCount = 1;
+	ends[0] = cellCount;
+	int mask = (1 << HISTOGRAM_BITS) - 1;
+	int[] keys = new int[cellCount];
+	while (boxCount < limit) {
+		/* Split the box with the largest population times channel range */
+		int best = -1, bestChannel = 0;
+		double bestScore = 0;
+		for (int box = 0; box < boxCount; box++) {
+			if (ends[box] - starts[box] < 2) continue;
+			int[] min = {mask, mask, mask}, max = {0, 0, 0};
+			long population = 0;
+			for (int n = starts[box]; n < ends[box]; n++) {
+				int cell = cells[n];
+				for (int c = 0; c < 3; c++) {
+					int value = cell >> (HISTOGRAM_BITS * (2 - c)) & mask;
+					if (value < min[c]) min[c] = value;
+					if (value > max[c]) max[c] = value;
+				}
+				population += counts[cell];
+			}
+			for (int c = 0; c < 3; c++) {
+				double score = (double) population * (max[c] - min[c]);
+				if (score > bestScore) {
+					bestScore = score;
+					best = box;
+					bestChannel = c;
+				}
+			}
+		}
+		if (best == -1) break;
+		int start = starts[best], end = ends[best];
+		int shift = HISTOGRAM_BITS * (2 - bestChannel);
+		for (int n = start; n < end; n++) {
+			keys[n] = (cells[n] >> shift & mask) << (HISTOGRAM_BITS * 3) | cells[n];
+		}
+		Arrays.sort(keys, start, end);
+		long population = 0;
+		for (int n = start; n < end; n++) {
+			cells[n] = keys[n] & (HISTOGRAM_SIZE - 1);
+			population += counts[cells[n]];
+		}
+		int split = start + 1;
+		long half = population / 2, sum = counts[cells[start]];
+		while (split < end - 1 && sum + counts[cells[split]] <= half) {
+			sum += counts[cells[split]];
+			split++;
+		}
+		starts[boxCount] = split;
+		ends[boxCount] = end;
+		ends[best] = split;
+		boxCount++;
+	}
+	int[] result = new int[boxCount];
+	for (int box = 0; box < boxCount; box++) {
+		long count = 0, r = 0, g = 0, b = 0;
+		for (int n = starts[box]; n < ends[box]; n++) {
+			int cell = cells[n];
+			count += counts[cell];
+			r += sums[cell * 3];
+			g += sums[cell * 3 + 1];
+			b += sums[cell * 3 + 2];
+		}
+		result[box] = (int) (r / count) << 16 | (int) (g / count) << 8 | (int) (b / count);
+	}
+	return result;
+}
+
+/**
+ * Returns the index of the palette color closest to the given color. The
+ * answer is cached per histogram cell; concurrent threads may compute the
+ * same cell, which is harmless.
+ */
+int nearestIndex(int r, int g, int b) {
+	int cell = histogramIndex(r, g, b);
+	int index = nearest[cell];
+	if (index == -1) {
+		int shift = 8 - HISTOGRAM_BITS, half = 1 << (shift - 1);
+		int cr = (cell >> (HISTOGRAM_BITS * 2) << shift) + half;
+		int cg = ((cell >> HISTOGRAM_BITS & ((1 << HISTOGRAM_BITS) - 1)) << shift) + half;
+		int cb = ((cell & ((1 << HISTOGRAM_BITS) - 1)) << shift) + half;
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < colorCount; i++) {
+			int color = colors[i];
+			int dr = (color >> 16 & 0xFF) - cr, dg = (color >> 8 & 0xFF) - cg, db = (color & 0xFF) - cb;
+			int distance = dr * dr + dg * dg + db * db;
+			if (distance < best) {
+				best = distance;
+				index = i;
+			}
+		}
+		nearest[cell] = index;
+	}
+	return index;
+}
+
+/**
+ * Maps the pixels of one frame to palette indices and answers whether any
+ * pixel was transparent.
+ */
+boolean map(int[] pixels, byte[] indices, int width, int height) {
+	boolean[] transparent = new boolean[1];
+	forEachBand(width, height, (startY, endY) -> {
+		boolean bandTransparent = false;
+		if (exact != null || !dither) {
+			for (int j = startY * width, end = endY * width; j < end; j++) {
+				int rgb = pixels[j];
+				int index;
+				if (rgb < 0) {
+					index = transparentIndex;
+					bandTransparent = true;
+				} else if (exact != null) {
+					index = exact.indexOf(rgb);
+				} else {
+					index = nearestIndex(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+				}
+				indices[j] = (byte) index;
+			}
+		} else {
+			/* Floyd-Steinberg error diffusion, errors are kept in 1/16 units */
+			int[] errors = new int[(width + 2) * 3], nextErrors = new int[(width + 2) * 3];
+			for (int y = startY; y < endY; y++) {
+				int offset = y * width;
+				for (int x = 0; x < width; x++) {
+					int rgb = pixels[offset + x];
+					int e = (x + 1) * 3;
+					if (rgb < 0) {
+						indices[offset + x] = (byte) transparentIndex;
+						bandTransparent = true;
+						continue;
+					}
+					int r = clamp((rgb >> 16 & 0xFF) + (errors[e] >> 4));
+					int g = clamp((rgb >> 8 & 0xFF) + (errors[e + 1] >> 4));
+					int b = clamp((rgb & 0xFF) + (errors[e + 2] >> 4));
+					int index = nearestIndex(r, g, b);
+					indices[offset + x] = (byte) index;
+					int color = colors[index];
+					int[] error = {r - (color >> 16 & 0xFF), g - (color >> 8 & 0xFF), b - (color & 0xFF)};
+					for (int c = 0; c < 3; c++) {
+						errors[e + 3 + c] += error[c] * 7;
+						nextErrors[e - 3 + c] += error[c] * 3;
+						nextErrors[e + c] += error[c] * 5;
+						nextErrors[e + 3 + c] += error[c];
+					}
+				}
+				int[] swap = errors;
+				errors = nextErrors;
+				nextErrors = swap;
+				Arrays.fill(nextErrors, 0);
+			}
+		}
+		if (bandTransparent) transparent[0] = true;
+	});
+	return transparent[0];
+}
+
+static int clamp(int value) {
+	return value < 0 ? 0 : value > 255 ? 255 : value;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.internal.image;
 
 
 import java.io.*;
+import java.nio.channels.*;
 
 final class LEDataInputStream extends InputStream {
 	int position;
@@ -62,6 +63,22 @@ final class LEDataInputStream extends InputStream {
 		return position;
 	}
 
+	/**
+	 * Answer the channel of the file that is read, or null if the
+	 * stream does not read from a file.
+	 */
+	FileChannel getChannel() {
+		return in instanceof FileInputStream fileStream ? fileStream.getChannel() : null;
+	}
+
+	/**
+	 * Answer the position in the file of the byte at stream position 0,
+	 * taking the pushed back bytes into account.
+	 */
+	long getChannelOffset() throws IOException {
+		return getChannel().position() - (buf.length - pos) - position;
+	}
+
 	/**
 	 * Answers how many bytes are available for reading without blocking
 	 */
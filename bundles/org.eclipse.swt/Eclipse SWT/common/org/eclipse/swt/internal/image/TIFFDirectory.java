@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,8 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.concurrent.atomic.*;
+import java.util.zip.*;
 
 final class TIFFDirectory {
 
@@ -38,6 +40,12 @@ final class TIFFDirectory {
 	int[] stripByteCounts;
 	int t4Options;
 	int colorMapOffset;
+	int planarConfiguration;
+	int predictor;
+	int tileWidth;
+	int tileLength;
+	int[] tileOffsets;
+	int[] tileByteCounts;
 
 	/* Encoder fields */
 	ImageData image;
@@ -66,7 +74,12 @@ final class TIFFDirectory {
 	static final short TAG_ResolutionUnit = 296;
 	static final short TAG_Software = 305;
 	static final short TAG_DateTime = 306;
+	static final short TAG_Predictor = 317;
 	static final short TAG_ColorMap = 320;
+	static final short TAG_TileWidth = 322;
+	static final short TAG_TileLength = 323;
+	static final short TAG_TileOffsets = 324;
+	static final short TAG_TileByteCounts = 325;
 
 	static final int TYPE_BYTE = 1;
 	static final int TYPE_ASCII = 2;
@@ -84,7 +97,22 @@ final class TIFFDirectory {
 	/* Different compression schemes */
 	static final int COMPRESSION_NONE = 1;
 	static final int COMPRESSION_CCITT_3_1 = 2;
+	static final int COMPRESSION_CCITT_T4 = 3;
+	static final int COMPRESSION_LZW = 5;
+	static final int COMPRESSION_DEFLATE = 8;
 	static final int COMPRESSION_PACKBITS = 32773;
+	static final int COMPRESSION_DEFLATE_OLD = 32946;
+
+	static final int PREDICTOR_NONE = 1;
+	static final int PREDICTOR_HORIZONTAL = 2;
+
+	/* Strips and tiles of images with more bytes are decoded and encoded in parallel */
+	static final int PARALLEL_THRESHOLD = 256 * 1024;
+
+	/* Decodes or encodes strip or tile <code>index</code> */
+	interface ChunkTask {
+		void run(int index) throws IOException;
+	}
 
 	static final int IFD_ENTRY_SIZE = 12;
 
@@ -94,25 +122,28 @@ public TIFFDirectory(TIFFRandomFileAccess file, boolean isLittleEndian, ImageLoa
 	this.loader = loader;
 }
 
-public TIFFDirectory(ImageData image) {
+public TIFFDirectory(ImageData image, int compression) {
 	this.image = image;
+	this.compression = compression;
 }
 
 /* PackBits decoder */
-int decodePackBits(byte[] src, byte[] dest, int offsetDest) {
+int decodePackBits(byte[] src, byte[] dest, int offsetDest, int length) {
 	int destIndex = offsetDest;
+	int end = offsetDest + length;
 	int srcIndex = 0;
-	while (srcIndex < src.length) {
+	while (srcIndex < src.length && destIndex < end) {
 		byte n = src[srcIndex];
 		if (n >= 0) {
 			/* Copy next n+1 bytes literally */
-			System.arraycopy(src, ++srcIndex, dest, destIndex, n + 1);
+			int count = Math.min(n + 1, end - destIndex);
+			System.arraycopy(src, ++srcIndex, dest, destIndex, count);
 			srcIndex += n + 1;
-			destIndex += n + 1;
+			destIndex += count;
 		} else if (n >= -127) {
 			/* Copy next byte -n+1 times */
 			byte value = src[++srcIndex];
-			for (int j = 0; j < -n + 1; j++) {
+			for (int j = 0; j < -n + 1 && destIndex < end; j++) {
 				dest[destIndex++] = value;
 			}
 			srcIndex++;
@@ -152,33 +183,187 @@ void getEntryValue(int type, byte[] buffer, int index, int[] values) throws IOEx
 	}
 }
 
+/* Deflate decoder */
+int decodeDeflate(byte[] src, byte[] dest, int offsetDest, int length) {
+	Inflater inflater = new Inflater();
+	try {
+		inflater.setInput(src);
+		int destIndex = offsetDest;
+		int end = offsetDest + length;
+		while (destIndex < end && !inflater.finished()) {
+			int count = inflater.inflate(dest, destIndex, end - destIndex);
+			if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+			destIndex += count;
+		}
+		return destIndex - offsetDest;
+	} catch (DataFormatException e) {
+		SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		return 0;
+	} finally {
+		inflater.end();
+	}
+}
+
+/**
+ * Decodes the compressed bytes of one strip or tile with <code>nRows</code>
+ * rows of <code>width</code> pixels into <code>dest</code>, writing at most
+ * <code>length</code> bytes. Answers the number of bytes written.
+ */
+int decodeData(byte[] src, byte[] dest, int offsetDest, int length, int width, int nRows) {
+	switch (compression) {
+		case COMPRESSION_NONE: {
+			int count = Math.min(src.length, length);
+			System.arraycopy(src, 0, dest, offsetDest, count);
+			return count;
+		}
+		case COMPRESSION_PACKBITS: {
+			return decodePackBits(src, dest, offsetDest, length);
+		}
+		case COMPRESSION_CCITT_3_1:
+		case COMPRESSION_CCITT_T4: {
+			TIFFModifiedHuffmanCodec codec = new TIFFModifiedHuffmanCodec();
+			return codec.decode(src, dest, offsetDest, width, nRows);
+		}
+		case COMPRESSION_LZW: {
+			TIFFLZWCodec codec = new TIFFLZWCodec();
+			return codec.decode(src, dest, offsetDest, length);
+		}
+		case COMPRESSION_DEFLATE:
+		case COMPRESSION_DEFLATE_OLD: {
+			return decodeDeflate(src, dest, offsetDest, length);
+		}
+		default: {
+			SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+			return 0;
+		}
+	}
+}
+
+/**
+ * Reverses the horizontal differencing predictor, which stores every sample
+ * but the first of each row as the difference to the sample on its left.
+ */
+void undoPredictor(byte[] data, int offset, int rowByteSize, int nRows) {
+	if (predictor != PREDICTOR_HORIZONTAL) return;
+	for (int row = 0; row < nRows; row++) {
+		int start = offset + row * rowByteSize;
+		for (int i = start + samplesPerPixel, end = start + rowByteSize; i < end; i++) {
+			data[i] += data[i - samplesPerPixel];
+		}
+	}
+}
+
 void decodePixels(ImageData image) throws IOException {
 	/* Each row is byte aligned */
-	byte[] imageData = new byte[(imageWidth * depth + 7) / 8 * imageLength];
+	int rowByteSize = (imageWidth * depth + 7) / 8;
+	long size = (long) rowByteSize * imageLength;
+	if (imageWidth <= 0 || imageLength <= 0 || size > Integer.MAX_VALUE) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	byte[] imageData = new byte[(int) size];
 	image.data = imageData;
-	int destIndex = 0;
-	int length = stripOffsets.length;
-	for (int i = 0; i < length; i++) {
-		/* Read a strip */
-		byte[] data = new byte[stripByteCounts[i]];
-		file.seek(stripOffsets[i]);
-		file.read(data);
-		if (compression == COMPRESSION_NONE) {
-			System.arraycopy(data, 0, imageData, destIndex, data.length);
-			destIndex += data.length;
-		} else if (compression == COMPRESSION_PACKBITS) {
-			destIndex += decodePackBits(data, imageData, destIndex);
-		} else if (compression == COMPRESSION_CCITT_3_1 || compression == 3) {
-			TIFFModifiedHuffmanCodec codec = new TIFFModifiedHuffmanCodec();
-			int nRows = rowsPerStrip;
-			if (i == length -1) {
-				int n = imageLength % rowsPerStrip;
-				if (n != 0) nRows = n;
+	int length, tilesAcross = 0;
+	if (tileOffsets != null) {
+		if (tileByteCounts == null || tileWidth <= 0 || tileLength <= 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
+		/* Tiles must start on byte boundaries within a row */
+		if (tileWidth * depth % 8 != 0 || (long) tileWidth * depth / 8 * tileLength > Integer.MAX_VALUE) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+		tilesAcross = (imageWidth + tileWidth - 1) / tileWidth;
+		int tilesDown = (imageLength + tileLength - 1) / tileLength;
+		length = tilesAcross * tilesDown;
+		if (tileOffsets.length < length || tileByteCounts.length < length) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	} else {
+		if (stripOffsets == null || stripByteCounts == null || rowsPerStrip <= 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
+		rowsPerStrip = Math.min(rowsPerStrip, imageLength);
+		length = Math.min(stripOffsets.length, (imageLength + rowsPerStrip - 1) / rowsPerStrip);
+		if (stripByteCounts.length < length) SWT.error(SWT.ERROR_INVALID_IMAGE);
+	}
+	final int count = length, across = tilesAcross;
+	if (!loader.hasListeners() && count > 1 && size >= PARALLEL_THRESHOLD) {
+		/*
+		* Strips and tiles are independent of each other and are decoded
+		* into distinct parts of the image data.
+		*/
+		runParallel(count, i -> decodeChunk(imageData, i, rowByteSize, across));
+	} else {
+		for (int i = 0; i < count; i++) {
+			decodeChunk(imageData, i, rowByteSize, across);
+			if (loader.hasListeners()) {
+				loader.notifyListeners(new ImageLoaderEvent(loader, image, i, i == count - 1));
+			}
+		}
+	}
+}
+
+/**
+ * Runs <code>task</code> for the chunks <code>0</code> to <code>count - 1</code>
+ * on the calling thread and on threads that are started for this call only, up
+ * to one per available processor. Decoding is not run in a shared pool, such as
+ * the common fork join pool, where it would wait for unrelated tasks and delay
+ * them. The first exception thrown by a task is rethrown once all threads ended.
+ */
+static void runParallel(int count, ChunkTask task) throws IOException {
+	AtomicInteger next = new AtomicInteger();
+	AtomicReference<Throwable> failure = new AtomicReference<>();
+	Runnable worker = () -> {
+		int index;
+		while (failure.get() == null && (index = next.getAndIncrement()) < count) {
+			try {
+				task.run(index);
+			} catch (IOException | RuntimeException | Error e) {
+				failure.compareAndSet(null, e);
+			}
+		}
+	};
+	Thread[] threads = new Thread[Math.min(Runtime.getRuntime().availableProcessors(), count) - 1];
+	for (int i = 0; i < threads.length; i++) {
+		threads[i] = new Thread(worker, "SWT TIFF Codec"); //$NON-NLS-1$
+		threads[i].setDaemon(true);
+		threads[i].start();
+	}
+	worker.run();
+	boolean interrupted = false;
+	for (Thread thread : threads) {
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
 			}
-			destIndex += codec.decode(data, imageData, destIndex, imageWidth, nRows);
 		}
-		if (loader.hasListeners()) {
-			loader.notifyListeners(new ImageLoaderEvent(loader, image, i, i == length - 1));
+	}
+	if (interrupted) Thread.currentThread().interrupt();
+	Throwable e = failure.get();
+	if (e instanceof IOException) throw (IOException) e;
+	if (e instanceof RuntimeException) throw (RuntimeException) e;
+	if (e != null) throw (Error) e;
+}
+
+/**
+ * Reads and decodes strip or tile <code>index</code> into <code>imageData</code>.
+ * This method may be called from several threads at the same time.
+ */
+void decodeChunk(byte[] imageData, int index, int rowByteSize, int tilesAcross) throws IOException {
+	if (tileOffsets == null) {
+		byte[] data = new byte[stripByteCounts[index]];
+		file.readAt(stripOffsets[index], data);
+		int firstRow = index * rowsPerStrip;
+		int nRows = Math.min(rowsPerStrip, imageLength - firstRow);
+		int destIndex = firstRow * rowByteSize;
+		decodeData(data, imageData, destIndex, nRows * rowByteSize, imageWidth, nRows);
+		undoPredictor(imageData, destIndex, rowByteSize, nRows);
+	} else {
+		byte[] data = new byte[tileByteCounts[index]];
+		file.readAt(tileOffsets[index], data);
+		int tileRowByteSize = tileWidth * depth / 8;
+		byte[] tile = new byte[tileRowByteSize * tileLength];
+		decodeData(data, tile, 0, tile.length, tileWidth, tileLength);
+		undoPredictor(tile, 0, tileRowByteSize, tileLength);
+		/* Copy the part of the tile that lies within the image */
+		int x = index % tilesAcross * tileWidth;
+		int y = index / tilesAcross * tileLength;
+		int destX = (int) ((long) x * depth / 8);
+		int count = Math.min(tileRowByteSize, rowByteSize - destX);
+		int nRows = Math.min(tileLength, imageLength - y);
+		for (int row = 0; row < nRows; row++) {
+			System.arraycopy(tile, row * tileRowByteSize, imageData, (y + row) * rowByteSize + destX, count);
 		}
 	}
 }
@@ -392,7 +577,11 @@ void parseEntries(byte[] buffer) throws IOException {
 				break;
 			}
 			case TAG_PlanarConfiguration: {
-				/* Ignored: baseline only requires default planar configuration. */
+				planarConfiguration = getEntryValue(type, buffer, offset);
+				break;
+			}
+			case TAG_Predictor: {
+				predictor = getEntryValue(type, buffer, offset);
 				break;
 			}
 			case TAG_T4Options: {
@@ -422,11 +611,36 @@ void parseEntries(byte[] buffer) throws IOException {
 				colorMapOffset = getEntryValue(TYPE_LONG, buffer, offset);
 				break;
 			}
+			case TAG_TileWidth: {
+				tileWidth = getEntryValue(type, buffer, offset);
+				break;
+			}
+			case TAG_TileLength: {
+				tileLength = getEntryValue(type, buffer, offset);
+				break;
+			}
+			case TAG_TileOffsets: {
+				if (type != TYPE_LONG && type != TYPE_SHORT) SWT.error(SWT.ERROR_INVALID_IMAGE);
+				tileOffsets = new int[count];
+				getEntryValue(type, buffer, offset, tileOffsets);
+				break;
+			}
+			case TAG_TileByteCounts: {
+				tileByteCounts = new int[count];
+				getEntryValue(type, buffer, offset, tileByteCounts);
+				break;
+			}
 		}
 	}
 }
 
-public ImageData read(int [] nextIFDOffset) throws IOException {
+/**
+ * Reads the entries of the directory at the current position of the file
+ * and answers the offset of the next directory in <code>nextIFDOffset</code>.
+ * The pixels are only read by <code>decode()</code>, so the pages of a file
+ * can be enumerated without decoding them.
+ */
+public void read(int [] nextIFDOffset) throws IOException {
 	/* Set TIFF default values */
 	bitsPerSample = new int[] {1};
 	colorMapOffset = NO_VALUE;
@@ -438,6 +652,11 @@ public ImageData read(int [] nextIFDOffset) throws IOException {
 	samplesPerPixel = 1;
 	stripByteCounts = null;
 	stripOffsets = null;
+	planarConfiguration = 1;
+	predictor = PREDICTOR_NONE;
+	tileWidth = tileLength = NO_VALUE;
+	tileByteCounts = null;
+	tileOffsets = null;
 
 	byte[] buffer = new byte[2];
 	file.read(buffer);
@@ -448,6 +667,20 @@ public ImageData read(int [] nextIFDOffset) throws IOException {
 	file.read(buffer2);
 	nextIFDOffset[0] = toInt(buffer2, 0, TYPE_LONG);
 	parseEntries(buffer);
+}
+
+/**
+ * Answers the image described by the entries read by <code>read(int[])</code>.
+ */
+public ImageData decode() throws IOException {
+	/* Only chunky (RGBRGB) sample data is supported */
+	if (planarConfiguration != 1 && samplesPerPixel > 1) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+	if (predictor != PREDICTOR_NONE) {
+		if (predictor != PREDICTOR_HORIZONTAL) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+		for (int bits : bitsPerSample) {
+			if (bits != 8) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
+		}
+	}
 
 	PaletteData palette = null;
 	depth = 0;
@@ -516,19 +749,31 @@ int toInt(byte[] buffer, int i, int type) {
 	return -1;
 }
 
-void write(int photometricInterpretation) throws IOException {
+/**
+ * Writes the directory and the image data at <code>offset</code>, which is 0
+ * for the first directory of the stream. Answers the word aligned offset
+ * following the image data, at which the next directory may be written.
+ */
+int write(int photometricInterpretation, int offset, boolean isLast) throws IOException {
 	boolean isRGB = photometricInterpretation == 2;
 	boolean isColorMap = photometricInterpretation == 3;
 	boolean isBiLevel = photometricInterpretation == 0 || photometricInterpretation == 1;
 
 	int imageWidth = image.width;
 	int imageLength = image.height;
-	int rowByteSize = image.bytesPerLine;
+	/* Rows are stored byte aligned without padding */
+	int rowByteSize = (imageWidth * image.depth + 7) / 8;
+	samplesPerPixel = isRGB ? 3 : 1;
+	/* The horizontal predictor improves the compression of photographs */
+	predictor = isRGB && compression != COMPRESSION_NONE ? PREDICTOR_HORIZONTAL : PREDICTOR_NONE;
 
 	int numberEntries = isBiLevel ? 9 : 11;
+	if (predictor != PREDICTOR_NONE) numberEntries++;
 	int lengthDirectory = 2 + 12 * numberEntries + 4;
-	/* Offset following the header and the directory */
-	int nextOffset = 8 + lengthDirectory;
+	/* The first directory follows the header */
+	int directoryOffset = offset == 0 ? 8 : offset;
+	/* Offset following the directory */
+	int nextOffset = directoryOffset + lengthDirectory;
 
 	/* Extra space used by XResolution and YResolution values */
 	int extraBytes = 16;
@@ -549,10 +794,27 @@ void write(int photometricInterpretation) throws IOException {
 	}
 	/* TIFF recommends storing the data in strips of no more than 8 Ko */
 	byte[] data = image.data;
+	if (image.bytesPerLine != rowByteSize) {
+		data = new byte[rowByteSize * imageLength];
+		for (int y = 0; y < imageLength; y++) {
+			System.arraycopy(image.data, y * image.bytesPerLine, data, y * rowByteSize, rowByteSize);
+		}
+	}
 	int[][] strips = new int[2][];
 	int nbrRowsPerStrip = formatStrips(rowByteSize, imageLength, data, 8192, nextOffset, extraBytes, strips);
 	int[] stripOffsets = strips[0];
 	int[] stripByteCounts = strips[1];
+	byte[][] compressedStrips = null;
+	if (compression != COMPRESSION_NONE) {
+		compressedStrips = encodeStrips(data, rowByteSize, nbrRowsPerStrip, stripByteCounts);
+		for (int i = 0; i < stripOffsets.length; i++) {
+			stripByteCounts[i] = compressedStrips[i].length;
+			if (i > 0) stripOffsets[i] = stripOffsets[i - 1] + stripByteCounts[i - 1];
+		}
+	}
+	int dataEnd = stripOffsets[stripOffsets.length - 1] + stripByteCounts[stripByteCounts.length - 1];
+	/* Directories must begin on a word boundary */
+	int nextDirectoryOffset = (dataEnd + 1) & ~1;
 
 	int bitsPerSampleOffset = NO_VALUE;
 	if (isRGB) {
@@ -577,7 +839,7 @@ void write(int photometricInterpretation) throws IOException {
 		nextOffset += colorMap.length * 2;
 	}
 	/* TIFF header */
-	writeHeader();
+	if (offset == 0) writeHeader();
 
 	/* Image File Directory */
 	out.writeShort(numberEntries);
@@ -585,7 +847,7 @@ void write(int photometricInterpretation) throws IOException {
 	writeEntry(TAG_ImageLength, TYPE_LONG, 1, imageLength);
 	if (isColorMap) writeEntry(TAG_BitsPerSample, TYPE_SHORT, 1, image.depth);
 	if (isRGB) writeEntry(TAG_BitsPerSample, TYPE_SHORT, 3, bitsPerSampleOffset);
-	writeEntry(TAG_Compression, TYPE_SHORT, 1, COMPRESSION_NONE);
+	writeEntry(TAG_Compression, TYPE_SHORT, 1, compression);
 	writeEntry(TAG_PhotometricInterpretation, TYPE_SHORT, 1, photometricInterpretation);
 	writeEntry(TAG_StripOffsets, TYPE_LONG, cnt, cnt > 1 ? stripOffsetsOffset : stripOffsets[0]);
 	if (isRGB) writeEntry(TAG_SamplesPerPixel, TYPE_SHORT, 1, 3);
@@ -593,9 +855,10 @@ void write(int photometricInterpretation) throws IOException {
 	writeEntry(TAG_StripByteCounts, TYPE_LONG, cnt, cnt > 1 ? stripByteCountsOffset : stripByteCounts[0]);
 	writeEntry(TAG_XResolution, TYPE_RATIONAL, 1, xResolutionOffset);
 	writeEntry(TAG_YResolution, TYPE_RATIONAL, 1, yResolutionOffset);
+	if (predictor != PREDICTOR_NONE) writeEntry(TAG_Predictor, TYPE_SHORT, 1, predictor);
 	if (isColorMap) writeEntry(TAG_ColorMap, TYPE_SHORT, colorMap.length, colorMapOffset);
 	/* Offset of next IFD (0 for last IFD) */
-	out.writeInt(0);
+	out.writeInt(isLast ? 0 : nextDirectoryOffset);
 
 	/* Values longer than 4 bytes Section */
 
@@ -616,7 +879,60 @@ void write(int photometricInterpretation) throws IOException {
 			out.writeShort(element);
 
 	/* Image Data */
-	out.write(data);
+	if (compressedStrips != null) {
+		for (byte[] strip : compressedStrips) out.write(strip);
+	} else {
+		out.write(data);
+	}
+	if (!isLast && nextDirectoryOffset != dataEnd) out.write(0);
+	return nextDirectoryOffset;
+}
+
+/**
+ * Answers the compressed strips of <code>data</code>, where strip <code>i</code>
+ * holds <code>counts[i]</code> bytes.
+ */
+byte[][] encodeStrips(byte[] data, int rowByteSize, int nbrRowsPerStrip, int[] counts) throws IOException {
+	byte[][] strips = new byte[counts.length][];
+	int stripByteSize = rowByteSize * nbrRowsPerStrip;
+	ChunkTask task = i -> strips[i] = encodeData(data, i * stripByteSize, counts[i], rowByteSize);
+	if (counts.length > 1 && data.length >= PARALLEL_THRESHOLD) {
+		runParallel(counts.length, task);
+	} else {
+		for (int i = 0; i < counts.length; i++) task.run(i);
+	}
+	return strips;
+}
+
+byte[] encodeData(byte[] data, int offset, int length, int rowByteSize) {
+	if (predictor == PREDICTOR_HORIZONTAL) {
+		byte[] rows = new byte[length];
+		System.arraycopy(data, offset, rows, 0, length);
+		for (int start = 0; start < length; start += rowByteSize) {
+			for (int i = Math.min(start + rowByteSize, length) - 1; i >= start + samplesPerPixel; i--) {
+				rows[i] -= rows[i - samplesPerPixel];
+			}
+		}
+		data = rows;
+		offset = 0;
+	}
+	if (compression == COMPRESSION_LZW) {
+		return new TIFFLZWCodec().encode(data, offset, length);
+	}
+	Deflater deflater = new Deflater();
+	try {
+		deflater.setInput(data, offset, length);
+		deflater.finish();
+		ByteArrayOutputStream stream = new ByteArrayOutputStream(length / 2 + 64);
+		byte[] buffer = new byte[8192];
+		while (!deflater.finished()) {
+			int count = deflater.deflate(buffer);
+			stream.write(buffer, 0, count);
+		}
+		return stream.toByteArray();
+	} finally {
+		deflater.end();
+	}
 }
 
 void writeEntry(short tag, int type, int count, int value) throws IOException {
@@ -640,12 +956,14 @@ void writeHeader() throws IOException {
 	out.writeInt(8);
 }
 
-void writeToStream(LEDataOutputStream byteStream) throws IOException {
+/**
+ * Writes the image at <code>offset</code>, which is 0 for the first image
+ * of the stream, and answers the offset at which the next image may be written.
+ */
+int writeToStream(LEDataOutputStream byteStream, int offset, boolean isLast) throws IOException {
 	out = byteStream;
 	int photometricInterpretation = -1;
 
-	/* Scanline pad must be 1 */
-	if (image.scanlinePad != 1) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
 	switch (image.depth) {
 		case 1: {
 			/* Palette must be black and white or white and black */
@@ -676,7 +994,7 @@ void writeToStream(LEDataOutputStream byteStream) throws IOException {
 			SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);
 		}
 	}
-	write(photometricInterpretation);
+	return write(photometricInterpretation, offset, isLast);
 }
 
 }
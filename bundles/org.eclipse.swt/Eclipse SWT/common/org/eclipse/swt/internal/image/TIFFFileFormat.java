@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,10 +17,12 @@ package org.eclipse.swt.internal.image;
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import java.io.*;
+import java.util.*;
 
 /**
  * Baseline TIFF decoder revision 6.0
  * Extension T4-encoding CCITT T.4 1D
+ * Extension LZW and Deflate compression, horizontal predictor and tiles
  */
 public final class TIFFFileFormat extends FileFormat {
 
@@ -58,16 +60,22 @@ ImageData[] loadFromByteStream() {
 		int offset = isLittleEndian ?
 			(header[4] & 0xFF) | ((header[5] & 0xFF) << 8) | ((header[6] & 0xFF) << 16) | ((header[7] & 0xFF) << 24) :
 			(header[7] & 0xFF) | ((header[6] & 0xFF) << 8) | ((header[5] & 0xFF) << 16) | ((header[4] & 0xFF) << 24);
+		/* Enumerate the pages before decoding any of them */
+		List<TIFFDirectory> directories = new ArrayList<>();
+		Set<Integer> offsets = new HashSet<>();
 		while (offset != 0) {
+			/* Guard against directories that refer back to a previous one */
+			if (!offsets.add(offset)) SWT.error(SWT.ERROR_INVALID_IMAGE);
 			file.seek(offset);
 			TIFFDirectory directory = new TIFFDirectory(file, isLittleEndian, loader);
 			int [] nextIFDOffset = new int[1];
-			ImageData image = directory.read(nextIFDOffset);
+			directory.read(nextIFDOffset);
 			offset = nextIFDOffset[0];
-			ImageData[] oldImages = images;
-			images = new ImageData[oldImages.length + 1];
-			System.arraycopy(oldImages, 0, images, 0, oldImages.length);
-			images[images.length - 1] = image;
+			directories.add(directory);
+		}
+		images = new ImageData[directories.size()];
+		for (int i = 0; i < images.length; i++) {
+			images[i] = directories.get(i).decode();
 		}
 	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO, e);
@@ -77,12 +85,23 @@ ImageData[] loadFromByteStream() {
 
 @Override
 void unloadIntoByteStream(ImageLoader loader) {
-	/* We do not currently support writing multi-page tiff,
-	 * so we use the first image data in the loader's array. */
-	ImageData image = loader.data[0];
-	TIFFDirectory directory = new TIFFDirectory(image);
+	/*
+	* Every image data in the loader's array is written as a page.
+	* The loader's compression selects no compression (0), LZW (1)
+	* or Deflate (2).
+	*/
+	int compression;
+	switch (loader.compression) {
+		case 1: compression = TIFFDirectory.COMPRESSION_LZW; break;
+		case 2: compression = TIFFDirectory.COMPRESSION_DEFLATE; break;
+		default: compression = TIFFDirectory.COMPRESSION_NONE;
+	}
 	try {
-		directory.writeToStream(outputStream);
+		int offset = 0;
+		for (int i = 0; i < loader.data.length; i++) {
+			TIFFDirectory directory = new TIFFDirectory(loader.data[i], compression);
+			offset = directory.writeToStream(outputStream, offset, i == loader.data.length - 1);
+		}
 	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO, e);
 	}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal.image;
+
+import java.io.*;
+import java.util.*;
+
+import org.eclipse.swt.*;
+
+/*
+* Encoder and decoder for
+* - TIFF LZW compression (TIFF compression type 5)
+*
+* Codes are packed most significant bit first and start with 9 bits. The
+* code width grows one code earlier than in GIF LZW, as required by the
+* TIFF 6.0 specification.
+*/
+final class TIFFLZWCodec {
+	static final int CLEAR_CODE = 256;
+	static final int EOI_CODE = 257;
+	static final int FIRST_CODE = 258;
+	static final int MAX_CODE = 4094;
+	static final int MAX_BITS = 12;
+
+	/* Decoder state */
+	byte[] src;
+	int srcIndex, bitBuffer, bitCount;
+
+/**
+ * Decodes <code>src</code> into <code>dest</code> starting at <code>offsetDest</code>,
+ * writing at most <code>length</code> bytes. Answers the number of bytes written.
+ */
+public int decode(byte[] src, byte[] dest, int offsetDest, int length) {
+	this.src = src;
+	srcIndex = bitBuffer = bitCount = 0;
+	/*
+	* Every string of the table is a prefix string followed by one byte,
+	* so it can be referenced by the position and length at which it was
+	* last written to the output.
+	*/
+	int[] offsets = new int[MAX_CODE + 2];
+	int[] lengths = new int[MAX_CODE + 2];
+	int end = offsetDest + length;
+	int destIndex = offsetDest;
+	int codeSize = 9, nextCode = FIRST_CODE, previous = -1;
+	int code;
+	while ((code = nextCode(codeSize)) != EOI_CODE && code != -1) {
+		if (code == CLEAR_CODE) {
+			codeSize = 9;
+			nextCode = FIRST_CODE;
+			previous = -1;
+			continue;
+		}
+		if (destIndex >= end) break;
+		int start = destIndex;
+		if (code < CLEAR_CODE) {
+			dest[destIndex++] = (byte) code;
+		} else if (code < nextCode) {
+			int count = Math.min(lengths[code], end - destIndex);
+			System.arraycopy(dest, offsets[code], dest, destIndex, count);
+			destIndex += count;
+		} else if (code == nextCode && previous != -1) {
+			/* The string is the previous string followed by its own first byte */
+			int count = Math.min(lengths[previous], end - destIndex);
+			System.arraycopy(dest, offsets[previous], dest, destIndex, count);
+			destIndex += count;
+			if (destIndex < end) dest[destIndex++] = dest[offsets[previous]];
+		} else {
+			SWT.error(SWT.ERROR_INVALID_IMAGE);
+		}
+		if (previous != -1 && nextCode <= MAX_CODE + 1) {
+			offsets[nextCode] = offsets[previous];
+			lengths[nextCode] = lengths[previous] + 1;
+			nextCode++;
+			if (nextCode + 1 >= 1 << codeSize && codeSize < MAX_BITS) codeSize++;
+		}
+		offsets[code < CLEAR_CODE ? FIRST_CODE - 1 : code] = start;
+		if (code < CLEAR_CODE) {
+			/* Literal strings are not stored in the table, track them in a spare slot */
+			lengths[FIRST_CODE - 1] = 1;
+			previous = FIRST_CODE - 1;
+		} else {
+			lengths[code] = destIndex - start;
+			previous = code;
+		}
+	}
+	return destIndex - offsetDest;
+}
+
+int nextCode(int codeSize) {
+	while (bitCount < codeSize) {
+		if (srcIndex >= src.length) return -1;
+		bitBuffer = (bitBuffer << 8) | (src[srcIndex++] & 0xFF);
+		bitCount += 8;
+	}
+	bitCount -= codeSize;
+	return (bitBuffer >>> bitCount) & ((1 << codeSize) - 1);
+}
+
+/**
+ * Answers the LZW encoding of <code>length</code> bytes of <code>src</code>
+ * starting at <code>offset</code>.
+ */
+public byte[] encode(byte[] src, int offset, int length) {
+	ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 16);
+	/* Open addressing table from prefix code and byte to code */
+	int[] keys = new int[8192];
+	short[] values = new short[keys.length];
+	int mask = keys.length - 1;
+	int codeSize = 9, nextCode = FIRST_CODE;
+	/* Pending bits and their number */
+	int[] state = new int[2];
+	writeCode(out, state, CLEAR_CODE, codeSize);
+	if (length == 0) {
+		writeCode(out, state, EOI_CODE, codeSize);
+		flush(out, state);
+		return out.toByteArray();
+	}
+	int prefix = src[offset] & 0xFF;
+	for (int i = offset + 1, end = offset + length; i < end; i++) {
+		int value = src[i] & 0xFF;
+		/* Keys are stored plus one so that zero marks an empty slot */
+		int key = (prefix << 8 | value) + 1;
+		int slot = (key * 0x9E3779B1) >>> 19 & mask;
+		while (keys[slot] != 0 && keys[slot] != key) slot = (slot + 1) & mask;
+		if (keys[slot] == key) {
+			prefix = values[slot];
+			continue;
+		}
+		writeCode(out, state, prefix, codeSize);
+		keys[slot] = key;
+		values[slot] = (short) nextCode++;
+		if (nextCode > MAX_CODE) {
+			writeCode(out, state, CLEAR_CODE, codeSize);
+			Arrays.fill(keys, 0);
+			codeSize = 9;
+			nextCode = FIRST_CODE;
+		} else if (nextCode + 1 > 1 << codeSize) {
+			codeSize++;
+		}
+		prefix = value;
+	}
+	writeCode(out, state, prefix, codeSize);
+	/* The decoder adds one more entry for the last code, which may widen the codes */
+	if (nextCode + 2 > 1 << codeSize && codeSize < MAX_BITS) codeSize++;
+	writeCode(out, state, EOI_CODE, codeSize);
+	flush(out, state);
+	return out.toByteArray();
+}
+
+static void writeCode(ByteArrayOutputStream out, int[] state, int code, int codeSize) {
+	state[0] = (state[0] << codeSize) | code;
+	state[1] += codeSize;
+	while (state[1] >= 8) {
+		state[1] -= 8;
+		out.write(state[0] >>> state[1]);
+	}
+	state[0] &= (1 << state[1]) - 1;
+}
+
+static void flush(ByteArrayOutputStream out, int[] state) {
+	if (state[1] > 0) out.write(state[0] << (8 - state[1]));
+	state[0] = state[1] = 0;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,26 +14,49 @@
 package org.eclipse.swt.internal.image;
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 
+/*
+* Random access to the bytes of a TIFF stream.
+*
+* When the stream reads from a file, the bytes are read directly from the
+* file channel at the requested positions, so only the parts of the file
+* that are accessed are read. Any other stream is cached in chunks as it is
+* read, since strips and tiles may be located anywhere in the stream.
+*/
 final class TIFFRandomFileAccess {
 
 	LEDataInputStream inputStream;
 	int start, current, next;
 	byte[][] buffers;
 
+	/* File channel mode */
+	FileChannel channel;
+	long base;
+
 	static final int CHUNK_SIZE = 8192;
 	static final int LIST_SIZE = 128;
 
 public TIFFRandomFileAccess(LEDataInputStream stream) {
 	inputStream = stream;
 	start = current = next = inputStream.getPosition();
-	buffers = new byte[LIST_SIZE][];
+	channel = stream.getChannel();
+	if (channel != null) {
+		try {
+			base = stream.getChannelOffset();
+		} catch (IOException e) {
+			channel = null;
+		}
+	}
+	if (channel == null) buffers = new byte[LIST_SIZE][];
 }
 
 void seek(int pos) throws IOException {
 	if (pos == current) return;
 	if (pos < start) throw new IOException();
 	current = pos;
+	if (channel != null) return;
 	if (current > next) {
 		int n = current - next;
 		/* store required bytes */
@@ -47,6 +70,7 @@ void seek(int pos) throws IOException {
 			}
 			if (buffers[index] == null) buffers[index] = new byte[CHUNK_SIZE];
 			int cnt = inputStream.read(buffers[index], offset, Math.min(n, CHUNK_SIZE - offset));
+			if (cnt < 0) throw new EOFException();
 			n -= cnt;
 			next += cnt;
 			index++;
@@ -56,6 +80,11 @@ void seek(int pos) throws IOException {
 }
 
 void read(byte b[]) throws IOException {
+	if (channel != null) {
+		readChannel(current, b);
+		current += b.length;
+		return;
+	}
 	int size = b.length;
 	int nCached = Math.min(size, next - current);
 	int nMissing = size - next + current;
@@ -80,11 +109,12 @@ void read(byte b[]) throws IOException {
 		while (nMissing > 0) {
 			if (index >= buffers.length) {
 				byte[][] oldBuffers = buffers;
-				buffers = new byte[Math.max(index, oldBuffers.length + LIST_SIZE)][];
+				buffers = new byte[Math.max(index + 1, oldBuffers.length + LIST_SIZE)][];
 				System.arraycopy(oldBuffers, 0, buffers, 0, oldBuffers.length);
 			}
 			if (buffers[index] == null) buffers[index] = new byte[CHUNK_SIZE];
 			int cnt = inputStream.read(buffers[index], offset, Math.min(nMissing, CHUNK_SIZE - offset));
+			if (cnt < 0) throw new EOFException();
 			System.arraycopy(buffers[index], offset, b, destNext, cnt);
 			nMissing -= cnt;
 			next += cnt;
@@ -96,4 +126,33 @@ void read(byte b[]) throws IOException {
 	current += size;
 }
 
+/**
+ * Reads <code>b.length</code> bytes at position <code>pos</code> without
+ * changing the current position. This method may be called from several
+ * threads at the same time.
+ */
+void readAt(int pos, byte[] b) throws IOException {
+	if (pos < start) throw new IOException();
+	if (channel != null) {
+		readChannel(pos, b);
+		return;
+	}
+	synchronized (this) {
+		int oldCurrent = current;
+		seek(pos);
+		read(b);
+		current = oldCurrent;
+	}
+}
+
+void readChannel(int pos, byte[] b) throws IOException {
+	ByteBuffer buffer = ByteBuffer.wrap(b);
+	long position = base + (pos & 0xFFFFFFFFL);
+	while (buffer.hasRemaining()) {
+		int count = channel.read(buffer, position);
+		if (count < 0) throw new EOFException();
+		position += count;
+	}
+}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.layout;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
+import org.eclipse.swt.widgets.*;
 
 /**
  * Each control controlled by a <code>RowLayout</code> can have its initial
@@ -71,6 +72,11 @@ public final class RowData {
 	 */
 	public boolean exclude = false;
 
+	/* The sizes cached for the last control, a RowData may be shared by controls */
+	Control cacheControl;
+	int defaultWhint, defaultHhint, defaultWidth = -1, defaultHeight = -1;
+	int currentWhint, currentHhint, currentWidth = -1, currentHeight = -1;
+
 /**
  * Constructs a new instance of RowData using
  * default values.
@@ -103,6 +109,35 @@ public RowData (Point point) {
 	this (point.x, point.y);
 }
 
+Point computeSize (Control control, int wHint, int hHint, boolean flushCache) {
+	if (flushCache || control != cacheControl) flushCache ();
+	cacheControl = control;
+	if (wHint == this.width && hHint == this.height) {
+		if (defaultWidth == -1 || defaultHeight == -1 || wHint != defaultWhint || hHint != defaultHhint) {
+			Point size = control.computeSize (wHint, hHint, flushCache);
+			defaultWhint = wHint;
+			defaultHhint = hHint;
+			defaultWidth = size.x;
+			defaultHeight = size.y;
+		}
+		return new Point (defaultWidth, defaultHeight);
+	}
+	if (currentWidth == -1 || currentHeight == -1 || wHint != currentWhint || hHint != currentHhint) {
+		Point size = control.computeSize (wHint, hHint, flushCache);
+		currentWhint = wHint;
+		currentHhint = hHint;
+		currentWidth = size.x;
+		currentHeight = size.y;
+	}
+	return new Point (currentWidth, currentHeight);
+}
+
+void flushCache () {
+	cacheControl = null;
+	defaultWidth = defaultHeight = -1;
+	currentWidth = currentHeight = -1;
+}
+
 String getName () {
 	String string = getClass ().getName ();
 	int index = string.lastIndexOf ('.');
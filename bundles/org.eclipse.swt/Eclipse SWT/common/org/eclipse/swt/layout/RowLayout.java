@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -220,11 +220,19 @@ Point computeSize (Control control, boolean flushCache) {
 		wHint = data.width;
 		hHint = data.height;
 	}
+	return computeSize (control, wHint, hHint, flushCache);
+}
+
+Point computeSize (Control control, int wHint, int hHint, boolean flushCache) {
+	RowData data = (RowData) control.getLayoutData ();
+	if (data != null) return data.computeSize (control, wHint, hHint, flushCache);
 	return control.computeSize (wHint, hHint, flushCache);
 }
 
 @Override
 protected boolean flushCache (Control control) {
+	RowData data = (RowData) control.getLayoutData ();
+	if (data != null) data.flushCache ();
 	return true;
 }
 
@@ -264,7 +272,7 @@ Point layoutHorizontal (Composite composite, boolean move, boolean wrap, int wid
 			Control child = children [i];
 			Point size = computeSize (child, flushCache);
 			if (width > SWT.DEFAULT && width < size.x && wrap) {
-				size = child.computeSize (width, child.getLayoutData() == null ? SWT.DEFAULT : ((RowData) child.getLayoutData()).height, flushCache);
+				size = computeSize (child, width, child.getLayoutData() == null ? SWT.DEFAULT : ((RowData) child.getLayoutData()).height, flushCache);
 			}
 			childWidth = Math.max (childWidth, size.x);
 			childHeight = Math.max (childHeight, size.y);
@@ -290,7 +298,7 @@ Point layoutHorizontal (Composite composite, boolean move, boolean wrap, int wid
 		if (pack) {
 			Point size = computeSize (child, flushCache);
 			if (width > SWT.DEFAULT && width < size.x && wrap) {
-				size = child.computeSize (width, child.getLayoutData() == null ? SWT.DEFAULT : ((RowData) child.getLayoutData()).height, flushCache);
+				size = computeSize (child, width, child.getLayoutData() == null ? SWT.DEFAULT : ((RowData) child.getLayoutData()).height, flushCache);
 			}
 			childWidth = size.x;
 			childHeight = size.y;
@@ -389,7 +397,7 @@ Point layoutVertical (Composite composite, boolean move, boolean wrap, int heigh
 			Control child = children [i];
 			Point size = computeSize (child, flushCache);
 			if(height>SWT.DEFAULT && height<size.y && wrap)
-				size=child.computeSize(child.getLayoutData()==null?SWT.DEFAULT:((RowData)child.getLayoutData()).width,height,flushCache);
+				size=computeSize(child,child.getLayoutData()==null?SWT.DEFAULT:((RowData)child.getLayoutData()).width,height,flushCache);
 			childWidth = Math.max (childWidth, size.x);
 			childHeight = Math.max (childHeight, size.y);
 		}
@@ -414,7 +422,7 @@ Point layoutVertical (Composite composite, boolean move, boolean wrap, int heigh
 		if (pack) {
 			Point size = computeSize (child, flushCache);
 			if(height>SWT.DEFAULT && height<size.y && wrap)
-				size=child.computeSize(child.getLayoutData()==null?SWT.DEFAULT:((RowData)child.getLayoutData()).width,height,flushCache);
+				size=computeSize(child,child.getLayoutData()==null?SWT.DEFAULT:((RowData)child.getLayoutData()).width,height,flushCache);
 			childWidth = size.x;
 			childHeight = size.y;
 		}
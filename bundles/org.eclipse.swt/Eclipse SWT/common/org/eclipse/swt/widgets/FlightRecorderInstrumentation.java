@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import jdk.jfr.*;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Records the reports of an instrumentation as Java Flight Recorder events.
+ * <p>
+ * The events are committed after the measured work has finished, so their
+ * own start time and duration are those of the commit; the measured time is
+ * in the <code>elapsed</code> field. Widgets are recorded by their class and
+ * their <code>toString()</code>, which is only computed when the event is
+ * enabled.
+ * </p>
+ *
+ * @see Instrumentation#flightRecorder()
+ */
+final class FlightRecorderInstrumentation implements Instrumentation {
+
+	@Name("org.eclipse.swt.Layout")
+	@Label("Layout")
+	@Description("Layout of a composite by its layout")
+	@Category("SWT")
+	@StackTrace(false)
+	static final class LayoutEvent extends Event {
+		@Label("Widget Class") Class<?> widgetClass;
+		@Label("Widget") String widget;
+		@Label("Children Computed") int computed;
+		@Label("Children Moved") int moved;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+	@Name("org.eclipse.swt.ComputeSize")
+	@Label("Compute Size")
+	@Description("Computing the preferred size of a control")
+	@Category("SWT")
+	@StackTrace(false)
+	static final class ComputeSizeEvent extends Event {
+		@Label("Widget Class") Class<?> widgetClass;
+		@Label("Widget") String widget;
+		@Label("Width Hint") int wHint;
+		@Label("Height Hint") int hHint;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+	@Name("org.eclipse.swt.Paint")
+	@Label("Paint")
+	@Description("Running the paint listeners of a widget")
+	@Category("SWT")
+	@StackTrace(false)
+	static final class PaintEvent extends Event {
+		@Label("Widget Class") Class<?> widgetClass;
+		@Label("Widget") String widget;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+	@Name("org.eclipse.swt.AsyncExec")
+	@Label("Async Exec")
+	@Description("Running a runnable passed to asyncExec or syncExec")
+	@Category("SWT")
+	@StackTrace(false)
+	static final class AsyncExecEvent extends Event {
+		@Label("Runnable Class") Class<?> runnableClass;
+		@Label("Latency") @Timespan(Timespan.NANOSECONDS) long latency;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+	@Name("org.eclipse.swt.TimerExec")
+	@Label("Timer Exec")
+	@Description("Running a runnable passed to timerExec")
+	@Category("SWT")
+	@StackTrace(false)
+	static final class TimerExecEvent extends Event {
+		@Label("Runnable Class") Class<?> runnableClass;
+		@Label("Lateness") @Timespan(Timespan.NANOSECONDS) long lateness;
+		@Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+	}
+
+@Override
+public void layout (Composite composite, int computed, int moved, long duration) {
+	LayoutEvent event = new LayoutEvent ();
+	if (!event.isEnabled ()) return;
+	event.widgetClass = composite.getClass ();
+	event.widget = composite.toString ();
+	event.computed = computed;
+	event.moved = moved;
+	event.elapsed = duration;
+	event.commit ();
+}
+
+@Override
+public void computeSize (Control control, int wHint, int hHint, long duration) {
+	ComputeSizeEvent event = new ComputeSizeEvent ();
+	if (!event.isEnabled ()) return;
+	event.widgetClass = control.getClass ();
+	event.widget = control.toString ();
+	event.wHint = wHint;
+	event.hHint = hHint;
+	event.elapsed = duration;
+	event.commit ();
+}
+
+@Override
+public void paint (Widget widget, long duration) {
+	PaintEvent event = new PaintEvent ();
+	if (!event.isEnabled ()) return;
+	event.widgetClass = widget.getClass ();
+	event.widget = widget.toString ();
+	event.elapsed = duration;
+	event.commit ();
+}
+
+@Override
+public void asyncExec (Runnable runnable, long latency, long duration) {
+	AsyncExecEvent event = new AsyncExecEvent ();
+	if (!event.isEnabled ()) return;
+	event.runnableClass = runnable.getClass ();
+	event.latency = latency;
+	event.elapsed = duration;
+	event.commit ();
+}
+
+@Override
+public void timerExec (Runnable runnable, long lateness, long duration) {
+	TimerExecEvent event = new TimerExecEvent ();
+	if (!event.isEnabled ()) return;
+	event.runnableClass = runnable.getClass ();
+	event.lateness = lateness;
+	event.elapsed = duration;
+	event.commit ();
+}
+}
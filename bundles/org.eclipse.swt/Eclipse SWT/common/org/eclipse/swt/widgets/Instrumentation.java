@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import org.eclipse.swt.*;
+
+/**
+ * Classes which implement this interface are told how long the
+ * user-interface thread of a display spends laying out composites,
+ * computing the sizes of controls, painting widgets and running the
+ * runnables passed to <code>asyncExec</code> and <code>timerExec</code>.
+ * <p>
+ * An instrumentation is set on a display with
+ * <code>Display.setInstrumentation</code>. All methods are called from the
+ * user-interface thread after the measured work has finished; they must
+ * return quickly and must not throw exceptions. Durations are nanoseconds
+ * as answered by <code>System.nanoTime()</code> and include nested work,
+ * so the layout of a composite includes computing the sizes of its
+ * children. When no instrumentation is set, the display does not measure
+ * anything.
+ * </p><p>
+ * Note: Not all events are reported on all platforms. Computing the size
+ * of a control is not reported on macOS. The children computed by a
+ * layout are counted on GTK and Windows, and the children it moved only
+ * on GTK.
+ * </p>
+ *
+ * @see Display#setInstrumentation(Instrumentation)
+ * @since 3.126
+ */
+public interface Instrumentation {
+
+/**
+ * Reports the layout of a composite by its layout, together with the
+ * number of children whose size the layout computed and the number of
+ * children it moved or resized. A child that the layout asked to keep its
+ * bounds is not counted as moved.
+ *
+ * @param composite the composite that was laid out
+ * @param computed the number of times the size of a child was computed, or <code>-1</code> if the platform does not count them
+ * @param moved the number of times a child was moved or resized, or <code>-1</code> if the platform does not count them
+ * @param duration the time the layout took, in nanoseconds
+ */
+default void layout (Composite composite, int computed, int moved, long duration) {}
+
+/**
+ * Reports that the size of a control was computed.
+ *
+ * @param control the control whose size was computed
+ * @param wHint the width hint passed to <code>computeSize</code>
+ * @param hHint the height hint passed to <code>computeSize</code>
+ * @param duration the time computing the size took, in nanoseconds
+ */
+default void computeSize (Control control, int wHint, int hHint, long duration) {}
+
+/**
+ * Reports that the paint listeners of a widget were run.
+ *
+ * @param widget the widget that was painted
+ * @param duration the time the paint listeners took, in nanoseconds
+ */
+default void paint (Widget widget, long duration) {}
+
+/**
+ * Reports that a runnable passed to <code>asyncExec</code> or
+ * <code>syncExec</code> from another thread was run.
+ *
+ * @param runnable the runnable
+ * @param latency the time the runnable waited in the queue, in nanoseconds
+ * @param duration the time the runnable took, in nanoseconds
+ */
+default void asyncExec (Runnable runnable, long latency, long duration) {}
+
+/**
+ * Reports that a runnable passed to <code>timerExec</code> was run.
+ *
+ * @param runnable the runnable
+ * @param lateness the time between when the runnable was due and when it was run, in nanoseconds
+ * @param duration the time the runnable took, in nanoseconds
+ */
+default void timerExec (Runnable runnable, long lateness, long duration) {}
+
+/**
+ * Answers an instrumentation that records every report as an event of
+ * the Java Flight Recorder. The events are in the <em>SWT</em> category
+ * and only cost time while a recording is running that enables them.
+ *
+ * @return an instrumentation that records Java Flight Recorder events
+ *
+ * @exception SWTError <ul>
+ *    <li>ERROR_NOT_IMPLEMENTED - if the Java Flight Recorder is not available</li>
+ * </ul>
+ */
+static Instrumentation flightRecorder () {
+	try {
+		return new FlightRecorderInstrumentation ();
+	} catch (LinkageError error) {
+		SWT.error (SWT.ERROR_NOT_IMPLEMENTED, error);
+		return null;
+	}
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -74,6 +74,8 @@ void moveAllEventsTo (Synchronizer toReceiveTheEvents) {
 
 
 void addLast (RunnableLock lock) {
+	Display display = this.display;
+	if (display != null && display.instrumentation != null) lock.time = System.nanoTime ();
 	boolean wake = messages.isEmpty();
 	messages.add(lock);
 	if (wake) display.wakeThread ();
@@ -129,7 +131,15 @@ boolean runAsyncMessages (boolean all) {
 			syncThread = lock.thread;
 			display.sendPreEvent(SWT.None);
 			try {
-				lock.run (display);
+				Instrumentation instrumentation = lock.time != 0 ? display.instrumentation : null;
+				if (instrumentation != null && lock.runnable != null) {
+					Runnable runnable = lock.runnable;
+					long start = System.nanoTime ();
+					lock.run (display);
+					instrumentation.asyncExec (runnable, start - lock.time, System.nanoTime () - start);
+				} else {
+					lock.run (display);
+				}
 			} catch (Throwable t) {
 				lock.throwable = t;
 				SWT.error (SWT.ERROR_FAILED_EXEC, t);
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Collects the strings passed to <code>Text.appendAsync()</code> from any
+ * thread and appends them to the text together on the user-interface
+ * thread.
+ * <p>
+ * Adding a string never blocks. Only the first string added after the
+ * queue was drained schedules a drain with <code>asyncExec()</code>, so
+ * the strings arriving while the user-interface thread is busy are
+ * appended with a single call to <code>Text.append()</code>, which scrolls
+ * the text only once. When the text has a line limit, the lines of the
+ * batch that would be removed right away are dropped before appending.
+ * </p>
+ */
+final class TextAppendQueue implements Runnable {
+
+	final Text text;
+	final Queue<String> strings = new ConcurrentLinkedQueue<>();
+	final AtomicBoolean scheduled = new AtomicBoolean();
+
+TextAppendQueue (Text text) {
+	this.text = text;
+}
+
+void add (CharSequence chunk) {
+	strings.add (chunk.toString ());
+	if (scheduled.compareAndSet (false, true)) {
+		text.getDisplay ().asyncExec (this);
+	}
+}
+
+/**
+ * Answers the offset of the first of the last <code>lines</code> lines of
+ * the string, or 0 if the string does not have more lines.
+ */
+static int lastLinesOffset (CharSequence string, int lines) {
+	int count = 0;
+	for (int i = string.length () - 1; i >= 0; i--) {
+		char c = string.charAt (i);
+		if (c == '\n' || (c == '\r' && (i + 1 == string.length () || string.charAt (i + 1) != '\n'))) {
+			if (++count == lines) return i + 1;
+		}
+	}
+	return 0;
+}
+
+@Override
+public void run () {
+	/* Clear the flag first, so that strings added while draining are appended by the next drain */
+	scheduled.set (false);
+	if (text.isDisposed ()) {
+		strings.clear ();
+		return;
+	}
+	StringBuilder buffer = new StringBuilder ();
+	String string;
+	while ((string = strings.poll ()) != null) buffer.append (string);
+	if (buffer.length () == 0) return;
+	/*
+	* Keep one line more than the limit, since the first line kept is
+	* joined with the last line of the text and removed with it.
+	*/
+	int limit = text.getLineLimit ();
+	int start = limit > 0 ? lastLinesOffset (buffer, limit + 1) : 0;
+	text.append (buffer.substring (start));
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.util.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -100,6 +101,18 @@ public abstract class Device implements Drawable {
 
 	long emptyTab;
 
+	/* Shaped layouts shared by GC.drawText() and GC.textExtent() */
+	PangoLayoutCache layoutCache;
+
+	/* Font descriptions shared by equal fonts and their metrics */
+	FontCache fontCache;
+
+	/* Surfaces shared by images with identical pixels */
+	ImageRegistry imageRegistry;
+
+	/* Recording images replayed and skipped outside of the clipping by GC.drawImage() */
+	long recordingReplays, recordingCulls;
+
 	/*
 	* TEMPORARY CODE. When a graphics object is
 	* created and the device parameter is null,
@@ -685,6 +698,14 @@ protected void init () {
 	if (emptyTab == 0) SWT.error(SWT.ERROR_NO_HANDLES);
 	OS.pango_tab_array_set_tab(emptyTab, 0, OS.PANGO_TAB_LEFT, 1);
 
+	int layoutCacheSize = PangoLayoutCache.configuredSize();
+	if (layoutCacheSize > 0) layoutCache = new PangoLayoutCache(layoutCacheSize);
+
+	if (ImageRegistry.isEnabled()) imageRegistry = new ImageRegistry();
+
+	int fontCacheSize = FontCache.configuredSize();
+	if (fontCacheSize > 0) fontCache = new FontCache(fontCacheSize);
+
 	if (GTK.GTK4) {
 		shellHandle = GTK4.gtk_window_new();
 	} else {
@@ -860,6 +881,53 @@ public abstract long internal_new_GC (GCData data);
 @Override
 public abstract void internal_dispose_GC (long hDC, GCData data);
 
+/**
+ * Invokes platform specific functionality to get the metrics of a font.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Device</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param context the Pango context the font is used in
+ * @param font the Pango font description
+ * @return the ascent, descent and approximate character width in Pango units,
+ * which must not be modified
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public int[] internal_gtk_getFontMetrics (long context, long font) {
+	FontCache cache = fontCache;
+	return cache != null ? cache.getMetrics(context, font) : FontCache.computeMetrics(context, font);
+}
+
+/**
+ * Invokes platform specific functionality to add the counters of the
+ * graphics caches used by the receiver to a map, by name.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Device</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param statistics the map to add the counters to
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public void internal_gtk_getStatistics (Map<String, Long> statistics) {
+	ImageZoomCache.getStatistics(statistics);
+	ImageRegistry registry = imageRegistry;
+	if (registry != null) registry.getStatistics(statistics);
+	FontCache cache = fontCache;
+	if (cache != null) cache.getStatistics(statistics);
+	statistics.put("recording.replays", recordingReplays); //$NON-NLS-1$
+	statistics.put("recording.culls", recordingCulls); //$NON-NLS-1$
+}
+
 /**
  * Returns <code>true</code> if the device has been disposed,
  * and <code>false</code> otherwise.
@@ -987,6 +1055,15 @@ protected void release () {
 	if (emptyTab != 0) OS.pango_tab_array_free(emptyTab);
 	emptyTab = 0;
 
+	if (layoutCache != null) layoutCache.dispose();
+	layoutCache = null;
+
+	if (imageRegistry != null) imageRegistry.dispose();
+	imageRegistry = null;
+
+	if (fontCache != null) fontCache.dispose();
+	fontCache = null;
+
 	/* Free the GTK error and warning handler */
 	if (xDisplay != 0) {
 		for (int i=0; i<handler_ids.length; i++) {
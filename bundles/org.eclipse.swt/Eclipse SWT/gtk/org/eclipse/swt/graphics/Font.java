@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -155,7 +155,8 @@ public Font(Device device, String name, int height, int style) {
 
 @Override
 void destroy() {
-	OS.pango_font_description_free(handle);
+	FontCache cache = device.fontCache;
+	if (cache == null || !cache.release(handle)) OS.pango_font_description_free(handle);
 	handle = 0;
 }
 
@@ -262,6 +263,16 @@ void init(String name, float height, int style, byte[] fontString) {
 	if (height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	Point dpi = device.dpi, screenDPI = device.getScreenDPI();
 	float size = height * dpi.y / screenDPI.y;
+	FontCache cache = device.fontCache;
+	if (cache != null) {
+		handle = cache.acquire(FontCache.key(name, size, style, fontString), () -> createDescription(name, size, style, fontString));
+	} else {
+		handle = createDescription(name, size, style, fontString);
+	}
+}
+
+static long createDescription(String name, float size, int style, byte[] fontString) {
+	long handle;
 	if (fontString != null) {
 		handle = OS.pango_font_description_from_string (fontString);
 		if (handle == 0) SWT.error(SWT.ERROR_NO_HANDLES);
@@ -282,6 +293,7 @@ void init(String name, float height, int style, byte[] fontString) {
 		OS.pango_font_description_set_style(handle, pangoStyle);
 		OS.pango_font_description_set_weight(handle, pangoWeight);
 	}
+	return handle;
 }
 
 /**
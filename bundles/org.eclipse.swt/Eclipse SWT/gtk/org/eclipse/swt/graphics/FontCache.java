@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.nio.charset.*;
+import java.util.*;
+import java.util.function.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.*;
+import org.eclipse.swt.internal.gtk.*;
+
+/**
+ * Shares the <code>PangoFontDescription</code>s of the fonts of a device
+ * and caches the metrics Pango computes for them.
+ * <p>
+ * Fonts created from equal font data get the same description, which is
+ * counted once per font and freed when the last of them is disposed. Font
+ * metrics are looked up by the description together with the font map,
+ * resolution and language of the Pango context, since loading the font to
+ * compute them goes through fontconfig. They are kept in Pango units, so
+ * callers still scale them to the zoom of their drawable.
+ * </p><p>
+ * The number of cached metrics is bounded by the
+ * <code>org.eclipse.swt.internal.gtk.fontMetricsCacheSize</code> system
+ * property (default 256, 0 disables both caches).
+ * </p>
+ */
+final class FontCache {
+
+	static final int DEFAULT_SIZE = 256;
+	static final int STYLE_MASK = SWT.BOLD | SWT.ITALIC | SWT.ROMAN;
+
+	/** Font data normalized to what the description is created from */
+	record Key(String name, int size, int style, String string) {}
+
+	record MetricsKey(String description, long fontMap, double resolution, long language) {}
+
+	static final class Entry {
+		final Key key;
+		final long handle;
+		int references = 1;
+		String description;
+
+		Entry(Key key, long handle) {
+			this.key = key;
+			this.handle = handle;
+		}
+	}
+
+	final int maxSize;
+	final Map<Key, Entry> entries = new HashMap<>();
+	final Map<Long, Entry> handles = new HashMap<>();
+	/* Ascent, descent and approximate character width, accessed in LRU order */
+	final LinkedHashMap<MetricsKey, int[]> metrics;
+
+	/* Statistics */
+	int hits, misses, metricsHits, metricsMisses;
+
+static int configuredSize () {
+	String property = System.getProperty("org.eclipse.swt.internal.gtk.fontMetricsCacheSize"); //$NON-NLS-1$
+	if (property != null) {
+		try {
+			return Math.max(0, Integer.parseInt(property));
+		} catch (NumberFormatException e) {}
+	}
+	return DEFAULT_SIZE;
+}
+
+FontCache (int maxSize) {
+	this.maxSize = maxSize;
+	metrics = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<MetricsKey, int[]> eldest) {
+			return size() > FontCache.this.maxSize;
+		}
+	};
+}
+
+/**
+ * Creates the key for the font data. A font string describes the font
+ * completely; otherwise the size is rounded to Pango units and only the
+ * style bits Pango knows about are kept.
+ */
+static Key key (String name, float size, int style, byte[] fontString) {
+	if (fontString != null) return new Key(null, 0, 0, new String(fontString, StandardCharsets.ISO_8859_1));
+	int pangoSize = size > 0 ? (int)(0.5f + size * OS.PANGO_SCALE) : 0;
+	return new Key(name, pangoSize, style & STYLE_MASK, null);
+}
+
+/**
+ * Answers the description for the key, creating it when no font uses it
+ * yet. The caller releases it with {@link #release(long)}.
+ */
+synchronized long acquire (Key key, LongSupplier factory) {
+	Entry entry = entries.get(key);
+	if (entry != null) {
+		hits++;
+		entry.references++;
+		return entry.handle;
+	}
+	misses++;
+	long handle = factory.getAsLong();
+	entry = new Entry(key, handle);
+	entries.put(key, entry);
+	handles.put(handle, entry);
+	return handle;
+}
+
+/**
+ * Releases a description. Answers <code>false</code> when the description
+ * was not created by the cache and has to be freed by the caller.
+ */
+synchronized boolean release (long handle) {
+	Entry entry = handles.get(handle);
+	if (entry == null) return false;
+	if (--entry.references == 0) {
+		entries.remove(entry.key);
+		handles.remove(handle);
+		OS.pango_font_description_free(handle);
+	}
+	return true;
+}
+
+/**
+ * Answers the ascent, descent and approximate character width in Pango
+ * units of the font in the context. The answered array must not be modified.
+ */
+synchronized int[] getMetrics (long context, long font) {
+	Entry entry = handles.get(font);
+	String description;
+	if (entry != null) {
+		if (entry.description == null) entry.description = toString(font);
+		description = entry.description;
+	} else {
+		description = toString(font);
+	}
+	long fontMap = OS.pango_context_get_font_map(context);
+	double resolution = OS.pango_cairo_context_get_resolution(context);
+	long language = OS.pango_context_get_language(context);
+	MetricsKey key = new MetricsKey(description, fontMap, resolution, language);
+	int[] result = metrics.get(key);
+	if (result != null) {
+		metricsHits++;
+		return result;
+	}
+	metricsMisses++;
+	result = computeMetrics(context, font);
+	metrics.put(key, result);
+	return result;
+}
+
+static int[] computeMetrics (long context, long font) {
+	long lang = OS.pango_context_get_language(context);
+	long metrics = OS.pango_context_get_metrics(context, font, lang);
+	int ascent = OS.pango_font_metrics_get_ascent(metrics);
+	int descent = OS.pango_font_metrics_get_descent(metrics);
+	int averageCharWidth = OS.pango_font_metrics_get_approximate_char_width(metrics);
+	OS.pango_font_metrics_unref(metrics);
+	return new int[] {ascent, descent, averageCharWidth};
+}
+
+static String toString (long font) {
+	long string = OS.pango_font_description_to_string(font);
+	int length = C.strlen(string);
+	byte[] buffer = new byte[length];
+	C.memmove(buffer, string, length);
+	OS.g_free(string);
+	return new String(buffer, StandardCharsets.ISO_8859_1);
+}
+
+synchronized void dispose () {
+	/* Descriptions still in use belong to fonts that were not disposed */
+	entries.clear();
+	handles.clear();
+	metrics.clear();
+}
+
+synchronized void getStatistics (Map<String, Long> statistics) {
+	statistics.put("fontCache.descriptions", (long) entries.size()); //$NON-NLS-1$
+	statistics.put("fontCache.hits", (long) hits); //$NON-NLS-1$
+	statistics.put("fontCache.misses", (long) misses); //$NON-NLS-1$
+	statistics.put("fontCache.metrics", (long) metrics.size()); //$NON-NLS-1$
+	statistics.put("fontCache.metricsHits", (long) metricsHits); //$NON-NLS-1$
+	statistics.put("fontCache.metricsMisses", (long) metricsMisses); //$NON-NLS-1$
+}
+
+@Override
+public synchronized String toString () {
+	return "FontCache {descriptions=" + entries.size() + ", hits=" + hits + ", misses=" + misses + ", metrics=" + metrics.size() + "/" + maxSize + ", metricsHits=" + metricsHits + ", metricsMisses=" + metricsMisses + "}"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.swt.graphics;
 
+import java.nio.*;
 import java.util.*;
 
 import org.eclipse.swt.*;
@@ -95,6 +96,25 @@ public final class GC extends Resource {
 	 */
 	private Rectangle clipping;
 
+	/**
+	 * Reusable buffer for the UTF-8 text handed to Pango in {@link #setString(String, int)},
+	 * so that drawing and measuring strings does not allocate.
+	 */
+	private byte[] stringBuffer = Converter.EmptyByteArray;
+
+	/**
+	 * The entry of the device's layout cache holding the string last set by
+	 * {@link #setString(String, int)}, or <code>null</code> when the string
+	 * is in the GC's own layout.
+	 */
+	private PangoLayoutCache.Entry stringEntry;
+
+	/**
+	 * Whether the font options of the GC's Pango context differ from the
+	 * defaults, in which case layouts cannot be shared with other GCs.
+	 */
+	private boolean contextChanged;
+
 	final static int FOREGROUND = 1 << 0;
 	final static int BACKGROUND = 1 << 1;
 	final static int FONT = 1 << 2;
@@ -647,6 +667,7 @@ void createLayout() {
 }
 
 void disposeLayout() {
+	releaseStringEntry();
 	data.string = null;
 	if (data.context != 0) OS.g_object_unref(data.context);
 	if (data.layout != 0) OS.g_object_unref(data.layout);
@@ -857,9 +878,9 @@ void drawImage(Image srcImage, int srcX, int srcY, int srcWidth, int srcHeight,
 	/* Refresh Image as per zoom level, if required. */
 	srcImage.refreshImageForZoom ();
 
-	ImageData srcImageData = srcImage.getImageData();
-	int imgWidth = srcImageData.width;
-	int imgHeight = srcImageData.height;
+	Point size = getImageSize(srcImage);
+	int imgWidth = size.x;
+	int imgHeight = size.y;
 	if (simple) {
 		srcWidth = destWidth = imgWidth;
 		srcHeight = destHeight = imgHeight;
@@ -872,6 +893,14 @@ void drawImage(Image srcImage, int srcX, int srcY, int srcWidth, int srcHeight,
 		}
 	}
 	long cairo = data.cairo;
+	/* Replaying a recording outside of the clipping would only be discarded */
+	if (srcImage.recording) {
+		if (!intersects(getClipExtents(), destX, destY, destWidth, destHeight)) {
+			data.device.recordingCulls++;
+			return;
+		}
+		data.device.recordingReplays++;
+	}
 	if (data.alpha != 0) {
 		srcImage.createSurface();
 		Cairo.cairo_save(cairo);
@@ -889,19 +918,12 @@ void drawImage(Image srcImage, int srcX, int srcY, int srcWidth, int srcHeight,
 		} else {
 			Cairo.cairo_translate(cairo, destX - srcX, destY - srcY);
 		}
-		int filter = Cairo.CAIRO_FILTER_GOOD;
-		switch (data.interpolation) {
-			case SWT.DEFAULT: filter = Cairo.CAIRO_FILTER_GOOD; break;
-			case SWT.NONE: filter = Cairo.CAIRO_FILTER_NEAREST; break;
-			case SWT.LOW: filter = Cairo.CAIRO_FILTER_FAST; break;
-			case SWT.HIGH: filter = Cairo.CAIRO_FILTER_BEST; break;
-		}
 		long pattern = Cairo.cairo_pattern_create_for_surface(srcImage.surface);
 		if (pattern == 0) SWT.error(SWT.ERROR_NO_HANDLES);
 		if (srcWidth != destWidth || srcHeight != destHeight) {
 			Cairo.cairo_pattern_set_extend(pattern, Cairo.CAIRO_EXTEND_PAD);
 		}
-		Cairo.cairo_pattern_set_filter(pattern, filter);
+		Cairo.cairo_pattern_set_filter(pattern, getFilter());
 		Cairo.cairo_set_source(cairo, pattern);
 		if (data.alpha != 0xFF) {
 			Cairo.cairo_paint_with_alpha(cairo, data.alpha / (float)0xFF);
@@ -913,6 +935,149 @@ void drawImage(Image srcImage, int srcX, int srcY, int srcWidth, int srcHeight,
 	}
 }
 
+/**
+ * Answers the size in points of the image, from the size the image keeps
+ * rather than from its pixels.
+ */
+static Point getImageSize(Image image) {
+	if (image.width != -1 && image.height != -1) {
+		return new Point(image.width, image.height);
+	}
+	ImageData imageData = image.getImageData();
+	return new Point(imageData.width, imageData.height);
+}
+
+/**
+ * Answers the bounds of the clipping of the receiver in user space,
+ * as left, top, right and bottom.
+ */
+double[] getClipExtents() {
+	double[] x1 = new double[1], y1 = new double[1], x2 = new double[1], y2 = new double[1];
+	Cairo.cairo_clip_extents(data.cairo, x1, y1, x2, y2);
+	return new double[] {x1[0], y1[0], x2[0], y2[0]};
+}
+
+static boolean intersects(double[] extents, int x, int y, int width, int height) {
+	return x < extents[2] && y < extents[3] && x + width > extents[0] && y + height > extents[1];
+}
+
+int getFilter() {
+	switch (data.interpolation) {
+		case SWT.NONE: return Cairo.CAIRO_FILTER_NEAREST;
+		case SWT.LOW: return Cairo.CAIRO_FILTER_FAST;
+		case SWT.HIGH: return Cairo.CAIRO_FILTER_BEST;
+		default: return Cairo.CAIRO_FILTER_GOOD;
+	}
+}
+
+/**
+ * Copies many rectangular areas from the source image into (potentially
+ * different sized) rectangular areas in the receiver. This is equivalent
+ * to calling <code>drawImage(image, srcX, srcY, srcWidth, srcHeight, destX, destY, destWidth, destHeight)</code>
+ * for every pair of rectangles, but the source image is set up for drawing
+ * only once, which makes drawing many parts of one image, such as the icons
+ * of an image atlas, considerably faster.
+ * <p>
+ * Each rectangle is given by four consecutive values in the arrays: the x
+ * and y coordinates followed by the width and height in points. Rectangles
+ * with a width or height of zero are skipped.
+ * </p>
+ *
+ * @param image the source image
+ * @param srcRects the rectangles in the source image to copy from
+ * @param destRects the rectangles in the destination to copy to
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the image or either array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the image has been disposed</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the arrays have different lengths or their length is not a multiple of four</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if any of the coordinates of a source rectangle, or the width or height of a destination rectangle, are negative</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if a source rectangle is not contained within the bounds of the source image</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES - if no handles are available to perform the operation</li>
+ * </ul>
+ *
+ * @see #drawImage(Image, int, int, int, int, int, int, int, int)
+ * @since 3.126
+ */
+public void drawImages(Image image, int[] srcRects, int[] destRects) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (image == null || srcRects == null || destRects == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (image.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (srcRects.length != destRects.length || srcRects.length % 4 != 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	int[] rects = new int[destRects.length];
+	for (int i = 0; i < destRects.length; i += 4) {
+		if (srcRects[i] < 0 || srcRects[i + 1] < 0 || srcRects[i + 2] < 0 || srcRects[i + 3] < 0 || destRects[i + 2] < 0 || destRects[i + 3] < 0) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		Rectangle destRect = DPIUtil.autoScaleUp(drawable, new Rectangle(destRects[i], destRects[i + 1], destRects[i + 2], destRects[i + 3]));
+		rects[i] = destRect.x;
+		rects[i + 1] = destRect.y;
+		rects[i + 2] = destRect.width;
+		rects[i + 3] = destRect.height;
+	}
+	drawImagesInPixels(image, srcRects, rects);
+}
+
+void drawImagesInPixels(Image srcImage, int[] srcRects, int[] destRects) {
+	/* Refresh Image as per zoom level, if required. */
+	srcImage.refreshImageForZoom ();
+
+	Point size = getImageSize(srcImage);
+	for (int i = 0; i < srcRects.length; i += 4) {
+		if (srcRects[i] + srcRects[i + 2] > size.x + 1 || srcRects[i + 1] + srcRects[i + 3] > size.y + 1) { //rounding error correction for hidpi
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+	}
+	if (data.alpha == 0) return;
+	long cairo = data.cairo;
+	long pattern = Cairo.cairo_pattern_create_for_surface(srcImage.surface);
+	if (pattern == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	Cairo.cairo_pattern_set_extend(pattern, Cairo.CAIRO_EXTEND_PAD);
+	Cairo.cairo_pattern_set_filter(pattern, getFilter());
+	boolean mirrored = (data.style & SWT.MIRRORED) != 0;
+	double[] clip = srcImage.recording ? getClipExtents() : null;
+	double[] matrix = new double[6];
+	Cairo.cairo_save(cairo);
+	for (int i = 0; i < srcRects.length; i += 4) {
+		int srcX = srcRects[i], srcY = srcRects[i + 1], srcWidth = srcRects[i + 2], srcHeight = srcRects[i + 3];
+		int destX = destRects[i], destY = destRects[i + 1], destWidth = destRects[i + 2], destHeight = destRects[i + 3];
+		if (srcWidth == 0 || srcHeight == 0 || destWidth == 0 || destHeight == 0) continue;
+		if (clip != null) {
+			if (!intersects(clip, destX, destY, destWidth, destHeight)) {
+				data.device.recordingCulls++;
+				continue;
+			}
+			data.device.recordingReplays++;
+		}
+		/* Map the destination rectangle onto the source rectangle, flipped back when the receiver is mirrored */
+		double scaleX = srcWidth / (double)destWidth;
+		double scaleY = srcHeight / (double)destHeight;
+		if (mirrored) {
+			Cairo.cairo_matrix_init(matrix, -scaleX, 0, 0, scaleY, srcX + (destX + destWidth) * scaleX, srcY - destY * scaleY);
+		} else {
+			Cairo.cairo_matrix_init(matrix, scaleX, 0, 0, scaleY, srcX - destX * scaleX, srcY - destY * scaleY);
+		}
+		Cairo.cairo_pattern_set_matrix(pattern, matrix);
+		Cairo.cairo_set_source(cairo, pattern);
+		Cairo.cairo_rectangle(cairo, destX, destY, destWidth, destHeight);
+		if (data.alpha != 0xFF) {
+			Cairo.cairo_save(cairo);
+			Cairo.cairo_clip(cairo);
+			Cairo.cairo_paint_with_alpha(cairo, data.alpha / (float)0xFF);
+			Cairo.cairo_restore(cairo);
+		} else {
+			Cairo.cairo_fill(cairo);
+		}
+	}
+	Cairo.cairo_restore(cairo);
+	Cairo.cairo_pattern_destroy(pattern);
+}
+
 /**
  * Draws a line, using the foreground color, between the points
  * (<code>x1</code>, <code>y1</code>) and (<code>x2</code>, <code>y2</code>).
@@ -1461,7 +1626,7 @@ void drawTextInPixels (String string, int x, int y, int flags) {
 		Cairo.cairo_translate(cairo, -2 * x - data.stringWidth, 0);
 	}
 	Cairo.cairo_move_to(cairo, x, y);
-	OS.pango_cairo_show_layout(cairo, data.layout);
+	OS.pango_cairo_show_layout(cairo, stringLayout());
 	if ((data.style & SWT.MIRRORED) != 0) {
 		Cairo.cairo_restore(cairo);
 	}
@@ -2236,18 +2401,15 @@ public FontMetrics getFontMetrics() {
 	if (data.context == 0) createLayout();
 	checkGC(FONT);
 	Font font = data.font;
-	long context = data.context;
-	long lang = OS.pango_context_get_language(context);
-	long metrics = OS.pango_context_get_metrics(context, font.handle, lang);
+	int[] metrics = data.device.internal_gtk_getFontMetrics(data.context, font.handle);
 	FontMetrics fm = new FontMetrics();
-	int ascent = OS.pango_font_metrics_get_ascent(metrics);
-	int descent = OS.pango_font_metrics_get_descent(metrics);
+	int ascent = metrics[0];
+	int descent = metrics[1];
 	int ascentInPoints = DPIUtil.autoScaleDown(drawable, OS.PANGO_PIXELS(ascent));
 	fm.ascentInPoints = ascentInPoints;
 	int heightInPoints = DPIUtil.autoScaleDown(drawable, OS.PANGO_PIXELS(ascent + descent));
 	fm.descentInPoints = heightInPoints - ascentInPoints;
-	fm.averageCharWidthInPoints = DPIUtil.autoScaleDown(drawable, OS.PANGO_PIXELS(OS.pango_font_metrics_get_approximate_char_width(metrics)));
-	OS.pango_font_metrics_unref(metrics);
+	fm.averageCharWidthInPoints = DPIUtil.autoScaleDown(drawable, OS.PANGO_PIXELS(metrics[2]));
 	return fm;
 }
 
@@ -2679,9 +2841,13 @@ void initCairo() {
 
 void computeStringSize() {
 	int[] width = new int[1], height = new int[1];
-	OS.pango_layout_get_pixel_size(data.layout, width, height);
+	OS.pango_layout_get_pixel_size(stringLayout(), width, height);
 	data.stringHeight = height[0];
 	data.stringWidth = width[0];
+	if (stringEntry != null) {
+		stringEntry.width = width[0];
+		stringEntry.height = height[0];
+	}
 }
 
 /**
@@ -3670,44 +3836,87 @@ void setLineWidthInPixels(int lineWidth) {
 
 void setString(String string, int flags) {
 	if (data.layout == 0) createLayout();
+	PangoLayoutCache cache = data.device.layoutCache;
+	if (cache != null && cache.thread == Thread.currentThread() && (data.style & SWT.MIRRORED) == 0 && !contextChanged) {
+		Font font = data.font;
+		int key = flags & ~SWT.DRAW_TRANSPARENT;
+		PangoLayoutCache.Entry entry = stringEntry;
+		if (entry == null || string != data.string || key != entry.flags || font != entry.font) {
+			entry = cache.get(string, font, key);
+			if (entry == null) {
+				long layout = cache.newLayout();
+				setLayoutText(layout, string, flags);
+				OS.pango_layout_set_font_description(layout, font.handle);
+				entry = cache.put(string, font, key, layout);
+			}
+			/* The GC keeps its own reference, the cache may evict the entry while it is in use */
+			OS.g_object_ref(entry.layout);
+			releaseStringEntry();
+			stringEntry = entry;
+			data.string = string;
+		}
+		data.stringWidth = entry.width;
+		data.stringHeight = entry.height;
+		data.drawFlags = flags;
+		return;
+	}
+	if (stringEntry != null) releaseStringEntry();
 	if (string == data.string && (flags & ~SWT.DRAW_TRANSPARENT) == (data.drawFlags  & ~SWT.DRAW_TRANSPARENT)) {
 		return;
 	}
-	byte[] buffer;
-	int mnemonic, length = string.length ();
-	long layout = data.layout;
-	char[] text = new char[length];
-	string.getChars(0, length, text, 0);
-	if ((flags & SWT.DRAW_MNEMONIC) != 0 && (mnemonic = fixMnemonic(text)) != -1) {
-		char[] text1 = new char[mnemonic - 1];
-		System.arraycopy(text, 0, text1, 0, text1.length);
-		byte[] buffer1 = Converter.wcsToMbcs(text1, false);
-		char[] text2 = new char[text.length - mnemonic];
-		System.arraycopy(text, mnemonic - 1, text2, 0, text2.length);
-		byte[] buffer2 = Converter.wcsToMbcs(text2, false);
-		buffer = new byte[buffer1.length + buffer2.length];
-		System.arraycopy(buffer1, 0, buffer, 0, buffer1.length);
-		System.arraycopy(buffer2, 0, buffer, buffer1.length, buffer2.length);
+	setLayoutText(data.layout, string, flags);
+	data.string = string;
+	data.stringWidth = data.stringHeight = -1;
+	data.drawFlags = flags;
+}
+
+void setLayoutText(long layout, String string, int flags) {
+	int mnemonic = -1, length = string.length ();
+	int maxLength = Converter.maxUtf8Length(length);
+	if (stringBuffer.length < maxLength) stringBuffer = new byte[maxLength];
+	byte[] buffer = stringBuffer;
+	int byteLength;
+	CharSequence text = string;
+	if ((flags & SWT.DRAW_MNEMONIC) != 0 && string.indexOf('&') != -1) {
+		char[] chars = string.toCharArray();
+		mnemonic = fixMnemonic(chars);
+		text = CharBuffer.wrap(chars);
+	}
+	if (mnemonic != -1) {
+		int length1 = Converter.wcsToMbcs(text, 0, mnemonic - 1, buffer, 0);
+		byteLength = length1 + Converter.wcsToMbcs(text, mnemonic - 1, length, buffer, length1);
 		long attr_list = OS.pango_attr_list_new();
 		long attr = OS.pango_attr_underline_new(OS.PANGO_UNDERLINE_LOW);
 		PangoAttribute attribute = new PangoAttribute();
 		OS.memmove(attribute, attr, PangoAttribute.sizeof);
-		attribute.start_index = buffer1.length;
-		attribute.end_index = buffer1.length + 1;
+		attribute.start_index = length1;
+		attribute.end_index = length1 + 1;
 		OS.memmove(attr, attribute, PangoAttribute.sizeof);
 		OS.pango_attr_list_insert(attr_list, attr);
 		OS.pango_layout_set_attributes(layout, attr_list);
 		OS.pango_attr_list_unref(attr_list);
 	} else {
-		buffer = Converter.wcsToMbcs(text, false);
+		byteLength = Converter.wcsToMbcs(text, 0, length, buffer, 0);
 		OS.pango_layout_set_attributes(layout, 0);
 	}
-	OS.pango_layout_set_text(layout, buffer, buffer.length);
+	OS.pango_layout_set_text(layout, buffer, byteLength);
 	OS.pango_layout_set_single_paragraph_mode(layout, (flags & SWT.DRAW_DELIMITER) == 0);
 	OS.pango_layout_set_tabs(layout, (flags & SWT.DRAW_TAB) != 0 ? 0 : data.device.emptyTab);
-	data.string = string;
-	data.stringWidth = data.stringHeight = -1;
-	data.drawFlags = flags;
+}
+
+void releaseStringEntry() {
+	if (stringEntry != null) {
+		OS.g_object_unref(stringEntry.layout);
+		stringEntry = null;
+		data.string = null;
+	}
+}
+
+/**
+ * Returns the layout holding the string set by {@link #setString(String, int)}.
+ */
+long stringLayout() {
+	return stringEntry != null ? stringEntry.layout : data.layout;
 }
 
 /**
@@ -3755,6 +3964,9 @@ public void setTextAntialias(int antialias) {
 	Cairo.cairo_font_options_set_antialias(options, mode);
 	if (data.context == 0) createLayout();
 	OS.pango_cairo_context_set_font_options(data.context, options);
+	/* Shared layouts are created with the default font options, stop using them */
+	contextChanged = true;
+	releaseStringEntry();
 	Cairo.cairo_font_options_destroy(options);
 }
 
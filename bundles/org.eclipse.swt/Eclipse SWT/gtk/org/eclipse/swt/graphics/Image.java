@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.nio.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
@@ -116,6 +117,19 @@ public final class Image extends Resource implements Drawable {
 	 */
 	public long surface;
 
+	/**
+	 * The direct buffer holding the pixels of the surface when the image
+	 * was created from a buffer. It keeps the memory reachable while the
+	 * surface uses it.
+	 */
+	ByteBuffer pixels;
+
+	/**
+	 * Whether the surface is a Cairo recording surface that keeps the
+	 * drawing operations instead of pixels.
+	 */
+	boolean recording;
+
 	/**
 	 * specifies the transparent pixel
 	 */
@@ -211,6 +225,63 @@ public Image(Device device, int width, int height) {
 	init();
 }
 
+/**
+ * Constructs an empty instance of this class with the
+ * specified width, height and style. The style is either
+ * <code>SWT.NONE</code>, which creates the same image as
+ * {@link #Image(Device, int, int)}, or {@link SWT#IMAGE_RECORDING}.
+ * <p>
+ * A recording image keeps the operations drawn on it by a GC
+ * instead of rasterizing them. Drawing the image replays them at
+ * the resolution of the destination, so content that is expensive
+ * to draw but rarely changes, such as the background of a chart,
+ * can be drawn once and shown many times at any zoom. The image is
+ * not replayed at all where the destination does not intersect the
+ * clipping of the drawing GC. To change the content, dispose the
+ * image and record a new one.
+ * </p><p>
+ * Platforms that cannot record drawing operations create the same
+ * image as <code>SWT.NONE</code>.
+ * </p><p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param width the width of the new image
+ * @param height the height of the new image
+ * @param style the style of the image, <code>SWT.NONE</code> or <code>SWT.IMAGE_RECORDING</code>
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if either the width or height is negative or zero</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see SWT#IMAGE_RECORDING
+ * @see #dispose()
+ * @since 3.126
+ */
+public Image(Device device, int width, int height, int style) {
+	super(device);
+	currentDeviceZoom = DPIUtil.getDeviceZoom();
+	if ((style & SWT.IMAGE_RECORDING) != 0) {
+		if (width <= 0 || height <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		/* The surface records in points, GTK scales the replay to the destination */
+		type = SWT.BITMAP;
+		surface = Cairo.cairo_recording_surface_create(Cairo.CAIRO_CONTENT_COLOR_ALPHA, new double[] {0, 0, width, height});
+		if (surface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+		recording = true;
+		this.width = width;
+		this.height = height;
+	} else {
+		Point size = DPIUtil.autoScaleUp(new Point(width, height));
+		init(size.x, size.y);
+	}
+	init();
+}
+
 /**
  * Constructs a new instance of this class based on the
  * provided image, with an appearance that varies depending
@@ -420,6 +491,67 @@ public Image(Device device, ImageData data) {
 	init();
 }
 
+/**
+ * Constructs an instance of this class that shows the pixels of the given
+ * direct buffer, so that they can be changed in place without creating new
+ * <code>ImageData</code>, for example for the frames of a video.
+ * <p>
+ * The buffer holds <code>height</code> rows of <code>stride</code> bytes,
+ * starting at index 0. Every pixel is a native endian 32 bit value with
+ * alpha in the upper 8 bits, followed by red, green and blue premultiplied
+ * by alpha. The size is in pixels of the device, the bounds of the image
+ * are scaled down by the zoom of the device. After pixels of the buffer
+ * were changed, call <code>updatePixels()</code> with the changed area and
+ * redraw the controls that show the image. The buffer must not be changed
+ * while the image is drawn.
+ * </p>
+ * <p>
+ * On GTK the image draws the memory of the buffer without copying it, and
+ * keeps the buffer reachable until it is disposed. On other platforms the
+ * pixels are copied when the image is created and when
+ * <code>updatePixels()</code> is called.
+ * </p>
+ * <p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param pixels a direct buffer holding the pixels
+ * @param width the width of the image in pixels
+ * @param height the height of the image in pixels
+ * @param stride the number of bytes per row, a multiple of 4 that is at least <code>4 * width</code>
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the buffer is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is not direct, if the width, height or stride is invalid, or if the buffer is too small</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see #updatePixels(int, int, int, int)
+ * @see #dispose()
+ * @since 3.126
+ */
+public Image(Device device, ByteBuffer pixels, int width, int height, int stride) {
+	super(device);
+	ImageData.checkPixelBuffer(pixels, width, height, stride);
+	long address = OS.GetDirectBufferAddress(pixels);
+	if (address == 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	currentDeviceZoom = DPIUtil.getDeviceZoom();
+	type = SWT.BITMAP;
+	surface = Cairo.cairo_image_surface_create_for_data(address, Cairo.CAIRO_FORMAT_ARGB32, width, height, stride);
+	if (surface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	this.pixels = pixels;
+	/* Scale dimensions of Image object to 100% scale factor, as for image data */
+	double scaleFactor = DPIUtil.getDeviceZoom() / 100f;
+	this.width = (int) Math.round(width / scaleFactor);
+	this.height = (int) Math.round(height / scaleFactor);
+	if (DPIUtil.useCairoAutoScale()) Cairo.cairo_surface_set_device_scale(surface, scaleFactor, scaleFactor);
+	init();
+}
+
 /**
  * Constructs an instance of this class, whose type is
  * <code>SWT.ICON</code>, from the two given <code>ImageData</code>
@@ -686,12 +818,14 @@ boolean refreshImageForZoom () {
 	int deviceZoom = DPIUtil.getDeviceZoom();
 	if (imageFileNameProvider != null) {
 		int deviceZoomLevel = deviceZoom;
-		if (deviceZoomLevel != currentDeviceZoom) {
+		if (deviceZoomLevel != currentDeviceZoom && restoreSurface(deviceZoomLevel)) {
+			refreshed = true;
+		} else if (deviceZoomLevel != currentDeviceZoom) {
 			ElementAtZoom<String> filename = DPIUtil.validateAndGetImagePathAtZoom (imageFileNameProvider, deviceZoomLevel);
 			/* Avoid re-creating the fall-back image, when current zoom is already 100% */
 			if (filename.zoom() == deviceZoomLevel) {
 				/* Release current native resources */
-				destroy ();
+				releaseSurface ();
 				initNative(filename.element());
 				if (this.surface == 0) {
 					ImageData data = new ImageData(filename.element());
@@ -701,7 +835,7 @@ boolean refreshImageForZoom () {
 				refreshed = true;
 			} else {
 				/* Release current native resources */
-				destroy ();
+				releaseSurface ();
 				ImageData imageData = new ImageData (filename.element());
 				ImageData resizedData = DPIUtil.autoScaleImageData (device, imageData, filename.zoom());
 				init(resizedData);
@@ -712,17 +846,19 @@ boolean refreshImageForZoom () {
 		}
 	} else if (imageDataProvider != null) {
 		int deviceZoomLevel = deviceZoom;
-		if (deviceZoomLevel != currentDeviceZoom) {
+		if (deviceZoomLevel != currentDeviceZoom && restoreSurface(deviceZoomLevel)) {
+			refreshed = true;
+		} else if (deviceZoomLevel != currentDeviceZoom) {
 			ElementAtZoom<ImageData> data = DPIUtil.validateAndGetImageDataAtZoom (imageDataProvider, deviceZoomLevel);
 			/* Release current native resources */
-			destroy ();
+			releaseSurface ();
 			ImageData resizedData = DPIUtil.autoScaleImageData (device, data.element(), data.zoom());
 			init(resizedData);
 			init();
 			refreshed = true;
 			currentDeviceZoom = deviceZoomLevel;
 		}
-	} else {
+	} else if (pixels == null && !recording) {
 		if (!DPIUtil.useCairoAutoScale()) {
 			int deviceZoomLevel = deviceZoom;
 			if (deviceZoomLevel != currentDeviceZoom) {
@@ -739,6 +875,40 @@ boolean refreshImageForZoom () {
 	return refreshed;
 }
 
+/**
+ * Keeps the current surface in the zoom cache, or destroys it like
+ * <code>destroy()</code> if it cannot be cached, before the image is
+ * initialized for another zoom level.
+ */
+void releaseSurface() {
+	if (memGC == null && mask == 0 && surface != 0 && ImageZoomCache.putSurface(this, currentDeviceZoom, surface)) {
+		surface = 0;
+	} else {
+		if (memGC != null) memGC.dispose();
+		if (mask != 0) OS.g_object_unref(mask);
+		if (surface != 0) destroySurface(surface);
+		surface = mask = 0;
+		memGC = null;
+	}
+}
+
+/**
+ * Switches to the surface cached for the zoom level. Answers whether there
+ * was one.
+ */
+boolean restoreSurface(int zoom) {
+	ImageZoomCache.Entry entry = ImageZoomCache.takeSurface(this, zoom);
+	if (entry == null) return false;
+	releaseSurface();
+	surface = entry.surface;
+	width = entry.width;
+	height = entry.height;
+	type = entry.type;
+	transparentPixel = entry.transparentPixel;
+	currentDeviceZoom = zoom;
+	return true;
+}
+
 void initNative(String filename) {
 	try {
 		byte[] fileNameBuffer = Converter.javaStringToCString(filename);
@@ -817,6 +987,7 @@ void createFromPixbuf(int type, long pixbuf) {
 		}
 	}
 	Cairo.cairo_surface_mark_dirty(surface);
+	share(null);
 }
 
 /**
@@ -879,9 +1050,58 @@ void destroyMask() {
 void destroy() {
 	if (memGC != null) memGC.dispose();
 	if (mask != 0) OS.g_object_unref(mask);
-	if (surface != 0) Cairo.cairo_surface_destroy(surface);
+	if (surface != 0) destroySurface(surface);
 	surface = mask = 0;
 	memGC = null;
+	pixels = null;
+	ImageZoomCache.remove(this);
+}
+
+/**
+ * Destroys a surface of the receiver, and releases its pixels if they are
+ * shared with other images.
+ */
+void destroySurface(long surface) {
+	ImageRegistry registry = device != null ? device.imageRegistry : null;
+	if (registry == null || !registry.release(surface)) Cairo.cairo_surface_destroy(surface);
+}
+
+/**
+ * Shares the pixels of the surface the receiver has just created with the
+ * other images of the device that have identical pixels, when the receiver
+ * was created from a provider. The receiver still gets a surface of its own.
+ *
+ * @param buffer the contents of the surface, or <code>null</code>
+ */
+void share(byte[] buffer) {
+	if (imageDataProvider == null && imageFileNameProvider == null) return;
+	ImageRegistry registry = device.imageRegistry;
+	if (registry != null) surface = registry.acquire(this, surface, buffer);
+}
+
+/**
+ * Gives the receiver a surface of its own before it is modified,
+ * when its surface is shared with other images.
+ */
+void unshare() {
+	ImageRegistry registry = device.imageRegistry;
+	if (registry == null || !registry.detach(surface)) return;
+	int format = Cairo.cairo_image_surface_get_format(surface);
+	int width = Cairo.cairo_image_surface_get_width(surface);
+	int height = Cairo.cairo_image_surface_get_height(surface);
+	long newSurface = Cairo.cairo_image_surface_create(format, width, height);
+	if (newSurface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	double[] sx = new double[1], sy = new double[1];
+	Cairo.cairo_surface_get_device_scale(surface, sx, sy);
+	Cairo.cairo_surface_set_device_scale(newSurface, sx[0], sy[0]);
+	long cairo = Cairo.cairo_create(newSurface);
+	if (cairo == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	Cairo.cairo_set_operator(cairo, Cairo.CAIRO_OPERATOR_SOURCE);
+	Cairo.cairo_set_source_surface(cairo, surface, 0, 0);
+	Cairo.cairo_paint(cairo);
+	Cairo.cairo_destroy(cairo);
+	registry.release(surface);
+	surface = newSurface;
 }
 
 /**
@@ -1104,12 +1324,19 @@ public ImageData getImageData (int zoom) {
 
 	if (zoom == currentDeviceZoom) {
 		return getImageDataAtCurrentZoom();
-	} else if (imageDataProvider != null) {
-		ElementAtZoom<ImageData> data = DPIUtil.validateAndGetImageDataAtZoom (imageDataProvider, zoom);
-		return DPIUtil.autoScaleImageData (device, data.element(), zoom, data.zoom());
-	} else if (imageFileNameProvider != null) {
-		ElementAtZoom<String> fileName = DPIUtil.validateAndGetImagePathAtZoom (imageFileNameProvider, zoom);
-		return DPIUtil.autoScaleImageData (device, new ImageData (fileName.element()), zoom, fileName.zoom());
+	} else if (imageDataProvider != null || imageFileNameProvider != null) {
+		ImageData imageData = ImageZoomCache.getImageData(this, zoom);
+		if (imageData == null) {
+			if (imageDataProvider != null) {
+				ElementAtZoom<ImageData> data = DPIUtil.validateAndGetImageDataAtZoom (imageDataProvider, zoom);
+				imageData = DPIUtil.autoScaleImageData (device, data.element(), zoom, data.zoom());
+			} else {
+				ElementAtZoom<String> fileName = DPIUtil.validateAndGetImagePathAtZoom (imageFileNameProvider, zoom);
+				imageData = DPIUtil.autoScaleImageData (device, new ImageData (fileName.element()), zoom, fileName.zoom());
+			}
+			ImageZoomCache.putImageData(this, zoom, imageData);
+		}
+		return imageData;
 	} else {
 		return DPIUtil.autoScaleImageData (device, getImageDataAtCurrentZoom (), zoom, currentDeviceZoom);
 	}
@@ -1163,6 +1390,58 @@ public static Image gtk_new_from_pixbuf(Device device, int type, long pixbuf) {
 	return image;
 }
 
+/**
+ * Invokes platform specific functionality to get a pixbuf with the contents
+ * of the receiver that is shared with the other images of the device that
+ * have identical pixels.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Image</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @param scaled whether the pixbuf is scaled down by the device scale of the surface
+ * @return a new reference to the shared pixbuf, or 0 if the receiver does not share its surface
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long internal_gtk_getPixbuf(boolean scaled) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	ImageRegistry registry = device.imageRegistry;
+	return registry != null ? registry.getPixbuf(surface, scaled) : 0;
+}
+
+/**
+ * Tells the receiver that the pixels in the given rectangle of the buffer
+ * it was created from were changed. The controls that show the receiver
+ * have to be redrawn afterwards to show the new pixels. The rectangle is
+ * in pixels of the buffer. The method does nothing if the receiver was not
+ * created from a buffer.
+ * <p>
+ * On platforms where images cannot draw the pixels of the buffer directly,
+ * the pixels are copied into the image again.
+ * </p>
+ *
+ * @param x the x coordinate of the changed area
+ * @param y the y coordinate of the changed area
+ * @param width the width of the changed area
+ * @param height the height of the changed area
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #Image(Device, ByteBuffer, int, int, int)
+ * @since 3.126
+ */
+public void updatePixels(int x, int y, int width, int height) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pixels == null || width <= 0 || height <= 0) return;
+	Cairo.cairo_surface_mark_dirty_rectangle(surface, x, y, width, height);
+}
+
 /**
  * Returns an integer hash code for the receiver. Any two
  * objects that return <code>true</code> when passed to
@@ -1357,6 +1636,7 @@ void init(ImageData image) {
 	}
 	C.memmove(data, buffer, stride * imageDataHeight);
 	Cairo.cairo_surface_mark_dirty(surface);
+	share(buffer);
 }
 
 /**
@@ -1380,6 +1660,7 @@ public long internal_new_GC (GCData data) {
 	if (type != SWT.BITMAP || memGC != null) {
 		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
+	unshare();
 	long gc = Cairo.cairo_create(surface);
 	if (data != null) {
 		int mask = SWT.LEFT_TO_RIGHT | SWT.RIGHT_TO_LEFT;
@@ -1395,6 +1676,11 @@ public long internal_new_GC (GCData data) {
 		data.backgroundRGBA = device.COLOR_WHITE.handle;
 		data.font = device.systemFont;
 		data.image = this;
+		if (recording) {
+			/* Recording surfaces have no size of their own */
+			data.width = width;
+			data.height = height;
+		}
 	}
 	return gc;
 }
@@ -16,6 +16,8 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.lang.reflect.*;
+import java.nio.channels.*;
 import java.util.*;
 import java.util.List;
 
@@ -95,7 +97,7 @@ public class ImageLoader {
 	public int repeatCount;
 
 	/**
-	 * This is the compression used when saving jpeg and png files.
+	 * This is the compression used when saving jpeg, png and tiff files.
 	 * <p>
 	 * When saving jpeg files, the value is from 1 to 100,
 	 * where 1 is very high compression but low quality, and 100 is
@@ -104,6 +106,9 @@ public class ImageLoader {
 	 * When saving png files, the value is from 0 to 3, but they do not impact the quality
 	 * because PNG is lossless compression. 0 is uncompressed, 1 is low compression and fast,
 	 * 2 is default compression, and 3 is high compression but slow.
+	 * </p><p>
+	 * When saving tiff files, 0 is uncompressed, 1 is LZW compression and 2 is
+	 * Deflate compression. Other values save uncompressed files.
 	 * </p>
 	 *
 	 * @since 3.8
@@ -115,6 +120,30 @@ public class ImageLoader {
 	 */
 	final static int PNG_INTERLACE_METHOD_OFFSET = 28;
 
+	/**
+	 * Size of the buffer used to stream data into the GdkPixbufLoader.
+	 */
+	final static int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Size of a GTimeVal (two glong fields).
+	 */
+	final static int GTIMEVAL_SIZEOF = 2 * C.PTR_SIZEOF;
+
+	static final byte [] AREA_UPDATED = Converter.wcsToMbcs("area-updated", true); //$NON-NLS-1$
+
+	/*
+	 * Shared "area-updated" callback and the loaders currently streaming data
+	 * for which listeners want progressive notifications
+	 */
+	static Callback areaUpdatedCallback;
+	static final Map<Long, ImageLoader> progressiveLoaders = new HashMap<>();
+
+	/*
+	 * The bottom of the last area updated by the loader
+	 */
+	int progressiveBottom;
+
 	/*
 	 * the set of ImageLoader event listeners, created on demand
 	 */
@@ -161,11 +190,62 @@ void reset() {
 public ImageData[] load(InputStream stream) {
 	if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	reset();
-	ImageData [] imgDataArray = getImageDataArrayFromStream(stream);
+	ImageData [] imgDataArray = null;
+	try {
+		imgDataArray = loadTIFF(stream);
+	} catch (IOException e) {
+		SWT.error(SWT.ERROR_IO, e);
+	}
 	data = imgDataArray;
 	return imgDataArray;
 }
 
+/**
+ * GdkPixbuf only loads the first page of a TIFF file, so TIFF files are
+ * decoded in Java, which loads every page. A TIFF file that the Java decoder
+ * fails to load, e.g. one with JPEG compression, and any other file are
+ * loaded by GdkPixbuf.
+ */
+ImageData [] loadTIFF(InputStream stream) throws IOException {
+	FileChannel channel = stream instanceof FileInputStream fileStream ? fileStream.getChannel() : null;
+	long position = channel != null ? channel.position() : 0;
+	byte [] header = stream.readNBytes(4);
+	boolean tiff = header.length == 4 && header[0] == header[1] &&
+		((header[0] == 0x49 && header[2] == 42 && header[3] == 0) || (header[0] == 0x4d && header[2] == 0 && header[3] == 42));
+	if (!tiff) {
+		if (channel != null) {
+			channel.position(position);
+			return getImageDataArrayFromStream(stream);
+		}
+		return getImageDataArrayFromStream(new SequenceInputStream(new ByteArrayInputStream(header), stream));
+	}
+	byte [] bytes = null;
+	int length = 0;
+	if (channel == null) {
+		/* The Java decoder needs random access, so it would cache the whole stream anyway */
+		bytes = Arrays.copyOf(header, Math.max(CHUNK_SIZE, header.length + stream.available()));
+		length = header.length;
+		int count;
+		while ((count = stream.read(bytes, length, bytes.length - length)) != -1) {
+			length += count;
+			if (length == bytes.length) bytes = Arrays.copyOf(bytes, (int) Math.min(length * 2L, Integer.MAX_VALUE - 8));
+		}
+	} else {
+		channel.position(position);
+	}
+	try {
+		return FileFormat.load(channel != null ? stream : new ByteArrayInputStream(bytes, 0, length), this);
+	} catch (SWTException e) {
+		/* GdkPixbuf reports the error if it cannot load the file either */
+	}
+	reset();
+	if (channel != null) {
+		channel.position(position);
+		return getImageDataArrayFromStream(stream);
+	}
+	return getImageDataArrayFromStream(new ByteArrayInputStream(bytes, 0, length));
+}
+
 /**
  * Return true if the image is an interlaced PNG file.
  * This is used to check whether ImageLoaderEvent should be fired when loading images.
@@ -178,102 +258,161 @@ boolean isInterlacedPNG(byte [] imageAsByteArray) {
 ImageData [] getImageDataArrayFromStream(InputStream stream) {
 	long loader = GDK.gdk_pixbuf_loader_new();
 	List<ImageData> imgDataList = new ArrayList<>();
+	boolean closed = false;
+	long buffer_ptr = 0;
 	try {
-		// 1) Load InputStream into byte array
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		stream.transferTo(baos);
-		baos.flush();
-		byte[] data_buffer = baos.toByteArray();
-		if (data_buffer.length == 0) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);	// empty stream
-
-		// 2) Copy byte array to C memory, write to GdkPixbufLoader
-		long buffer_ptr = OS.g_malloc(data_buffer.length);
-		C.memmove(buffer_ptr, data_buffer, data_buffer.length);
+		if (hasListeners()) connectAreaUpdated(loader);
+
+		// 1) Stream the data through a fixed size buffer into the GdkPixbufLoader
+		byte[] chunk = new byte[CHUNK_SIZE];
+		byte[] header = new byte[PNG_INTERLACE_METHOD_OFFSET + 1];
+		buffer_ptr = OS.g_malloc(CHUNK_SIZE);
 		long [] error = new long [1];
-		GDK.gdk_pixbuf_loader_write(loader, buffer_ptr, data_buffer.length, error);
-		if(error[0] != 0) {
-			/* Bug 576484
-			 * It is safe just to assume if this fails it is most likely an IO error
-			 * since unsupported format is checked before, and invalid image right after.
-			 * Still, check if it belongs to the G_FILE_ERROR domain and IO error code
-			 */
-			if(OS.g_error_matches(error[0], OS.g_file_error_quark(), OS.G_FILE_ERROR_IO)){
-				SWT.error(SWT.ERROR_IO, null, Display.extractFreeGError(error[0]));
-			} else {
-				OS.g_error_free(error[0]);
+		int total = 0, count;
+		while ((count = stream.read(chunk)) != -1) {
+			if (count == 0) continue;
+			if (total < header.length) {
+				System.arraycopy(chunk, 0, header, total, Math.min(count, header.length - total));
+			}
+			total += count;
+			C.memmove(buffer_ptr, chunk, count);
+			if (!GDK.gdk_pixbuf_loader_write(loader, buffer_ptr, count, error)) {
+				if (error[0] != 0) {
+					/* Bug 576484
+					 * It is safe just to assume if this fails it is most likely an IO error
+					 * since unsupported format is checked before, and invalid image right after.
+					 * Still, check if it belongs to the G_FILE_ERROR domain and IO error code
+					 */
+					if(OS.g_error_matches(error[0], OS.g_file_error_quark(), OS.G_FILE_ERROR_IO)){
+						SWT.error(SWT.ERROR_IO, null, Display.extractFreeGError(error[0]));
+					} else {
+						OS.g_error_free(error[0]);
+					}
+				}
+				// The loader has been closed, any further write would fail
+				break;
 			}
 		}
+		if (total == 0) SWT.error(SWT.ERROR_UNSUPPORTED_FORMAT);	// empty stream
+		if (total < header.length) header = Arrays.copyOf(header, total);
+		OS.g_free(buffer_ptr);
+		buffer_ptr = 0;
 		GDK.gdk_pixbuf_loader_close(loader, null);
+		closed = true;
+		disconnectAreaUpdated(loader);
 
-		// 3) Get GdkPixbufAnimation from loader
+		// 2) Get GdkPixbufAnimation from loader
 		long pixbuf_animation = GDK.gdk_pixbuf_loader_get_animation(loader);
 		if (pixbuf_animation == 0) SWT.error(SWT.ERROR_INVALID_IMAGE);
 
+		int type = getImageFormat(loader);
+		// listener should only be called when loading interlaced/progressive PNG/JPG/GIF ?
+		boolean notify = hasListeners() && (type != SWT.IMAGE_PNG || isInterlacedPNG(header));
 		boolean isStatic = GDK.gdk_pixbuf_animation_is_static_image(pixbuf_animation);
 		if (isStatic) {
 			// Static image, get as single pixbuf and convert it to ImageData
 			long pixbuf = GDK.gdk_pixbuf_animation_get_static_image(pixbuf_animation);
 			ImageData imgData = pixbufToImageData(pixbuf);
-			imgData.type = getImageFormat(loader);
+			imgData.type = type;
 			imgDataList.add(imgData);
+			if (notify) notifyListeners(new ImageLoaderEvent(this, (ImageData) imgData.clone(), 0, true));
 		} else {
-			// Image with multiple frames, iterate through each frame and convert
-			// each frame to ImageData
-			long start_time = OS.g_malloc(8);
-			OS.g_get_current_time(start_time);
-			long animation_iter = GDK.gdk_pixbuf_animation_get_iter (pixbuf_animation, start_time);
-			int delay_time = 0;
-			int time_offset = 0;
-			// Fix the number of GIF frames as GdkPixbufAnimation does not provide an API to
-			// determine number of frames.
-			int num_frames = 32;
-			for (int i = 0; i < num_frames; i++) {
-				// Calculate time offset from start_time to next frame
-				delay_time = GDK.gdk_pixbuf_animation_iter_get_delay_time (animation_iter);
-				time_offset += delay_time;
-				OS.g_time_val_add(start_time, time_offset * 1000);
-				boolean update = GDK.gdk_pixbuf_animation_iter_advance (animation_iter, start_time);
-				if (update) {
-					long curr_pixbuf = GDK.gdk_pixbuf_animation_iter_get_pixbuf (animation_iter);
-					long pixbuf_copy = GDK.gdk_pixbuf_copy(curr_pixbuf); // copy because curr_pixbuf might get disposed on next advance
-					ImageData imgData = pixbufToImageData(pixbuf_copy);
+			/*
+			 * Image with multiple frames. GdkPixbufAnimation does not provide an API to
+			 * determine the number of frames, so step the iterator from frame to frame
+			 * by advancing its clock by the delay of the current frame, and stop on the
+			 * last frame of the animation. Each frame is converted before advancing since
+			 * the pixbuf of the iterator is only valid until the next advance.
+			 */
+			long current_time = OS.g_malloc(GTIMEVAL_SIZEOF);
+			OS.g_get_current_time(current_time);
+			long animation_iter = GDK.gdk_pixbuf_animation_get_iter(pixbuf_animation, current_time);
+			try {
+				for (int i = 0; ; i++) {
+					int delay_time = GDK.gdk_pixbuf_animation_iter_get_delay_time(animation_iter);
+					long pixbuf = GDK.gdk_pixbuf_animation_iter_get_pixbuf(animation_iter);
+					ImageData imgData = pixbufToImageData(pixbuf);
 					if (this.logicalScreenHeight == 0 && this.logicalScreenWidth == 0) {
 						this.logicalScreenHeight = imgData.height;
 						this.logicalScreenWidth = imgData.width;
 					}
-					OS.g_object_unref(pixbuf_copy);
-					imgData.type = getImageFormat(loader);
+					imgData.type = type;
 					imgData.delayTime = delay_time;
 					imgDataList.add(imgData);
-				} else {
-					break;
+					if (notify) notifyListeners(new ImageLoaderEvent(this, (ImageData) imgData.clone(), i, true));
+					if (delay_time <= 0 || GDK.gdk_pixbuf_animation_iter_on_currently_loading_frame(animation_iter)) break;
+					OS.g_time_val_add(current_time, delay_time * 1000L);
+					if (!GDK.gdk_pixbuf_animation_iter_advance(animation_iter, current_time)) break;
 				}
+			} finally {
+				OS.g_object_unref(animation_iter);
+				OS.g_free(current_time);
 			}
 		}
-		ImageData [] imgDataArray = new ImageData [imgDataList.size()];
-		for (int i = 0; i < imgDataList.size(); i++) {
-			imgDataArray [i] = imgDataList.get(i);
-			// Loading completed, notify listeners
-			// listener should only be called when loading interlaced/progressive PNG/JPG/GIF ?
-			ImageData data = (ImageData) imgDataArray [i].clone();
-			if (this.hasListeners() && imgDataArray != null) {
-				if (data.type == SWT.IMAGE_PNG && isInterlacedPNG(data_buffer)) {
-					this.notifyListeners(new ImageLoaderEvent(this, data, i, true));
-				} else if (data.type != SWT.IMAGE_PNG) {
-					this.notifyListeners(new ImageLoaderEvent(this, data, i, true));
-				}
-			}
-		}
-		OS.g_free(buffer_ptr);
-		OS.g_object_unref(loader);
 		stream.close();
-		return imgDataArray;
+		return imgDataList.toArray(new ImageData [imgDataList.size()]);
 	} catch (IOException e) {
 		SWT.error(SWT.ERROR_IO);
+	} finally {
+		if (buffer_ptr != 0) OS.g_free(buffer_ptr);
+		if (!closed) {
+			GDK.gdk_pixbuf_loader_close(loader, null);
+			disconnectAreaUpdated(loader);
+		}
+		OS.g_object_unref(loader);
 	}
 	return null;
 }
 
+/**
+ * Connects the loader's "area-updated" signal so that listeners are notified
+ * of the partially decoded image while the data is streamed in.
+ */
+void connectAreaUpdated(long loader) {
+	synchronized (progressiveLoaders) {
+		if (areaUpdatedCallback == null) {
+			areaUpdatedCallback = new Callback(ImageLoader.class, "areaUpdatedProc", void.class, new Type[] {long.class, int.class, int.class, int.class, int.class, long.class}); //$NON-NLS-1$
+		}
+		progressiveLoaders.put(loader, this);
+	}
+	progressiveBottom = 0;
+	OS.g_signal_connect(loader, AREA_UPDATED, areaUpdatedCallback.getAddress(), 0);
+}
+
+void disconnectAreaUpdated(long loader) {
+	synchronized (progressiveLoaders) {
+		progressiveLoaders.remove(loader);
+	}
+}
+
+static void areaUpdatedProc(long loader, int x, int y, int width, int height, long user_data) {
+	ImageLoader imageLoader;
+	synchronized (progressiveLoaders) {
+		imageLoader = progressiveLoaders.get(loader);
+	}
+	if (imageLoader != null) imageLoader.areaUpdated(loader, y, height);
+}
+
+/*
+ * Interlaced and progressive images are decoded in several passes over the
+ * whole image. A pass is complete when the next update starts above the last
+ * updated row, at which point the partial image is sent to the listeners. The
+ * final pass is reported by load() with the complete image.
+ */
+void areaUpdated(long loader, int y, int height) {
+	int bottom = progressiveBottom;
+	progressiveBottom = y + height;
+	if (y >= bottom) return;
+	long pixbuf = GDK.gdk_pixbuf_loader_get_pixbuf(loader);
+	if (pixbuf == 0) return;
+	long animation = GDK.gdk_pixbuf_loader_get_animation(loader);
+	// Restarting at the top of an animation is the next frame, not the next pass
+	if (animation != 0 && !GDK.gdk_pixbuf_animation_is_static_image(animation)) return;
+	ImageData imgData = pixbufToImageData(pixbuf);
+	imgData.type = getImageFormat(loader);
+	notifyListeners(new ImageLoaderEvent(this, imgData, 0, false));
+}
+
 /**
  * Loads an array of <code>ImageData</code> objects from the
  * file with the specified name. Throws an error if either
@@ -476,7 +615,10 @@ public void save(OutputStream stream, int format) {
 	// Native implementation only supports a subset of possible image configurations.
 	// Redirect the not supported variants to the Java implementation.
 	// See also https://bugs.eclipse.org/bugs/show_bug.cgi?id=558043
-	if (!imgData.palette.isDirect || n_channels < 3 || n_channels > 4) {
+	// GdkPixbuf cannot write GIF files, the Java implementation quantizes true color images.
+	// GdkPixbuf only writes the first page of TIFF files and does not support their compression.
+	boolean javaTiff = format == SWT.IMAGE_TIFF && (this.data.length > 1 || compression == 1 || compression == 2);
+	if (!imgData.palette.isDirect || n_channels < 3 || n_channels > 4 || format == SWT.IMAGE_GIF || javaTiff) {
 		FileFormat.save(stream, format, this);
 		return;
 	}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.*;
+import java.util.zip.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.*;
+import org.eclipse.swt.internal.cairo.*;
+import org.eclipse.swt.internal.gtk.*;
+
+/**
+ * Shares the pixels of images that were created from an
+ * <code>ImageDataProvider</code> or an <code>ImageFileNameProvider</code>
+ * and are identical, so that the same icon shown by many widgets exists
+ * only once per device. The pixbufs widgets create from these pixels are
+ * shared as well.
+ * <p>
+ * Pixels are looked up by a checksum together with their size, format,
+ * device scale and the transparency of the image, and are compared byte by
+ * byte before they are shared. The first image keeps its surface, which the
+ * registry references as the owner of the pixels. Every other image gets a
+ * surface of its own that uses the same memory, so that surfaces still
+ * identify their image. The registry counts the surfaces of an entry and
+ * drops its reference to the pixels when the last one is released. An image
+ * that is about to be drawn on gets a copy of its own first.
+ * </p><p>
+ * The registry can be turned off with the
+ * <code>org.eclipse.swt.internal.gtk.imageRegistry</code> system property.
+ * </p>
+ */
+final class ImageRegistry {
+
+	record Key(int checksum, int length, int format, int width, int height, double scale, int type, int transparentPixel) {}
+
+	static final class Entry {
+		final Key key;
+		/* The surface owning the pixels, referenced by the registry */
+		final long surface;
+		final int size;
+		/* The number of image surfaces using the pixels */
+		int references = 1;
+		/* Shared pixbufs, unscaled and scaled down by the device scale of the surface */
+		long pixbuf, scaledPixbuf;
+
+		Entry(Key key, long surface, int size) {
+			this.key = key;
+			this.surface = surface;
+			this.size = size;
+		}
+	}
+
+	final Map<Key, Entry> entries = new HashMap<>();
+	/* The entry of every image surface using shared pixels */
+	final Map<Long, Entry> surfaces = new HashMap<>();
+
+	/* Statistics */
+	int hits, misses;
+
+static boolean isEnabled () {
+	return Boolean.parseBoolean(System.getProperty("org.eclipse.swt.internal.gtk.imageRegistry", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+}
+
+/**
+ * Answers the surface the image should use instead of the given surface,
+ * which it has just created and filled. When identical pixels are already
+ * registered, the given surface is destroyed and a new surface using the
+ * registered pixels is answered; otherwise the given surface is registered.
+ *
+ * @param pixels the contents of the surface, or <code>null</code> to read them
+ */
+synchronized long acquire (Image image, long surface, byte[] pixels) {
+	if (Cairo.cairo_surface_get_type(surface) != Cairo.CAIRO_SURFACE_TYPE_IMAGE) return surface;
+	int format = Cairo.cairo_image_surface_get_format(surface);
+	int width = Cairo.cairo_image_surface_get_width(surface);
+	int height = Cairo.cairo_image_surface_get_height(surface);
+	int size = Cairo.cairo_image_surface_get_stride(surface) * height;
+	if (pixels == null || pixels.length < size) {
+		pixels = new byte[size];
+		C.memmove(pixels, Cairo.cairo_image_surface_get_data(surface), size);
+	}
+	double[] sx = new double[1], sy = new double[1];
+	Cairo.cairo_surface_get_device_scale(surface, sx, sy);
+	CRC32C crc = new CRC32C();
+	crc.update(pixels, 0, size);
+	Key key = new Key((int) crc.getValue(), size, format, width, height, sx[0], image.type, image.transparentPixel);
+	Entry entry = entries.get(key);
+	if (entry != null) {
+		byte[] shared = new byte[size];
+		C.memmove(shared, Cairo.cairo_image_surface_get_data(entry.surface), size);
+		if (Arrays.equals(pixels, 0, size, shared, 0, size)) {
+			long newSurface = Cairo.cairo_image_surface_create_for_data(Cairo.cairo_image_surface_get_data(entry.surface), format, width, height, Cairo.cairo_image_surface_get_stride(surface));
+			if (newSurface == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+			Cairo.cairo_surface_set_device_scale(newSurface, sx[0], sy[0]);
+			hits++;
+			entry.references++;
+			surfaces.put(newSurface, entry);
+			Cairo.cairo_surface_destroy(surface);
+			return newSurface;
+		}
+		/* Checksum collision, the image keeps its own surface */
+		misses++;
+		return surface;
+	}
+	misses++;
+	Cairo.cairo_surface_reference(surface);
+	entry = new Entry(key, surface, size);
+	entries.put(key, entry);
+	surfaces.put(surface, entry);
+	return surface;
+}
+
+/**
+ * Destroys a surface using shared pixels. Answers <code>false</code> when
+ * the surface is not registered and has to be destroyed by the caller.
+ */
+synchronized boolean release (long surface) {
+	Entry entry = surfaces.remove(surface);
+	if (entry == null) return false;
+	Cairo.cairo_surface_destroy(surface);
+	if (--entry.references == 0) {
+		remove(entry);
+		Cairo.cairo_surface_destroy(entry.surface);
+	}
+	return true;
+}
+
+/**
+ * Prepares the surface to be modified by its image. Answers
+ * <code>true</code> when the surface uses pixels shared with other images or
+ * owned by another surface, in which case the image has to copy the surface
+ * and release it. Otherwise the surface is no longer registered and belongs
+ * to the image alone.
+ */
+synchronized boolean detach (long surface) {
+	Entry entry = surfaces.get(surface);
+	if (entry == null) return false;
+	if (entry.references > 1 || entry.surface != surface) return true;
+	surfaces.remove(surface);
+	remove(entry);
+	Cairo.cairo_surface_destroy(surface);
+	return false;
+}
+
+/**
+ * Answers a new reference to the shared pixbuf of the surface, or 0 if the
+ * surface is not registered.
+ *
+ * @param scaled whether the pixbuf is scaled down by the device scale of the surface
+ */
+synchronized long getPixbuf (long surface, boolean scaled) {
+	Entry entry = surfaces.get(surface);
+	if (entry == null) return 0;
+	if (scaled) {
+		if (entry.scaledPixbuf == 0) entry.scaledPixbuf = ImageList.createPixbuf(surface);
+		return OS.g_object_ref(entry.scaledPixbuf);
+	}
+	if (entry.pixbuf == 0) entry.pixbuf = ImageList.createPixbuf(surface, false);
+	return OS.g_object_ref(entry.pixbuf);
+}
+
+void remove (Entry entry) {
+	entries.remove(entry.key);
+	if (entry.pixbuf != 0) OS.g_object_unref(entry.pixbuf);
+	if (entry.scaledPixbuf != 0) OS.g_object_unref(entry.scaledPixbuf);
+	entry.pixbuf = entry.scaledPixbuf = 0;
+}
+
+synchronized void dispose () {
+	/* Surfaces still in use belong to images that were not disposed */
+	for (Entry entry : entries.values()) {
+		if (entry.pixbuf != 0) OS.g_object_unref(entry.pixbuf);
+		if (entry.scaledPixbuf != 0) OS.g_object_unref(entry.scaledPixbuf);
+	}
+	entries.clear();
+	surfaces.clear();
+}
+
+synchronized void getStatistics (Map<String, Long> statistics) {
+	long size = 0, saved = 0;
+	int references = 0;
+	for (Entry entry : entries.values()) {
+		size += entry.size;
+		saved += (long) entry.size * (entry.references - 1);
+		references += entry.references;
+	}
+	statistics.put("imageRegistry.entries", (long) entries.size()); //$NON-NLS-1$
+	statistics.put("imageRegistry.references", (long) references); //$NON-NLS-1$
+	statistics.put("imageRegistry.bytes", size); //$NON-NLS-1$
+	statistics.put("imageRegistry.bytesSaved", saved); //$NON-NLS-1$
+	statistics.put("imageRegistry.hits", (long) hits); //$NON-NLS-1$
+	statistics.put("imageRegistry.misses", (long) misses); //$NON-NLS-1$
+}
+}
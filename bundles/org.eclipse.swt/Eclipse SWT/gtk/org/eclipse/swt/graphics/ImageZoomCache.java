@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.*;
+
+import org.eclipse.swt.internal.cairo.*;
+
+/**
+ * Keeps the surfaces and image data of images at zoom levels other than
+ * their current one. Moving a shell between monitors with different zoom
+ * levels, or asking for the image data of an image at another zoom level,
+ * then no longer queries the image providers and rescales every image again.
+ * <p>
+ * The cache is shared by all images and bounded by the number of bytes of
+ * pixel data it holds; the least recently used entries are released first.
+ * The bound defaults to 32 MB and can be set in bytes with the
+ * <code>org.eclipse.swt.internal.gtk.imageZoomCacheSize</code> system
+ * property, where 0 disables the cache.
+ * </p>
+ */
+final class ImageZoomCache {
+
+	static final long MAX_SIZE = Long.getLong("org.eclipse.swt.internal.gtk.imageZoomCacheSize", 32L * 1024 * 1024); //$NON-NLS-1$
+
+	/**
+	 * A surface of an image at a zoom level, or the image data the image
+	 * answered for a zoom level.
+	 */
+	static final class Entry {
+		final Image image;
+		final int zoom;
+		final long size;
+		/* Surface entries */
+		long surface;
+		int width, height, type, transparentPixel;
+		/* Image data entries */
+		ImageData data;
+
+		Entry(Image image, int zoom, long size) {
+			this.image = image;
+			this.zoom = zoom;
+			this.size = size;
+		}
+	}
+
+	/* All entries, least recently used first */
+	static final LinkedHashMap<Entry, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/* The entries of each image */
+	static final Map<Image, List<Entry>> imageEntries = new IdentityHashMap<>();
+	static long size;
+
+	/* Statistics */
+	static int hits, misses, evictions;
+
+static synchronized ImageData getImageData(Image image, int zoom) {
+	Entry entry = find(image, zoom, false);
+	if (entry == null) {
+		misses++;
+		return null;
+	}
+	hits++;
+	entries.get(entry);
+	return (ImageData) entry.data.clone();
+}
+
+static synchronized void putImageData(Image image, int zoom, ImageData data) {
+	long dataSize = (long) data.data.length;
+	if (data.maskData != null) dataSize += data.maskData.length;
+	if (data.alphaData != null) dataSize += data.alphaData.length;
+	Entry entry = new Entry(image, zoom, dataSize);
+	entry.data = (ImageData) data.clone();
+	put(entry);
+}
+
+/**
+ * Removes the surface of the image at the zoom level from the cache and
+ * answers it, or answers <code>null</code>. The caller owns the surface.
+ */
+static synchronized Entry takeSurface(Image image, int zoom) {
+	Entry entry = find(image, zoom, true);
+	if (entry == null) {
+		misses++;
+		return null;
+	}
+	hits++;
+	remove(entry);
+	return entry;
+}
+
+/**
+ * Keeps a surface the image no longer uses. The cache owns the surface
+ * and destroys it when it is evicted. Answers whether the surface was
+ * cached; otherwise it has to be destroyed by the caller.
+ */
+static synchronized boolean putSurface(Image image, int zoom, long surface) {
+	long surfaceSize;
+	if (Cairo.cairo_surface_get_type(surface) == Cairo.CAIRO_SURFACE_TYPE_IMAGE) {
+		surfaceSize = (long) Cairo.cairo_image_surface_get_stride(surface) * Cairo.cairo_image_surface_get_height(surface);
+	} else {
+		surfaceSize = 4L * image.width * image.height * zoom * zoom / 10000;
+	}
+	if (surfaceSize > MAX_SIZE) return false;
+	Entry entry = new Entry(image, zoom, surfaceSize);
+	entry.surface = surface;
+	entry.width = image.width;
+	entry.height = image.height;
+	entry.type = image.type;
+	entry.transparentPixel = image.transparentPixel;
+	put(entry);
+	return true;
+}
+
+/**
+ * Releases everything cached for the image.
+ */
+static synchronized void remove(Image image) {
+	List<Entry> list = imageEntries.remove(image);
+	if (list == null) return;
+	for (Entry entry : list) {
+		entries.remove(entry);
+		size -= entry.size;
+		release(entry);
+	}
+}
+
+static Entry find(Image image, int zoom, boolean isSurface) {
+	List<Entry> list = imageEntries.get(image);
+	if (list == null) return null;
+	for (Entry entry : list) {
+		if (entry.zoom == zoom && (entry.surface != 0) == isSurface) return entry;
+	}
+	return null;
+}
+
+static void put(Entry entry) {
+	if (entry.size > MAX_SIZE) {
+		release(entry);
+		return;
+	}
+	Entry old = find(entry.image, entry.zoom, entry.surface != 0);
+	if (old != null) {
+		remove(old);
+		release(old);
+	}
+	entries.put(entry, entry);
+	imageEntries.computeIfAbsent(entry.image, image -> new ArrayList<>(2)).add(entry);
+	size += entry.size;
+	Iterator<Entry> iterator = entries.keySet().iterator();
+	while (size > MAX_SIZE && iterator.hasNext()) {
+		Entry eldest = iterator.next();
+		iterator.remove();
+		List<Entry> list = imageEntries.get(eldest.image);
+		list.remove(eldest);
+		if (list.isEmpty()) imageEntries.remove(eldest.image);
+		size -= eldest.size;
+		release(eldest);
+		evictions++;
+	}
+}
+
+/**
+ * Removes the entry without releasing it.
+ */
+static void remove(Entry entry) {
+	entries.remove(entry);
+	List<Entry> list = imageEntries.get(entry.image);
+	if (list != null) {
+		list.remove(entry);
+		if (list.isEmpty()) imageEntries.remove(entry.image);
+	}
+	size -= entry.size;
+}
+
+static void release(Entry entry) {
+	if (entry.surface != 0) entry.image.destroySurface(entry.surface);
+	entry.surface = 0;
+	entry.data = null;
+}
+
+static synchronized void getStatistics(Map<String, Long> statistics) {
+	statistics.put("imageZoomCache.entries", (long) entries.size()); //$NON-NLS-1$
+	statistics.put("imageZoomCache.bytes", size); //$NON-NLS-1$
+	statistics.put("imageZoomCache.hits", (long) hits); //$NON-NLS-1$
+	statistics.put("imageZoomCache.misses", (long) misses); //$NON-NLS-1$
+	statistics.put("imageZoomCache.evictions", (long) evictions); //$NON-NLS-1$
+}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.util.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.gtk.*;
+
+/**
+ * A least recently used cache of shaped <code>PangoLayout</code>s shared by
+ * all the GCs of a device, used by <code>GC.drawString()</code>,
+ * <code>GC.drawText()</code> and <code>GC.textExtent()</code>.
+ * <p>
+ * Layouts are keyed by string, font and draw flags, so drawing the same label
+ * again skips the UTF-8 conversion, shaping and measuring. The layouts are
+ * created from a context owned by the cache and are only handed out on the
+ * thread that created the device, since Pango objects are not thread safe.
+ * Clients take their own reference on a layout while they use it, so evicting
+ * an entry never frees a layout that is still set into a GC.
+ * </p><p>
+ * The number of cached layouts is bounded by the
+ * <code>org.eclipse.swt.internal.gtk.layoutCacheSize</code> system property
+ * (default 256, 0 disables the cache).
+ * </p>
+ */
+final class PangoLayoutCache {
+
+	static final int DEFAULT_SIZE = 256;
+
+	static class Entry {
+		Font font;
+		int flags;
+		long layout;
+		int width = -1, height = -1;
+		Entry next;
+	}
+
+	final Thread thread = Thread.currentThread();
+	final int maxSize;
+	long context;
+	int size;
+	/* Accessed in LRU order; entries for the same string are chained through Entry.next */
+	final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/* Statistics */
+	int hits, misses, evictions;
+
+static int configuredSize () {
+	String property = System.getProperty("org.eclipse.swt.internal.gtk.layoutCacheSize");
+	if (property != null) {
+		try {
+			return Math.max(0, Integer.parseInt(property));
+		} catch (NumberFormatException e) {}
+	}
+	return DEFAULT_SIZE;
+}
+
+PangoLayoutCache (int maxSize) {
+	this.maxSize = maxSize;
+}
+
+/**
+ * Returns the cached layout entry for the given string, font and flags,
+ * or <code>null</code>.
+ */
+Entry get (String string, Font font, int flags) {
+	Entry entry = entries.get(string);
+	Entry previous = null;
+	while (entry != null) {
+		if (entry.font == font && entry.flags == flags) {
+			if (font.isDisposed()) {
+				remove(string, previous, entry);
+				break;
+			}
+			hits++;
+			return entry;
+		}
+		previous = entry;
+		entry = entry.next;
+	}
+	misses++;
+	return null;
+}
+
+/**
+ * Creates a new layout from the context of the cache. The layout is
+ * owned by the caller until it is passed to {@link #put}.
+ */
+long newLayout () {
+	if (context == 0) {
+		if (GTK.GTK4) {
+			long fontMap = OS.pango_cairo_font_map_get_default();
+			context = OS.pango_font_map_create_context(fontMap);
+		} else {
+			context = GDK.gdk_pango_context_get();
+		}
+		if (context == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+		OS.pango_context_set_language(context, GTK.gtk_get_default_language());
+		OS.pango_context_set_base_dir(context, OS.PANGO_DIRECTION_LTR);
+	}
+	long layout = OS.pango_layout_new(context);
+	if (layout == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	OS.pango_layout_set_auto_dir(layout, false);
+	return layout;
+}
+
+/**
+ * Adds a layout created by {@link #newLayout()} to the cache, evicting the
+ * least recently used layouts when the cache is full.
+ */
+Entry put (String string, Font font, int flags, long layout) {
+	Entry entry = new Entry();
+	entry.font = font;
+	entry.flags = flags;
+	entry.layout = layout;
+	entry.next = entries.get(string);
+	entries.put(string, entry);
+	size++;
+	Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+	while (size > maxSize && iterator.hasNext()) {
+		Map.Entry<String, Entry> eldest = iterator.next();
+		if (eldest.getValue() == entry) continue;
+		for (Entry e = eldest.getValue(); e != null; e = e.next) {
+			OS.g_object_unref(e.layout);
+			size--;
+			evictions++;
+		}
+		iterator.remove();
+	}
+	return entry;
+}
+
+void remove (String string, Entry previous, Entry entry) {
+	if (previous != null) {
+		previous.next = entry.next;
+	} else if (entry.next != null) {
+		entries.put(string, entry.next);
+	} else {
+		entries.remove(string);
+	}
+	OS.g_object_unref(entry.layout);
+	size--;
+}
+
+void dispose () {
+	for (Entry entry : entries.values()) {
+		for (Entry e = entry; e != null; e = e.next) {
+			OS.g_object_unref(e.layout);
+		}
+	}
+	entries.clear();
+	size = 0;
+	if (context != 0) OS.g_object_unref(context);
+	context = 0;
+}
+
+@Override
+public String toString () {
+	return "PangoLayoutCache {size=" + size + "/" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+}
+}
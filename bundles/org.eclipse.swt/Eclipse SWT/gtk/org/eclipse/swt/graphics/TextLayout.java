@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -64,6 +64,8 @@ public final class TextLayout extends Resource {
 	int[] invalidOffsets;
 	int verticalIndentInPoints;
 	MetricsAdapter metricsAdapter = new MetricsAdapter();
+	/* Maps UTF-16 offsets to the UTF-8 byte offsets of the layout text, rebuilt in computeRuns() */
+	Utf8OffsetIndex offsetIndex = new Utf8OffsetIndex();
 	static final char LTR_MARK = '\u200E', RTL_MARK = '\u200F', ZWS = '\u200B', ZWNBS = '\uFEFF';
 
 /**
@@ -265,7 +267,10 @@ void checkLayout() {
 void computeRuns () {
 	if (attrList != 0) return;
 	String segmentsText = getSegmentsText();
-	byte[] buffer = Converter.wcsToMbcs(segmentsText, false);
+	int segementsLength = segmentsText.length();
+	char[] chars = new char[segementsLength];
+	segmentsText.getChars(0, segementsLength, chars, 0);
+	byte[] buffer = Converter.wcsToMbcs(chars, false, offsetIndex);
 	OS.pango_layout_set_text (layout, buffer, buffer.length);
 	attrList = OS.pango_attr_list_new();
 	selAttrList = OS.pango_attr_list_new();
@@ -282,10 +287,7 @@ void computeRuns () {
 		OS.pango_layout_set_attributes(layout, attrList);
 		return;
 	}
-	long ptr = OS.pango_layout_get_text(layout);
 	PangoAttribute attribute = new PangoAttribute();
-	char[] chars = null;
-	int segementsLength = segmentsText.length();
 	int nSegments = segementsLength - text.length();
 	int offsetCount = nSegments;
 	int[] lineOffsets = null;
@@ -323,7 +325,7 @@ void computeRuns () {
 			OS.memmove (attr, attribute, PangoAttribute.sizeof);
 			OS.pango_attr_list_insert(attrList, attr);
 			OS.pango_attr_list_insert(selAttrList, OS.pango_attribute_copy(attr));
-			int pos = (int)OS.g_utf16_pointer_to_offset(ptr, ptr + bytePos);
+			int pos = offsetIndex.byteToUtf16(bytePos);
 			chars[pos + lineIndex * 2] = ZWS;
 			chars[pos + lineIndex * 2 + 1] = ZWNBS;
 			segmentsText.getChars(oldPos, pos, chars,  oldPos + lineIndex * 2);
@@ -332,13 +334,9 @@ void computeRuns () {
 			lineIndex++;
 		}
 		segmentsText.getChars(oldPos, segementsLength, chars,  oldPos + lineIndex * 2);
-		buffer = Converter.wcsToMbcs(chars, false);
+		buffer = Converter.wcsToMbcs(chars, false, offsetIndex);
 		OS.pango_layout_set_text (layout, buffer, buffer.length);
-		ptr = OS.pango_layout_get_text(layout);
 		offsetCount += 2 * lineCount;
-	} else {
-		chars = new char[segementsLength];
-		segmentsText.getChars(0, segementsLength, chars, 0);
 	}
 	invalidOffsets = new int[offsetCount];
 	if (offsetCount > 0) {
@@ -357,7 +355,7 @@ void computeRuns () {
 			}
 		}
 	}
-	int strlen = C.strlen(ptr);
+	int strlen = offsetIndex.byteLength();
 	Font defaultFont = font != null ? font : device.systemFont;
 	for (int i = 0; i < stylesCount - 1; i++) {
 		StyleItem styleItem = styles[i];
@@ -365,8 +363,8 @@ void computeRuns () {
 		if (style == null) continue;
 		int start = translateOffset(styleItem.start);
 		int end = translateOffset(styles[i+1].start - 1);
-		int byteStart = (int)(OS.g_utf16_offset_to_pointer(ptr, start) - ptr);
-		int byteEnd = (int)(OS.g_utf16_offset_to_pointer(ptr, end + 1) - ptr);
+		int byteStart = offsetIndex.utf16ToByte(start);
+		int byteEnd = offsetIndex.utf16ToByte(end + 1);
 		byteStart = Math.min(byteStart, strlen);
 		byteEnd = Math.min(byteEnd, strlen);
 		Font font = style.font;
@@ -650,7 +648,6 @@ void drawInPixels(GC gc, int x, int y, int selectionStart, int selectionEnd, Col
 		PangoLogAttr logAttr = new PangoLogAttr();
 		PangoRectangle rect = new PangoRectangle();
 		int lineCount = OS.pango_layout_get_line_count(layout);
-		long ptr = OS.pango_layout_get_text(layout);
 		long iter = OS.pango_layout_get_iter(layout);
 		if (selectionBackground == null) selectionBackground = device.getSystemColor(SWT.COLOR_LIST_SELECTION);
 		Cairo.cairo_save(cairo);
@@ -662,9 +659,9 @@ void drawInPixels(GC gc, int x, int y, int selectionStart, int selectionEnd, Col
 			metricsAdapter.pango_layout_iter_get_line_extents(iter, null, rect);
 			if (OS.pango_layout_iter_next_line(iter)) {
 				int bytePos = OS.pango_layout_iter_get_index(iter);
-				lineEnd = (int)OS.g_utf16_pointer_to_offset(ptr, ptr + bytePos);
+				lineEnd = offsetIndex.byteToUtf16(bytePos);
 			} else {
-				lineEnd = (int)OS.g_utf16_strlen(ptr, -1);
+				lineEnd = offsetIndex.length();
 			}
 			boolean extent = false;
 			if (lineIndex == lineCount - 1 && (flags & SWT.LAST_LINE_SELECTION) != 0) {
@@ -712,29 +709,27 @@ void drawInPixels(GC gc, int x, int y, int selectionStart, int selectionEnd, Col
 	} else {
 		selectionStart = Math.min(Math.max(0, selectionStart), length - 1);
 		selectionEnd = Math.min(Math.max(0, selectionEnd), length - 1);
-		length = (int)OS.g_utf16_strlen(OS.pango_layout_get_text(layout), -1);
+		length = offsetIndex.length();
 		selectionStart = translateOffset(selectionStart);
 		selectionEnd = translateOffset(selectionEnd);
 		if (selectionForeground == null) selectionForeground = device.getSystemColor(SWT.COLOR_LIST_SELECTION_TEXT);
 		if (selectionBackground == null) selectionBackground = device.getSystemColor(SWT.COLOR_LIST_SELECTION);
 		boolean fullSelection = selectionStart == 0 && selectionEnd == length - 1;
 		if (fullSelection) {
-			long ptr = OS.pango_layout_get_text(layout);
 			if ((data.style & SWT.MIRRORED) != 0) {
 				Cairo.cairo_save(cairo);
 				Cairo.cairo_scale(cairo, -1,  1);
 				Cairo.cairo_translate(cairo, -2 * x - width(), 0);
 			}
-			drawWithCairo(gc, x, y, 0, C.strlen(ptr), fullSelection, selectionForeground.handle,
+			drawWithCairo(gc, x, y, 0, offsetIndex.byteLength(), fullSelection, selectionForeground.handle,
 					selectionBackground.handle);
 			if ((data.style & SWT.MIRRORED) != 0) {
 				Cairo.cairo_restore(cairo);
 			}
 		} else {
-			long ptr = OS.pango_layout_get_text(layout);
-			int byteSelStart = (int)(OS.g_utf16_offset_to_pointer(ptr, selectionStart) - ptr);
-			int byteSelEnd = (int)(OS.g_utf16_offset_to_pointer(ptr, selectionEnd + 1) - ptr);
-			int strlen = C.strlen(ptr);
+			int byteSelStart = offsetIndex.utf16ToByte(selectionStart);
+			int byteSelEnd = offsetIndex.utf16ToByte(selectionEnd + 1);
+			int strlen = offsetIndex.byteLength();
 			byteSelStart = Math.min(byteSelStart, strlen);
 			byteSelEnd = Math.min(byteSelEnd, strlen);
 			if ((data.style & SWT.MIRRORED) != 0) {
@@ -780,7 +775,6 @@ void drawWithCairo(GC gc, int x, int y, int start, int end, boolean fullSelectio
 void drawBorder(GC gc, int x, int y, GdkRGBA selectionColor) {
 	GCData data = gc.data;
 	long cairo = data.cairo;
-	long ptr = OS.pango_layout_get_text(layout);
 	Cairo.cairo_save(cairo);
 	for (int i = 0; i < stylesCount - 1; i++) {
 		TextStyle style = styles[i].style;
@@ -794,8 +788,8 @@ void drawBorder(GC gc, int x, int y, GdkRGBA selectionColor) {
 			}
 			start = translateOffset(start);
 			int end = translateOffset(styles[i+1].start - 1);
-			int byteStart = (int)(OS.g_utf16_offset_to_pointer(ptr, start) - ptr);
-			int byteEnd = (int)(OS.g_utf16_offset_to_pointer(ptr, end + 1) - ptr);
+			int byteStart = offsetIndex.utf16ToByte(start);
+			int byteEnd = offsetIndex.utf16ToByte(end + 1);
 			int[] ranges = new int[]{byteStart, byteEnd};
 			long rgn = metricsAdapter.gdk_pango_layout_get_clip_region(layout, x, y, ranges, ranges.length / 2);
 			if (rgn != 0) {
@@ -956,10 +950,9 @@ Rectangle getBoundsInPixels(int start, int end) {
 	end = Math.min(Math.max(0, end), length - 1);
 	start = translateOffset(start);
 	end = translateOffset(end);
-	long ptr = OS.pango_layout_get_text(layout);
-	int byteStart = (int)(OS.g_utf16_offset_to_pointer (ptr, start) - ptr);
-	int byteEnd = (int)(OS.g_utf16_offset_to_pointer (ptr, end + 1) - ptr);
-	int strlen = C.strlen(ptr);
+	int byteStart = offsetIndex.utf16ToByte(start);
+	int byteEnd = offsetIndex.utf16ToByte(end + 1);
+	int strlen = offsetIndex.byteLength();
 	byteStart = Math.min(byteStart, strlen);
 	byteEnd = Math.min(byteEnd, strlen);
 	int[] ranges = new int[]{byteStart, byteEnd};
@@ -1097,9 +1090,8 @@ public int getLevel(int offset) {
 	int level = 0;
 	PangoItem item = new PangoItem();
 	PangoLayoutRun run = new PangoLayoutRun();
-	long ptr = OS.pango_layout_get_text(layout);
-	long byteOffset = OS.g_utf16_offset_to_pointer(ptr, offset) - ptr;
-	int strlen = C.strlen(ptr);
+	long byteOffset = offsetIndex.utf16ToByte(offset);
+	int strlen = offsetIndex.byteLength();
 	byteOffset = Math.min(byteOffset, strlen);
 	do {
 		long runPtr = OS.pango_layout_iter_get_run(iter);
@@ -1199,9 +1191,8 @@ public int getLineIndex(int offset) {
 	if (!(0 <= offset && offset <= length)) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	offset = translateOffset(offset);
 	int line = 0;
-	long ptr = OS.pango_layout_get_text(layout);
-	long byteOffset = OS.g_utf16_offset_to_pointer(ptr,offset) - ptr;
-	int strlen = C.strlen(ptr);
+	long byteOffset = offsetIndex.utf16ToByte(offset);
+	int strlen = offsetIndex.byteLength();
 	byteOffset = Math.min(byteOffset, strlen);
 	long iter = OS.pango_layout_get_iter(layout);
 	if (iter == 0) SWT.error(SWT.ERROR_NO_HANDLES);
@@ -1241,13 +1232,11 @@ public FontMetrics getLineMetrics (int lineIndex) {
 	int ascentInPoints;
 	if (line.runs == 0) {
 		long font = this.font != null ? this.font.handle : device.systemFont.handle;
-		long lang = OS.pango_context_get_language(context);
-		long metrics = OS.pango_context_get_metrics(context, font, lang);
-		int ascent = OS.pango_font_metrics_get_ascent(metrics);
-		int descent = OS.pango_font_metrics_get_descent(metrics);
+		int[] metrics = device.internal_gtk_getFontMetrics(context, font);
+		int ascent = metrics[0];
+		int descent = metrics[1];
 		ascentInPoints = DPIUtil.autoScaleDown(getDevice(), OS.PANGO_PIXELS(ascent));
 		heightInPoints = DPIUtil.autoScaleDown(getDevice(), OS.PANGO_PIXELS(ascent + descent));
-		OS.pango_font_metrics_unref(metrics);
 	} else {
 		PangoRectangle rect = new PangoRectangle();
 		metricsAdapter.pango_layout_line_get_extents(OS.pango_layout_get_line(layout, lineIndex), null, rect);
@@ -1280,12 +1269,11 @@ public int[] getLineOffsets() {
 	computeRuns();
 	int lineCount = OS.pango_layout_get_line_count(layout);
 	int[] offsets = new int [lineCount + 1];
-	long ptr = OS.pango_layout_get_text(layout);
 	PangoLayoutLine line = new PangoLayoutLine();
 	for (int i = 0; i < lineCount; i++) {
 		long linePtr = OS.pango_layout_get_line(layout, i);
 		OS.memmove(line, linePtr, PangoLayoutLine.sizeof);
-		int pos = (int)OS.g_utf16_pointer_to_offset(ptr, ptr + line.start_index);
+		int pos = offsetIndex.byteToUtf16(line.start_index);
 		offsets[i] = untranslateOffset(pos);
 	}
 	offsets[lineCount] = text.length();
@@ -1318,9 +1306,8 @@ Point getLocationInPixels(int offset, boolean trailing) {
 	int length = text.length();
 	if (!(0 <= offset && offset <= length)) SWT.error(SWT.ERROR_INVALID_RANGE);
 	offset = translateOffset(offset);
-	long ptr = OS.pango_layout_get_text(layout);
-	int byteOffset = (int)(OS.g_utf16_offset_to_pointer(ptr, offset) - ptr);
-	int strlen = C.strlen(ptr);
+	int byteOffset = offsetIndex.utf16ToByte(offset);
+	int strlen = offsetIndex.byteLength();
 	byteOffset = Math.min(byteOffset, strlen);
 	PangoRectangle pos = new PangoRectangle();
 	OS.pango_layout_index_to_pos(layout, byteOffset, pos);
@@ -1374,9 +1361,8 @@ int _getOffset (int offset, int movement, boolean forward) {
 	OS.pango_layout_get_log_attrs(layout, attrs, nAttrs);
 	if (attrs[0] == 0) return offset + step;
 
-	long ptr = OS.pango_layout_get_text(layout);
-	int utf8Offset = (int)OS.g_utf16_offset_to_utf8_offset (ptr, translateOffset(offset));
-	int utf8Length = (int)OS.g_utf8_strlen(ptr, -1);
+	int utf8Offset = offsetIndex.utf16ToPoint(translateOffset(offset));
+	int utf8Length = offsetIndex.pointLength();
 	utf8Offset += step;
 	PangoLogAttr logAttr = new PangoLogAttr();
 	while (0 <= utf8Offset && utf8Offset <= utf8Length) {
@@ -1404,7 +1390,7 @@ int _getOffset (int offset, int movement, boolean forward) {
 			if (utf8Offset == 0) limit = true;
 		}
 		if (found || limit) {
-			int testOffset = (int)OS.g_utf8_offset_to_utf16_offset (ptr, utf8Offset);
+			int testOffset = offsetIndex.pointToUtf16(utf8Offset);
 			if (found && invalidOffsets != null) {
 				for (int i = 0; i < invalidOffsets.length; i++) {
 					if (testOffset == invalidOffsets[i]) {
@@ -1520,12 +1506,11 @@ int getOffsetInPixels(int x, int y, int[] trailing) {
 	int[] index = new int[1];
 	int[] piTrailing = new int[1];
 	OS.pango_layout_xy_to_index(layout, x * OS.PANGO_SCALE, y * OS.PANGO_SCALE, index, piTrailing);
-	long ptr = OS.pango_layout_get_text(layout);
-	int offset = (int)OS.g_utf16_pointer_to_offset(ptr, ptr + index[0]);
+	int offset = offsetIndex.byteToUtf16(index[0]);
 	if (trailing != null) {
 		trailing[0] = piTrailing[0];
 		if (piTrailing[0] != 0) {
-			trailing[0] = (int)OS.g_utf8_offset_to_utf16_offset(ptr, OS.g_utf8_pointer_to_offset(ptr, ptr + index[0]) + piTrailing[0]) - offset;
+			trailing[0] = offsetIndex.pointToUtf16(offsetIndex.byteToPoint(index[0]) + piTrailing[0]) - offset;
 		}
 	}
 	return untranslateOffset(offset);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -149,10 +149,7 @@ public static char [] mbcsToWcs (byte [] buffer) {
  * @return byte array that can be passed to a native function.
  */
 public static byte [] wcsToMbcs (String string, boolean terminate) {
-	int length = string.length ();
-	char [] buffer = new char [length];
-	string.getChars (0, length, buffer, 0);
-	return wcsToMbcs (buffer, terminate);
+	return wcsToMbcs (string, utf8Extent (string, 0, string.length ()), terminate);
 }
 
 /**
@@ -201,21 +198,161 @@ public static String cCharPtrToJavaString(long cCharPtr, boolean freecCharPtr) {
  * @return byte array that can be passed to a native function.
  */
 public static byte [] wcsToMbcs (char [] chars, boolean terminate) {
-	long [] items_read = new long [1], items_written = new long [1];
-	/*
-	* Note that g_utf16_to_utf8()  stops converting
-	* when it finds the first NULL.
-	*/
-	long ptr = OS.g_utf16_to_utf8 (chars, chars.length, items_read, items_written, null);
-	if (ptr == 0) return terminate ? NullByteArray : EmptyByteArray;
-	int written = (int)items_written [0];
-	byte [] bytes = new byte [written + (terminate ? 1 : 0)];
-	C.memmove (bytes, ptr, written);
-	OS.g_free (ptr);
+	return wcsToMbcs (chars, terminate, null);
+}
+
+/**
+ * Convert a Java UTF-16 Wide character array into a C UTF-8 Multibyte byte array
+ * and record the mapping between UTF-16 and UTF-8 offsets of the converted text.
+ *
+ * The index covers exactly the characters that were converted, i.e. it ends at the
+ * first NULL character and is empty when the conversion fails.
+ *
+ * @param chars - a regular Java String
+ * @param terminate - if <code>true</code> the byte buffer should be terminated with a null character.
+ * @param index - the offset index to rebuild, or <code>null</code>
+ * @return byte array that can be passed to a native function.
+ */
+public static byte [] wcsToMbcs (char [] chars, boolean terminate, Utf8OffsetIndex index) {
+	CharBuffer buffer = CharBuffer.wrap (chars);
+	int end = utf8Extent (buffer, 0, chars.length);
+	if (index != null) index.reset (chars, Math.max (end, 0));
+	return wcsToMbcs (buffer, end, terminate);
+}
+
+static byte [] wcsToMbcs (CharSequence chars, int end, boolean terminate) {
+	if (end == -1) end = 0;
+	byte [] bytes = new byte [utf8Length (chars, 0, end) + (terminate ? 1 : 0)];
+	encodeUtf8 (chars, 0, end, bytes, 0);
 	return bytes;
 }
 
+/**
+ * Convert the characters <code>start</code> to <code>end</code> of a Java UTF-16 string
+ * into C UTF-8 multibyte characters, writing them into the given buffer without any
+ * intermediate copies or native calls.
+ * <p>
+ * Like {@link #wcsToMbcs(String, boolean)} the conversion stops at the first NULL
+ * character and converts nothing when the range contains an unpaired surrogate.
+ * The buffer must have room for <code>3 * (end - start)</code> bytes after
+ * <code>offset</code>, see {@link #maxUtf8Length(int)}. No terminating null is written.
+ * </p>
+ *
+ * @param string - the characters to convert
+ * @param start - the index of the first character to convert
+ * @param end - the index after the last character to convert
+ * @param buffer - the buffer receiving the UTF-8 bytes
+ * @param offset - the index in the buffer of the first byte to write
+ * @return the number of bytes written
+ */
+public static int wcsToMbcs (CharSequence string, int start, int end, byte [] buffer, int offset) {
+	end = utf8Extent (string, start, end);
+	if (end == -1) return 0;
+	return encodeUtf8 (string, start, end, buffer, offset) - offset;
+}
 
+/**
+ * Convert Java UTF-16 strings into one C UTF-8 Multibyte byte array holding
+ * the strings one after the other, each terminated with a null character.
+ * Each string is converted like {@link #wcsToMbcs(String, boolean)}.
+ *
+ * @param strings - regular Java Strings
+ * @return byte array that can be passed to a native function.
+ */
+public static byte [] wcsToMbcs (String [] strings) {
+	int [] ends = new int [strings.length];
+	int length = 0;
+	for (int i = 0; i < strings.length; i++) {
+		ends [i] = utf8Extent (strings [i], 0, strings [i].length ());
+		length += (ends [i] == -1 ? 0 : utf8Length (strings [i], 0, ends [i])) + 1;
+	}
+	byte [] bytes = new byte [length];
+	int offset = 0;
+	for (int i = 0; i < strings.length; i++) {
+		if (ends [i] != -1) offset = encodeUtf8 (strings [i], 0, ends [i], bytes, offset);
+		offset++;
+	}
+	return bytes;
+}
+
+/**
+ * Returns the size of a buffer that can hold the UTF-8 encoding of any
+ * <code>length</code> UTF-16 characters.
+ *
+ * @param length - the number of UTF-16 characters
+ * @return the maximum number of UTF-8 bytes
+ */
+public static int maxUtf8Length (int length) {
+	return length * 3;
+}
+
+/*
+* Returns the end of the range that g_utf16_to_utf8() would convert: the first
+* NULL character or a trailing high surrogate stop the conversion, and an
+* unpaired surrogate makes it fail (-1).
+*/
+static int utf8Extent (CharSequence chars, int start, int end) {
+	for (int i = start; i < end; i++) {
+		char c = chars.charAt (i);
+		if (c == 0) return i;
+		if (Character.isSurrogate (c)) {
+			if (Character.isHighSurrogate (c)) {
+				if (i + 1 == end) return i;
+				char next = chars.charAt (i + 1);
+				if (next == 0) return i;
+				if (Character.isLowSurrogate (next)) {
+					i++;
+					continue;
+				}
+			}
+			return -1;
+		}
+	}
+	return end;
+}
+
+static int utf8Length (CharSequence chars, int start, int end) {
+	int length = end - start;
+	for (int i = start; i < end; i++) {
+		char c = chars.charAt (i);
+		if (c >= 0x80) {
+			if (c < 0x800) {
+				length++;
+			} else if (Character.isHighSurrogate (c)) {
+				/* 4 bytes for the pair, which already counts 2 */
+				length += 2;
+				i++;
+			} else {
+				length += 2;
+			}
+		}
+	}
+	return length;
+}
+
+/* The range must have been validated by utf8Extent() */
+static int encodeUtf8 (CharSequence chars, int start, int end, byte [] buffer, int offset) {
+	for (int i = start; i < end; i++) {
+		char c = chars.charAt (i);
+		if (c < 0x80) {
+			buffer [offset++] = (byte) c;
+		} else if (c < 0x800) {
+			buffer [offset++] = (byte) (0xC0 | (c >> 6));
+			buffer [offset++] = (byte) (0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate (c)) {
+			int codePoint = Character.toCodePoint (c, chars.charAt (++i));
+			buffer [offset++] = (byte) (0xF0 | (codePoint >> 18));
+			buffer [offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+			buffer [offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+			buffer [offset++] = (byte) (0x80 | (codePoint & 0x3F));
+		} else {
+			buffer [offset++] = (byte) (0xE0 | (c >> 12));
+			buffer [offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buffer [offset++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+	return offset;
+}
 
 /**
  * Convert a Java UTF-16 Wide character into a single C UTF-8 Multibyte character
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -65,6 +65,16 @@ public static long convertSurface(Image image) {
 }
 
 public static long createPixbuf(long surface) {
+	return createPixbuf(surface, true);
+}
+
+/**
+ * Creates a pixbuf with the contents of an image surface.
+ *
+ * @param surface the image surface
+ * @param scale whether to scale the pixbuf down by the device scale of the surface
+ */
+public static long createPixbuf(long surface, boolean scale) {
 	int format = Cairo.cairo_image_surface_get_format(surface);
 	int width = Cairo.cairo_image_surface_get_width(surface);
 	int height = Cairo.cairo_image_surface_get_height(surface);
@@ -120,7 +130,7 @@ public static long createPixbuf(long surface) {
 	 *
 	 * We have to do this as surface has inherent auto scaling capability but pixbuf doesnot
 	 */
-	if (DPIUtil.useCairoAutoScale()) {
+	if (scale && DPIUtil.useCairoAutoScale()) {
 		double sx[] = new double[1];
 		double sy[] = new double[1];
 		Cairo.cairo_surface_get_device_scale(surface, sx, sy);
@@ -134,56 +144,10 @@ public static long createPixbuf(long surface) {
 }
 
 public static long createPixbuf(Image image) {
+	long pixbuf = image.internal_gtk_getPixbuf(false);
+	if (pixbuf != 0) return pixbuf;
 	long surface = convertSurface(image);
-	int format = Cairo.cairo_image_surface_get_format(surface);
-	int width = Cairo.cairo_image_surface_get_width(surface);
-	int height = Cairo.cairo_image_surface_get_height(surface);
-	boolean hasAlpha = format == Cairo.CAIRO_FORMAT_ARGB32;
-	long pixbuf = GDK.gdk_pixbuf_new (GDK.GDK_COLORSPACE_RGB, hasAlpha, 8, width, height);
-	if (pixbuf == 0) SWT.error (SWT.ERROR_NO_HANDLES);
-	int stride = GDK.gdk_pixbuf_get_rowstride (pixbuf);
-	long pixels = GDK.gdk_pixbuf_get_pixels (pixbuf);
-	int oa, or, og, ob;
-	if (OS.BIG_ENDIAN) {
-		oa = 0; or = 1; og = 2; ob = 3;
-	} else {
-		oa = 3; or = 2; og = 1; ob = 0;
-	}
-	byte[] line = new byte[stride];
-	long surfaceData = Cairo.cairo_image_surface_get_data(surface);
-	if (hasAlpha) {
-		for (int y = 0; y < height; y++) {
-			C.memmove (line, surfaceData + (y * stride), stride);
-			for (int x = 0, offset = 0; x < width; x++, offset += 4) {
-				int a = line[offset + oa] & 0xFF;
-				int r = line[offset + or] & 0xFF;
-				int g = line[offset + og] & 0xFF;
-				int b = line[offset + ob] & 0xFF;
-				line[offset + 3] = (byte)a;
-				if (a != 0) {
-					line[offset + 0] = (byte)(((r * 0xFF) + a / 2) / a);
-					line[offset + 1] = (byte)(((g * 0xFF) + a / 2) / a);
-					line[offset + 2] = (byte)(((b * 0xFF) + a / 2) / a);
-				}
-			}
-			C.memmove (pixels + (y * stride), line, stride);
-		}
-	} else {
-		int cairoStride = Cairo.cairo_image_surface_get_stride(surface);
-		byte[] cairoLine = new byte[cairoStride];
-		for (int y = 0; y < height; y++) {
-			C.memmove (cairoLine, surfaceData + (y * cairoStride), cairoStride);
-			for (int x = 0, offset = 0, cairoOffset = 0; x < width; x++, offset += 3, cairoOffset += 4) {
-				byte r = cairoLine[cairoOffset + or];
-				byte g = cairoLine[cairoOffset + og];
-				byte b = cairoLine[cairoOffset + ob];
-				line[offset + 0] = r;
-				line[offset + 1] = g;
-				line[offset + 2] = b;
-			}
-			C.memmove (pixels + (y * stride), line, stride);
-		}
-	}
+	pixbuf = createPixbuf(surface, false);
 	Cairo.cairo_surface_destroy(surface);
 	return pixbuf;
 }
@@ -228,6 +192,21 @@ public Image get(int index) {
 	return images[index];
 }
 
+/**
+ * Returns a new reference to a pixbuf with the contents of the surface at
+ * the index, which is shared with other widgets showing the same image
+ * when possible.
+ */
+public long getPixbuf(int index) {
+	Image image = images[index];
+	long surface = surfaces[index];
+	if (image != null && !image.isDisposed() && surface == image.surface) {
+		long pixbuf = image.internal_gtk_getPixbuf(true);
+		if (pixbuf != 0) return pixbuf;
+	}
+	return createPixbuf(surface);
+}
+
 public long getSurface(int index) {
 	return surfaces[index];
 }
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * Maps offsets between a Java UTF-16 string and the UTF-8 bytes it was
+ * encoded to by {@link Converter#wcsToMbcs(char[], boolean, Utf8OffsetIndex)}.
+ * <p>
+ * The native helpers <code>g_utf16_offset_to_pointer</code>,
+ * <code>g_utf16_pointer_to_offset</code>, <code>g_utf16_offset_to_utf8_offset</code>
+ * and <code>g_utf8_offset_to_utf16_offset</code> scan the UTF-8 string from its
+ * start on every call. This index records a checkpoint every {@link #STEP} UTF-16
+ * units so that each translation only scans a bounded run of characters in Java.
+ * </p><p>
+ * The results are identical to the native helpers: offsets past the end of the
+ * text are clamped to the end, a UTF-16 offset in the middle of a surrogate pair
+ * maps to the end of the pair and a byte offset in the middle of a UTF-8 sequence
+ * maps to the end of the character.
+ * </p>
+ */
+public final class Utf8OffsetIndex {
+	static final int SHIFT = 6;
+	static final int STEP = 1 << SHIFT;
+
+	char [] chars = Converter.EmptyCharArray;
+	int length, byteLength, pointLength;
+	boolean ascii = true;
+	/*
+	* Checkpoint k is the first character boundary at or after UTF-16 offset
+	* k * STEP. It is stored as its UTF-16 offset, UTF-8 byte offset and
+	* code point offset.
+	*/
+	int [] units, bytes, points;
+
+/**
+ * Rebuilds the index for the first <code>length</code> characters of
+ * <code>chars</code>. The array is referenced, not copied, and must not be
+ * modified while the index is in use.
+ *
+ * @param chars the UTF-16 characters that were encoded
+ * @param length the number of UTF-16 units that were encoded
+ */
+public void reset (char [] chars, int length) {
+	this.chars = chars;
+	this.length = length;
+	int count = (length >> SHIFT) + 1;
+	if (units == null || units.length < count) {
+		units = new int [count];
+		bytes = new int [count];
+		points = new int [count];
+	}
+	int u = 0, b = 0, p = 0, k = 0;
+	while (u < length) {
+		while (k <= (u >> SHIFT)) {
+			units [k] = u;
+			bytes [k] = b;
+			points [k] = p;
+			k++;
+		}
+		char c = chars [u];
+		if (c < 0x80) {
+			b++;
+			u++;
+		} else if (c < 0x800) {
+			b += 2;
+			u++;
+		} else if (isPair (u)) {
+			b += 4;
+			u += 2;
+		} else {
+			b += 3;
+			u++;
+		}
+		p++;
+	}
+	/* Remaining checkpoints (end of text or skipped by a trailing pair) point at the end */
+	while (k < count) {
+		units [k] = u;
+		bytes [k] = b;
+		points [k] = p;
+		k++;
+	}
+	byteLength = b;
+	pointLength = p;
+	ascii = b == length;
+}
+
+boolean isPair (int u) {
+	return Character.isHighSurrogate (chars [u]) && u + 1 < length && Character.isLowSurrogate (chars [u + 1]);
+}
+
+int utf8Length (char c) {
+	if (c < 0x80) return 1;
+	if (c < 0x800) return 2;
+	return 3;
+}
+
+/**
+ * Returns the number of UTF-16 units in the indexed text.
+ * Equivalent to <code>g_utf16_strlen (ptr, -1)</code>.
+ */
+public int length () {
+	return length;
+}
+
+/**
+ * Returns the number of UTF-8 bytes of the indexed text.
+ * Equivalent to <code>strlen (ptr)</code>.
+ */
+public int byteLength () {
+	return byteLength;
+}
+
+/**
+ * Returns the number of code points of the indexed text.
+ * Equivalent to <code>g_utf8_strlen (ptr, -1)</code>.
+ */
+public int pointLength () {
+	return pointLength;
+}
+
+int checkpointForUnit (int offset) {
+	int k = offset >> SHIFT;
+	/* Checkpoint k may have been pushed past offset by a surrogate pair */
+	if (units [k] > offset) k--;
+	return k;
+}
+
+static int search (int [] values, int count, int value) {
+	int low = 0, high = count - 1;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (values [mid] <= value) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	return low;
+}
+
+/**
+ * Converts a UTF-16 offset into a UTF-8 byte offset.
+ * Equivalent to <code>g_utf16_offset_to_pointer (ptr, offset) - ptr</code>.
+ */
+public int utf16ToByte (int offset) {
+	if (offset <= 0) return 0;
+	if (offset >= length) return byteLength;
+	if (ascii) return offset;
+	int k = checkpointForUnit (offset);
+	int u = units [k], b = bytes [k];
+	while (u < offset) {
+		if (isPair (u)) {
+			b += 4;
+			u += 2;
+		} else {
+			b += utf8Length (chars [u]);
+			u++;
+		}
+	}
+	return b;
+}
+
+/**
+ * Converts a UTF-8 byte offset into a UTF-16 offset.
+ * Equivalent to <code>g_utf16_pointer_to_offset (ptr, ptr + byteOffset)</code>.
+ */
+public int byteToUtf16 (int byteOffset) {
+	if (byteOffset <= 0) return 0;
+	if (byteOffset >= byteLength) return length;
+	if (ascii) return byteOffset;
+	int k = search (bytes, (length >> SHIFT) + 1, byteOffset);
+	int u = units [k], b = bytes [k];
+	while (b < byteOffset) {
+		if (isPair (u)) {
+			b += 4;
+			u += 2;
+		} else {
+			b += utf8Length (chars [u]);
+			u++;
+		}
+	}
+	return u;
+}
+
+/**
+ * Converts a UTF-16 offset into a code point (UTF-8 character) offset.
+ * Equivalent to <code>g_utf16_offset_to_utf8_offset (ptr, offset)</code>.
+ */
+public int utf16ToPoint (int offset) {
+	if (offset <= 0) return 0;
+	if (offset >= length) return pointLength;
+	if (ascii) return offset;
+	int k = checkpointForUnit (offset);
+	int u = units [k], p = points [k];
+	while (u < offset) {
+		u += isPair (u) ? 2 : 1;
+		p++;
+	}
+	return p;
+}
+
+/**
+ * Converts a code point (UTF-8 character) offset into a UTF-16 offset.
+ * Equivalent to <code>g_utf8_offset_to_utf16_offset (ptr, pointOffset)</code>.
+ */
+public int pointToUtf16 (int pointOffset) {
+	if (pointOffset <= 0) return 0;
+	if (pointOffset >= pointLength) return length;
+	if (ascii) return pointOffset;
+	int k = search (points, (length >> SHIFT) + 1, pointOffset);
+	int u = units [k], p = points [k];
+	while (p < pointOffset) {
+		u += isPair (u) ? 2 : 1;
+		p++;
+	}
+	return u;
+}
+
+/**
+ * Converts a UTF-8 byte offset into a code point (UTF-8 character) offset.
+ * Equivalent to <code>g_utf8_pointer_to_offset (ptr, ptr + byteOffset)</code>
+ * for offsets inside the text.
+ */
+public int byteToPoint (int byteOffset) {
+	return utf16ToPoint (byteToUtf16 (byteOffset));
+}
+}
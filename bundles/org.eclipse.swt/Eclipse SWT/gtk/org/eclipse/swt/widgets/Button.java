@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -296,6 +296,11 @@ Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
 	return size;
 }
 
+@Override
+boolean isSizeCached () {
+	return true;
+}
+
 @Override
 void createHandle (int index) {
 	state |= HANDLE;
@@ -652,6 +657,7 @@ long gtk_focus_in_event (long widget, long event) {
 	if (handle == 0) return 0;
 	if ((style & SWT.PUSH) != 0 && GTK.gtk_widget_has_default (handle)) {
 		Decorations menuShell = menuShell ();
+		if (menuShell.defaultButton != this) flushSizeCache ();
 		menuShell.defaultButton = this;
 	}
 	return result;
@@ -666,6 +672,7 @@ long gtk_focus_out_event (long widget, long event) {
 		Decorations menuShell = menuShell ();
 		if (menuShell.defaultButton == this) {
 			menuShell.defaultButton = null;
+			flushSizeCache ();
 		}
 	}
 	return result;
@@ -1151,6 +1158,7 @@ public void setImage(Image image) {
 		return;
 	}
 	this.image = image;
+	flushSizeCache ();
 	_setImage(image);
 }
 
@@ -1287,6 +1295,7 @@ public void setText (String string) {
 	if (string == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if ((style & SWT.ARROW) != 0) return;
 	text = string;
+	flushSizeCache ();
 	char [] chars = fixMnemonic (string);
 	byte [] buffer = Converter.wcsToMbcs (chars, true);
 	GTK.gtk_label_set_text_with_mnemonic (labelHandle, buffer);
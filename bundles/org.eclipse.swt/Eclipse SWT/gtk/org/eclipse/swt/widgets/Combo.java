@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -2424,17 +2424,50 @@ public void setItems (String... items) {
 	for (int i=0; i<items.length; i++) {
 		if (items [i] == null) error (SWT.ERROR_INVALID_ARGUMENT);
 	}
+	String [] oldItems = this.items;
 	this.items = new String [items.length];
 	System.arraycopy (items, 0, this.items, 0, items.length);
 	clearText ();
 
-	gtk_combo_box_text_remove_all();
-	for (int i = 0; i < items.length; i++) {
-		String string = items [i];
-		gtk_combo_box_insert(string, i);
-		if ((style & SWT.RIGHT_TO_LEFT) != 0 && popupHandle != 0) {
-			GTK3.gtk_container_forall (popupHandle, display.setDirectionProc, GTK.GTK_TEXT_DIR_RTL);
+	/*
+	* Only replace the rows between the first and the last item that
+	* changed when they are few.  Otherwise, fill a new model with all
+	* items in a single native call and swap it in.
+	*/
+	int start = 0, oldEnd = oldItems.length, newEnd = items.length;
+	while (start < oldEnd && start < newEnd && oldItems [start].equals (items [start])) start++;
+	while (oldEnd > start && newEnd > start && oldItems [oldEnd - 1].equals (items [newEnd - 1])) {
+		oldEnd--;
+		newEnd--;
+	}
+	if ((oldEnd - start) + (newEnd - start) < items.length / 2) {
+		gtk_combo_box_toggle_wrap(false);
+		for (int i = oldEnd - 1; i >= start; i--) {
+			GTK.gtk_combo_box_text_remove (handle, i);
 		}
+		gtk_combo_box_toggle_wrap(true);
+		for (int i = start; i < newEnd; i++) {
+			gtk_combo_box_insert(items [i], i);
+		}
+	} else {
+		/*
+		* Columns of GtkComboBoxText:
+		* 0 - text
+		* 1 - id
+		*/
+		long [] types = new long [] {OS.G_TYPE_STRING (), OS.G_TYPE_STRING ()};
+		long modelHandle = GTK.gtk_list_store_newv (types.length, types);
+		if (modelHandle == 0) error (SWT.ERROR_ITEM_NOT_ADDED);
+		OS.swt_list_store_append_strings (modelHandle, 0, Converter.wcsToMbcs (items), items.length);
+		gtk_combo_box_toggle_wrap(false);
+		OS.g_signal_handlers_block_matched (handle, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, CHANGED);
+		GTK.gtk_combo_box_set_model (handle, modelHandle);
+		OS.g_signal_handlers_unblock_matched (handle, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, CHANGED);
+		gtk_combo_box_toggle_wrap(true);
+		OS.g_object_unref (modelHandle);
+	}
+	if ((style & SWT.RIGHT_TO_LEFT) != 0 && popupHandle != 0) {
+		GTK3.gtk_container_forall (popupHandle, display.setDirectionProc, GTK.GTK_TEXT_DIR_RTL);
 	}
 }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,13 @@ public class Composite extends Scrollable {
 	Layout layout;
 	Control[] tabList;
 	int layoutCount, backgroundMode;
+	/*
+	* The number of children whose size was computed and of children that
+	* were moved or resized by the running layout of the receiver, reported
+	* to the instrumentation of the display.
+	*/
+	int layoutComputed, layoutMoved;
+	boolean layoutRunning;
 	/**
 	 * When this field is set, it indicates that a child widget of this Composite
 	 * needs to have its clip set to its allocation. This is because on GTK3.20+
@@ -1874,7 +1881,14 @@ void updateLayout (boolean all) {
 		boolean changed = (state & LAYOUT_CHANGED) != 0;
 		state &= ~(LAYOUT_NEEDED | LAYOUT_CHANGED);
 		display.runSkin();
+		boolean running = layoutRunning;
+		if (!running) layoutComputed = layoutMoved = 0;
+		layoutRunning = true;
+		Instrumentation instrumentation = display.instrumentation;
+		long start = instrumentation != null ? System.nanoTime () : 0;
 		layout.layout (this, changed);
+		if (instrumentation != null) instrumentation.layout (this, layoutComputed, layoutMoved, System.nanoTime () - start);
+		layoutRunning = running;
 	}
 	if (all) {
 		state &= ~LAYOUT_CHILD;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -76,6 +76,7 @@ public abstract class Control extends Widget implements Drawable {
 	long regionHandle;
 	String toolTipText;
 	Object layoutData;
+	SizeCache sizeCache;
 	Accessible accessible;
 	Control labelRelation;
 	String cssBackground, cssForeground = " ";
@@ -834,7 +835,43 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	if (hHint != SWT.DEFAULT && hHint < 0) hHint = 0;
 	wHint = DPIUtil.autoScaleUp(wHint);
 	hHint = DPIUtil.autoScaleUp(hHint);
-	return DPIUtil.autoScaleDown (computeSizeInPixels (wHint, hHint, changed));
+	if (parent != null && parent.layoutRunning) parent.layoutComputed++;
+	Instrumentation instrumentation = display.instrumentation;
+	if (instrumentation == null) return DPIUtil.autoScaleDown (computeCachedSizeInPixels (wHint, hHint, changed));
+	long start = System.nanoTime ();
+	Point size = computeCachedSizeInPixels (wHint, hHint, changed);
+	instrumentation.computeSize (this, DPIUtil.autoScaleDown (wHint), DPIUtil.autoScaleDown (hHint), System.nanoTime () - start);
+	return DPIUtil.autoScaleDown (size);
+}
+
+/*
+* Answers the size of the receiver from its size cache, computing it when
+* it is not cached. Only controls whose size changes with nothing but their
+* text, image, font or orientation cache their sizes.
+*/
+Point computeCachedSizeInPixels (int wHint, int hHint, boolean changed) {
+	if (!isSizeCached ()) return computeSizeInPixels (wHint, hHint, changed);
+	int zoom = DPIUtil.getDeviceZoom ();
+	if (changed || sizeCache == null || !sizeCache.isValid (zoom, display.settingsGeneration)) {
+		sizeCache = new SizeCache (zoom, display.settingsGeneration);
+	}
+	Point size = sizeCache.get (wHint, hHint);
+	if (size == null) {
+		display.sizeCacheMisses++;
+		size = computeSizeInPixels (wHint, hHint, changed);
+		sizeCache.put (wHint, hHint, size);
+	} else {
+		display.sizeCacheHits++;
+	}
+	return size;
+}
+
+void flushSizeCache () {
+	sizeCache = null;
+}
+
+boolean isSizeCached () {
+	return false;
 }
 
 Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
@@ -1211,6 +1248,7 @@ int setBounds (int x, int y, int width, int height, boolean move, boolean resize
 		sendEvent (SWT.Resize);
 		result |= RESIZED;
 	}
+	if (result != 0 && parent != null && parent.layoutRunning) parent.layoutMoved++;
 	return result;
 }
 
@@ -3355,6 +3393,17 @@ Shell _getShell() {
 	return parent._getShell();
 }
 
+/*
+* Invalidates the rectangle of the window when the event loop flushes the
+* redraws of the shell, so that bursts of redraws cost one invalidation.
+*/
+void invalidateRect (long window, GdkRectangle rect, boolean all) {
+	Shell shell = _getShell ();
+	if (shell.damage == null) shell.damage = new Damage (display);
+	if (!shell.damage.queued) display.addDamage (shell);
+	shell.damage.add (window, rect.x, rect.y, rect.width, rect.height, all);
+}
+
 /**
  * Returns the receiver's tool tip text, or null if it has
  * not been set.
@@ -4652,6 +4701,7 @@ void register () {
  * @since 3.105
  */
 public void requestLayout () {
+	flushSizeCache ();
 	getShell ().layout (new Control[] {this}, SWT.DEFER);
 }
 
@@ -4777,7 +4827,7 @@ void redrawWidget (int x, int y, int width, int height, boolean redrawAll, boole
 			rect.width = Math.max (0, width);
 			rect.height = Math.max (0, height);
 		}
-		GDK.gdk_window_invalidate_rect (window, rect, all);
+		invalidateRect (window, rect, all);
 	}
 }
 
@@ -5556,6 +5606,7 @@ public void setFont (Font font) {
 	} else {
 		state |= FONT;
 	}
+	flushSizeCache ();
 	setFontDescription (fontDesc);
 }
 
@@ -5854,6 +5905,7 @@ public void setOrientation (int orientation) {
 	if ((orientation & flags) == 0 || (orientation & flags) == flags) return;
 	style &= ~flags;
 	style |= orientation & flags;
+	flushSizeCache ();
 	setOrientation (false);
 	style &= ~SWT.MIRRORED;
 	checkMirrored ();
@@ -6829,6 +6881,7 @@ void update (boolean all, boolean flush) {
 	if (!GTK.gtk_widget_get_visible (topHandle ())) return;
 	if (!GTK.gtk_widget_get_realized (handle)) return;
 	long window = paintWindow ();
+	display.flushDamage ();
 	if (flush) display.flushExposes (window, all);
 }
 
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import org.eclipse.swt.internal.gtk.*;
+
+/**
+ * Collects the rectangles that the controls of a shell ask to redraw and
+ * invalidates them in GDK together, once per iteration of the event loop.
+ * <p>
+ * A rectangle is merged into a pending rectangle of the same window when
+ * their bounding box is at most twice as large as the two rectangles
+ * together, so that a burst of small redraws of neighbouring areas becomes
+ * one invalidation. At most <code>SIZE</code> rectangles are kept; when
+ * they are all in use, a new rectangle is merged into the pending
+ * rectangle of its window that grows least, or the pending rectangles are
+ * invalidated if none belongs to its window.
+ * </p><p>
+ * Pending windows are referenced, so that invalidating the window of a
+ * control disposed before the flush is harmless.
+ * </p>
+ */
+final class Damage {
+
+	static final int SIZE = 8;
+
+	/* The window, whether to invalidate its children, and the x, y, width and height of each rectangle */
+	final Display display;
+	final long [] windows = new long [SIZE];
+	final boolean [] children = new boolean [SIZE];
+	final int [] rects = new int [SIZE * 4];
+	int count;
+	boolean queued;
+
+Damage (Display display) {
+	this.display = display;
+}
+
+static long area (long width, long height) {
+	return width * height;
+}
+
+void add (long window, int x, int y, int width, int height, boolean all) {
+	display.damageRequested++;
+	if (width <= 0 || height <= 0) return;
+	int best = -1;
+	long bestGrowth = Long.MAX_VALUE;
+	for (int i = 0; i < count; i++) {
+		if (windows [i] != window || children [i] != all) continue;
+		int index = i * 4;
+		int left = Math.min (x, rects [index]);
+		int top = Math.min (y, rects [index + 1]);
+		int right = Math.max (x + width, rects [index] + rects [index + 2]);
+		int bottom = Math.max (y + height, rects [index + 1] + rects [index + 3]);
+		long union = area (right - left, bottom - top);
+		long growth = union - area (rects [index + 2], rects [index + 3]);
+		if (growth == 0) return;
+		if (growth < bestGrowth) {
+			best = i;
+			bestGrowth = growth;
+		}
+	}
+	if (best != -1) {
+		int index = best * 4;
+		long pending = area (rects [index + 2], rects [index + 3]);
+		if (count == SIZE || pending + bestGrowth <= 2 * (pending + area (width, height))) {
+			int left = Math.min (x, rects [index]);
+			int top = Math.min (y, rects [index + 1]);
+			rects [index + 2] = Math.max (x + width, rects [index] + rects [index + 2]) - left;
+			rects [index + 3] = Math.max (y + height, rects [index + 1] + rects [index + 3]) - top;
+			rects [index] = left;
+			rects [index + 1] = top;
+			return;
+		}
+	}
+	if (count == SIZE) flush ();
+	OS.g_object_ref (window);
+	windows [count] = window;
+	children [count] = all;
+	int index = count * 4;
+	rects [index] = x;
+	rects [index + 1] = y;
+	rects [index + 2] = width;
+	rects [index + 3] = height;
+	count++;
+}
+
+void flush () {
+	if (count == 0) return;
+	GdkRectangle rect = new GdkRectangle ();
+	for (int i = 0; i < count; i++) {
+		int index = i * 4;
+		rect.x = rects [index];
+		rect.y = rects [index + 1];
+		rect.width = rects [index + 2];
+		rect.height = rects [index + 3];
+		GDK.gdk_window_invalidate_rect (windows [i], rect, children [i]);
+		OS.g_object_unref (windows [i]);
+		windows [i] = 0;
+	}
+	display.damageFlushed += count;
+	count = 0;
+}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -580,6 +580,8 @@ public void setDefaultButton (Button button) {
 			long context = GTK.gtk_widget_get_style_context (saveButtonHandle);
 			GTK.gtk_style_context_remove_class(context, GTK.GTK_STYLE_CLASS_SUGGESTED_ACTION);
 		}
+		/* The default border and the style class change the size of the button */
+		saveDefault.flushSizeCache ();
 	}
 	if (button != null) {
 		if (button.isDisposed ()) error (SWT.ERROR_INVALID_ARGUMENT);
@@ -590,6 +592,7 @@ public void setDefaultButton (Button button) {
 	if (buttonHandle != 0) {
 		long context = GTK.gtk_widget_get_style_context (buttonHandle);
 		GTK.gtk_style_context_add_class(context, GTK.GTK_STYLE_CLASS_SUGGESTED_ACTION);
+		button.flushSizeCache ();
 	}
 
 	if (GTK.GTK4) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -162,7 +162,9 @@ public class Display extends Device implements Executor {
 	long lastHandle;
 	Widget lastWidget;
 	Widget [] widgetTable;
+	HandleTable handleTable;
 	final static int GROW_SIZE = 1024;
+	/* Only set when strictChecks is enabled, to detect stale entries in the handle table */
 	static final int SWT_OBJECT_INDEX;
 	static final int SWT_OBJECT_INDEX1;
 	static final int SWT_OBJECT_INDEX2;
@@ -196,6 +198,7 @@ public class Display extends Device implements Executor {
 
 	/* Sync/Async Widget Communication */
 	Synchronizer synchronizer = new Synchronizer (this);
+	Instrumentation instrumentation;
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
 	Thread thread;
@@ -236,6 +239,7 @@ public class Display extends Device implements Executor {
 	/* Timers */
 	int [] timerIds;
 	Runnable [] timerList;
+	long [] timerDeadlines;
 	Callback timerCallback;
 	long timerProc;
 	Callback windowTimerCallback;
@@ -274,6 +278,12 @@ public class Display extends Device implements Executor {
 	Object idleLock = new Object();
 	boolean idleNeeded;
 
+	/* Redraw */
+	Shell [] damagedShells = new Shell [4];
+	int damagedCount, damageHandle;
+	long damageProc;
+	Callback damageCallback;
+
 	/* GtkTreeView callbacks */
 	long cellDataProc;
 	Callback cellDataCallback;
@@ -298,8 +308,15 @@ public class Display extends Device implements Executor {
 	Callback signalCallback;
 	long shellHandle;
 	boolean settingsChanged, runSettings;
+	/* Incremented when the system settings change, which invalidates the size caches of controls */
+	int settingsGeneration;
 	static final int STYLE_UPDATED = 1;
 
+	/* Statistics, only updated by the user-interface thread */
+	int sizeCacheHits, sizeCacheMisses;
+	long damageRequested, damageFlushed;
+	static final String STATISTICS_KEY = "org.eclipse.swt.internal.gtk.statistics"; //$NON-NLS-1$
+
 	/* Entry focus behaviour */
 	boolean entrySelectOnFocus;
 
@@ -875,14 +892,14 @@ void addWidget (long handle, Widget widget) {
 		indexTable = newIndexTable;
 		widgetTable = newWidgetTable;
 	}
-	int index = freeSlot + 1;
 	if(strictChecks) {
-		long data = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX);
-		if(data > 0 && data != index) {
-			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Potential leak of " + widget + debugInfoForIndex(data - 1));
+		int data = handleTable.get (handle);
+		if(data >= 0 && data != freeSlot) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Potential leak of " + widget + debugInfoForIndex(data));
 		}
+		OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, freeSlot + 1);
 	}
-	OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, index);
+	handleTable.put (handle, freeSlot);
 	int oldSlot = freeSlot;
 	freeSlot = indexTable[oldSlot];
 	// Mark old index slot as used
@@ -893,6 +910,25 @@ void addWidget (long handle, Widget widget) {
 	widgetTable [oldSlot] = widget;
 }
 
+void addDamage (Shell shell) {
+	if (damagedCount == damagedShells.length) {
+		Shell [] newShells = new Shell [damagedCount + 4];
+		System.arraycopy (damagedShells, 0, newShells, 0, damagedCount);
+		damagedShells = newShells;
+	}
+	damagedShells [damagedCount++] = shell;
+	shell.damage.queued = true;
+	if (damageHandle == 0) {
+		/*
+		* Flush before GDK paints, which happens at a lower priority, so
+		* that redraws requested from an event loop that is not run by
+		* readAndDispatch(), such as the one of a native dialog, are not
+		* delayed.
+		*/
+		damageHandle = OS.g_idle_add_full (OS.G_PRIORITY_HIGH_IDLE, damageProc, 0, 0);
+	}
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next
@@ -1724,6 +1760,20 @@ static long rendererSnapshotProc (long cell, long snapshot, long handle, long ba
 	return 0;
 }
 
+void flushDamage () {
+	if (damageHandle != 0) {
+		OS.g_source_remove (damageHandle);
+		damageHandle = 0;
+	}
+	for (int i = 0; i < damagedCount; i++) {
+		Damage damage = damagedShells [i].damage;
+		damage.queued = false;
+		damage.flush ();
+		damagedShells [i] = null;
+	}
+	damagedCount = 0;
+}
+
 void flushExposes (long window, boolean all) {
 	if (OS.isX11()) {
 		this.flushWindow = window;
@@ -2074,6 +2124,9 @@ public Object getData (String key) {
 	if (key.equals (GET_EMISSION_PROC_KEY)) {
 		return new LONG (emissionProc);
 	}
+	if (key.equals (STATISTICS_KEY)) {
+		return getStatistics ();
+	}
 	if (keys == null) return null;
 	for (int i=0; i<keys.length; i++) {
 		if (keys [i].equals (key)) return values [i];
@@ -2081,6 +2134,19 @@ public Object getData (String key) {
 	return null;
 }
 
+/*
+ * Answers a snapshot of the counters of the caches and redraws of the receiver by name.
+ */
+Map<String, Long> getStatistics () {
+	Map<String, Long> statistics = new LinkedHashMap<> ();
+	statistics.put ("sizeCache.hits", (long) sizeCacheHits); //$NON-NLS-1$
+	statistics.put ("sizeCache.misses", (long) sizeCacheMisses); //$NON-NLS-1$
+	statistics.put ("damage.requested", damageRequested); //$NON-NLS-1$
+	statistics.put ("damage.flushed", damageFlushed); //$NON-NLS-1$
+	internal_gtk_getStatistics (statistics);
+	return statistics;
+}
+
 /**
  * Returns the application defined, display specific data
  * associated with the receiver, or null if it has not been
@@ -2401,6 +2467,26 @@ static boolean isValidClass (Class<?> clazz) {
 	return name.substring (0, index + 1).equals (PACKAGE_PREFIX);
 }
 
+/**
+ * Returns the instrumentation that is told how long the user-interface
+ * thread of the receiver spends on layouts, paints and runnables, or
+ * <code>null</code> if the receiver is not instrumented.
+ *
+ * @return the instrumentation of the receiver, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setInstrumentation(Instrumentation)
+ * @since 3.126
+ */
+public Instrumentation getInstrumentation () {
+	checkDevice ();
+	return instrumentation;
+}
+
 /**
  * Returns the single instance of the application menu bar, or
  * <code>null</code> if there is no application menu bar for the platform.
@@ -3444,14 +3530,21 @@ public boolean getTouchEnabled() {
 Widget getWidget (long handle) {
 	if (handle == 0) return null;
 	if (lastWidget != null && lastHandle == handle) return lastWidget;
-	long index = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
+	int index = handleTable.get (handle);
 	if (0 <= index && index < widgetTable.length) {
+		if (strictChecks) checkHandle (handle, index);
 		lastHandle = handle;
-		return lastWidget = widgetTable [(int)index];
+		return lastWidget = widgetTable [index];
 	}
 	return null;
 }
 
+long damageProc (long data) {
+	damageHandle = 0;
+	flushDamage ();
+	return 0;
+}
+
 long idleProc (long data) {
 	boolean result = runAsyncMessages (false);
 	if (!result) {
@@ -3741,6 +3834,9 @@ void initializeCallbacks () {
 
 	idleCallback = new Callback (this, "idleProc", 1); //$NON-NLS-1$
 	idleProc = idleCallback.getAddress ();
+
+	damageCallback = new Callback (this, "damageProc", 1); //$NON-NLS-1$
+	damageProc = damageCallback.getAddress ();
 }
 
 void initializeNamedColorList() {
@@ -3814,6 +3910,7 @@ void initializeSystemSettings () {
 void initializeWidgetTable () {
 	indexTable = new int [GROW_SIZE];
 	widgetTable = new Widget [GROW_SIZE];
+	handleTable = new HandleTable (GROW_SIZE);
 	for (int i=0; i<GROW_SIZE-1; i++) indexTable [i] = i + 1;
 	indexTable [GROW_SIZE - 1] = -1;
 }
@@ -4506,6 +4603,7 @@ public boolean readAndDispatch () {
 	boolean events = false;
 	events |= runSettings ();
 	events |= runPopups ();
+	flushDamage ();
 
 	if (GTK.GTK4) {
 		events |= OS.g_main_context_iteration (0, false);
@@ -4704,6 +4802,11 @@ void releaseDisplay () {
 	if (idleHandle != 0) OS.g_source_remove (idleHandle);
 	idleHandle = 0;
 
+	/* Dispose the redraw callback */
+	flushDamage ();
+	damageCallback.dispose (); damageCallback = null;
+	damageProc = 0;
+
 	/* Dispose GtkTreeView callbacks */
 	cellDataCallback.dispose (); cellDataCallback = null;
 	cellDataProc = 0;
@@ -4741,6 +4844,7 @@ void releaseDisplay () {
 	}
 	timerIds = null;
 	timerList = null;
+	timerDeadlines = null;
 	timerProc = 0;
 	timerCallback.dispose ();
 	timerCallback = null;
@@ -4843,6 +4947,7 @@ void releaseDisplay () {
 	flushData = closures = null;
 	indexTable = signalIds = null;
 	widgetTable = modalShells = null;
+	handleTable = null;
 	data = null;
 	values = keys = null;
 	eventTable = filterTable = null;
@@ -4976,18 +5081,19 @@ Widget removeWidget (long handle) {
 	if (handle == 0) return null;
 	lastWidget = null;
 	Widget widget = null;
-	int index;
-	long data = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
-	if(data < 0 || data > Integer.MAX_VALUE) {
-		SWT.error(SWT.ERROR_INVALID_RETURN_VALUE, null, ". g_object_get_qdata returned unexpected index value" +  debugInfoForIndex(data));
+	int index = handleTable.remove (handle);
+	if (index < 0) {
+		SWT.error(SWT.ERROR_INVALID_RETURN_VALUE, null, ". Handle table returned unexpected index value" + debugInfoForIndex(index));
+	}
+	if (strictChecks) {
+		checkHandle (handle, index);
+		OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, 0);
 	}
-	index = (int)data;
 	if (0 <= index && index < widgetTable.length) {
 		widget = widgetTable [index];
 		widgetTable [index] = null;
 		indexTable [index] = freeSlot;
 		freeSlot = index;
-		OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, 0);
 
 		if(widget == null) {
 			SWT.error(SWT.ERROR_INVALID_ARGUMENT, null, ". Widget already released" + debugInfoForIndex(index));
@@ -4998,6 +5104,19 @@ Widget removeWidget (long handle) {
 	return widget;
 }
 
+/*
+* The handle table keeps the entry of a handle until removeWidget() is
+* called. If the native object was freed without it, another object
+* allocated at the same address would find the stale entry. The index
+* qdata goes away with the freed object, so it must agree with the table.
+*/
+void checkHandle (long handle, int index) {
+	long data = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
+	if (data != index) {
+		SWT.error(SWT.ERROR_INVALID_RETURN_VALUE, null, ". Stale handle " + handle + ", object index: " + data + debugInfoForIndex(index));
+	}
+}
+
 String debugInfoForIndex(long index) {
 	String s = ", index: " + index;
 	int idx = (int) index;
@@ -5114,6 +5233,7 @@ boolean runPopups () {
 boolean runSettings () {
 	if (!runSettings) return false;
 	runSettings = false;
+	settingsGeneration++;
 	saveResources ();
 	initializeSystemColors ();
 	sendEvent (SWT.Settings, null);
@@ -5450,6 +5570,33 @@ void setModalShell (Shell shell) {
 	for (int i=0; i<shells.length; i++) shells [i].updateModal ();
 }
 
+/**
+ * Sets the instrumentation that is told how long the user-interface
+ * thread of the receiver spends laying out composites, computing the
+ * sizes of controls, painting widgets and running the runnables passed
+ * to <code>asyncExec</code>, <code>syncExec</code> and <code>timerExec</code>.
+ * The argument may be <code>null</code>, in which case nothing is measured.
+ * <p>
+ * Runnables already queued or scheduled when the instrumentation is set
+ * are not reported.
+ * </p>
+ *
+ * @param instrumentation the new instrumentation, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see Instrumentation
+ * @see Instrumentation#flightRecorder()
+ * @since 3.126
+ */
+public void setInstrumentation (Instrumentation instrumentation) {
+	checkDevice ();
+	this.instrumentation = instrumentation;
+}
+
 /**
  * Sets the synchronizer used by the display to be
  * the argument, which can not be null.
@@ -5604,6 +5751,7 @@ public boolean sleep () {
 		runSettings = true;
 		return false;
 	}
+	flushDamage ();
 	if (!synchronizer.isMessagesEmpty()) return true;
 	sendPreExternalEventDispatchEvent ();
 	if (!GTK.GTK4) GDK.gdk_threads_leave ();
@@ -5681,6 +5829,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
 	if (timerIds == null) timerIds = new int [4];
+	if (timerDeadlines == null) timerDeadlines = new long [4];
 	int index = 0;
 	while (index < timerList.length) {
 		if (timerList [index] == runnable) break;
@@ -5690,6 +5839,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 		OS.g_source_remove (timerIds [index]);
 		timerList [index] = null;
 		timerIds [index] = 0;
+		timerDeadlines [index] = 0;
 		if (milliseconds < 0) return;
 	} else {
 		if (milliseconds < 0) return;
@@ -5705,6 +5855,9 @@ public void timerExec (int milliseconds, Runnable runnable) {
 			int [] newTimerIds = new int [timerIds.length + 4];
 			System.arraycopy (timerIds, 0, newTimerIds, 0, timerIds.length);
 			timerIds = newTimerIds;
+			long [] newTimerDeadlines = new long [timerDeadlines.length + 4];
+			System.arraycopy (timerDeadlines, 0, newTimerDeadlines, 0, timerDeadlines.length);
+			timerDeadlines = newTimerDeadlines;
 		}
 	}
 	int timerId;
@@ -5716,6 +5869,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (timerId != 0) {
 		timerIds [index] = timerId;
 		timerList [index] = runnable;
+		timerDeadlines [index] = instrumentation != null ? System.nanoTime () + milliseconds * 1000000L : 0;
 	}
 }
 
@@ -5724,9 +5878,13 @@ long timerProc (long i) {
 	int index = (int)i;
 	if (0 <= index && index < timerList.length) {
 		Runnable runnable = timerList [index];
+		long deadline = timerDeadlines [index];
 		timerList [index] = null;
 		timerIds [index] = 0;
+		timerDeadlines [index] = 0;
 		if (runnable != null) {
+			Instrumentation instrumentation = deadline != 0 ? this.instrumentation : null;
+			long start = instrumentation != null ? System.nanoTime () : 0;
 			try {
 				runnable.run ();
 			} catch (RuntimeException exception) {
@@ -5734,6 +5892,7 @@ long timerProc (long i) {
 			} catch (Error exception) {
 				errorHandler.accept (exception);
 			}
+			if (instrumentation != null) instrumentation.timerExec (runnable, start - deadline, System.nanoTime () - start);
 		}
 	}
 	return 0;
@@ -5850,11 +6009,14 @@ void sendEvent (int eventType, Event event) {
 
 void sendEvent (EventTable eventTable, Event event) {
 	int type = event.type;
+	Widget widget = event.widget;
+	long start = type == SWT.Paint && instrumentation != null ? System.nanoTime () : 0;
 	sendPreEvent (type);
 	try {
 		eventTable.sendEvent (event);
 	} finally {
 		sendPostEvent (type);
+		if (start != 0 && instrumentation != null) instrumentation.paint (widget, System.nanoTime () - start);
 	}
 }
 
@@ -6034,6 +6196,7 @@ static int untranslateKey (int key) {
  */
 public void update () {
 	checkDevice ();
+	flushDamage ();
 	flushExposes (0, true);
 }
 
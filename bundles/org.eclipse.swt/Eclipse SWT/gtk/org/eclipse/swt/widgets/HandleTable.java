@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+/**
+ * Maps the native handles registered with <code>Display.addWidget()</code>
+ * to their slot in the widget table, so that finding the widget of a
+ * handle in a signal callback does not call into native code.
+ * <p>
+ * The table uses open addressing with linear probing and is kept at most
+ * half full, so a lookup usually reads one or two entries. Handles are
+ * never 0, which marks an empty entry. Removing a handle shifts the
+ * following entries of its probe sequence back instead of leaving a
+ * tombstone, so lookups of missing handles stay short.
+ * </p>
+ */
+final class HandleTable {
+
+	long [] handles;
+	int [] slots;
+	int size, mask;
+
+HandleTable (int capacity) {
+	int length = Integer.highestOneBit (Math.max (capacity, 8) * 2 - 1);
+	handles = new long [length];
+	slots = new int [length];
+	mask = length - 1;
+}
+
+int indexOf (long handle) {
+	long hash = handle * 0x9E3779B97F4A7C15L;
+	return (int) (hash ^ (hash >>> 32)) & mask;
+}
+
+/**
+ * Answers the slot of the handle, or -1 if the handle is not in the table.
+ */
+int get (long handle) {
+	for (int i = indexOf (handle); handles [i] != 0; i = (i + 1) & mask) {
+		if (handles [i] == handle) return slots [i];
+	}
+	return -1;
+}
+
+void put (long handle, int slot) {
+	int i = indexOf (handle);
+	while (handles [i] != 0) {
+		if (handles [i] == handle) {
+			slots [i] = slot;
+			return;
+		}
+		i = (i + 1) & mask;
+	}
+	handles [i] = handle;
+	slots [i] = slot;
+	if (++size * 2 > handles.length) resize (handles.length * 2);
+}
+
+/**
+ * Removes the handle and answers its slot, or -1 if the handle was not
+ * in the table.
+ */
+int remove (long handle) {
+	int i = indexOf (handle);
+	while (handles [i] != handle) {
+		if (handles [i] == 0) return -1;
+		i = (i + 1) & mask;
+	}
+	int slot = slots [i];
+	/* Move back the entries whose probe sequence passes the emptied entry */
+	for (int j = (i + 1) & mask; handles [j] != 0; j = (j + 1) & mask) {
+		int k = indexOf (handles [j]);
+		if (i <= j ? (k <= i || k > j) : (k <= i && k > j)) {
+			handles [i] = handles [j];
+			slots [i] = slots [j];
+			i = j;
+		}
+	}
+	handles [i] = 0;
+	size--;
+	return slot;
+}
+
+void resize (int length) {
+	long [] oldHandles = handles;
+	int [] oldSlots = slots;
+	handles = new long [length];
+	slots = new int [length];
+	mask = length - 1;
+	for (int i = 0; i < oldHandles.length; i++) {
+		long handle = oldHandles [i];
+		if (handle == 0) continue;
+		int j = indexOf (handle);
+		while (handles [j] != 0) j = (j + 1) & mask;
+		handles [j] = handle;
+		slots [j] = oldSlots [i];
+	}
+}
+}
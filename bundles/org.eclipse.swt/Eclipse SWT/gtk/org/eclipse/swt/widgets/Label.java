@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -205,13 +205,11 @@ Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
 	if (hHint == SWT.DEFAULT && labelHandle != 0) {
 		long layout = GTK.gtk_label_get_layout (labelHandle);
 		long context = OS.pango_layout_get_context (layout);
-		long lang = OS.pango_context_get_language (context);
 		long font = getFontDescription ();
-		long metrics = OS.pango_context_get_metrics (context, font, lang);
+		int [] metrics = display.internal_gtk_getFontMetrics (context, font);
 		OS.pango_font_description_free (font);
-		int ascent = OS.PANGO_PIXELS (OS.pango_font_metrics_get_ascent (metrics));
-		int descent = OS.PANGO_PIXELS (OS.pango_font_metrics_get_descent (metrics));
-		OS.pango_font_metrics_unref (metrics);
+		int ascent = OS.PANGO_PIXELS (metrics [0]);
+		int descent = OS.PANGO_PIXELS (metrics [1]);
 		int fontHeight = ascent + descent;
 		int [] bufferBottom = new int [1];
 		int [] bufferTop = new int [1];
@@ -227,6 +225,11 @@ Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
 	return size;
 }
 
+@Override
+boolean isSizeCached () {
+	return true;
+}
+
 @Override
 void createHandle (int index) {
 	state |= HANDLE | THEME_BACKGROUND;
@@ -645,6 +648,7 @@ public void setImage (Image image) {
 	}
 	if ((style & SWT.SEPARATOR) != 0) return;
 	this.image = image;
+	flushSizeCache ();
 	if (image != null) {
 		if (GTK.GTK4) {
 			long pixbuf = ImageList.createPixbuf(image);
@@ -703,6 +707,7 @@ public void setText (String string) {
 	if (string == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if ((style & SWT.SEPARATOR) != 0) return;
 	text = string;
+	flushSizeCache ();
 	char [] chars = fixMnemonic (string);
 	byte [] buffer = Converter.wcsToMbcs (chars, true);
 	GTK.gtk_label_set_text_with_mnemonic (labelHandle, buffer);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -152,6 +152,11 @@ Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
 	return new Point (width, height);
 }
 
+@Override
+boolean isSizeCached () {
+	return true;
+}
+
 @Override
 void createHandle(int index) {
 	state |= HANDLE | THEME_BACKGROUND;
@@ -907,6 +912,7 @@ public void setText (String string) {
 	if (string == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (string.equals (text)) return;
 	text = string;
+	flushSizeCache ();
 	layout.setText (parse (string));
 	focusIndex = offsets.length > 0 ? 0 : -1;
 	selection.x = selection.y = -1;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1525,19 +1525,22 @@ public void setItems (String... items) {
 	for (int i=0; i<items.length; i++) {
 		if (items [i] == null) error (SWT.ERROR_INVALID_ARGUMENT);
 	}
+	/*
+	* Feature in GTK.  Every row appended to the model of a tree view
+	* is converted and set with separate native calls and updates the
+	* view.  The fix is to fill a new model with all items in a single
+	* native call while it is not shown, and to swap it in.
+	*/
+	long [] types = new long [] {OS.G_TYPE_STRING ()};
+	long newModel = GTK.gtk_list_store_newv (types.length, types);
+	if (newModel == 0) error (SWT.ERROR_ITEM_NOT_ADDED);
+	OS.swt_list_store_append_strings (newModel, TEXT_COLUMN, Converter.wcsToMbcs (items), items.length);
 	long selection = GTK.gtk_tree_view_get_selection (handle);
 	OS.g_signal_handlers_block_matched (selection, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, CHANGED);
-	GTK.gtk_list_store_clear (modelHandle);
+	GTK.gtk_tree_view_set_model (handle, newModel);
 	OS.g_signal_handlers_unblock_matched (selection, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, CHANGED);
-	long iter = OS.g_malloc (GTK.GtkTreeIter_sizeof ());
-	if (iter == 0) error (SWT.ERROR_ITEM_NOT_ADDED);
-	for (int i=0; i<items.length; i++) {
-		String string = items [i];
-		byte [] buffer = Converter.wcsToMbcs (string, true);
-		GTK.gtk_list_store_append (modelHandle, iter);
-		GTK.gtk_list_store_set (modelHandle, iter, TEXT_COLUMN, buffer, -1);
-	}
-	OS.g_free (iter);
+	OS.g_object_unref (modelHandle);
+	modelHandle = newModel;
 }
 
 @Override
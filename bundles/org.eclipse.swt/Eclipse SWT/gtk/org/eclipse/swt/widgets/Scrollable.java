@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -519,7 +519,7 @@ void redrawWidget (int x, int y, int width, int height, boolean redrawAll, boole
 		 * New "render" signal? */
 	} else {
 		long window = gtk_widget_get_window (topHandle);
-		GDK.gdk_window_invalidate_rect (window, rect, all);
+		invalidateRect (window, rect, all);
 	}
 }
 
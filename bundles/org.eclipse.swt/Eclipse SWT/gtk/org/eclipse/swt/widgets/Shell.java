@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -133,6 +133,7 @@ public class Shell extends Decorations {
 	boolean ignoreFocusOut, ignoreFocusIn;
 	boolean ignoreFocusOutAfterGrab, grabbedFocus;
 	Region originalRegion;
+	Damage damage;
 
 	static final int MAXIMUM_TRIM = 128;
 	static final int BORDER = 3;
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.widgets;
+
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Keeps the last sizes computed for a control by their width and height
+ * hints, so that layouts asking for the size of a wrapping label with
+ * alternating hints do not query the preferred size from GTK every time.
+ * <p>
+ * The cache of a control is cleared when its text, image, font or
+ * orientation changes, when a layout is requested for it, and when a
+ * caller of <code>computeSize()</code> passes <code>true</code> for
+ * <code>changed</code>. All caches are invalid after the device zoom or
+ * the system settings changed.
+ * </p>
+ */
+final class SizeCache {
+
+	static final int SIZE = 4;
+
+	/* The width hint, height hint, width and height of each entry, in pixels */
+	final int[] entries = new int[SIZE * 4];
+	int count, next;
+	int zoom, generation;
+
+SizeCache (int zoom, int generation) {
+	this.zoom = zoom;
+	this.generation = generation;
+}
+
+boolean isValid (int zoom, int generation) {
+	return this.zoom == zoom && this.generation == generation;
+}
+
+Point get (int wHint, int hHint) {
+	for (int i = 0; i < count * 4; i += 4) {
+		if (entries[i] == wHint && entries[i + 1] == hHint) {
+			return new Point(entries[i + 2], entries[i + 3]);
+		}
+	}
+	return null;
+}
+
+void put (int wHint, int hHint, Point size) {
+	int index = next * 4;
+	entries[index] = wHint;
+	entries[index + 1] = hHint;
+	entries[index + 2] = size.x;
+	entries[index + 3] = size.y;
+	next = (next + 1) % SIZE;
+	count = Math.max(count, next == 0 ? SIZE : next);
+}
+}
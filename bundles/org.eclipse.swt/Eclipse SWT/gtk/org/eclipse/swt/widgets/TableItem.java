@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1200,7 +1200,7 @@ public void setImage(int index, Image image) {
 			imageIndex = imageList.add(image);
 		}
 		surface = imageList.getSurface(imageIndex);
-		pixbuf = ImageList.createPixbuf(surface);
+		pixbuf = imageList.getPixbuf(imageIndex);
 	}
 
 	long parentHandle = parent.handle;
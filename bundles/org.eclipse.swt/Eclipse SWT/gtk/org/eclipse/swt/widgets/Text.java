@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,10 @@ public class Text extends Scrollable {
 	int fixStart = -1, fixEnd = -1;
 	boolean doubleClick;
 	String message = "";
+	int lineLimit;
+	TextAppendQueue appendQueue;
+	/* Guards the creation of the append queue, appendAsync() is called from any thread */
+	private final Object appendLock = new Object ();
 
 	/** GTK4 only field, holds the address to the underlying GtkText widget. */
 	long textHandle;
@@ -491,6 +495,18 @@ public void append (String string) {
 		byte [] position =  new byte [ITER_SIZEOF];
 		GTK.gtk_text_buffer_get_end_iter (bufferHandle, position);
 		GTK.gtk_text_buffer_insert (bufferHandle, position, buffer, buffer.length);
+		if (lineLimit > 0) {
+			int count = GTK.gtk_text_buffer_get_line_count (bufferHandle);
+			if (count > lineLimit) {
+				byte [] start = new byte [ITER_SIZEOF];
+				GTK.gtk_text_buffer_get_iter_at_offset (bufferHandle, start, 0);
+				GTK.gtk_text_buffer_get_iter_at_line (bufferHandle, position, count - lineLimit);
+				OS.g_signal_handlers_block_matched (bufferHandle, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, DELETE_RANGE);
+				GTK.gtk_text_buffer_delete (bufferHandle, start, position);
+				OS.g_signal_handlers_unblock_matched (bufferHandle, OS.G_SIGNAL_MATCH_DATA, 0, 0, 0, 0, DELETE_RANGE);
+				GTK.gtk_text_buffer_get_end_iter (bufferHandle, position);
+			}
+		}
 		GTK.gtk_text_buffer_place_cursor (bufferHandle, position);
 		long mark = GTK.gtk_text_buffer_get_insert (bufferHandle);
 		GTK.gtk_text_view_scroll_to_mark (handle, mark, 0, true, 0, 0);
@@ -498,6 +514,44 @@ public void append (String string) {
 	applySegments ();
 }
 
+/**
+ * Appends a string from any thread.
+ * <p>
+ * The string is appended to the text at the end of the widget
+ * later, on the user-interface thread. Strings appended this way
+ * are collected and appended together once per iteration of the
+ * event loop, so the widget is updated and scrolled only once no
+ * matter how many strings arrived in the meantime. This makes the
+ * method suitable for consoles and logs that receive many small
+ * pieces of text. Strings that have not been appended when the
+ * receiver is disposed are discarded.
+ * </p>
+ *
+ * @param chunk the string to be appended
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the string is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the display of the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #append(String)
+ * @see #setLineLimit(int)
+ * @since 3.126
+ */
+public void appendAsync (CharSequence chunk) {
+	if (chunk == null) error (SWT.ERROR_NULL_ARGUMENT);
+	if (isDisposed ()) error (SWT.ERROR_WIDGET_DISPOSED);
+	TextAppendQueue queue;
+	synchronized (appendLock) {
+		if (appendQueue == null) appendQueue = new TextAppendQueue (this);
+		queue = appendQueue;
+	}
+	queue.add (chunk);
+}
+
 void applySegments () {
 	/*
 	 * It is possible (but unlikely), that application code could have
@@ -1169,6 +1223,26 @@ public int getLineHeight () {
 	return result;
 }
 
+/**
+ * Returns the maximum number of lines that the receiver keeps
+ * when text is appended, or zero if the number of lines is not
+ * limited.
+ *
+ * @return the line limit
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #setLineLimit(int)
+ * @since 3.126
+ */
+public int getLineLimit () {
+	checkWidget ();
+	return lineLimit;
+}
+
 /**
  * Returns the widget message.  The message text is displayed
  * as a hint for the user, indicating the purpose of the field.
@@ -2438,6 +2512,36 @@ void setFontDescription (long font) {
 	setTabStops (tabs);
 }
 
+/**
+ * Sets the maximum number of lines that the receiver keeps when
+ * text is appended to be the argument. Whenever <code>append</code>
+ * or <code>appendAsync</code> leave the receiver with more lines
+ * than the limit, the first lines are removed all at once. Zero,
+ * the default, means that the number of lines is not limited.
+ * <p>
+ * Setting, inserting and typing text does not remove lines, and
+ * the limit is ignored by single-line text widgets.
+ * </p>
+ *
+ * @param limit the new line limit, or zero
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_INVALID_ARGUMENT - if the limit is negative</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #appendAsync(CharSequence)
+ * @since 3.126
+ */
+public void setLineLimit (int limit) {
+	checkWidget ();
+	if (limit < 0) error (SWT.ERROR_INVALID_ARGUMENT);
+	lineLimit = limit;
+}
+
 /**
  * Sets the widget message. The message text is displayed
  * as a hint for the user, indicating the purpose of the field.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1119,12 +1119,8 @@ long gtk_window_state_event (long widget, long event) {
 
 int fontHeight (long font, long widgetHandle) {
 	long context = GTK.gtk_widget_get_pango_context (widgetHandle);
-	long lang = OS.pango_context_get_language (context);
-	long metrics = OS.pango_context_get_metrics (context, font, lang);
-	int ascent = OS.pango_font_metrics_get_ascent (metrics);
-	int descent = OS.pango_font_metrics_get_descent (metrics);
-	OS.pango_font_metrics_unref (metrics);
-	return OS.PANGO_PIXELS (ascent + descent);
+	int [] metrics = display.internal_gtk_getFontMetrics (context, font);
+	return OS.PANGO_PIXELS (metrics [0] + metrics [1]);
 }
 
 long filterProc(long xEvent, long gdkEvent, long data2) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -992,6 +992,61 @@ public void drawImage (Image image, int srcX, int srcY, int srcWidth, int srcHei
 	drawImage(image, src.x, src.y, src.width, src.height, dest.x, dest.y, dest.width, dest.height, false);
 }
 
+/**
+ * Copies many rectangular areas from the source image into (potentially
+ * different sized) rectangular areas in the receiver. This is equivalent
+ * to calling <code>drawImage(image, srcX, srcY, srcWidth, srcHeight, destX, destY, destWidth, destHeight)</code>
+ * for every pair of rectangles, but the source image is set up for drawing
+ * only once, which makes drawing many parts of one image, such as the icons
+ * of an image atlas, considerably faster.
+ * <p>
+ * Each rectangle is given by four consecutive values in the arrays: the x
+ * and y coordinates followed by the width and height in points. Rectangles
+ * with a width or height of zero are skipped.
+ * </p>
+ *
+ * @param image the source image
+ * @param srcRects the rectangles in the source image to copy from
+ * @param destRects the rectangles in the destination to copy to
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the image or either array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the image has been disposed</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the arrays have different lengths or their length is not a multiple of four</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if any of the coordinates of a source rectangle, or the width or height of a destination rectangle, are negative</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if a source rectangle is not contained within the bounds of the source image</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES - if no handles are available to perform the operation</li>
+ * </ul>
+ *
+ * @see #drawImage(Image, int, int, int, int, int, int, int, int)
+ * @since 3.126
+ */
+public void drawImages(Image image, int[] srcRects, int[] destRects) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (image == null || srcRects == null || destRects == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (image.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (srcRects.length != destRects.length || srcRects.length % 4 != 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	/* Validate all the rectangles first, so that nothing is drawn when one of them is invalid */
+	Rectangle bounds = image.getBounds();
+	int imgWidth = bounds.width, imgHeight = bounds.height;
+	for (int i = 0; i < srcRects.length; i += 4) {
+		if (srcRects[i] < 0 || srcRects[i + 1] < 0 || srcRects[i + 2] < 0 || srcRects[i + 3] < 0 || destRects[i + 2] < 0 || destRects[i + 3] < 0) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		if (srcRects[i] + srcRects[i + 2] > imgWidth || srcRects[i + 1] + srcRects[i + 3] > imgHeight) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+	}
+	for (int i = 0; i < srcRects.length; i += 4) {
+		drawImage(image, srcRects[i], srcRects[i + 1], srcRects[i + 2], srcRects[i + 3], destRects[i], destRects[i + 1], destRects[i + 2], destRects[i + 3]);
+	}
+}
+
 void drawImage(Image srcImage, int srcX, int srcY, int srcWidth, int srcHeight, int destX, int destY, int destWidth, int destHeight, boolean simple) {
 	/* Refresh Image as per zoom level, if required. */
 	srcImage.refreshImageForZoom ();
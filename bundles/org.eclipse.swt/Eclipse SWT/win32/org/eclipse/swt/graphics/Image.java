@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@ package org.eclipse.swt.graphics;
 
 
 import java.io.*;
+import java.nio.*;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.internal.*;
@@ -112,6 +113,13 @@ public final class Image extends Resource implements Drawable {
 	 */
 	GC memGC;
 
+	/**
+	 * The buffer the image was created from and its layout, the pixels
+	 * are copied from it again when they are updated.
+	 */
+	ByteBuffer pixels;
+	int pixelsWidth, pixelsHeight, pixelsStride;
+
 	/**
 	 * ImageFileNameProvider to provide file names at various Zoom levels
 	 */
@@ -201,6 +209,42 @@ public Image(Device device, int width, int height) {
 	init();
 }
 
+/**
+ * Constructs an empty instance of this class with the
+ * specified width, height and style. The style is either
+ * <code>SWT.NONE</code>, which creates the same image as
+ * {@link #Image(Device, int, int)}, or {@link SWT#IMAGE_RECORDING}.
+ * <p>
+ * A recording image keeps the operations drawn on it by a GC
+ * instead of rasterizing them, and replays them at the resolution
+ * of the destination when it is drawn. This platform cannot record
+ * drawing operations, so it creates the same image as
+ * <code>SWT.NONE</code>.
+ * </p><p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param width the width of the new image
+ * @param height the height of the new image
+ * @param style the style of the image, <code>SWT.NONE</code> or <code>SWT.IMAGE_RECORDING</code>
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if either the width or height is negative or zero</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see SWT#IMAGE_RECORDING
+ * @see #dispose()
+ * @since 3.126
+ */
+public Image(Device device, int width, int height, int style) {
+	this(device, width, height);
+}
+
 /**
  * Constructs a new instance of this class based on the
  * provided image, with an appearance that varies depending
@@ -489,6 +533,61 @@ public Image(Device device, ImageData data) {
 	init();
 }
 
+/**
+ * Constructs an instance of this class that shows the pixels of the given
+ * direct buffer, so that they can be changed in place without creating new
+ * <code>ImageData</code>, for example for the frames of a video.
+ * <p>
+ * The buffer holds <code>height</code> rows of <code>stride</code> bytes,
+ * starting at index 0. Every pixel is a native endian 32 bit value with
+ * alpha in the upper 8 bits, followed by red, green and blue premultiplied
+ * by alpha. The size is in pixels of the device, the bounds of the image
+ * are scaled down by the zoom of the device. After pixels of the buffer
+ * were changed, call <code>updatePixels()</code> with the changed area and
+ * redraw the controls that show the image. The buffer must not be changed
+ * while the image is drawn.
+ * </p>
+ * <p>
+ * On GTK the image draws the memory of the buffer without copying it, and
+ * keeps the buffer reachable until it is disposed. On other platforms the
+ * pixels are copied when the image is created and when
+ * <code>updatePixels()</code> is called.
+ * </p>
+ * <p>
+ * You must dispose the image when it is no longer required.
+ * </p>
+ *
+ * @param device the device on which to create the image
+ * @param pixels a direct buffer holding the pixels
+ * @param width the width of the image in pixels
+ * @param height the height of the image in pixels
+ * @param stride the number of bytes per row, a multiple of 4 that is at least <code>4 * width</code>
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if device is null and there is no current device</li>
+ *    <li>ERROR_NULL_ARGUMENT - if the buffer is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if the buffer is not direct, if the width, height or stride is invalid, or if the buffer is too small</li>
+ * </ul>
+ * @exception SWTError <ul>
+ *    <li>ERROR_NO_HANDLES if a handle could not be obtained for image creation</li>
+ * </ul>
+ *
+ * @see #updatePixels(int, int, int, int)
+ * @see #dispose()
+ * @since 3.126
+ */
+public Image(Device device, ByteBuffer pixels, int width, int height, int stride) {
+	super(device);
+	ImageData.checkPixelBuffer(pixels, width, height, stride);
+	currentDeviceZoom = DPIUtil.getDeviceZoom ();
+	this.pixels = pixels;
+	pixelsWidth = width;
+	pixelsHeight = height;
+	pixelsStride = stride;
+	init(ImageData.fromPixelBuffer(pixels, width, height, stride));
+	init();
+}
+
 /**
  * Constructs an instance of this class, whose type is
  * <code>SWT.ICON</code>, from the two given <code>ImageData</code>
@@ -758,7 +857,7 @@ boolean refreshImageForZoom () {
 			refreshed = true;
 			currentDeviceZoom = deviceZoomLevel;
 		}
-	} else {
+	} else if (pixels == null) {
 		if (deviceZoomLevel != currentDeviceZoom) {
 			ImageData data = getImageDataAtCurrentZoom();
 			destroy ();
@@ -1620,6 +1719,37 @@ public ImageData getImageDataAtCurrentZoom() {
 	}
 }
 
+/**
+ * Tells the receiver that the pixels in the given rectangle of the buffer
+ * it was created from were changed. The controls that show the receiver
+ * have to be redrawn afterwards to show the new pixels. The rectangle is
+ * in pixels of the buffer. The method does nothing if the receiver was not
+ * created from a buffer.
+ * <p>
+ * On platforms where images cannot draw the pixels of the buffer directly,
+ * the pixels are copied into the image again.
+ * </p>
+ *
+ * @param x the x coordinate of the changed area
+ * @param y the y coordinate of the changed area
+ * @param width the width of the changed area
+ * @param height the height of the changed area
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #Image(Device, ByteBuffer, int, int, int)
+ * @since 3.126
+ */
+public void updatePixels(int x, int y, int width, int height) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pixels == null || width <= 0 || height <= 0) return;
+	long oldHandle = handle;
+	init(ImageData.fromPixelBuffer(pixels, pixelsWidth, pixelsHeight, pixelsStride));
+	OS.DeleteObject(oldHandle);
+}
+
 /**
  * Returns an integer hash code for the receiver. Any two
  * objects that return <code>true</code> when passed to
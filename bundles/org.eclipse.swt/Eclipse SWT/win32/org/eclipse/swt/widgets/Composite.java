@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -54,6 +54,12 @@ public class Composite extends Scrollable {
 	WINDOWPOS [] lpwp;
 	Control [] tabList;
 	int layoutCount, backgroundMode;
+	/*
+	* The number of children whose size was computed by the running layout
+	* of the receiver, reported to the instrumentation of the display.
+	*/
+	int layoutComputed;
+	boolean layoutRunning;
 
 	static final int TOOLTIP_LIMIT = 4096;
 
@@ -1332,7 +1338,15 @@ void updateLayout (boolean resize, boolean all) {
 		state &= ~(LAYOUT_NEEDED | LAYOUT_CHANGED);
 		display.runSkin();
 		if (resize) setResizeChildren (false);
+		boolean running = layoutRunning;
+		if (!running) layoutComputed = 0;
+		layoutRunning = true;
+		Instrumentation instrumentation = display.instrumentation;
+		long start = instrumentation != null ? System.nanoTime () : 0;
 		layout.layout (this, changed);
+		/* Children are moved after the layout when their moves are deferred, so they are not counted */
+		if (instrumentation != null) instrumentation.layout (this, layoutComputed, -1, System.nanoTime () - start);
+		layoutRunning = running;
 		if (resize) setResizeChildren (true);
 	}
 	if (all) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -660,7 +660,13 @@ public Point computeSize (int wHint, int hHint, boolean changed){
 	checkWidget ();
 	wHint = (wHint != SWT.DEFAULT ? DPIUtil.autoScaleUp(wHint) : wHint);
 	hHint = (hHint != SWT.DEFAULT ? DPIUtil.autoScaleUp(hHint) : hHint);
-	return DPIUtil.autoScaleDown(computeSizeInPixels(wHint, hHint, changed));
+	if (parent != null && parent.layoutRunning) parent.layoutComputed++;
+	Instrumentation instrumentation = display.instrumentation;
+	if (instrumentation == null) return DPIUtil.autoScaleDown(computeSizeInPixels(wHint, hHint, changed));
+	long start = System.nanoTime ();
+	Point size = computeSizeInPixels(wHint, hHint, changed);
+	instrumentation.computeSize (this, DPIUtil.autoScaleDown (wHint), DPIUtil.autoScaleDown (hHint), System.nanoTime () - start);
+	return DPIUtil.autoScaleDown(size);
 }
 
 Point computeSizeInPixels (int wHint, int hHint, boolean changed) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -310,6 +310,7 @@ public class Display extends Device implements Executor {
 
 	/* Sync/Async Widget Communication */
 	Synchronizer synchronizer;
+	Instrumentation instrumentation;
 	Consumer<RuntimeException> runtimeExceptionHandler = DefaultExceptionHandler.RUNTIME_EXCEPTION_HANDLER;
 	Consumer<Error> errorHandler = DefaultExceptionHandler.RUNTIME_ERROR_HANDLER;
 	boolean runMessagesInIdle = false, runMessagesInMessageProc = true;
@@ -340,6 +341,7 @@ public class Display extends Device implements Executor {
 	/* Timers */
 	long [] timerIds;
 	Runnable [] timerList;
+	long [] timerDeadlines;
 	long nextTimerId = SETTINGS_ID + 1;
 
 	/* Settings */
@@ -1499,6 +1501,26 @@ public Shell getActiveShell () {
 	return control != null ? control.getShell () : null;
 }
 
+/**
+ * Returns the instrumentation that is told how long the user-interface
+ * thread of the receiver spends on layouts, paints and runnables, or
+ * <code>null</code> if the receiver is not instrumented.
+ *
+ * @return the instrumentation of the receiver, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #setInstrumentation(Instrumentation)
+ * @since 3.126
+ */
+public Instrumentation getInstrumentation () {
+	checkDevice ();
+	return instrumentation;
+}
+
 /**
  * Returns the single instance of the application menu bar, or
  * <code>null</code> if there is no application menu bar for the platform.
@@ -3866,6 +3888,7 @@ void releaseDisplay () {
 	lastHittestControl = null;
 	imageList = toolImageList = toolHotImageList = toolDisabledImageList = null;
 	timerList = null;
+	timerDeadlines = null;
 	tableBuffer = null;
 	eventTable = filterTable = null;
 	items = null;
@@ -4164,8 +4187,12 @@ boolean runTimer (long id) {
 				OS.KillTimer (hwndMessage, timerIds [index]);
 				timerIds [index] = 0;
 				Runnable runnable = timerList [index];
+				long deadline = timerDeadlines [index];
 				timerList [index] = null;
+				timerDeadlines [index] = 0;
 				if (runnable != null) {
+					Instrumentation instrumentation = deadline != 0 ? this.instrumentation : null;
+					long start = instrumentation != null ? System.nanoTime () : 0;
 					try {
 						runnable.run ();
 					} catch (RuntimeException exception) {
@@ -4173,6 +4200,7 @@ boolean runTimer (long id) {
 					} catch (Error exception) {
 						errorHandler.accept (exception);
 					}
+					if (instrumentation != null) instrumentation.timerExec (runnable, start - deadline, System.nanoTime () - start);
 				}
 				return true;
 			}
@@ -4269,11 +4297,14 @@ void sendEvent (int eventType, Event event) {
 
 void sendEvent (EventTable eventTable, Event event) {
 	int type = event.type;
+	Widget widget = event.widget;
+	long start = type == SWT.Paint && instrumentation != null ? System.nanoTime () : 0;
 	sendPreEvent (type);
 	try {
 		eventTable.sendEvent (event);
 	} finally {
 		sendPostEvent (type);
+		if (start != 0 && instrumentation != null) instrumentation.paint (widget, System.nanoTime () - start);
 	}
 }
 
@@ -4651,6 +4682,33 @@ void setModalShell (Shell shell) {
 	}
 }
 
+/**
+ * Sets the instrumentation that is told how long the user-interface
+ * thread of the receiver spends laying out composites, computing the
+ * sizes of controls, painting widgets and running the runnables passed
+ * to <code>asyncExec</code>, <code>syncExec</code> and <code>timerExec</code>.
+ * The argument may be <code>null</code>, in which case nothing is measured.
+ * <p>
+ * Runnables already queued or scheduled when the instrumentation is set
+ * are not reported.
+ * </p>
+ *
+ * @param instrumentation the new instrumentation, or <code>null</code>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ *    <li>ERROR_DEVICE_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see Instrumentation
+ * @see Instrumentation#flightRecorder()
+ * @since 3.126
+ */
+public void setInstrumentation (Instrumentation instrumentation) {
+	checkDevice ();
+	this.instrumentation = instrumentation;
+}
+
 /**
  * Sets the synchronizer used by the display to be
  * the argument, which can not be null.
@@ -4880,6 +4938,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (timerList == null) timerList = new Runnable [4];
 	if (timerIds == null) timerIds = new long [4];
+	if (timerDeadlines == null) timerDeadlines = new long [4];
 	int index = 0;
 	while (index < timerList.length) {
 		if (timerList [index] == runnable) break;
@@ -4892,6 +4951,7 @@ public void timerExec (int milliseconds, Runnable runnable) {
 			OS.KillTimer (hwndMessage, timerId);
 			timerList [index] = null;
 			timerIds [index] = 0;
+			timerDeadlines [index] = 0;
 			return;
 		}
 	} else {
@@ -4909,12 +4969,16 @@ public void timerExec (int milliseconds, Runnable runnable) {
 			long [] newTimerIds = new long [timerIds.length + 4];
 			System.arraycopy (timerIds, 0, newTimerIds, 0, timerIds.length);
 			timerIds = newTimerIds;
+			long [] newTimerDeadlines = new long [timerDeadlines.length + 4];
+			System.arraycopy (timerDeadlines, 0, newTimerDeadlines, 0, timerDeadlines.length);
+			timerDeadlines = newTimerDeadlines;
 		}
 	}
 	long newTimerID = OS.SetTimer (hwndMessage, timerId, milliseconds, 0);
 	if (newTimerID != 0) {
 		timerList [index] = runnable;
 		timerIds [index] = newTimerID;
+		timerDeadlines [index] = instrumentation != null ? System.nanoTime () + milliseconds * 1000000L : 0;
 	}
 }
 
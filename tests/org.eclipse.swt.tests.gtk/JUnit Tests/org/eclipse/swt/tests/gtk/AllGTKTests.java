@@ -22,7 +22,12 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 		// Test.class be added here.
-	Test_GtkConverter.class
+	Test_GtkClipboard.class,
+	Test_GtkConverter.class,
+	Test_GtkHandleTable.class,
+	Test_GtkImageRegistry.class,
+	Test_GtkImageRecording.class,
+	Test_GtkStatistics.class
 })
 
 public class AllGTKTests {
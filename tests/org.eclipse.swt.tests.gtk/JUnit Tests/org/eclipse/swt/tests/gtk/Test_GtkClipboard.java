@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.dnd.Clipboard;
+import org.eclipse.swt.dnd.DND;
+import org.eclipse.swt.dnd.RTFTransfer;
+import org.eclipse.swt.dnd.TextTransfer;
+import org.eclipse.swt.dnd.Transfer;
+import org.eclipse.swt.dnd.TransferData;
+import org.eclipse.swt.internal.gtk.GTK;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the asynchronous clipboard requests of the GTK port. The proxy that
+ * answers them is internal, so it is accessed reflectively.
+ */
+public class Test_GtkClipboard {
+
+	static final String PROXY_KEY = "CLIPBOARD PROXY OBJECT";
+
+	Display display;
+	Clipboard clipboard;
+
+	@Before
+	public void setUp() {
+		assumeFalse("GTK 4 answers the futures synchronously", GTK.GTK4);
+		display = Display.getDefault();
+		clipboard = new Clipboard(display);
+	}
+
+	@After
+	public void tearDown() {
+		if (clipboard != null) clipboard.dispose();
+	}
+
+	<T> T await(CompletableFuture<T> future) throws Exception {
+		long end = System.currentTimeMillis() + 5000;
+		while (!future.isDone() && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) Thread.sleep(10);
+		}
+		assertTrue("future not completed", future.isDone());
+		return future.get();
+	}
+
+	void assertDeviceDisposed(CompletableFuture<?> future) {
+		assertTrue(future.isCompletedExceptionally());
+		ExecutionException e = assertThrows(ExecutionException.class, future::get);
+		assertTrue(e.getCause() instanceof SWTException);
+		assertEquals(SWT.ERROR_DEVICE_DISPOSED, ((SWTException) e.getCause()).code);
+	}
+
+	/* Disposes the proxy of the display as disposing the display would, and unregisters it */
+	Object disposeProxy() throws Exception {
+		Object proxy = display.getData(PROXY_KEY);
+		Method dispose = proxy.getClass().getDeclaredMethod("dispose");
+		dispose.setAccessible(true);
+		try {
+			dispose.invoke(proxy);
+		} finally {
+			display.setData(PROXY_KEY, null);
+		}
+		return proxy;
+	}
+
+	Object field(Object proxy, String name) throws Exception {
+		Field field = proxy.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(proxy);
+	}
+
+	@Test
+	public void test_getContentsAsync() throws Exception {
+		clipboard.setContents(new Object[] {"text"}, new Transfer[] {TextTransfer.getInstance()});
+		assertEquals("text", await(clipboard.getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD)));
+		assertNull(await(clipboard.getContentsAsync(RTFTransfer.getInstance(), DND.CLIPBOARD)));
+	}
+
+	@Test
+	public void test_getAvailableTypesAsync() throws Exception {
+		clipboard.setContents(new Object[] {"text"}, new Transfer[] {TextTransfer.getInstance()});
+		TransferData[] types = await(clipboard.getAvailableTypesAsync(DND.CLIPBOARD));
+		assertTrue(Arrays.stream(types).anyMatch(TextTransfer.getInstance()::isSupportedType));
+	}
+
+	@Test
+	public void test_disposedProxyFailsRequests() throws Exception {
+		clipboard.setContents(new Object[] {"text"}, new Transfer[] {TextTransfer.getInstance()});
+		Object proxy = display.getData(PROXY_KEY);
+		disposeProxy();
+		display.setData(PROXY_KEY, proxy);
+		try {
+			/* The types of both clipboards are combined, which must not see a missing answer as null */
+			assertDeviceDisposed(clipboard.getAvailableTypesAsync(DND.CLIPBOARD | DND.SELECTION_CLIPBOARD));
+			assertDeviceDisposed(clipboard.getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD));
+		} finally {
+			display.setData(PROXY_KEY, null);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void test_disposeKeepsCallbackForPendingRequests() throws Exception {
+		clipboard.setContents(new Object[] {"text"}, new Transfer[] {TextTransfer.getInstance()});
+		Object proxy = display.getData(PROXY_KEY);
+		/* Stand in for a request that GTK has not answered yet */
+		int id = Integer.MAX_VALUE;
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		((Map<Integer, LongConsumer>) field(proxy, "requests")).put(id, selection_data -> fail("answered after dispose"));
+		((Map<Integer, CompletableFuture<?>>) field(proxy, "futures")).put(id, future);
+		disposeProxy();
+		assertDeviceDisposed(future);
+		assertNotNull("callback released while GTK holds a request", field(proxy, "receivedFunc"));
+
+		Method receivedFunc = proxy.getClass().getDeclaredMethod("receivedFunc", long.class, long.class, long.class);
+		receivedFunc.setAccessible(true);
+		receivedFunc.invoke(proxy, 0L, 0L, (long) id);
+		assertFalse(((Map<Integer, LongConsumer>) field(proxy, "requests")).containsKey(id));
+		assertNull("callback kept after the last request", field(proxy, "receivedFunc"));
+	}
+}
@@ -14,11 +14,16 @@
  */
 package org.eclipse.swt.tests.gtk;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.fail;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.eclipse.swt.internal.Converter;
+import org.eclipse.swt.internal.Utf8OffsetIndex;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -157,4 +162,68 @@ public class Test_GtkConverter {
 		}
 	}
 
+	@Test
+	public void test_Utf8OffsetIndex() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			builder.append(asciiLetters).append(unicodeCharactersLowCodePoints).append(unicodeCharactersHighCodePoints);
+			builder.appendCodePoint(0x1F600); // 4 bytes in UTF-8, surrogate pair in UTF-16
+		}
+		String text = builder.toString();
+		Utf8OffsetIndex index = new Utf8OffsetIndex();
+		byte [] bytes = Converter.wcsToMbcs(text.toCharArray(), false, index);
+		assertEquals(text.getBytes(StandardCharsets.UTF_8).length, bytes.length);
+		assertEquals(text.length(), index.length());
+		assertEquals(bytes.length, index.byteLength());
+		assertEquals(text.codePointCount(0, text.length()), index.pointLength());
+		for (int offset = 0; offset <= text.length(); offset++) {
+			if (offset > 0 && offset < text.length() && Character.isHighSurrogate(text.charAt(offset - 1))) {
+				/* Offsets inside a surrogate pair map to the end of the pair */
+				assertEquals(text.substring(0, offset + 1).getBytes(StandardCharsets.UTF_8).length, index.utf16ToByte(offset));
+				continue;
+			}
+			int byteOffset = text.substring(0, offset).getBytes(StandardCharsets.UTF_8).length;
+			assertEquals(byteOffset, index.utf16ToByte(offset));
+			assertEquals(offset, index.byteToUtf16(byteOffset));
+			assertEquals(text.codePointCount(0, offset), index.utf16ToPoint(offset));
+		}
+		assertEquals(bytes.length, index.utf16ToByte(text.length() + 10));
+		assertEquals(text.length(), index.byteToUtf16(bytes.length + 10));
+	}
+
+	@Test
+	public void test_Utf8OffsetIndex_stopsAtNull() {
+		Utf8OffsetIndex index = new Utf8OffsetIndex();
+		byte [] bytes = Converter.wcsToMbcs("ab\0cd".toCharArray(), false, index);
+		assertEquals(2, bytes.length);
+		assertEquals(2, index.length());
+		assertEquals(2, index.utf16ToByte(4));
+	}
+
+	@Test
+	public void test_wcsToMbcs_intoBuffer() {
+		String text = asciiLetters + unicodeCharactersLowCodePoints + unicodeCharactersHighCodePoints + new String(Character.toChars(0x1F600));
+		byte [] expected = text.getBytes(StandardCharsets.UTF_8);
+		assertArrayEquals(expected, Converter.wcsToMbcs(text, false));
+		byte [] buffer = new byte [Converter.maxUtf8Length(text.length()) + 1];
+		int written = Converter.wcsToMbcs(text, 0, text.length(), buffer, 1);
+		assertEquals(expected.length, written);
+		assertArrayEquals(expected, Arrays.copyOfRange(buffer, 1, 1 + written));
+		// Conversion stops at the first NULL and fails on unpaired surrogates, like g_utf16_to_utf8()
+		assertEquals(2, Converter.wcsToMbcs("ab\0cd", 0, 5, buffer, 0));
+		assertEquals(0, Converter.wcsToMbcs("ab\uDC00cd", 0, 5, buffer, 0));
+		assertArrayEquals(Converter.NullByteArray, Converter.wcsToMbcs("\uD800x", true));
+	}
+
+	@Test
+	public void test_wcsToMbcs_emptyIsFresh() {
+		// Callers write into the returned buffer, so it must never be a shared constant
+		byte [] bytes = Converter.wcsToMbcs("", true);
+		assertArrayEquals(new byte [1], bytes);
+		assertNotSame(bytes, Converter.wcsToMbcs("", true));
+		assertNotSame(Converter.NullByteArray, bytes);
+		assertNotSame(Converter.NullByteArray, Converter.wcsToMbcs("\uD800x", true));
+		assertEquals(0, Converter.wcsToMbcs("", false).length);
+	}
+
 }
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the handle table used by the GTK Display to find the widget of a
+ * native handle. The table is internal, so it is accessed reflectively.
+ */
+public class Test_GtkHandleTable {
+
+	Constructor<?> constructor;
+	Method indexOf, get, put, remove;
+	Field handles;
+
+	@Before
+	public void setUp() throws Exception {
+		Class<?> clazz = Class.forName("org.eclipse.swt.widgets.HandleTable");
+		constructor = clazz.getDeclaredConstructor(int.class);
+		constructor.setAccessible(true);
+		indexOf = clazz.getDeclaredMethod("indexOf", long.class);
+		indexOf.setAccessible(true);
+		get = clazz.getDeclaredMethod("get", long.class);
+		get.setAccessible(true);
+		put = clazz.getDeclaredMethod("put", long.class, int.class);
+		put.setAccessible(true);
+		remove = clazz.getDeclaredMethod("remove", long.class);
+		remove.setAccessible(true);
+		handles = clazz.getDeclaredField("handles");
+		handles.setAccessible(true);
+	}
+
+	long[] handles(Object table) throws Exception {
+		return (long[]) handles.get(table);
+	}
+
+	/* Answers the first handle after the given one whose probe sequence starts at the index */
+	long handleAt(Object table, int index, long after) throws Exception {
+		long handle = after + 1;
+		while ((int) indexOf.invoke(table, handle) != index) handle++;
+		return handle;
+	}
+
+	@Test
+	public void test_removeWrapsAround() throws Exception {
+		Object table = constructor.newInstance(8);
+		int last = handles(table).length - 1;
+		/* Three handles that start at the last entry and wrap to the front, and one that starts at the front */
+		long a = handleAt(table, last, 0);
+		long b = handleAt(table, last, a);
+		long c = handleAt(table, last, b);
+		long d = handleAt(table, 0, 0);
+		put.invoke(table, a, 10);
+		put.invoke(table, b, 11);
+		put.invoke(table, c, 12);
+		put.invoke(table, d, 13);
+		assertEquals(a, handles(table)[last]);
+		assertEquals(b, handles(table)[0]);
+		assertEquals(c, handles(table)[1]);
+		assertEquals(d, handles(table)[2]);
+
+		assertEquals(10, (int) remove.invoke(table, a));
+		assertEquals(-1, (int) get.invoke(table, a));
+		assertEquals(-1, (int) remove.invoke(table, a));
+		assertEquals(11, (int) get.invoke(table, b));
+		assertEquals(12, (int) get.invoke(table, c));
+		assertEquals(13, (int) get.invoke(table, d));
+		/* The entries moved back across the end of the table, leaving no gap in a probe sequence */
+		assertEquals(b, handles(table)[last]);
+		assertEquals(c, handles(table)[0]);
+		assertEquals(d, handles(table)[1]);
+		assertEquals(0, handles(table)[2]);
+
+		assertEquals(13, (int) remove.invoke(table, d));
+		assertEquals(11, (int) remove.invoke(table, b));
+		assertEquals(12, (int) get.invoke(table, c));
+		assertEquals(c, handles(table)[last]);
+		assertEquals(12, (int) remove.invoke(table, c));
+		for (long handle : handles(table)) {
+			assertEquals(0, handle);
+		}
+	}
+
+	@Test
+	public void test_growKeepsEntries() throws Exception {
+		Object table = constructor.newInstance(8);
+		int length = handles(table).length;
+		int count = 1000;
+		/* Addresses of native objects are aligned, so space the handles out */
+		for (int i = 0; i < count; i++) {
+			put.invoke(table, 0x7f0000001000L + i * 16L, i);
+		}
+		assertTrue(handles(table).length > length);
+		assertTrue(handles(table).length >= count * 2);
+		for (int i = 0; i < count; i++) {
+			assertEquals(i, (int) get.invoke(table, 0x7f0000001000L + i * 16L));
+		}
+		for (int i = 0; i < count; i += 2) {
+			assertEquals(i, (int) remove.invoke(table, 0x7f0000001000L + i * 16L));
+		}
+		for (int i = 0; i < count; i++) {
+			assertEquals(i % 2 == 0 ? -1 : i, (int) get.invoke(table, 0x7f0000001000L + i * 16L));
+		}
+		put.invoke(table, 0x7f0000001000L + 16L, 2000);
+		assertEquals(2000, (int) get.invoke(table, 0x7f0000001000L + 16L));
+	}
+}
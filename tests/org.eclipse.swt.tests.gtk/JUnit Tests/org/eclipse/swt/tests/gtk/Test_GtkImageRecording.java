@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests images that record what is drawn on them. The counters of the
+ * recordings replayed and culled are answered by the display for the
+ * <code>org.eclipse.swt.internal.gtk.statistics</code> key.
+ */
+public class Test_GtkImageRecording {
+
+	Display display;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+	}
+
+	long get(String name) {
+		@SuppressWarnings("unchecked")
+		Map<String, Long> statistics = (Map<String, Long>) display.getData("org.eclipse.swt.internal.gtk.statistics");
+		return statistics.get(name);
+	}
+
+	static RGB getRGB(Image image, int x, int y) {
+		ImageData data = image.getImageData();
+		return data.palette.getRGB(data.getPixel(x, y));
+	}
+
+	@Test
+	public void test_replay() {
+		Image recording = new Image(display, 20, 20, SWT.IMAGE_RECORDING);
+		Image image = new Image(display, 40, 20);
+		try {
+			GC gc = new GC(recording);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+			gc.fillRectangle(0, 0, 20, 20);
+			gc.dispose();
+			assertEquals(20, recording.getBounds().width);
+
+			gc = new GC(image);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+			gc.fillRectangle(0, 0, 40, 20);
+			long replays = get("recording.replays");
+			gc.drawImage(recording, 20, 0);
+			assertEquals(replays + 1, get("recording.replays"));
+			gc.dispose();
+			assertEquals(new RGB(255, 255, 255), getRGB(image, 10, 10));
+			assertEquals(new RGB(0, 0, 255), getRGB(image, 30, 10));
+		} finally {
+			recording.dispose();
+			image.dispose();
+		}
+	}
+
+	@Test
+	public void test_replayOutsideClipping() {
+		Image recording = new Image(display, 10, 10, SWT.IMAGE_RECORDING);
+		Image image = new Image(display, 40, 20);
+		try {
+			GC gc = new GC(recording);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_RED));
+			gc.fillRectangle(0, 0, 10, 10);
+			gc.dispose();
+
+			gc = new GC(image);
+			gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+			gc.fillRectangle(0, 0, 40, 20);
+			gc.setClipping(0, 0, 20, 20);
+			long replays = get("recording.replays"), culls = get("recording.culls");
+			gc.drawImage(recording, 25, 5);
+			assertEquals(replays, get("recording.replays"));
+			assertEquals(culls + 1, get("recording.culls"));
+			gc.drawImages(recording, new int[] {0, 0, 10, 10, 0, 0, 10, 10}, new int[] {25, 5, 10, 10, 5, 5, 10, 10});
+			assertEquals(replays + 1, get("recording.replays"));
+			assertEquals(culls + 2, get("recording.culls"));
+			/* A destination that crosses the clipping is replayed */
+			gc.drawImage(recording, 15, 5);
+			assertEquals(replays + 2, get("recording.replays"));
+			assertEquals(culls + 2, get("recording.culls"));
+			gc.dispose();
+			assertEquals(new RGB(255, 255, 255), getRGB(image, 30, 10));
+			assertEquals(new RGB(255, 0, 0), getRGB(image, 10, 10));
+			assertEquals(new RGB(255, 0, 0), getRGB(image, 17, 10));
+		} finally {
+			recording.dispose();
+			image.dispose();
+		}
+	}
+}
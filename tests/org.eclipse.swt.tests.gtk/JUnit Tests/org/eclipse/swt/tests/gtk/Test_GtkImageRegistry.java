@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.internal.cairo.Cairo;
+import org.eclipse.swt.internal.gtk.OS;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that images with identical pixels share their pixels.
+ */
+public class Test_GtkImageRegistry {
+
+	Display display;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+	}
+
+	static ImageDataProvider provider(int pixel) {
+		return zoom -> {
+			ImageData data = new ImageData(16 * zoom / 100, 16 * zoom / 100, 24, new PaletteData(0xff0000, 0xff00, 0xff));
+			for (int y = 0; y < data.height; y++) {
+				for (int x = 0; x < data.width; x++) {
+					data.setPixel(x, y, pixel);
+				}
+			}
+			return data;
+		};
+	}
+
+	static RGB getRGB(Image image) {
+		ImageData data = image.getImageData();
+		return data.palette.getRGB(data.getPixel(0, 0));
+	}
+
+	@SuppressWarnings("unchecked")
+	long getStatistic(String name) {
+		return ((Map<String, Long>) display.getData("org.eclipse.swt.internal.gtk.statistics")).get(name);
+	}
+
+	@Test
+	public void test_identicalImagesShareSurface() {
+		long hits = getStatistic("imageRegistry.hits");
+		Image image1 = new Image(display, provider(0xff0000));
+		Image image2 = new Image(display, provider(0xff0000));
+		Image image3 = new Image(display, provider(0x0000ff));
+		try {
+			assertEquals(hits + 1, getStatistic("imageRegistry.hits"));
+			/* Each image keeps a surface of its own */
+			assertNotEquals(image1.surface, image2.surface);
+			assertEquals(Cairo.cairo_image_surface_get_data(image1.surface), Cairo.cairo_image_surface_get_data(image2.surface));
+			assertNotEquals(Cairo.cairo_image_surface_get_data(image1.surface), Cairo.cairo_image_surface_get_data(image3.surface));
+			assertFalse(image1.equals(image2));
+
+			/* The surface stays valid for the remaining image */
+			image1.dispose();
+			assertEquals(new RGB(255, 0, 0), getRGB(image2));
+		} finally {
+			image1.dispose();
+			image2.dispose();
+			image3.dispose();
+		}
+	}
+
+	@Test
+	public void test_drawingCopiesSharedSurface() {
+		Image image1 = new Image(display, provider(0xff0000));
+		Image image2 = new Image(display, provider(0xff0000));
+		try {
+			GC gc = new GC(image1);
+			Color blue = new Color(0, 0, 255);
+			gc.setBackground(blue);
+			gc.fillRectangle(0, 0, 16, 16);
+			gc.dispose();
+			assertNotEquals(Cairo.cairo_image_surface_get_data(image1.surface), Cairo.cairo_image_surface_get_data(image2.surface));
+			assertEquals(new RGB(0, 0, 255), getRGB(image1));
+			assertEquals(new RGB(255, 0, 0), getRGB(image2));
+		} finally {
+			image1.dispose();
+			image2.dispose();
+		}
+	}
+
+	@Test
+	public void test_tableItemKeepsImage() {
+		Shell shell = new Shell(display);
+		Table table = new Table(shell, SWT.NONE);
+		TableItem item1 = new TableItem(table, SWT.NONE);
+		TableItem item2 = new TableItem(table, SWT.NONE);
+		Image image1 = new Image(display, provider(0xffff00));
+		Image image2 = new Image(display, provider(0xffff00));
+		try {
+			item1.setImage(image1);
+			item2.setImage(image2);
+			assertSame(image1, item1.getImage());
+			assertSame(image2, item2.getImage());
+			item1.setImage(image2);
+			assertSame(image2, item1.getImage());
+		} finally {
+			shell.dispose();
+			image1.dispose();
+			image2.dispose();
+		}
+	}
+
+	@Test
+	public void test_sharedPixbuf() {
+		Image image1 = new Image(display, provider(0x00ff00));
+		Image image2 = new Image(display, provider(0x00ff00));
+		try {
+			long pixbuf1 = image1.internal_gtk_getPixbuf(false);
+			long pixbuf2 = image2.internal_gtk_getPixbuf(false);
+			assertNotEquals(0, pixbuf1);
+			assertEquals(pixbuf1, pixbuf2);
+			OS.g_object_unref(pixbuf1);
+			OS.g_object_unref(pixbuf2);
+		} finally {
+			image1.dispose();
+			image2.dispose();
+		}
+	}
+}
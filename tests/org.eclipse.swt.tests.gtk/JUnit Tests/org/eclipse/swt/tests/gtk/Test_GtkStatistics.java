@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.gtk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.internal.DPIUtil;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caches of the GTK port through the counters the display
+ * answers for the <code>org.eclipse.swt.internal.gtk.statistics</code> key.
+ */
+public class Test_GtkStatistics {
+
+	Display display;
+	Shell shell;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		shell = new Shell(display);
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	long get(String name) {
+		@SuppressWarnings("unchecked")
+		Map<String, Long> statistics = (Map<String, Long>) display.getData("org.eclipse.swt.internal.gtk.statistics");
+		return statistics.get(name);
+	}
+
+	@Test
+	public void test_sizeCache_alternatingHints() {
+		Label label = new Label(shell, SWT.WRAP);
+		label.setText("Some text that wraps");
+		long hits = get("sizeCache.hits"), misses = get("sizeCache.misses");
+		Point narrow = label.computeSize(40, SWT.DEFAULT);
+		Point wide = label.computeSize(400, SWT.DEFAULT);
+		assertEquals(misses + 2, get("sizeCache.misses"));
+		for (int i = 0; i < 5; i++) {
+			assertEquals(narrow, label.computeSize(40, SWT.DEFAULT));
+			assertEquals(wide, label.computeSize(400, SWT.DEFAULT));
+		}
+		assertEquals(hits + 10, get("sizeCache.hits"));
+		assertEquals(misses + 2, get("sizeCache.misses"));
+
+		/* Changing the text or passing changed computes the size again */
+		label.setText("Some other text");
+		label.computeSize(40, SWT.DEFAULT);
+		label.computeSize(40, SWT.DEFAULT, true);
+		assertEquals(misses + 4, get("sizeCache.misses"));
+	}
+
+	@Test
+	public void test_sizeCache_defaultButton() {
+		Button button = new Button(shell, SWT.PUSH);
+		button.setText("Button");
+		button.computeSize(SWT.DEFAULT, SWT.DEFAULT);
+		long misses = get("sizeCache.misses");
+		button.computeSize(SWT.DEFAULT, SWT.DEFAULT);
+		assertEquals(misses, get("sizeCache.misses"));
+
+		/* The default border changes the size of the button */
+		shell.setDefaultButton(button);
+		button.computeSize(SWT.DEFAULT, SWT.DEFAULT);
+		assertEquals(misses + 1, get("sizeCache.misses"));
+		shell.setDefaultButton(null);
+		button.computeSize(SWT.DEFAULT, SWT.DEFAULT);
+		assertEquals(misses + 2, get("sizeCache.misses"));
+	}
+
+	@Test
+	public void test_fontCache_equalFonts() {
+		FontData data = new FontData("Sans", 17, SWT.BOLD);
+		long hits = get("fontCache.hits"), misses = get("fontCache.misses");
+		Font font = new Font(display, data);
+		Font other = new Font(display, data);
+		try {
+			assertEquals(misses + 1, get("fontCache.misses"));
+			assertEquals(hits + 1, get("fontCache.hits"));
+		} finally {
+			font.dispose();
+			other.dispose();
+		}
+	}
+
+	@Test
+	public void test_imageZoomCache_imageDataAtOtherZoom() {
+		Image image = new Image(display, (ImageDataProvider) zoom -> new ImageData(16 * zoom / 100, 16 * zoom / 100, 24, new PaletteData(0xff0000, 0xff00, 0xff)));
+		try {
+			int zoom = DPIUtil.getDeviceZoom() == 200 ? 300 : 200;
+			long hits = get("imageZoomCache.hits"), misses = get("imageZoomCache.misses");
+			ImageData data = image.getImageData(zoom);
+			assertEquals(misses + 1, get("imageZoomCache.misses"));
+			assertEquals(data.width, image.getImageData(zoom).width);
+			assertEquals(hits + 1, get("imageZoomCache.hits"));
+			assertEquals(misses + 1, get("imageZoomCache.misses"));
+		} finally {
+			image.dispose();
+		}
+	}
+}
@@ -13,8 +13,14 @@
  *******************************************************************************/
 package org.eclipse.swt.tests.junit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CLabel;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.widgets.Composite;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -61,6 +67,45 @@ public void test_setToolTipTextLjava_lang_String() {
 /* custom */
 CLabel label;
 
+@Test
+public void test_shortenTextLorg_eclipse_swt_graphics_GCLjava_lang_StringI() {
+	class ShortenLabel extends CLabel {
+		ShortenLabel(Composite parent) {
+			super(parent, SWT.NONE);
+		}
+		String shorten(GC gc, String text, int width) {
+			return shortenText(gc, text, width);
+		}
+	}
+	ShortenLabel shortenLabel = new ShortenLabel(shell);
+	int flags = SWT.DRAW_MNEMONIC | SWT.DRAW_TAB | SWT.DRAW_TRANSPARENT | SWT.DRAW_DELIMITER;
+	String text = "/home/user/workspace/project/src/org/eclipse/swt/custom/VeryLongFileName.java";
+	GC gc = new GC(shortenLabel);
+	try {
+		assertNull(shortenLabel.shorten(gc, null, 100));
+		assertEquals("short", shortenLabel.shorten(gc, "short", 10));
+		int fullWidth = gc.textExtent(text, flags).x;
+		for (int width = fullWidth / 4; width < fullWidth; width += fullWidth / 8) {
+			String shortened = shortenLabel.shorten(gc, text, width);
+			int index = shortened.indexOf("...");
+			assertTrue(shortened, index > 0);
+			assertTrue(shortened, gc.textExtent(shortened, flags).x <= width);
+			String start = shortened.substring(0, index);
+			String end = shortened.substring(index + 3);
+			assertEquals(shortened, start.length(), end.length());
+			assertTrue(shortened, text.startsWith(start));
+			assertTrue(shortened, text.endsWith(end));
+			assertEquals(shortened, shortenLabel.shorten(gc, text, width));
+		}
+		String combining = "e\u0301".repeat(40);
+		String shortened = shortenLabel.shorten(gc, combining, gc.textExtent(combining, flags).x / 2);
+		assertTrue(shortened, shortened.startsWith("e\u0301") && !shortened.endsWith("e") && !shortened.contains("e..."));
+	} finally {
+		gc.dispose();
+		shortenLabel.dispose();
+	}
+}
+
 @Override
 @Test
 public void test_consistency_MenuDetect () {
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTable;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Point;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.custom.CTable
+ *
+ * @see org.eclipse.swt.custom.CTable
+ */
+public class Test_org_eclipse_swt_custom_CTable extends Test_org_eclipse_swt_widgets_Canvas {
+
+@Override
+@Before
+public void setUp() {
+	super.setUp();
+	table = new CTable(shell, SWT.MULTI);
+	setWidget(table);
+}
+
+@Override
+@Test
+public void test_ConstructorLorg_eclipse_swt_widgets_CompositeI() {
+	CTable single = new CTable(shell, SWT.NONE);
+	assertTrue((single.getStyle() & SWT.SINGLE) != 0);
+	assertTrue((single.getStyle() & SWT.V_SCROLL) != 0);
+	single.dispose();
+}
+
+@Override
+@Test
+public void test_setBackgroundLorg_eclipse_swt_graphics_Color() {
+	super.test_setBackgroundLorg_eclipse_swt_graphics_Color();
+	/* Resetting the colors answers the colors of lists, not those of the parent */
+	table.setBackground(null);
+	assertEquals(table.getDisplay().getSystemColor(SWT.COLOR_LIST_BACKGROUND), table.getBackground());
+	table.setForeground(null);
+	assertEquals(table.getDisplay().getSystemColor(SWT.COLOR_LIST_FOREGROUND), table.getForeground());
+}
+
+@Override
+@Test
+public void test_setFontLorg_eclipse_swt_graphics_Font() {
+	Font systemFont = table.getFont();
+	table.setFont(systemFont);
+	assertEquals(systemFont, table.getFont());
+
+	/* The rows follow the height of the font */
+	int height = table.getItemHeight();
+	Font font = new Font(table.getDisplay(), SwtTestUtil.testFontName, 40, SWT.NORMAL);
+	table.setFont(font);
+	assertEquals(font, table.getFont());
+	assertTrue(table.getItemHeight() > height);
+	table.setFont(null);
+	assertEquals(height, table.getItemHeight());
+	font.dispose();
+	assertThrows(IllegalArgumentException.class, () -> table.setFont(font));
+}
+
+/* custom */
+CTable table;
+
+@Test
+public void test_setItemCountI() {
+	assertEquals(0, table.getItemCount());
+	table.setItemCount(1_000_000);
+	assertEquals(1_000_000, table.getItemCount());
+	table.setSelection(new int[] {5, 999_999});
+	table.setItemCount(10);
+	assertEquals(10, table.getItemCount());
+	assertArrayEquals(new int[] {5}, table.getSelectionIndices());
+	table.setItemCount(-1);
+	assertEquals(0, table.getItemCount());
+	assertEquals(-1, table.getSelectionIndex());
+}
+
+@Test
+public void test_setColumnWidthII() {
+	assertEquals(0, table.getColumnCount());
+	table.setColumnCount(3);
+	assertEquals(3, table.getColumnCount());
+	assertEquals(0, table.getColumnWidth(2));
+	table.setColumnWidth(2, 50);
+	assertEquals(50, table.getColumnWidth(2));
+	assertThrows(IllegalArgumentException.class, () -> table.setColumnWidth(3, 10));
+	assertThrows(IllegalArgumentException.class, () -> table.setColumnWidth(0, -1));
+	assertThrows(IllegalArgumentException.class, () -> table.setColumnCount(-1));
+}
+
+@Test
+public void test_setSelection$I() {
+	table.setItemCount(100);
+	table.setSelection(new int[] {3, 1, 200, -1});
+	assertArrayEquals(new int[] {1, 3}, table.getSelectionIndices());
+	assertEquals(2, table.getSelectionCount());
+	assertTrue(table.isSelected(3));
+	assertFalse(table.isSelected(200));
+	table.deselect(1);
+	assertArrayEquals(new int[] {3}, table.getSelectionIndices());
+	table.selectAll();
+	assertEquals(100, table.getSelectionCount());
+	table.deselectAll();
+	assertEquals(0, table.getSelectionCount());
+
+	CTable single = new CTable(shell, SWT.SINGLE);
+	single.setItemCount(10);
+	single.setSelection(new int[] {1, 2});
+	assertEquals(0, single.getSelectionCount());
+	single.select(1);
+	single.select(2);
+	assertArrayEquals(new int[] {2}, single.getSelectionIndices());
+	single.selectAll();
+	assertArrayEquals(new int[] {2}, single.getSelectionIndices());
+	single.dispose();
+}
+
+@Test
+public void test_setTopIndexI() {
+	shell.setSize(300, 300);
+	table.setBounds(0, 0, 200, 200);
+	table.setItemCount(1000);
+	table.setTopIndex(500);
+	assertEquals(500, table.getTopIndex());
+	table.setTopIndex(-5);
+	assertEquals(0, table.getTopIndex());
+	table.showItem(900);
+	int top = table.getTopIndex();
+	int visible = table.getClientArea().height / table.getItemHeight();
+	assertTrue(top <= 900 && 900 < top + Math.max(visible, 1));
+	table.setItemCount(1);
+	assertEquals(0, table.getTopIndex());
+	assertThrows(IllegalArgumentException.class, () -> table.showItem(1));
+}
+
+@Test
+public void test_getItemIndexLorg_eclipse_swt_graphics_Point() {
+	table.setBounds(0, 0, 200, 200);
+	table.setItemCount(1000);
+	table.setItemHeight(20);
+	assertEquals(20, table.getItemHeight());
+	assertEquals(0, table.getItemIndex(new Point(5, 5)));
+	assertEquals(2, table.getItemIndex(new Point(5, 45)));
+	table.setTopIndex(10);
+	assertEquals(12, table.getItemIndex(new Point(5, 45)));
+	table.setItemCount(2);
+	assertEquals(-1, table.getItemIndex(new Point(5, 45)));
+	assertThrows(IllegalArgumentException.class, () -> table.setItemHeight(0));
+}
+
+@Test
+public void test_paintVisibleCellsOnly() {
+	shell.setSize(300, 300);
+	table.setBounds(0, 0, 200, 200);
+	table.setItemHeight(20);
+	table.setItemCount(1_000_000);
+	table.setColumnCount(100);
+	for (int i = 0; i < 100; i++) {
+		table.setColumnWidth(i, 50);
+	}
+	BitSet rows = new BitSet();
+	BitSet columns = new BitSet();
+	BitSet measuredColumns = new BitSet();
+	int[] count = new int[1];
+	table.addListener(SWT.MeasureItem, event -> measuredColumns.set(event.index));
+	table.addListener(SWT.PaintItem, event -> {
+		rows.set(event.start);
+		columns.set(event.index);
+		count[0]++;
+	});
+	table.setTopIndex(500_000);
+	assertTrue("PaintItem not sent", SwtTestUtil.waitEvent(() -> {
+		shell.open();
+		table.redraw();
+	}, table, SWT.PaintItem, 1000));
+	assertTrue(rows.nextSetBit(0) >= 500_000);
+	assertTrue(rows.cardinality() <= 200 / 20 + 1);
+	assertTrue(columns.cardinality() <= 200 / 50 + 1);
+	assertTrue(measuredColumns.cardinality() <= 200 / 50 + 1);
+}
+}
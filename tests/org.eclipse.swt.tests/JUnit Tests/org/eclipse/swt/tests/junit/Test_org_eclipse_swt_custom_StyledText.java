@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeFalse;
 
+import java.io.StringWriter;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,6 +52,7 @@ import org.eclipse.swt.custom.StyledTextContent;
 import org.eclipse.swt.custom.TextChangeListener;
 import org.eclipse.swt.custom.VerifyKeyListener;
 import org.eclipse.swt.dnd.Clipboard;
+import org.eclipse.swt.dnd.FileTransfer;
 import org.eclipse.swt.dnd.HTMLTransfer;
 import org.eclipse.swt.dnd.RTFTransfer;
 import org.eclipse.swt.dnd.TextTransfer;
@@ -793,6 +795,79 @@ public void test_clipboardWithHtml() {
 	fontArial8.dispose();
 }
 
+/**
+ * RTF and HTML are rendered when requested from the clipboard, they must
+ * still contain the copied text after the copied range was modified.
+ */
+@Test
+public void test_copyRichTextAfterModify() {
+	Clipboard clipboard = new Clipboard(text.getDisplay());
+	text.setText("copied text");
+	text.setSelectionRange(0, 6);
+	text.copy();
+	text.replaceTextRange(0, 6, "replaced");
+
+	String rtfText = (String) clipboard.getContents(RTFTransfer.getInstance());
+	assertNotNull(rtfText);
+	assertTrue(rtfText.contains("copied"));
+	assertFalse(rtfText.contains("replaced"));
+	String htmlText = (String) clipboard.getContents(HTMLTransfer.getInstance());
+	assertNotNull(htmlText);
+	assertTrue(htmlText.contains("copied"));
+	assertFalse(htmlText.contains("replaced"));
+	clipboard.dispose();
+}
+
+/**
+ * RTF and HTML are rendered when requested from the clipboard, they must
+ * not contain styles that were set on the copied range after the copy.
+ */
+@Test
+public void test_copyRichTextAfterStyleChange() {
+	Clipboard clipboard = new Clipboard(text.getDisplay());
+	Color color = new Color(1, 2, 3);
+	text.setText("copied text");
+	text.setSelectionRange(0, 6);
+	text.copy();
+	text.setStyleRange(new StyleRange(0, 6, color, null));
+	text.setLineBackground(0, 1, color);
+
+	String rtfText = (String) clipboard.getContents(RTFTransfer.getInstance());
+	assertNotNull(rtfText);
+	assertTrue(rtfText.contains("copied"));
+	assertFalse(rtfText.contains("\\red1\\green2\\blue3"));
+	String htmlText = (String) clipboard.getContents(HTMLTransfer.getInstance());
+	assertNotNull(htmlText);
+	assertTrue(htmlText.contains("copied"));
+	assertFalse(htmlText.contains("#010203"));
+	clipboard.dispose();
+}
+
+/**
+ * The widget colors and line style listeners apply to the copied text as
+ * well, changing them must not affect rich text that is rendered later.
+ */
+@Test
+public void test_copyRichTextAfterWidgetChange() {
+	Clipboard clipboard = new Clipboard(text.getDisplay());
+	Color color = new Color(1, 2, 3);
+	text.setText("copied text");
+	text.setSelectionRange(0, 6);
+	text.copy();
+	text.setForeground(color);
+	text.addLineStyleListener(event -> event.styles = new StyleRange[] {new StyleRange(event.lineOffset, 6, null, color)});
+
+	String rtfText = (String) clipboard.getContents(RTFTransfer.getInstance());
+	assertNotNull(rtfText);
+	assertTrue(rtfText.contains("copied"));
+	assertFalse(rtfText.contains("\\red1\\green2\\blue3"));
+	String htmlText = (String) clipboard.getContents(HTMLTransfer.getInstance());
+	assertNotNull(htmlText);
+	assertTrue(htmlText.contains("copied"));
+	assertFalse(htmlText.contains("#010203"));
+	clipboard.dispose();
+}
+
 @Test
 public void test_cut() {
 	if (SwtTestUtil.isCocoa) {
@@ -860,6 +935,36 @@ public void test_cut() {
 	clipboard.dispose();
 }
 
+@Test
+public void test_exportTextLjava_io_WriterIILorg_eclipse_swt_dnd_Transfer() {
+	String delimiter = System.lineSeparator();
+	text.setText("line one\nline {two}\nline three");
+	text.setStyleRange(new StyleRange(5, 3, getColor(RED), null, SWT.BOLD));
+
+	StringWriter writer = new StringWriter();
+	text.exportText(writer, 5, 15, TextTransfer.getInstance());
+	assertEquals("one" + delimiter + "line {two}" + delimiter, writer.toString());
+
+	writer = new StringWriter();
+	text.exportText(writer, 0, text.getCharCount(), RTFTransfer.getInstance());
+	String rtf = writer.toString();
+	assertTrue(rtf.startsWith("{\\rtf1"));
+	assertTrue(rtf.contains("\\red255\\green0\\blue0"));
+	assertTrue(rtf.contains("line \\{two\\}"));
+	assertTrue(rtf.endsWith("}}"));
+
+	writer = new StringWriter();
+	text.exportText(writer, 0, text.getCharCount(), HTMLTransfer.getInstance());
+	String html = writer.toString();
+	assertTrue(html.startsWith("<div"));
+	assertTrue(html.contains("line three"));
+	assertTrue(html.endsWith("</div></div>"));
+
+	assertThrows(IllegalArgumentException.class, () -> text.exportText(new StringWriter(), 0, text.getCharCount() + 1, TextTransfer.getInstance()));
+	assertThrows(IllegalArgumentException.class, () -> text.exportText(new StringWriter(), 0, 1, FileTransfer.getInstance()));
+	assertThrows(IllegalArgumentException.class, () -> text.exportText(null, 0, 1, TextTransfer.getInstance()));
+}
+
 @Test
 public void test_getCaretOffset() {
 	assertEquals(":a:", 0, text.getCaretOffset());
@@ -5547,9 +5652,6 @@ protected void rtfCopy() {
 	linesCalled[0] = 0;
 	text.copy();
 
-	// The listener is invoked twice for each line, once for RTF and once for HTML.
-	assertEquals("not all lines tested for RTF & HTML copy", 2 * text.getLineCount(), linesCalled[0]);
-
 	Clipboard clipboard = new Clipboard(text.getDisplay());
 	RTFTransfer rtfTranfer = RTFTransfer.getInstance();
 	String clipboardText = (String) clipboard.getContents(rtfTranfer);
@@ -5559,6 +5661,9 @@ protected void rtfCopy() {
 	clipboardText = (String) clipboard.getContents(htmlTranfer);
 	assertTrue("HTML copy failed", clipboardText.length() > 0);
 
+	// RTF and HTML are rendered on request, the listener is invoked twice for each line, once for each.
+	assertEquals("not all lines tested for RTF & HTML copy", 2 * text.getLineCount(), linesCalled[0]);
+
 	clipboard.dispose();
 	text.removeLineStyleListener(listener);
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -25,6 +25,9 @@ import static org.junit.Assert.fail;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
 import org.junit.Before;
 import org.junit.Test;
@@ -336,6 +339,30 @@ public void test_hashCode() {
 	font.dispose();
 }
 
+@Test
+public void test_equalFontData() {
+	Font font1 = new Font(display, SwtTestUtil.testFontName, 10, SWT.BOLD);
+	Font font2 = new Font(display, new FontData(SwtTestUtil.testFontName, 10, SWT.BOLD));
+	Image image = new Image(display, 10, 10);
+	GC gc = new GC(image);
+	try {
+		gc.setFont(font2);
+		FontMetrics metrics = gc.getFontMetrics();
+		// Disposing one of two equal fonts must not affect the other
+		font1.dispose();
+		assertFalse(font2.isDisposed());
+		assertEquals(10, font2.getFontData()[0].getHeight());
+		assertEquals(SWT.BOLD, font2.getFontData()[0].getStyle());
+		gc.setFont(font2);
+		assertEquals(metrics, gc.getFontMetrics());
+	} finally {
+		gc.dispose();
+		image.dispose();
+		font1.dispose();
+		font2.dispose();
+	}
+}
+
 @Test
 public void test_isDisposed() {
 	// Test Font.isDisposed() false
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -256,6 +256,68 @@ public void test_drawImageLorg_eclipse_swt_graphics_ImageII() {
 	imageAlpha.dispose();
 }
 
+@Test
+public void test_drawImagesLorg_eclipse_swt_graphics_Image$I$I() {
+	// An atlas with a red and a blue 10x10 tile
+	PaletteData palette = new PaletteData(0xff0000, 0xff00, 0xff);
+	ImageData data = new ImageData(20, 10, 24, palette);
+	for (int y = 0; y < data.height; y++) {
+		for (int x = 0; x < data.width; x++) {
+			data.setPixel(x, y, x < 10 ? 0xff0000 : 0x0000ff);
+		}
+	}
+	Image atlas = new Image(display, data);
+	Image target = new Image(display, 40, 10);
+	GC targetGC = new GC(target);
+	try {
+		targetGC.setInterpolation(SWT.NONE);
+		targetGC.drawImages(atlas, new int[] {10, 0, 10, 10, 0, 0, 10, 10, 0, 0, 10, 10}, new int[] {0, 0, 10, 10, 10, 0, 10, 10, 20, 0, 20, 10});
+		targetGC.dispose();
+		ImageData result = target.getImageData();
+		assertEquals(new RGB(0, 0, 255), result.palette.getRGB(result.getPixel(5, 5)));
+		assertEquals(new RGB(255, 0, 0), result.palette.getRGB(result.getPixel(15, 5)));
+		assertEquals(new RGB(255, 0, 0), result.palette.getRGB(result.getPixel(35, 5)));
+
+		gc.drawImages(atlas, new int[0], new int[0]);
+		try {
+			gc.drawImages(atlas, new int[] {0, 0, 10, 10}, new int[] {0, 0, 10});
+			fail("No exception thrown for different lengths");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown", SWT.ERROR_INVALID_ARGUMENT, e);
+		}
+		try {
+			gc.drawImages(atlas, new int[] {15, 0, 10, 10}, new int[] {0, 0, 10, 10});
+			fail("No exception thrown for a source rectangle outside the image");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown", SWT.ERROR_INVALID_ARGUMENT, e);
+		}
+		// Nothing is drawn when any of the rectangles is invalid
+		Image blank = new Image(display, 10, 10);
+		GC blankGC = new GC(blank);
+		try {
+			blankGC.drawImages(atlas, new int[] {0, 0, 10, 10, 15, 0, 10, 10}, new int[] {0, 0, 10, 10, 0, 0, 10, 10});
+			fail("No exception thrown for a source rectangle outside the image");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown", SWT.ERROR_INVALID_ARGUMENT, e);
+		} finally {
+			blankGC.dispose();
+		}
+		result = blank.getImageData();
+		blank.dispose();
+		assertEquals(new RGB(255, 255, 255), result.palette.getRGB(result.getPixel(5, 5)));
+		try {
+			gc.drawImages(null, new int[0], new int[0]);
+			fail("No exception thrown for a null image");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown", SWT.ERROR_NULL_ARGUMENT, e);
+		}
+	} finally {
+		targetGC.dispose();
+		target.dispose();
+		atlas.dispose();
+	}
+}
+
 @Test
 public void test_drawImageLorg_eclipse_swt_graphics_ImageIIIIIIII() {
 	Color c1 = new Color(255, 0, 0);
@@ -682,6 +744,36 @@ public void test_textExtentLjava_lang_StringI() {
 	assertTrue(pt.y > 0);
 }
 
+@Test
+public void test_textExtentLjava_lang_StringI_repeatedWithFontsAndFlags() {
+	String text = "abc\tdef&ghi";
+	Point normal = gc.textExtent(text, 0);
+	Font font = new Font(display, gc.getFont().getFontData()[0].getName(), 40, SWT.NORMAL);
+	try {
+		gc.setFont(font);
+		Point large = gc.textExtent(text, 0);
+		assertTrue(large.x > normal.x);
+		assertTrue(large.y > normal.y);
+		Point tabs = gc.textExtent(text, SWT.DRAW_TAB);
+		assertNotEquals(large, tabs);
+		gc.setFont(null);
+		assertEquals(normal, gc.textExtent(text, 0));
+		/* Same extent from another GC */
+		GC gc2 = new GC(image);
+		try {
+			assertEquals(normal, gc2.textExtent(text, 0));
+			gc2.setFont(font);
+			assertEquals(large, gc2.textExtent(text, 0));
+			assertEquals(tabs, gc2.textExtent(text, SWT.DRAW_TAB));
+		} finally {
+			gc2.dispose();
+		}
+	} finally {
+		gc.setFont(null);
+		font.dispose();
+	}
+}
+
 @Test
 public void test_toString() {
 	String s = gc.toString();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,6 +27,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.function.Consumer;
 
 import org.eclipse.swt.SWT;
@@ -252,6 +254,74 @@ public void test_ConstructorLorg_eclipse_swt_graphics_DeviceLorg_eclipse_swt_gra
 	image.dispose();
 }
 
+@Test
+public void test_ConstructorLorg_eclipse_swt_graphics_DeviceLjava_nio_ByteBufferIII() {
+	Image image;
+	int width = 16, height = 8;
+	try {
+		image = new Image(display, null, width, height, width * 4);
+		image.dispose();
+		fail("No exception thrown for null buffer");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for null buffer", SWT.ERROR_NULL_ARGUMENT, e);
+	}
+	int[][] invalid = {{width, height, width * 4 - 2}, {0, height, width * 4}, {width, height + 1, width * 4}};
+	for (int[] size : invalid) {
+		try {
+			image = new Image(display, ByteBuffer.allocateDirect(width * 4 * height), size[0], size[1], size[2]);
+			image.dispose();
+			fail("No exception thrown for invalid size");
+		} catch (IllegalArgumentException e) {
+			assertSWTProblem("Incorrect exception thrown for invalid size", SWT.ERROR_INVALID_ARGUMENT, e);
+		}
+	}
+	try {
+		image = new Image(display, ByteBuffer.allocate(width * 4 * height), width, height, width * 4);
+		image.dispose();
+		fail("No exception thrown for heap buffer");
+	} catch (IllegalArgumentException e) {
+		assertSWTProblem("Incorrect exception thrown for heap buffer", SWT.ERROR_INVALID_ARGUMENT, e);
+	}
+
+	ByteBuffer pixels = ByteBuffer.allocateDirect(width * 4 * height).order(ByteOrder.nativeOrder());
+	for (int i = 0; i < width * height; i++) {
+		pixels.putInt(i * 4, 0xFFFF0000);
+	}
+	image = new Image(display, pixels, width, height, width * 4);
+	ImageData data = image.getImageData();
+	assertEquals(new RGB(255, 0, 0), data.palette.getRGB(data.getPixel(data.width / 2, data.height / 2)));
+	image.dispose();
+}
+
+@Test
+public void test_updatePixelsIIII() {
+	Image image;
+	int width = 16, height = 8;
+	ByteBuffer pixels = ByteBuffer.allocateDirect(width * 4 * height).order(ByteOrder.nativeOrder());
+	for (int i = 0; i < width * height; i++) {
+		pixels.putInt(i * 4, 0xFFFF0000);
+	}
+	image = new Image(display, pixels, width, height, width * 4);
+	for (int i = 0; i < width * height; i++) {
+		pixels.putInt(i * 4, 0xFF0000FF);
+	}
+	image.updatePixels(0, 0, width, height);
+	ImageData data = image.getImageData();
+	assertEquals(new RGB(0, 0, 255), data.palette.getRGB(data.getPixel(data.width / 2, data.height / 2)));
+	image.dispose();
+
+	// Images that were not created from a buffer are not changed
+	image = new Image(display, 10, 10);
+	image.updatePixels(0, 0, 10, 10);
+	image.dispose();
+	try {
+		image.updatePixels(0, 0, 10, 10);
+		fail("No exception thrown for disposed image");
+	} catch (SWTException e) {
+		assertSWTProblem("Incorrect exception thrown for disposed image", SWT.ERROR_GRAPHIC_DISPOSED, e);
+	}
+}
+
 @Test
 public void test_ConstructorLorg_eclipse_swt_graphics_DeviceLorg_eclipse_swt_graphics_ImageDataLorg_eclipse_swt_graphics_ImageData() {
 	ImageData data = null;
@@ -857,6 +927,32 @@ public void test_getImageData_200() {
 	}
 }
 
+@Test
+public void test_getImageData_cachedPerZoom() {
+	int[] calls = new int[1];
+	ImageDataProvider provider = zoom -> {
+		calls[0]++;
+		return new ImageData(16 * zoom / 100, 8 * zoom / 100, 24, new PaletteData(0xff0000, 0xff00, 0xff));
+	};
+	Image image = new Image(display, provider);
+	try {
+		calls[0] = 0;
+		ImageData data1 = image.getImageData(200);
+		ImageData data2 = image.getImageData(200);
+		assertEquals(32, data1.width);
+		assertEquals(32, data2.width);
+		assertEquals(16, data2.height);
+		assertTrue("image data must not be shared", data1 != data2 && data1.data != data2.data);
+		if (SwtTestUtil.isGTK) {
+			assertEquals("provider should be asked once per zoom level", 1, calls[0]);
+		}
+		data1.setPixel(0, 0, 0xff);
+		assertEquals(0, image.getImageData(200).getPixel(0, 0));
+	} finally {
+		image.dispose();
+	}
+}
+
 void getImageData_int(int zoom) {
 	Rectangle bounds = new Rectangle(0, 0, 10, 20);
 	Image image = new Image(display, bounds.width, bounds.height);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,8 +23,14 @@ import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.Deflater;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -33,6 +39,7 @@ import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.ImageLoaderEvent;
 import org.eclipse.swt.graphics.ImageLoaderListener;
 import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Display;
 import org.junit.Test;
 
@@ -178,6 +185,240 @@ public void test_saveLjava_lang_StringI() {
 	}
 }
 
+/**
+ * Ensure that all the frames of an animated GIF are loaded, including
+ * animations with more than 32 frames.
+ */
+@Test
+public void test_loadAnimatedGifWithManyFrames() {
+	int frameCount = 40;
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, i, i);
+	}
+	PaletteData palette = new PaletteData(rgbs);
+	ImageData[] frames = new ImageData[frameCount];
+	for (int i = 0; i < frameCount; i++) {
+		frames[i] = new ImageData(8, 8, 8, palette);
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++) {
+				frames[i].setPixel(x, y, i * 6);
+			}
+		}
+		frames[i].delayTime = 10;
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = frames;
+	saver.logicalScreenWidth = 8;
+	saver.logicalScreenHeight = 8;
+	saver.repeatCount = 0;
+	ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+
+	ImageLoader loader = new ImageLoader();
+	ImageData[] loaded = loader.load(new ByteArrayInputStream(outputStream.toByteArray()));
+	assertEquals(frameCount, loaded.length);
+	for (int i = 0; i < frameCount; i++) {
+		assertEquals(SWT.IMAGE_GIF, loaded[i].type);
+		assertEquals(new RGB(i * 6, i * 6, i * 6), loaded[i].palette.getRGB(loaded[i].getPixel(4, 4)));
+	}
+}
+
+@Test
+public void test_saveTrueColorGif() {
+	PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	int[] colors = {0xFF0000, 0x00FF00, 0x0000FF, 0xFFFFFF, 0x000000, 0x808080};
+	ImageData image = new ImageData(60, 40, 24, palette);
+	for (int y = 0; y < 40; y++) {
+		for (int x = 0; x < 60; x++) {
+			image.setPixel(x, y, colors[(x / 10 + y / 10) % colors.length]);
+		}
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = new ImageData[] {image};
+	ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+
+	ImageData loaded = new ImageLoader().load(new ByteArrayInputStream(outputStream.toByteArray()))[0];
+	assertEquals(SWT.IMAGE_GIF, loaded.type);
+	for (int y = 5; y < 40; y += 10) {
+		for (int x = 5; x < 60; x += 10) {
+			assertEquals(palette.getRGB(image.getPixel(x, y)), loaded.palette.getRGB(loaded.getPixel(x, y)));
+		}
+	}
+
+	/* More colors than fit into a GIF palette */
+	ImageData gradient = new ImageData(256, 64, 24, palette);
+	for (int y = 0; y < 64; y++) {
+		for (int x = 0; x < 256; x++) {
+			gradient.setPixel(x, y, x << 16 | y * 4 << 8 | (255 - x));
+		}
+	}
+	saver.data = new ImageData[] {gradient};
+	outputStream.reset();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+	loaded = new ImageLoader().load(new ByteArrayInputStream(outputStream.toByteArray()))[0];
+	assertEquals(gradient.width, loaded.width);
+	assertEquals(gradient.height, loaded.height);
+	RGB expected = palette.getRGB(gradient.getPixel(128, 32));
+	RGB actual = loaded.palette.getRGB(loaded.getPixel(128, 32));
+	assertTrue(expected + " " + actual, Math.abs(expected.red - actual.red) + Math.abs(expected.green - actual.green) + Math.abs(expected.blue - actual.blue) < 96);
+}
+
+@Test
+public void test_saveAnimatedTrueColorGif() {
+	int frameCount = 10;
+	PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	ImageData[] frames = new ImageData[frameCount];
+	for (int i = 0; i < frameCount; i++) {
+		frames[i] = new ImageData(100, 50, 24, palette);
+		for (int y = 0; y < 50; y++) {
+			for (int x = 0; x < 100; x++) {
+				boolean block = x >= i * 8 && x < i * 8 + 8 && y >= 20 && y < 28;
+				frames[i].setPixel(x, y, block ? 0xFF0000 : (x + y) % 2 == 0 ? 0x00FF00 : 0x0000FF);
+			}
+		}
+		frames[i].delayTime = 10;
+	}
+	ImageLoader saver = new ImageLoader();
+	saver.data = frames;
+	saver.logicalScreenWidth = 100;
+	saver.logicalScreenHeight = 50;
+	saver.repeatCount = 0;
+	ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+	byte[] deltaBytes = outputStream.toByteArray();
+
+	ImageData[] loaded = new ImageLoader().load(new ByteArrayInputStream(deltaBytes));
+	assertEquals(frameCount, loaded.length);
+	for (int i = 0; i < frameCount; i++) {
+		ImageData frame = loaded[i];
+		int x = i * 8 + 4 - frame.x, y = 24 - frame.y;
+		assertEquals(new RGB(255, 0, 0), frame.palette.getRGB(frame.getPixel(x, y)));
+	}
+
+	/* Frames that restore the background cannot be stored as deltas */
+	for (ImageData frame : frames) {
+		frame.disposalMethod = SWT.DM_FILL_BACKGROUND;
+	}
+	outputStream.reset();
+	saver.save(outputStream, SWT.IMAGE_GIF);
+	assertTrue(deltaBytes.length < outputStream.size());
+}
+
+@Test
+public void test_saveMultiPageCompressedTiff() throws IOException {
+	PaletteData directPalette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	ImageData photo = new ImageData(400, 300, 24, directPalette);
+	for (int y = 0; y < photo.height; y++) {
+		for (int x = 0; x < photo.width; x++) {
+			photo.setPixel(x, y, (x * 255 / photo.width) << 16 | (y * 255 / photo.height) << 8 | ((x ^ y) & 0xFF));
+		}
+	}
+	RGB[] rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(i, 255 - i, i / 2);
+	}
+	ImageData indexed = new ImageData(123, 45, 8, new PaletteData(rgbs));
+	for (int y = 0; y < indexed.height; y++) {
+		for (int x = 0; x < indexed.width; x++) {
+			indexed.setPixel(x, y, (x / 8 + y) & 0xFF);
+		}
+	}
+	ImageData[] pages = {photo, indexed};
+	for (int compression = 0; compression <= 2; compression++) {
+		ImageLoader saver = new ImageLoader();
+		saver.data = pages;
+		saver.compression = compression;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		saver.save(outputStream, SWT.IMAGE_TIFF);
+		if (compression > 0) {
+			assertTrue(outputStream.size() < photo.data.length + indexed.data.length);
+		}
+		assertPages(pages, new ImageLoader().load(new ByteArrayInputStream(outputStream.toByteArray())));
+		/* Files are read through their channel */
+		File file = File.createTempFile("swt", ".tif");
+		try {
+			Files.write(file.toPath(), outputStream.toByteArray());
+			assertPages(pages, new ImageLoader().load(file.getPath()));
+		} finally {
+			file.delete();
+		}
+	}
+}
+
+private void assertPages(ImageData[] pages, ImageData[] loaded) {
+	assertEquals(pages.length, loaded.length);
+	for (int i = 0; i < loaded.length; i++) {
+		ImageData page = pages[i];
+		assertEquals(SWT.IMAGE_TIFF, loaded[i].type);
+		assertEquals(page.width, loaded[i].width);
+		assertEquals(page.height, loaded[i].height);
+		for (int y = 0; y < page.height; y += 7) {
+			for (int x = 0; x < page.width; x += 5) {
+				assertEquals(page.palette.getRGB(page.getPixel(x, y)), loaded[i].palette.getRGB(loaded[i].getPixel(x, y)));
+			}
+		}
+	}
+}
+
+@Test
+public void test_loadTiledDeflateTiff() throws IOException {
+	int width = 40, height = 20, tileSize = 16;
+	int tilesAcross = (width + tileSize - 1) / tileSize, tilesDown = (height + tileSize - 1) / tileSize;
+	int tileCount = tilesAcross * tilesDown;
+	byte[][] tiles = new byte[tileCount][];
+	for (int tile = 0; tile < tileCount; tile++) {
+		byte[] samples = new byte[tileSize * tileSize];
+		for (int y = 0; y < tileSize; y++) {
+			for (int x = 0; x < tileSize; x++) {
+				int imageX = tile % tilesAcross * tileSize + x, imageY = tile / tilesAcross * tileSize + y;
+				samples[y * tileSize + x] = (byte) (imageX * 6 + imageY);
+			}
+		}
+		Deflater deflater = new Deflater();
+		deflater.setInput(samples);
+		deflater.finish();
+		byte[] buffer = new byte[1024];
+		tiles[tile] = Arrays.copyOf(buffer, deflater.deflate(buffer));
+		deflater.end();
+	}
+	/* Little endian header, one directory with 10 entries followed by the tile offsets and counts */
+	int entryCount = 10;
+	int offsetsOffset = 8 + 2 + entryCount * 12 + 4;
+	int countsOffset = offsetsOffset + 4 * tileCount;
+	int dataOffset = countsOffset + 4 * tileCount;
+	ByteBuffer tiff = ByteBuffer.allocate(dataOffset + Arrays.stream(tiles).mapToInt(tile -> tile.length).sum()).order(ByteOrder.LITTLE_ENDIAN);
+	tiff.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+	tiff.putShort((short) entryCount);
+	int[][] entries = {
+		{256, 3, 1, width}, {257, 3, 1, height}, {258, 3, 1, 8}, {259, 3, 1, 8}, {262, 3, 1, 1},
+		{277, 3, 1, 1}, {322, 3, 1, tileSize}, {323, 3, 1, tileSize},
+		{324, 4, tileCount, offsetsOffset}, {325, 4, tileCount, countsOffset}};
+	for (int[] entry : entries) {
+		tiff.putShort((short) entry[0]).putShort((short) entry[1]).putInt(entry[2]).putInt(entry[3]);
+	}
+	tiff.putInt(0);
+	for (int tile = 0, offset = dataOffset; tile < tileCount; offset += tiles[tile].length, tile++) {
+		tiff.putInt(offset);
+	}
+	for (byte[] tile : tiles) {
+		tiff.putInt(tile.length);
+	}
+	for (byte[] tile : tiles) {
+		tiff.put(tile);
+	}
+	ImageData loaded = new ImageLoader().load(new ByteArrayInputStream(tiff.array()))[0];
+	assertEquals(width, loaded.width);
+	assertEquals(height, loaded.height);
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			int gray = (x * 6 + y) & 0xFF;
+			assertEquals(new RGB(gray, gray, gray), loaded.palette.getRGB(loaded.getPixel(x, y)));
+		}
+	}
+}
+
 /**
  * Ensure that saving and loading an image with {@link ImageLoader}
  * does not result in different {@link ImageData#data} arrays.
@@ -22,6 +22,8 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Random;
+
 import org.eclipse.swt.graphics.PaletteData;
 import org.eclipse.swt.graphics.RGB;
 import org.junit.Test;
@@ -100,6 +102,89 @@ public void test_getPixelLorg_eclipse_swt_graphics_RGB() {
 	assertEquals(":b:", 0x326496, data.getPixel(rgb));
 }
 
+@Test
+public void test_getPixelLorg_eclipse_swt_graphics_RGB_modifiedPalette() {
+	RGB[] rgbs = {new RGB(0, 0, 0), new RGB(255, 255, 255), new RGB(50, 100, 150), new RGB(50, 100, 150)};
+	PaletteData data = new PaletteData(rgbs);
+	assertEquals(":a:", 2, data.getPixel(new RGB(50, 100, 150)));
+
+	rgbs[1] = new RGB(1, 2, 3);
+	assertEquals(":b:", 1, data.getPixel(new RGB(1, 2, 3)));
+	try {
+		data.getPixel(new RGB(255, 255, 255));
+		fail("No exception thrown for rgb removed from the palette");
+	}
+	catch (IllegalArgumentException e) {
+	}
+
+	// A color that appears more than once after a change may map to any of its pixels
+	rgbs[1] = new RGB(50, 100, 150);
+	assertEquals(":c:", new RGB(50, 100, 150), rgbs[data.getPixel(new RGB(50, 100, 150))]);
+	rgbs[1] = new RGB(1, 2, 3);
+	assertEquals(":d:", 2, data.getPixel(new RGB(50, 100, 150)));
+	rgbs[2].red = 0;
+	assertEquals(":e:", 3, data.getPixel(new RGB(50, 100, 150)));
+	rgbs[0].red = 50;
+	rgbs[0].green = 100;
+	rgbs[0].blue = 150;
+	assertEquals(":f:", new RGB(50, 100, 150), rgbs[data.getPixel(new RGB(50, 100, 150))]);
+
+	data.colors = new RGB[] {new RGB(255, 255, 255)};
+	assertEquals(":g:", 0, data.getPixel(new RGB(255, 255, 255)));
+}
+
+@Test
+public void test_getNearestPixelLorg_eclipse_swt_graphics_RGB() {
+	// indexed palette tests
+	RGB[] rgbs = {new RGB(0, 0, 0), new RGB(255, 255, 255), new RGB(50, 100, 150), new RGB(255, 0, 0)};
+	PaletteData data = new PaletteData(rgbs);
+
+	try {
+		data.getNearestPixel(null);
+		fail("No exception thrown for indexed palette with rgb == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+
+	assertEquals(":a:", 2, data.getNearestPixel(new RGB(50, 100, 150)));
+	assertEquals(":b:", 0, data.getNearestPixel(new RGB(10, 10, 10)));
+	assertEquals(":c:", 1, data.getNearestPixel(new RGB(200, 220, 240)));
+	assertEquals(":d:", 3, data.getNearestPixel(new RGB(200, 30, 20)));
+	assertEquals(":e:", 2, data.getNearestPixel(new RGB(60, 90, 160)));
+
+	// compare with an exhaustive search
+	Random random = new Random(0);
+	rgbs = new RGB[256];
+	for (int i = 0; i < rgbs.length; i++) {
+		rgbs[i] = new RGB(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+	}
+	data = new PaletteData(rgbs);
+	for (int i = 0; i < 10000; i++) {
+		RGB rgb = new RGB(random.nextInt(256), random.nextInt(256), random.nextInt(256));
+		int best = -1, bestDistance = Integer.MAX_VALUE;
+		for (int j = 0; j < rgbs.length; j++) {
+			int dr = rgbs[j].red - rgb.red, dg = rgbs[j].green - rgb.green, db = rgbs[j].blue - rgb.blue;
+			int distance = dr * dr + dg * dg + db * db;
+			if (distance < bestDistance) {
+				bestDistance = distance;
+				best = j;
+			}
+		}
+		assertEquals(rgb.toString(), best, data.getNearestPixel(rgb));
+	}
+
+	try {
+		new PaletteData(new RGB[0]).getNearestPixel(new RGB(0, 0, 0));
+		fail("No exception thrown for empty palette");
+	}
+	catch (IllegalArgumentException e) {
+	}
+
+	// direct palette tests
+	data = new PaletteData(0xff0000, 0x00ff00, 0x0000ff);
+	assertEquals(":f:", 0x326496, data.getNearestPixel(new RGB(0x32, 0x64, 0x96)));
+}
+
 @Test
 public void test_getRGBI() {
 	// indexed palette tests
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,11 +16,18 @@ package org.eclipse.swt.tests.junit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Caret;
 import org.eclipse.swt.widgets.Widget;
@@ -81,6 +88,42 @@ public void test_scrollIIIIIIZ() {
 	canvas.scroll(100, 100, 50, 50, -50, -50, true);
 }
 
+@Test
+public void test_redrawIIIIZ_burst() throws InterruptedException {
+	shell.setSize(200, 200);
+	canvas.setBounds(0, 0, 100, 100);
+	assertTrue("Paint not sent", SwtTestUtil.waitEvent(() -> shell.open(), canvas, SWT.Paint, 1000));
+	SwtTestUtil.processEvents();
+	long[] before = damageStatistics();
+	List<Rectangle> painted = new ArrayList<>();
+	canvas.addListener(SWT.Paint, event -> painted.add(new Rectangle(event.x, event.y, event.width, event.height)));
+	List<Rectangle> requested = new ArrayList<>();
+	for (int i = 0; i < 45; i++) {
+		Rectangle rect = new Rectangle(i * 2, 90 - i * 2, 2, 2);
+		requested.add(rect);
+		canvas.redraw(rect.x, rect.y, rect.width, rect.height, false);
+	}
+	BooleanSupplier covered = () -> requested.stream().allMatch(rect -> painted.stream().anyMatch(paint -> paint.union(rect).equals(paint)));
+	SwtTestUtil.processEvents(1000, covered);
+	assertTrue(covered.getAsBoolean());
+	if (SwtTestUtil.isGTK) {
+		/* The neighbouring rectangles are merged before GDK is asked to invalidate them */
+		long[] after = damageStatistics();
+		long requestedCount = after[0] - before[0];
+		long flushedCount = after[1] - before[1];
+		assertTrue("requested: " + requestedCount, requestedCount >= 45);
+		assertTrue("flushed: " + flushedCount, flushedCount > 0 && flushedCount * 5 <= requestedCount);
+	}
+}
+
+/* Answers the redraws requested and invalidated by GTK, as counted by the display */
+long[] damageStatistics() {
+	if (!SwtTestUtil.isGTK) return null;
+	@SuppressWarnings("unchecked")
+	Map<String, Long> statistics = (Map<String, Long>) canvas.getDisplay().getData("org.eclipse.swt.internal.gtk.statistics");
+	return new long[] {statistics.get("damage.requested"), statistics.get("damage.flushed")};
+}
+
 @Test
 public void test_setCaretLorg_eclipse_swt_widgets_Caret() {
 	int number = 5;
@@ -857,6 +857,36 @@ public void test_setItems$Ljava_lang_String() {
 		assertArrayEquals(":a:" + i, items[i], combo.getItems());}
 }
 
+@Test
+public void test_setItems_changedItems() {
+	String[] items = new String[100];
+	for (int i = 0; i < items.length; i++) {
+		items[i] = "item" + i;
+	}
+	combo.setItems(items);
+	assertArrayEquals(items, combo.getItems());
+
+	// a few changed items in the middle
+	String[] changed = new String[99];
+	System.arraycopy(items, 0, changed, 0, 50);
+	changed[50] = "changed";
+	System.arraycopy(items, 52, changed, 51, 48);
+	combo.setItems(changed);
+	assertArrayEquals(changed, combo.getItems());
+	assertEquals(-1, combo.getSelectionIndex());
+	combo.select(50);
+	assertEquals("changed", combo.getText());
+
+	// items appended at the end
+	String[] appended = new String[101];
+	System.arraycopy(changed, 0, appended, 0, changed.length);
+	appended[99] = "item99";
+	appended[100] = "item100";
+	combo.setItems(appended);
+	assertArrayEquals(appended, combo.getItems());
+	assertEquals(-1, combo.getSelectionIndex());
+}
+
 @Test
 public void test_setOrientationI() {
 	combo.setOrientation(SWT.RIGHT_TO_LEFT);
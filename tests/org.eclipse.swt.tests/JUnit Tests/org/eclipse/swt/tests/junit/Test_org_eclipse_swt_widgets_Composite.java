@@ -15,18 +15,27 @@ package org.eclipse.swt.tests.junit;
 
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.layout.FormLayout;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.layout.RowData;
+import org.eclipse.swt.layout.RowLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Instrumentation;
+import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.List;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Text;
@@ -120,6 +129,96 @@ public void test_setVisibility_and_sizing() {
 	visibilityShell.dispose();
 }
 
+@Test
+public void test_layout_countsComputedAndMovedChildren() {
+	Display display = shell.getDisplay();
+	int[] counts = new int[2];
+	display.setInstrumentation(new Instrumentation() {
+		@Override
+		public void layout(Composite composite, int computed, int moved, long duration) {
+			counts[0] = computed;
+			counts[1] = moved;
+		}
+	});
+	try {
+		Layout[] layouts = {new GridLayout(2, false), new FormLayout()};
+		for (Layout layout : layouts) {
+			Composite parent = new Composite(shell, SWT.NONE);
+			parent.setLayout(layout);
+			Button button1 = new Button(parent, SWT.PUSH);
+			button1.setText("Button 1");
+			Button button2 = new Button(parent, SWT.PUSH);
+			button2.setText("Button 2");
+			parent.setSize(300, 100);
+			parent.layout(true);
+
+			AtomicInteger events = new AtomicInteger();
+			for (Control child : parent.getChildren()) {
+				child.addListener(SWT.Move, e -> events.incrementAndGet());
+				child.addListener(SWT.Resize, e -> events.incrementAndGet());
+			}
+			parent.layout(true);
+			assertEquals(layout.toString(), 0, events.get());
+			if (SwtTestUtil.isGTK) {
+				assertTrue(layout.toString(), counts[0] >= 2);
+				assertEquals(layout.toString(), 0, counts[1]);
+
+				/* Only the button that grows is resized, the other one keeps its bounds */
+				button2.setText("A much longer text for Button 2");
+				parent.layout(true);
+				assertEquals(layout.toString(), 1, counts[1]);
+			} else if (SwtTestUtil.isWindows) {
+				assertTrue(layout.toString(), counts[0] >= 2);
+				assertEquals(layout.toString(), -1, counts[1]);
+			} else {
+				assertEquals(layout.toString(), -1, counts[0]);
+				assertEquals(layout.toString(), -1, counts[1]);
+			}
+			parent.dispose();
+		}
+	} finally {
+		display.setInstrumentation(null);
+	}
+}
+
+@Test
+public void test_layout_rowLayoutCachesChildSizes() {
+	Display display = shell.getDisplay();
+	int[] computed = new int[1];
+	display.setInstrumentation(new Instrumentation() {
+		@Override
+		public void layout(Composite composite, int count, int moved, long duration) {
+			computed[0] = count;
+		}
+	});
+	try {
+		Composite parent = new Composite(shell, SWT.NONE);
+		parent.setLayout(new RowLayout());
+		Button button1 = new Button(parent, SWT.PUSH);
+		button1.setText("Button 1");
+		button1.setLayoutData(new RowData());
+		Button button2 = new Button(parent, SWT.PUSH);
+		button2.setText("Button 2");
+		button2.setLayoutData(new RowData());
+		parent.setSize(500, 100);
+		parent.layout(true);
+		boolean counted = SwtTestUtil.isGTK || SwtTestUtil.isWindows;
+		if (counted) assertTrue(computed[0] >= 2);
+
+		/* The sizes of the children are cached until they are flushed */
+		parent.layout(false);
+		assertEquals(counted ? 0 : -1, computed[0]);
+		int width = button2.getSize().x;
+		button2.setText("A much longer text for Button 2");
+		parent.layout(new Control[] {button2});
+		assertEquals(counted ? 1 : -1, computed[0]);
+		assertTrue(button2.getSize().x > width);
+		parent.dispose();
+	} finally {
+		display.setInstrumentation(null);
+	}
+}
+
 @Test
 public void test_setFocus_toChild_afterOpen() {
 	if (SwtTestUtil.isCocoa) {
@@ -38,9 +38,12 @@ import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.DPIUtil;
+import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Instrumentation;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Monitor;
 import org.eclipse.swt.widgets.Shell;
@@ -1322,6 +1325,49 @@ public void test_setDataLjava_lang_StringLjava_lang_Object() {
 	}
 }
 
+@Test
+public void test_setInstrumentationLorg_eclipse_swt_widgets_Instrumentation() {
+	Display display = new Display();
+	try {
+		assertNull(display.getInstrumentation());
+		AtomicInteger layouts = new AtomicInteger();
+		AtomicInteger asyncExecs = new AtomicInteger();
+		Instrumentation instrumentation = new Instrumentation() {
+			@Override
+			public void layout(Composite composite, int computed, int moved, long duration) {
+				assertTrue(duration >= 0);
+				layouts.incrementAndGet();
+			}
+			@Override
+			public void asyncExec(Runnable runnable, long latency, long duration) {
+				assertTrue(latency >= 0);
+				assertTrue(duration >= 0);
+				asyncExecs.incrementAndGet();
+			}
+		};
+		display.setInstrumentation(instrumentation);
+		assertSame(instrumentation, display.getInstrumentation());
+
+		Shell shell = new Shell(display);
+		shell.setLayout(new FillLayout());
+		new Button(shell, SWT.PUSH).setText("Button");
+		shell.layout(true);
+		assertEquals(1, layouts.get());
+
+		display.asyncExec(() -> {});
+		while (display.readAndDispatch()) {}
+		assertEquals(1, asyncExecs.get());
+
+		display.setInstrumentation(null);
+		assertNull(display.getInstrumentation());
+		display.asyncExec(() -> {});
+		while (display.readAndDispatch()) {}
+		assertEquals(1, asyncExecs.get());
+	} finally {
+		display.dispose();
+	}
+}
+
 @Test
 public void test_setSynchronizerLorg_eclipse_swt_widgets_Synchronizer() {
 	final Display display = new Display();
@@ -14,10 +14,12 @@
 package org.eclipse.swt.tests.junit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Label;
 import org.junit.Before;
 import org.junit.Test;
@@ -60,6 +62,22 @@ public void test_computeSizeIIZ() {
 	// super class test is sufficient
 }
 
+@Test
+public void test_computeSize_afterContentChanges() {
+	Label wrapLabel = new Label(shell, SWT.WRAP);
+	wrapLabel.setText("Some text that wraps");
+	Point narrow = wrapLabel.computeSize(40, SWT.DEFAULT, false);
+	Point wide = wrapLabel.computeSize(400, SWT.DEFAULT, false);
+	/* Alternating hints answer the same sizes */
+	assertEquals(narrow, wrapLabel.computeSize(40, SWT.DEFAULT, false));
+	assertEquals(wide, wrapLabel.computeSize(400, SWT.DEFAULT, false));
+
+	Point size = wrapLabel.computeSize(SWT.DEFAULT, SWT.DEFAULT, false);
+	wrapLabel.setText("Some text that wraps, now considerably longer than before");
+	assertTrue(wrapLabel.computeSize(SWT.DEFAULT, SWT.DEFAULT, false).x > size.x);
+	wrapLabel.dispose();
+}
+
 @Test
 public void test_getAlignment(){
 	int[] cases = {SWT.LEFT, SWT.RIGHT, SWT.CENTER};
@@ -22,6 +22,7 @@ import static org.junit.Assert.fail;
 import java.time.Instant;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SegmentListener;
 import org.eclipse.swt.events.SelectionEvent;
@@ -264,6 +265,26 @@ public void test_appendLjava_lang_String() {
 	assertEquals("01234" + delimiterString+"567", text.getText());
 }
 
+@Test
+public void test_appendAsyncLjava_lang_CharSequence() throws InterruptedException {
+	assertThrows(IllegalArgumentException.class, () -> text.appendAsync(null));
+
+	text.setText("01");
+	text.appendAsync("23");
+	text.appendAsync(new StringBuilder("45"));
+	Thread thread = new Thread(() -> text.appendAsync("67"));
+	thread.start();
+	thread.join();
+	assertEquals("01", text.getText());
+	while (text.getDisplay().readAndDispatch()) {}
+	assertEquals("01234567", text.getText());
+
+	text.appendAsync("89");
+	text.dispose();
+	while (shell.getDisplay().readAndDispatch()) {}
+	assertThrows(SWTException.class, () -> text.appendAsync("01"));
+}
+
 @Test
 public void test_clearSelection() {
 	text.setText("01234567890");
@@ -1161,6 +1182,30 @@ public void test_setForegroundAfterBackground() {
 	assertEquals(text.getBackground(), gray);
 }
 
+@Test
+public void test_setLineLimitI() {
+	assertEquals(0, text.getLineLimit());
+	assertThrows(IllegalArgumentException.class, () -> text.setLineLimit(-1));
+
+	text.setLineLimit(2);
+	assertEquals(2, text.getLineLimit());
+	text.setText("a" + delimiterString + "b" + delimiterString + "c");
+	assertEquals(3, text.getLineCount());
+	text.append(delimiterString + "d");
+	assertEquals(2, text.getLineCount());
+	assertEquals("c" + delimiterString + "d", text.getText());
+
+	text.setLineLimit(0);
+	text.append(delimiterString + "e");
+	assertEquals(3, text.getLineCount());
+
+	text.setLineLimit(2);
+	text.appendAsync(delimiterString + "f");
+	text.appendAsync(delimiterString + "g" + delimiterString + "h");
+	while (text.getDisplay().readAndDispatch()) {}
+	assertEquals("g" + delimiterString + "h", text.getText());
+}
+
 @Test
 public void test_setOrientationI() {
 	text.setOrientation(SWT.RIGHT_TO_LEFT);
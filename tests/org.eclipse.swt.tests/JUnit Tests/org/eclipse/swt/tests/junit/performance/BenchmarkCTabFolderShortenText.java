@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit.performance;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Measures laying out and painting a CTabFolder with hundreds of open editor
+ * tabs whose titles have to be shortened.
+ */
+public class BenchmarkCTabFolderShortenText {
+	private static final int TAB_COUNT = 500;
+	private static final int RUNS = 50;
+
+	/**
+	 * manual performance test
+	 *
+	 * @param args ignored
+	 */
+	public static void main(String[] args) {
+		final Display display = new Display();
+		try {
+			Shell shell = new Shell(display);
+			shell.setLayout(new FillLayout());
+			CTabFolder folder = new CTabFolder(shell, SWT.BORDER | SWT.CLOSE);
+			folder.setMinimumCharacters(20);
+			folder.setMRUVisible(true);
+			for (int i = 0; i < TAB_COUNT; i++) {
+				CTabItem item = new CTabItem(folder, SWT.CLOSE);
+				item.setText("VeryLongEditorInputName" + (i % 50) + "WithAFewMoreWordsInTheTitle.java");
+			}
+			folder.setSelection(0);
+			shell.setSize(1600, 400);
+			shell.open();
+			for (int run = 0; run < RUNS; run++) {
+				long nanoTime = System.nanoTime();
+				for (int width = 400; width <= 1600; width += 100) {
+					shell.setSize(width, 400);
+					folder.setSelection((run * 7 + width) % TAB_COUNT);
+					folder.redraw();
+					folder.update();
+				}
+				while (display.readAndDispatch()) {
+					// flush pending events
+				}
+				long durationNanos = System.nanoTime() - nanoTime;
+				System.out.println("Duration for resizing " + TAB_COUNT + " tabs: " + String.format("%,15d", durationNanos) + " ns");
+			}
+		} finally {
+			display.dispose();
+		}
+	}
+}